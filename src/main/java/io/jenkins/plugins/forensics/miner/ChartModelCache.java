@@ -0,0 +1,220 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+
+/**
+ * Memoizes the JSON models of the charts of a build. The statistics of a build do not change after the build has been
+ * completed, so the models need to be computed just once. The models of the repository wide charts are optionally
+ * persisted in the build folder, so they survive a restart of the controller or the eviction of the statistics from
+ * the {@link RepositoryStatisticsCache}. Other models (e.g., the trend of a single file) are kept in memory only, the
+ * number of these models is limited.
+ *
+ * <p>
+ * The models are served with an {@code ETag} and a {@code Last-Modified} header, so browsers and proxies can revalidate
+ * a cached model with a conditional request that is answered with {@code 304 Not Modified}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class ChartModelCache {
+    private static final Logger LOGGER = Logger.getLogger(ChartModelCache.class.getName());
+
+    @VisibleForTesting
+    static final int MAXIMUM_SIZE = 64;
+    /**
+     * The version of the chart models. Increment this version if the models change, so the models that have been
+     * persisted by an older version of the plugin will be ignored.
+     */
+    @VisibleForTesting
+    static final int MODEL_VERSION = 1;
+    private static final String JSON_SUFFIX = ".json";
+    private static final String JSON_CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    @CheckForNull
+    private final Path folder;
+    private final String prefix;
+    private final String version;
+    private final long lastModified;
+
+    private final Map<String, String> models = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > MAXIMUM_SIZE;
+        }
+    };
+
+    /**
+     * Creates a new instance of {@link ChartModelCache}.
+     *
+     * @param folder
+     *         the folder to persist the models in, or {@code null} if the models should be kept in memory only
+     * @param prefix
+     *         the prefix of the names of the persisted files
+     * @param version
+     *         the version of the statistics the models are computed for, part of the {@code ETag}
+     * @param lastModified
+     *         the time the statistics have been created (in milliseconds since the epoch)
+     */
+    ChartModelCache(@CheckForNull final Path folder, final String prefix, final String version,
+            final long lastModified) {
+        this.folder = folder;
+        this.prefix = prefix;
+        this.version = version;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns the model with the specified ID. If the model has not been computed yet, then the model is read from the
+     * build folder or is computed using the specified supplier.
+     *
+     * @param id
+     *         the ID of the model, must be a valid part of a file name
+     * @param persist
+     *         determines whether the model should be persisted in the build folder
+     * @param model
+     *         computes the JSON model
+     *
+     * @return the JSON model
+     */
+    String get(final String id, final boolean persist, final Supplier<String> model) {
+        synchronized (models) {
+            var cached = models.get(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        var json = persist ? readOrCompute(id, model) : model.get();
+        synchronized (models) {
+            models.put(id, json);
+        }
+        return json;
+    }
+
+    private String readOrCompute(final String id, final Supplier<String> model) {
+        if (folder == null) {
+            return model.get();
+        }
+        var file = folder.resolve(getFileName(id));
+        try {
+            if (Files.isRegularFile(file)) {
+                return Files.readString(file, StandardCharsets.UTF_8);
+            }
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Can't read chart model " + file, exception);
+        }
+        var json = model.get();
+        persist(file, json);
+        return json;
+    }
+
+    private void persist(final Path file, final String json) {
+        Path temp = null;
+        try {
+            // concurrent requests of the same model must not write to the same temporary file
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.writeString(temp, json, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Can't persist chart model " + file, exception);
+        }
+        finally {
+            deleteTemporaryFile(temp);
+        }
+    }
+
+    private void deleteTemporaryFile(@CheckForNull final Path temp) {
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            }
+            catch (IOException exception) {
+                LOGGER.log(Level.FINE, "Can't delete temporary file " + temp, exception);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the file that persists the model with the specified ID. The name contains the version of
+     * the models.
+     *
+     * @param id
+     *         the ID of the model
+     *
+     * @return the file name
+     */
+    @VisibleForTesting
+    String getFileName(final String id) {
+        return prefix + "-" + id + "-v" + MODEL_VERSION + JSON_SUFFIX;
+    }
+
+    /**
+     * Returns the {@code ETag} of the model with the specified ID.
+     *
+     * @param id
+     *         the ID of the model
+     *
+     * @return the {@code ETag}
+     */
+    String getETag(final String id) {
+        return "\"" + Integer.toHexString((version + "/" + id + "/" + MODEL_VERSION).hashCode()) + "-"
+                + Long.toHexString(lastModified) + "\"";
+    }
+
+    /**
+     * Serves the model with the specified ID. If the request contains a matching {@code If-None-Match} or {@code
+     * If-Modified-Since} header, then just the status {@code 304 Not Modified} is sent.
+     *
+     * @param id
+     *         the ID of the model
+     * @param persist
+     *         determines whether the model should be persisted in the build folder
+     * @param model
+     *         computes the JSON model
+     * @param request
+     *         Stapler request
+     * @param response
+     *         Stapler response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    void serve(final String id, final boolean persist, final Supplier<String> model,
+            final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        var etag = getETag(id);
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", "private, no-cache");
+        if (isNotModified(etag, request)) {
+            response.setStatus(StaplerResponse2.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(JSON_CONTENT_TYPE);
+        response.getWriter().write(get(id, persist, model));
+    }
+
+    private boolean isNotModified(final String etag, final StaplerRequest2 request) {
+        var ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return ifNoneMatch.contains(etag) || "*".equals(ifNoneMatch.trim());
+        }
+        long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+}
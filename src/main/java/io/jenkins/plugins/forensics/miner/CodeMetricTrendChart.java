@@ -7,6 +7,7 @@ import edu.hm.hafner.echarts.LineSeries;
 import edu.hm.hafner.echarts.LineSeries.FilledMode;
 import edu.hm.hafner.echarts.LineSeries.StackedMode;
 import edu.hm.hafner.echarts.LinesChartModel;
+import edu.hm.hafner.echarts.SeriesBuilder;
 
 import io.jenkins.plugins.echarts.JenkinsPalette;
 
@@ -34,8 +35,27 @@ class CodeMetricTrendChart {
      */
     LinesChartModel create(final Iterable<? extends BuildResult<ForensicsBuildAction>> results,
             final ChartModelConfiguration configuration) {
-        var builder = new CodeMetricSeriesBuilder();
-        var dataSet = builder.createDataSet(configuration, results);
+        return create(results, configuration, new CodeMetricSeriesBuilder());
+    }
+
+    /**
+     * Creates the chart for the specified results.
+     *
+     * @param results
+     *         the forensics results to render - these results must be provided in descending order, i.e. the current
+     *         build is the head of the list, then the previous builds, and so on
+     * @param configuration
+     *         the chart configuration to be used
+     * @param seriesBuilder
+     *         the builder to plot the data points
+     * @param <T>
+     *         the type of the action that stores the results
+     *
+     * @return the chart model, ready to be serialized to JSON
+     */
+    <T> LinesChartModel create(final Iterable<? extends BuildResult<T>> results,
+            final ChartModelConfiguration configuration, final SeriesBuilder<T> seriesBuilder) {
+        var dataSet = seriesBuilder.createDataSet(configuration, results);
 
         var model = new LinesChartModel(dataSet);
         JenkinsPalette[] colors = {JenkinsPalette.BLUE, JenkinsPalette.ORANGE};
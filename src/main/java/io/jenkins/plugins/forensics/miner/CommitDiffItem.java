@@ -45,8 +45,26 @@ public class CommitDiffItem implements Serializable {
      *         namely January 1, 1970, 00:00:00 GMT)
      */
     public CommitDiffItem(final String id, final String author, final int time) {
-        this.id = id.intern();
-        this.author = author.intern();
+        this(id, author, time, true);
+    }
+
+    /**
+     * Creates a new {@link CommitDiffItem}. Readers that already share a single instance of equal commit IDs and
+     * authors (e.g., the readers of the binary format) skip the interning, since the JVM string table would grow with
+     * every loaded file otherwise.
+     *
+     * @param id
+     *         commit ID
+     * @param author
+     *         author of the commit
+     * @param time
+     *         the time of the commit (given as number of seconds since the epoch)
+     * @param intern
+     *         determines whether the commit ID and the author should be interned
+     */
+    CommitDiffItem(final String id, final String author, final int time, final boolean intern) {
+        this.id = intern ? id.intern() : id;
+        this.author = intern ? author.intern() : author;
         this.time = time;
     }
 
@@ -71,7 +89,7 @@ public class CommitDiffItem implements Serializable {
      */
     @SuppressWarnings("CopyConstructorMissesField")
     public CommitDiffItem(final CommitDiffItem copy) {
-        this(copy.getId(), copy.getAuthor(), copy.getTime());
+        this(copy.getId(), copy.getAuthor(), copy.getTime(), false); // the strings of the copy are already shared
     }
 
     public String getId() {
@@ -0,0 +1,268 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import io.jenkins.plugins.forensics.miner.CommitStatistics.CommitStatisticsBuilder;
+import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
+
+/**
+ * A push based sink that aggregates the {@link CommitDiffItem commit diff items} of a mining run while the SCM history
+ * is still being walked. Instead of collecting all commits of a mining run in a list and calling {@link
+ * RepositoryStatistics#addAll(List)} afterwards, a {@link RepositoryMiner} pushes the commits in batches into this
+ * pipeline. A bounded queue connects the thread that walks the SCM history with an aggregation thread, so walking and
+ * aggregating overlap and only a small number of batches is held in memory at the same time. The delete, move and
+ * modify semantics of the commits are applied incrementally in the order the batches have been received.
+ *
+ * <p>
+ * A commit may touch more files than fit into a single batch, so the diff items of a commit may be split across
+ * batches. The pipeline holds back the items of the last commit of each batch until the next batch shows that the
+ * commit is complete. So the aggregated batches always end on a commit boundary, and the checkpoint watermark never
+ * points to a commit that has been aggregated only partially.
+ * </p>
+ *
+ * <p>
+ * Typical usage in a {@link RepositoryMiner}:
+ * </p>
+ * <pre>{@code
+ * try (var pipeline = new CommitIngestionPipeline(statistics, logger)) {
+ *     while (hasMoreCommits()) {
+ *         pipeline.accept(nextBatch());
+ *     }
+ *     return pipeline.finish();
+ * }
+ * }</pre>
+ *
+ * @author Ullrich Hafner
+ */
+public class CommitIngestionPipeline implements AutoCloseable {
+    static final int DEFAULT_CAPACITY = 16;
+
+    /** Marks the end of the history, compared by identity. */
+    @SuppressWarnings("PMD.LooseCoupling")
+    private static final List<CommitDiffItem> END_OF_HISTORY = new ArrayList<>();
+    private static final int OFFER_TIMEOUT_SECONDS = 1;
+
+    private final RepositoryStatistics statistics;
+    private final FilteredLog logger;
+    private final MiningCheckpoint checkpoint;
+    private final BlockingQueue<List<CommitDiffItem>> queue;
+
+    private final CommitStatisticsBuilder commitStatistics = new CommitStatisticsBuilder();
+    private final FileStatisticsBuilder fileStatisticsBuilder = new FileStatisticsBuilder();
+
+    private final ExecutorService executor;
+    private final Future<Void> aggregation;
+
+    private PathFilter pathFilter = PathFilter.all();
+    /** The items of the last commit of the previous batch, the commit might continue in the next batch. */
+    private List<CommitDiffItem> pendingItems = List.of();
+    private int batches;
+    private boolean isFinished;
+
+    /**
+     * Creates a new instance of {@link CommitIngestionPipeline} that uses a queue with the default capacity.
+     *
+     * @param statistics
+     *         the statistics that will receive the commits, typically a copy of the statistics of the previous build
+     * @param logger
+     *         the logger to report the progress of the aggregation
+     */
+    public CommitIngestionPipeline(final RepositoryStatistics statistics, final FilteredLog logger) {
+        this(statistics, logger, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new instance of {@link CommitIngestionPipeline} that uses a queue with the default capacity. The
+     * aggregated statistics are saved periodically in the specified checkpoint, the ID of the last commit of the
+     * latest aggregated batch is used as watermark. Since batches are aggregated only up to a commit boundary, the
+     * watermark always refers to a commit whose items have been aggregated completely.
+     *
+     * @param statistics
+     *         the statistics that will receive the commits, typically a copy of the statistics of the previous build
+     * @param logger
+     *         the logger to report the progress of the aggregation
+     * @param checkpoint
+     *         the checkpoint to save the partial results
+     */
+    public CommitIngestionPipeline(final RepositoryStatistics statistics, final FilteredLog logger,
+            final MiningCheckpoint checkpoint) {
+        this(statistics, logger, DEFAULT_CAPACITY, checkpoint);
+    }
+
+    /**
+     * Creates a new instance of {@link CommitIngestionPipeline}.
+     *
+     * @param statistics
+     *         the statistics that will receive the commits, typically a copy of the statistics of the previous build
+     * @param logger
+     *         the logger to report the progress of the aggregation
+     * @param capacity
+     *         the maximum number of batches that are queued before {@link #accept(List)} blocks the SCM walker
+     */
+    public CommitIngestionPipeline(final RepositoryStatistics statistics, final FilteredLog logger,
+            final int capacity) {
+        this(statistics, logger, capacity, MiningCheckpoint.disabled());
+    }
+
+    /**
+     * Creates a new instance of {@link CommitIngestionPipeline}.
+     *
+     * @param statistics
+     *         the statistics that will receive the commits, typically a copy of the statistics of the previous build
+     * @param logger
+     *         the logger to report the progress of the aggregation
+     * @param capacity
+     *         the maximum number of batches that are queued before {@link #accept(List)} blocks the SCM walker
+     * @param checkpoint
+     *         the checkpoint to save the partial results
+     */
+    public CommitIngestionPipeline(final RepositoryStatistics statistics, final FilteredLog logger,
+            final int capacity, final MiningCheckpoint checkpoint) {
+        this.statistics = statistics;
+        this.logger = logger;
+        this.checkpoint = checkpoint;
+
+        queue = new ArrayBlockingQueue<>(capacity);
+        executor = Executors.newSingleThreadExecutor(
+                new NamingThreadFactory(new DaemonThreadFactory(), "Forensics commit aggregation"));
+        aggregation = executor.submit(this::aggregate);
+    }
+
+    /**
+     * Sets the filter for the paths of the repository files that should be mined. The commits that are rejected by the
+     * filter are dropped before they are queued, so they are never aggregated. The filter must be set before the first
+     * batch is pushed into this pipeline.
+     *
+     * @param filter
+     *         the filter to use
+     *
+     * @return this
+     */
+    public CommitIngestionPipeline withPathFilter(final PathFilter filter) {
+        pathFilter = filter;
+
+        return this;
+    }
+
+    /**
+     * Pushes the next batch of commits into this pipeline. The commits of a batch must be sorted in the same order as
+     * they would be passed to {@link RepositoryStatistics#addAll(List)}, i.e., oldest commits first. If the aggregation
+     * thread cannot keep up with the SCM walker, then this method blocks until there is space in the queue.
+     *
+     * @param batch
+     *         the next batch of commits
+     *
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     * @throws IllegalStateException
+     *         if the pipeline has been finished already
+     */
+    public void accept(final List<CommitDiffItem> batch) throws InterruptedException {
+        if (isFinished) {
+            throw new IllegalStateException("Commit ingestion pipeline has been finished already");
+        }
+        var included = pathFilter.filter(batch);
+        if (included.isEmpty()) {
+            return;
+        }
+
+        List<CommitDiffItem> items = new ArrayList<>(pendingItems.size() + included.size());
+        items.addAll(pendingItems);
+        items.addAll(included);
+        int boundary = findLastCommitBoundary(items);
+        pendingItems = List.copyOf(items.subList(boundary, items.size()));
+        if (boundary > 0) {
+            enqueue(List.copyOf(items.subList(0, boundary)));
+        }
+    }
+
+    /**
+     * Returns the index of the first item of the last commit in the specified items.
+     */
+    private static int findLastCommitBoundary(final List<CommitDiffItem> items) {
+        var lastCommitId = items.get(items.size() - 1).getId();
+        int boundary = items.size();
+        while (boundary > 0 && items.get(boundary - 1).getId().equals(lastCommitId)) {
+            boundary--;
+        }
+        return boundary;
+    }
+
+    /**
+     * Waits until all batches have been aggregated and completes the statistics.
+     *
+     * @return the statistics that contain all commits of this mining run
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     * @throws IllegalStateException
+     *         if the aggregation of the commits failed
+     */
+    public RepositoryStatistics finish() throws InterruptedException {
+        if (!isFinished) {
+            isFinished = true;
+
+            if (!pendingItems.isEmpty()) {
+                enqueue(pendingItems);
+                pendingItems = List.of();
+            }
+            enqueue(END_OF_HISTORY);
+            try {
+                aggregation.get();
+            }
+            catch (ExecutionException exception) {
+                throw new IllegalStateException("Aggregation of mined commits failed", exception.getCause());
+            }
+            finally {
+                executor.shutdownNow();
+            }
+
+            statistics.completeIngestion(commitStatistics.build());
+            commitStatistics.logCommits(logger);
+        }
+        return statistics;
+    }
+
+    /**
+     * Stops the aggregation thread. Batches that have not been aggregated yet are discarded.
+     */
+    @Override
+    public void close() {
+        isFinished = true;
+
+        executor.shutdownNow();
+    }
+
+    private void enqueue(final List<CommitDiffItem> batch) throws InterruptedException {
+        while (!queue.offer(batch, OFFER_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            if (aggregation.isDone()) {
+                return; // the failure will be reported in finish
+            }
+        }
+    }
+
+    @SuppressWarnings("ReferenceEquality")
+    private Void aggregate() throws InterruptedException {
+        for (var batch = queue.take(); batch != END_OF_HISTORY; batch = queue.take()) {
+            statistics.inspectCommits(batch, fileStatisticsBuilder);
+            commitStatistics.add(batch);
+            batches++;
+
+            CommitStatistics.logCommits(batches, batch, logger);
+            checkpoint.saveIfDue(statistics, batch.get(batch.size() - 1).getId(), logger);
+        }
+        return null;
+    }
+}
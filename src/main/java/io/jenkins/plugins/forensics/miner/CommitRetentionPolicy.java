@@ -0,0 +1,68 @@
+package io.jenkins.plugins.forensics.miner;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Determines which commits of a file are retained in the commit history of the {@link FileStatistics}. Older commits are
+ * compacted into a {@link CommitRollup} that still provides the exact totals of the file. Commits are retained if they
+ * belong to the last {@code n} commits of a file and if they are not older than a given number of days. The age of a
+ * commit is measured relative to the newest commit of the repository, so the result does not depend on the time the
+ * policy is applied. The latest commit of a file is always retained.
+ *
+ * @author Ullrich Hafner
+ */
+final class CommitRetentionPolicy {
+    /** Retains all commits. */
+    static final CommitRetentionPolicy RETAIN_ALL = new CommitRetentionPolicy(0, 0);
+
+    private final int maximumCommits;
+    private final int maximumAgeInDays;
+
+    /**
+     * Creates a new instance of {@link CommitRetentionPolicy}.
+     *
+     * @param maximumCommits
+     *         the maximum number of commits to retain per file, values less than 1 retain all commits
+     * @param maximumAgeInDays
+     *         the maximum age of the retained commits in days, values less than 1 retain commits of any age
+     */
+    CommitRetentionPolicy(final int maximumCommits, final int maximumAgeInDays) {
+        this.maximumCommits = Math.max(0, maximumCommits);
+        this.maximumAgeInDays = Math.max(0, maximumAgeInDays);
+    }
+
+    /**
+     * Returns whether this policy retains all commits.
+     *
+     * @return {@code true} if all commits are retained, {@code false} if some commits might be compacted
+     */
+    boolean isRetainingAll() {
+        return maximumCommits == 0 && maximumAgeInDays == 0;
+    }
+
+    /**
+     * Returns the number of leading (i.e., oldest) commits of a file that should be compacted.
+     *
+     * @param commits
+     *         the commits of the file, ordered by time
+     * @param newestTime
+     *         the time of the newest commit in the repository
+     *
+     * @return the number of commits to compact
+     */
+    int getNumberOfCommitsToCompact(final List<CommitDiffItem> commits, final int newestTime) {
+        int numberOfCommits = commits.size();
+        int compacted = 0;
+        if (maximumCommits > 0) {
+            compacted = Math.max(0, numberOfCommits - maximumCommits);
+        }
+        if (maximumAgeInDays > 0) {
+            long oldestTime = newestTime - TimeUnit.DAYS.toSeconds(maximumAgeInDays);
+            while (compacted < numberOfCommits && commits.get(compacted).getTime() < oldestTime) {
+                compacted++;
+            }
+        }
+        return Math.max(0, Math.min(compacted, numberOfCommits - 1));
+    }
+}
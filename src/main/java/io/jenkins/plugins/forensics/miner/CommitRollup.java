@@ -0,0 +1,208 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.hm.hafner.util.Generated;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+/**
+ * Aggregates the oldest commits of a file that have been removed from the commit history of the file by a {@link
+ * CommitRetentionPolicy}. The aggregate stores everything that is required to compute the exact {@link
+ * CommitStatistics} of the file: the time of the first commit, the total number of added and deleted lines, the number
+ * of distinct commits, the distinct authors and the distinct file names.
+ *
+ * <p>
+ * The number of distinct commits is stored as a number only. This is exact since a file is never compacted between two
+ * diff items of the same commit, and all newer commits have different IDs.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class CommitRollup implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L; // since 3.0.0
+
+    private final int creationTime;
+    private final int addedLines;
+    private final int deletedLines;
+    private final int commitCount;
+    @SuppressWarnings("PMD.LooseCoupling")
+    private final ArrayList<String> authors;
+    @SuppressWarnings("PMD.LooseCoupling")
+    private final ArrayList<String> files;
+
+    /**
+     * Creates a new rollup that aggregates the specified commits and an optional older rollup.
+     *
+     * @param older
+     *         the rollup of even older commits, or {@code null} if there are no such commits
+     * @param commits
+     *         the commits to aggregate, ordered by time
+     *
+     * @return the new rollup
+     */
+    static CommitRollup of(@CheckForNull final CommitRollup older, final List<CommitDiffItem> commits) {
+        Set<String> authors = new TreeSet<>();
+        Set<String> files = new TreeSet<>();
+        Set<String> commitIds = new TreeSet<>();
+        int added = 0;
+        int deleted = 0;
+        for (CommitDiffItem commit : commits) {
+            added += commit.getTotalAddedLines();
+            deleted += commit.getTotalDeletedLines();
+            authors.add(commit.getAuthor().toLowerCase(Locale.ENGLISH));
+            commitIds.add(commit.getId().toLowerCase(Locale.ENGLISH));
+            addFile(files, commit);
+        }
+        if (older == null) {
+            return new CommitRollup(commits.get(0).getTime(), added, deleted, commitIds.size(), authors, files);
+        }
+        authors.addAll(older.authors);
+        files.addAll(older.files);
+        return new CommitRollup(older.creationTime, older.addedLines + added, older.deletedLines + deleted,
+                older.commitCount + commitIds.size(), authors, files);
+    }
+
+    /**
+     * Concatenates the specified rollups.
+     *
+     * @param older
+     *         the rollup of the older commits
+     * @param newer
+     *         the rollup of the newer commits
+     *
+     * @return a rollup of the commits of both rollups
+     */
+    static CommitRollup concat(final CommitRollup older, final CommitRollup newer) {
+        List<String> allAuthors = new ArrayList<>(older.authors);
+        allAuthors.addAll(newer.authors);
+        List<String> allFiles = new ArrayList<>(older.files);
+        allFiles.addAll(newer.files);
+        return new CommitRollup(older.creationTime, older.addedLines + newer.addedLines,
+                older.deletedLines + newer.deletedLines, older.commitCount + newer.commitCount, allAuthors, allFiles);
+    }
+
+    private static void addFile(final Set<String> files, final CommitDiffItem commit) {
+        var newPath = commit.getNewPath();
+        if (!CommitDiffItem.NO_FILE_NAME.equals(newPath)) {
+            files.add(newPath);
+        }
+    }
+
+    /**
+     * Creates a new instance of {@link CommitRollup}.
+     *
+     * @param creationTime
+     *         the time of the first commit
+     * @param addedLines
+     *         the number of added lines
+     * @param deletedLines
+     *         the number of deleted lines
+     * @param commitCount
+     *         the number of distinct commits
+     * @param authors
+     *         the distinct authors (in lower case)
+     * @param files
+     *         the distinct file names
+     */
+    CommitRollup(final int creationTime, final int addedLines, final int deletedLines, final int commitCount,
+            final Collection<String> authors, final Collection<String> files) {
+        this.creationTime = creationTime;
+        this.addedLines = addedLines;
+        this.deletedLines = deletedLines;
+        this.commitCount = commitCount;
+        this.authors = new ArrayList<>(new TreeSet<>(authors));
+        this.files = new ArrayList<>(new TreeSet<>(files));
+    }
+
+    int getCreationTime() {
+        return creationTime;
+    }
+
+    int getAddedLines() {
+        return addedLines;
+    }
+
+    int getDeletedLines() {
+        return deletedLines;
+    }
+
+    int getCommitCount() {
+        return commitCount;
+    }
+
+    List<String> getAuthors() {
+        return authors;
+    }
+
+    List<String> getFiles() {
+        return files;
+    }
+
+    /**
+     * Computes the statistics of this rollup combined with the specified newer commits.
+     *
+     * @param commits
+     *         the newer commits that have not been rolled up
+     *
+     * @return the statistics of all commits
+     */
+    CommitStatistics aggregate(final List<CommitDiffItem> commits) {
+        Set<String> allAuthors = new TreeSet<>(authors);
+        Set<String> allFiles = new TreeSet<>(files);
+        Set<String> commitIds = new TreeSet<>();
+        int added = addedLines;
+        int deleted = deletedLines;
+        for (CommitDiffItem commit : commits) {
+            added += commit.getTotalAddedLines();
+            deleted += commit.getTotalDeletedLines();
+            allAuthors.add(commit.getAuthor().toLowerCase(Locale.ENGLISH));
+            commitIds.add(commit.getId().toLowerCase(Locale.ENGLISH));
+            addFile(allFiles, commit);
+        }
+        return new CommitStatistics(added, deleted, allAuthors.size(), commitCount + commitIds.size(),
+                allFiles.size());
+    }
+
+    @Override
+    @Generated
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (CommitRollup) o;
+        return creationTime == that.creationTime && addedLines == that.addedLines && deletedLines == that.deletedLines
+                && commitCount == that.commitCount && authors.equals(that.authors) && files.equals(that.files);
+    }
+
+    @Override
+    @Generated
+    public int hashCode() {
+        return Objects.hash(creationTime, addedLines, deletedLines, commitCount, authors, files);
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return new StringJoiner(", ", CommitRollup.class.getSimpleName() + "[", "]")
+                .add("creationTime=" + creationTime)
+                .add("addedLines=" + addedLines)
+                .add("deletedLines=" + deletedLines)
+                .add("commitCount=" + commitCount)
+                .add("authors=" + authors.size())
+                .add("files=" + files.size())
+                .toString();
+    }
+}
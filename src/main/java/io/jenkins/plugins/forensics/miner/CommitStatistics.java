@@ -7,9 +7,11 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 import java.util.StringJoiner;
 import java.util.function.Function;
 import java.util.function.ToIntFunction;
@@ -47,6 +49,29 @@ public class CommitStatistics implements Serializable {
                 .count();
     }
 
+    /**
+     * Creates a new instance of {@link CommitStatistics} with the specified totals.
+     *
+     * @param addedLines
+     *         number of added lines
+     * @param deletedLines
+     *         number of deleted lines
+     * @param authorCount
+     *         number of distinct authors
+     * @param commitCount
+     *         number of distinct commits
+     * @param filesCount
+     *         number of distinct files
+     */
+    CommitStatistics(final int addedLines, final int deletedLines, final int authorCount, final int commitCount,
+            final int filesCount) {
+        this.addedLines = addedLines;
+        this.deletedLines = deletedLines;
+        this.authorCount = authorCount;
+        this.commitCount = commitCount;
+        this.filesCount = filesCount;
+    }
+
     /**
      * Creates empty {@link CommitStatistics}.
      */
@@ -213,9 +238,97 @@ public class CommitStatistics implements Serializable {
         logger.logInfo("-> %d lines deleted", countDeletedLines(commits));
     }
 
+    /**
+     * Prints a progress summary of the specified batch of commits to the specified logger. This method is used to
+     * report the progress of a mining run that pushes the commits in batches into a {@link CommitIngestionPipeline}.
+     *
+     * @param batch
+     *         the number of the batch (starting with 1)
+     * @param commits
+     *         the commits of the batch
+     * @param logger
+     *         the logger
+     */
+    public static void logCommits(final int batch, final List<CommitDiffItem> commits, final FilteredLog logger) {
+        logger.logInfo("-> batch %d: %d commit diff items of %d commits aggregated (%d lines added, %d lines deleted)",
+                batch, commits.size(), countCommits(commits), countAddedLines(commits), countDeletedLines(commits));
+    }
+
     private static void logIfPositive(final int total, final String message, final FilteredLog logger) {
         if (total > 0) {
             logger.logInfo(message, total);
         }
     }
+
+    /**
+     * Aggregates {@link CommitStatistics} incrementally from several batches of commits. The created statistics are
+     * identical to the statistics that are created for the concatenation of all batches.
+     */
+    public static class CommitStatisticsBuilder {
+        private final Set<String> authors = new HashSet<>();
+        private final Set<String> commits = new HashSet<>();
+        private final Set<String> files = new HashSet<>();
+
+        private int addedLines;
+        private int deletedLines;
+        private int changes;
+        private int moves;
+        private int deletes;
+
+        /**
+         * Adds the specified batch of commits to the aggregated statistics.
+         *
+         * @param batch
+         *         the commits to add
+         *
+         * @return this
+         */
+        public CommitStatisticsBuilder add(final Collection<? extends CommitDiffItem> batch) {
+            for (CommitDiffItem commit : batch) {
+                addedLines += commit.getTotalAddedLines();
+                deletedLines += commit.getTotalDeletedLines();
+                authors.add(commit.getAuthor().toLowerCase(Locale.ENGLISH));
+                commits.add(commit.getId().toLowerCase(Locale.ENGLISH));
+                var newPath = commit.getNewPath();
+                if (!CommitDiffItem.NO_FILE_NAME.equals(newPath)) {
+                    files.add(newPath);
+                }
+                if (commit.isMove()) {
+                    moves++;
+                }
+                else if (commit.isDelete()) {
+                    deletes++;
+                }
+                else {
+                    changes++;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Creates the {@link CommitStatistics} for all commits that have been added so far.
+         *
+         * @return the aggregated statistics
+         */
+        public CommitStatistics build() {
+            return new CommitStatistics(addedLines, deletedLines, authors.size(), commits.size(), files.size());
+        }
+
+        /**
+         * Prints a summary of all commits that have been added so far to the specified logger. The summary is the
+         * same as the one that is printed by {@link CommitStatistics#logCommits(List, FilteredLog)}.
+         *
+         * @param logger
+         *         the logger
+         */
+        public void logCommits(final FilteredLog logger) {
+            logger.logInfo("-> %d commits with differences analyzed", commits.size());
+            logIfPositive(changes, "-> %d MODIFY commit diff items", logger);
+            logIfPositive(moves, "-> %d RENAME commit diff items", logger);
+            logIfPositive(deletes, "-> %d DELETE commit diff items", logger);
+            logger.logInfo("-> %d lines added", addedLines);
+            logger.logInfo("-> %d lines deleted", deletedLines);
+        }
+    }
 }
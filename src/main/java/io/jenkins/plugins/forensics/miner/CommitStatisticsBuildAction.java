@@ -106,6 +106,8 @@ public class CommitStatisticsBuildAction extends InvisibleAction implements Last
     @Override
     public void onAttached(final Run<?, ?> run) {
         owner = run;
+
+        TrendIndex.getInstance().add(run, this);
     }
 
     @Override
@@ -2,27 +2,24 @@ package io.jenkins.plugins.forensics.miner;
 
 import org.apache.commons.lang3.Strings;
 
-import edu.hm.hafner.echarts.Build;
 import edu.hm.hafner.echarts.BuildResult;
 import edu.hm.hafner.echarts.ChartModelConfiguration;
 import edu.hm.hafner.echarts.JacksonFacade;
 import edu.hm.hafner.echarts.LinesChartModel;
 
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.kohsuke.stapler.bind.JavaScriptMethod;
 import hudson.model.InvisibleAction;
 import hudson.model.Job;
-import hudson.model.Run;
 
 import io.jenkins.plugins.echarts.AsyncConfigurableTrendChart;
 
 /**
  * This job action is responsible to render the historical trend of the commit statistics via its associated
- * 'floatingBox.jelly' view.
+ * 'floatingBox.jelly' view. The trend is read from the {@link TrendIndex} of the job, so the builds do not need to be
+ * loaded.
  *
  * @author Ullrich Hafner
  */
@@ -54,14 +51,13 @@ public class CommitStatisticsJobAction extends InvisibleAction implements AsyncC
 
         var chart = getChart(configuration);
 
-        Iterable<? extends BuildResult<CommitStatisticsBuildAction>> buildHistory
-                = createBuildHistory(modelConfiguration.getBuildCount());
+        var buildHistory = createBuildHistory();
         if (chart == ChartType.DELTA) {
             return new AddedVersusDeletedLinesTrendChart().create(buildHistory, modelConfiguration,
-                    new AddedVersusDeletedLinesCommitStatisticsSeriesBuilder());
+                    TrendEntrySeriesBuilder.addedVersusDeletedLines());
         }
         return new RelativeCountTrendChart().create(buildHistory, modelConfiguration,
-                new RelativeCountCommitStatisticsSeriesBuilder());
+                TrendEntrySeriesBuilder.relativeCount());
     }
 
     private ChartType getChart(final String configuration) {
@@ -75,36 +71,15 @@ public class CommitStatisticsJobAction extends InvisibleAction implements AsyncC
         return ChartType.DELTA;
     }
 
-    private Iterable<? extends BuildResult<CommitStatisticsBuildAction>> createBuildHistory(final int buildCount) {
-        List<BuildResult<CommitStatisticsBuildAction>> history = new ArrayList<>();
-        for (Run<?, ?> run = owner.getLastCompletedBuild(); run != null; run = run.getPreviousBuild()) {
-            Optional<CommitStatisticsBuildAction> latestAction = run.getActions(CommitStatisticsBuildAction.class)
-                    .stream()
-                    .filter(a -> scmKey.equals(a.getScmKey()))
-                    .findAny();
-            if (latestAction.isPresent()) {
-                int buildTimeInSeconds = (int) (run.getTimeInMillis() / 1000);
-                var build = new Build(run.getNumber(), run.getDisplayName(), buildTimeInSeconds);
-
-                history.add(new BuildResult<>(build, latestAction.get()));
-            }
-
-            if (buildCount > 0 && history.size() >= buildCount) {
-                break;
-            }
-        }
-
-        return history;
+    private List<BuildResult<TrendEntry>> createBuildHistory() {
+        return TrendIndex.getInstance().getCommitStatisticsTrend(owner, scmKey)
+                .stream()
+                .map(TrendEntry::toBuildResult)
+                .collect(Collectors.toList());
     }
 
     @Override
     public boolean isTrendVisible() {
-        Iterable<? extends BuildResult<CommitStatisticsBuildAction>> results = createBuildHistory(2);
-        Iterator<? extends BuildResult<CommitStatisticsBuildAction>> iterator = results.iterator();
-
-        if (iterator.hasNext()) {
-            iterator.next();
-        }
-        return iterator.hasNext();
+        return TrendIndex.getInstance().hasCommitStatisticsTrend(owner, scmKey);
     }
 }
@@ -0,0 +1,405 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregated statistics of all files below a directory of the repository. The directories form an immutable tree,
+ * the root represents the whole repository. Each directory provides the number of files, the lines of code, the churn,
+ * the number of distinct commits and the number of distinct authors of all files below the directory. Like in
+ * {@link CommitStatistics}, authors and commit IDs are compared ignoring case.
+ *
+ * <p>
+ * The commits of a directory are the distinct commits of the retained file histories. Commits that have been compacted
+ * (see {@link CommitRetentionPolicy}) cannot be identified anymore: they are counted for each file separately.
+ * </p>
+ *
+ * <p>
+ * The tree is built by several tasks of a {@link ForkJoinPool}, one task per directory. Additional commits of a mining
+ * run are applied incrementally (see {@link #update(Collection)}): the new tree shares all directories without changes
+ * with the old tree.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class DirectoryStatistics {
+    /** Directories with fewer files are aggregated in the task of the parent directory. */
+    private static final int FORK_THRESHOLD = 256;
+    private static final String SEPARATOR = "/";
+
+    private final String path;
+    private final int numberOfFiles;
+    private final int linesOfCode;
+    private final int churn;
+    private final int numberOfCommits;
+    /** The sorted names of the authors. */
+    private final String[] authors;
+    private final List<DirectoryStatistics> children;
+    private final int numberOfDirectories;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private DirectoryStatistics(final String path, final int numberOfFiles, final int linesOfCode, final int churn,
+            final int numberOfCommits, final String[] authors, final List<DirectoryStatistics> children) {
+        this.path = path;
+        this.numberOfFiles = numberOfFiles;
+        this.linesOfCode = linesOfCode;
+        this.churn = churn;
+        this.numberOfCommits = numberOfCommits;
+        this.authors = authors;
+        this.children = children;
+
+        int directories = 1;
+        for (DirectoryStatistics child : children) {
+            directories += child.numberOfDirectories;
+        }
+        numberOfDirectories = directories;
+    }
+
+    /**
+     * Creates the directory tree of the specified files.
+     *
+     * @param files
+     *         the statistics of the files, keyed by the path of the file
+     * @param pool
+     *         the pool that runs the aggregation tasks of the directories
+     *
+     * @return the root of the tree
+     */
+    static DirectoryStatistics of(final Map<String, FileStatistics> files, final ForkJoinPool pool) {
+        var paths = files.keySet().toArray(new String[0]);
+        Arrays.sort(paths);
+        return pool.invoke(new DirectoryTask(files, paths, StringUtils.EMPTY, 0, paths.length)).directory;
+    }
+
+    /**
+     * Returns the path of this directory relative to the repository root. The path of the root is empty.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the name of this directory, i.e. the last segment of the path.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return StringUtils.substringAfterLast(SEPARATOR + path, SEPARATOR);
+    }
+
+    public int getNumberOfFiles() {
+        return numberOfFiles;
+    }
+
+    public int getLinesOfCode() {
+        return linesOfCode;
+    }
+
+    public int getChurn() {
+        return churn;
+    }
+
+    public int getNumberOfCommits() {
+        return numberOfCommits;
+    }
+
+    public int getNumberOfAuthors() {
+        return authors.length;
+    }
+
+    /**
+     * Returns the number of directories of the subtree of this directory, including this directory.
+     *
+     * @return the number of directories
+     */
+    public int getNumberOfDirectories() {
+        return numberOfDirectories;
+    }
+
+    /**
+     * Returns the subdirectories of this directory, sorted by name.
+     *
+     * @return the subdirectories
+     */
+    public List<DirectoryStatistics> getChildren() {
+        return children;
+    }
+
+    /**
+     * Returns the directory with the specified path.
+     *
+     * @param directory
+     *         the path of the directory, relative to this directory
+     *
+     * @return the directory, or an empty result if there is no such directory
+     */
+    public Optional<DirectoryStatistics> find(final String directory) {
+        var current = this;
+        for (String name : StringUtils.split(directory, SEPARATOR)) {
+            var child = current.findChild(name);
+            if (child == null) {
+                return Optional.empty();
+            }
+            current = child;
+        }
+        return Optional.of(current);
+    }
+
+    @CheckForNull
+    private DirectoryStatistics findChild(final String name) {
+        int low = 0;
+        int high = children.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = children.get(middle).getName().compareTo(name);
+            if (comparison < 0) {
+                low = middle + 1;
+            }
+            else if (comparison > 0) {
+                high = middle - 1;
+            }
+            else {
+                return children.get(middle);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a new tree that contains the specified changes of files. The changes must not contain commits that are
+     * part of the tree already. Directories without changes are shared with this tree.
+     *
+     * @param changes
+     *         the changes of the files
+     *
+     * @return the root of the new tree
+     */
+    DirectoryStatistics update(final Collection<FileChange> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+
+        int files = numberOfFiles;
+        int lines = linesOfCode;
+        int totalChurn = churn;
+        Set<String> newCommits = new HashSet<>();
+        Set<String> allAuthors = new TreeSet<>(Arrays.asList(authors));
+        Map<String, List<FileChange>> changesOfChildren = new LinkedHashMap<>();
+        for (FileChange change : changes) {
+            files += change.fileDelta;
+            lines += change.linesOfCodeDelta;
+            totalChurn += change.churnDelta;
+            newCommits.addAll(change.commits);
+            allAuthors.addAll(change.authors);
+
+            var relative = path.isEmpty() ? change.path : change.path.substring(path.length() + 1);
+            int separator = relative.indexOf(SEPARATOR);
+            if (separator > 0) {
+                changesOfChildren.computeIfAbsent(relative.substring(0, separator), name -> new ArrayList<>())
+                        .add(change);
+            }
+        }
+
+        List<DirectoryStatistics> updatedChildren = new ArrayList<>(children.size() + changesOfChildren.size());
+        for (DirectoryStatistics child : children) {
+            var changesOfChild = changesOfChildren.remove(child.getName());
+            updatedChildren.add(changesOfChild == null ? child : child.update(changesOfChild));
+        }
+        changesOfChildren.forEach((name, changesOfChild) ->
+                updatedChildren.add(createEmpty(getChildPath(path, name)).update(changesOfChild)));
+        updatedChildren.sort((left, right) -> left.getName().compareTo(right.getName()));
+
+        return new DirectoryStatistics(path, files, lines, totalChurn, numberOfCommits + newCommits.size(),
+                allAuthors.toArray(new String[0]), Collections.unmodifiableList(updatedChildren));
+    }
+
+    private static DirectoryStatistics createEmpty(final String path) {
+        return new DirectoryStatistics(path, 0, 0, 0, 0, new String[0], List.of());
+    }
+
+    private static String getChildPath(final String parent, final String name) {
+        return parent.isEmpty() ? name : parent + SEPARATOR + name;
+    }
+
+    /**
+     * The change of a single file: the differences of the metrics of the file and the new commits of the file.
+     */
+    static final class FileChange {
+        private final String path;
+        private final int fileDelta;
+        private final int linesOfCodeDelta;
+        private final int churnDelta;
+        private final Set<String> commits = new HashSet<>();
+        private final Set<String> authors = new HashSet<>();
+
+        /**
+         * Creates the change of the specified file.
+         *
+         * @param path
+         *         the path of the file
+         * @param before
+         *         the statistics of the file before the change, or {@code null} if the file has been added
+         * @param after
+         *         the statistics of the file after the change
+         * @param newCommits
+         *         the new commits of the file
+         */
+        FileChange(final String path, @CheckForNull final FileSnapshot before, final FileStatistics after,
+                final Collection<CommitDiffItem> newCommits) {
+            this.path = path;
+            fileDelta = before == null ? 1 : 0;
+            linesOfCodeDelta = after.getLinesOfCode() - (before == null ? 0 : before.linesOfCode);
+            churnDelta = after.getAbsoluteChurn() - (before == null ? 0 : before.churn);
+            for (CommitDiffItem commit : newCommits) {
+                commits.add(commit.getId().toLowerCase(Locale.ENGLISH));
+                authors.add(commit.getAuthor().toLowerCase(Locale.ENGLISH));
+            }
+        }
+    }
+
+    /**
+     * The metrics of a file before a change. Files are modified in place, so the metrics must be copied before the
+     * change.
+     */
+    static final class FileSnapshot {
+        private final int linesOfCode;
+        private final int churn;
+
+        FileSnapshot(final FileStatistics file) {
+            linesOfCode = file.getLinesOfCode();
+            churn = file.getAbsoluteChurn();
+        }
+    }
+
+    /**
+     * Aggregates the files of a directory. The subdirectories are aggregated by subtasks, each task returns the IDs of
+     * the commits and the authors of its files, so the parent task can count the distinct commits and authors.
+     */
+    private static final class DirectoryTask extends RecursiveTask<Aggregate> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Map<String, FileStatistics> files;
+        private final String[] paths;
+        private final String path;
+        private final int from;
+        private final int to;
+
+        DirectoryTask(final Map<String, FileStatistics> files, final String[] paths, final String path,
+                final int from, final int to) {
+            super();
+
+            this.files = files;
+            this.paths = paths;
+            this.path = path;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Aggregate compute() {
+            int prefixLength = path.isEmpty() ? 0 : path.length() + 1;
+            var aggregate = new Aggregate();
+            List<DirectoryTask> forked = new ArrayList<>();
+            List<Aggregate> computed = new ArrayList<>();
+
+            int index = from;
+            while (index < to) {
+                var relative = paths[index].substring(prefixLength);
+                int separator = relative.indexOf(SEPARATOR);
+                if (separator < 0) {
+                    aggregate.add(files.get(paths[index]));
+                    index++;
+                }
+                else {
+                    var childPath = getChildPath(path, relative.substring(0, separator));
+                    // all paths that start with 'child/' are sorted before the paths that start with 'child0'
+                    int end = lowerBound(childPath + (char) (SEPARATOR.charAt(0) + 1), index, to);
+                    var task = new DirectoryTask(files, paths, childPath, index, end);
+                    if (end - index < FORK_THRESHOLD) {
+                        computed.add(task.compute());
+                    }
+                    else {
+                        task.fork();
+                        forked.add(task);
+                    }
+                    index = end;
+                }
+            }
+            for (DirectoryTask task : forked) {
+                computed.add(task.join());
+            }
+
+            List<DirectoryStatistics> children = new ArrayList<>(computed.size());
+            for (Aggregate child : computed) {
+                aggregate.add(child);
+                children.add(child.directory);
+            }
+            children.sort((left, right) -> left.getName().compareTo(right.getName()));
+            aggregate.directory = new DirectoryStatistics(path, aggregate.numberOfFiles, aggregate.linesOfCode,
+                    aggregate.churn, aggregate.commits.size() + aggregate.compactedCommits,
+                    aggregate.authors.toArray(new String[0]), Collections.unmodifiableList(children));
+            return aggregate;
+        }
+
+        private int lowerBound(final String key, final int start, final int end) {
+            int index = Arrays.binarySearch(paths, start, end, key);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * The intermediate result of a {@link DirectoryTask}.
+     */
+    private static final class Aggregate {
+        private int numberOfFiles;
+        private int linesOfCode;
+        private int churn;
+        private int compactedCommits;
+        private final Set<String> commits = new HashSet<>();
+        private final Set<String> authors = new TreeSet<>();
+        @CheckForNull
+        private DirectoryStatistics directory;
+
+        void add(final FileStatistics file) {
+            numberOfFiles++;
+            linesOfCode += file.getLinesOfCode();
+            churn += file.getAbsoluteChurn();
+            for (CommitDiffItem commit : file.getCommits()) {
+                commits.add(commit.getId().toLowerCase(Locale.ENGLISH));
+                authors.add(commit.getAuthor().toLowerCase(Locale.ENGLISH));
+            }
+            var rollup = file.getRollup();
+            if (rollup != null) {
+                compactedCommits += rollup.getCommitCount();
+                authors.addAll(rollup.getAuthors());
+            }
+        }
+
+        void add(final Aggregate child) {
+            numberOfFiles += child.numberOfFiles;
+            linesOfCode += child.linesOfCode;
+            churn += child.churn;
+            compactedCommits += child.compactedCommits;
+            commits.addAll(child.commits);
+            authors.addAll(child.authors);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.jenkins.plugins.forensics.miner;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import edu.hm.hafner.echarts.JacksonFacade;
 import edu.hm.hafner.echarts.LineSeries;
@@ -9,14 +10,20 @@ import edu.hm.hafner.echarts.LineSeries.StackedMode;
 import edu.hm.hafner.echarts.LinesChartModel;
 import edu.hm.hafner.echarts.LinesDataSet;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
+import org.kohsuke.stapler.verb.GET;
 import hudson.model.ModelObject;
 import hudson.model.Run;
 
@@ -34,13 +41,12 @@ import io.jenkins.plugins.forensics.util.CommitDecorator;
  * @author Giulia Del Bravo
  */
 public class FileDetailsView extends DefaultAsyncTableContentProvider implements ModelObject, AsyncTrendChart {
-    private static final String FILE_NAME_PROPERTY = "fileName.";
+    private static final String INTERVAL_PARAMETER = "interval";
 
     private final Run<?, ?> owner;
-    private final String fileHash;
-    private final RepositoryStatistics repositoryStatistics;
     private final CommitDecorator decorator;
     private final FileStatistics fileStatistics;
+    private final ChartModelCache chartModels;
 
     /**
      * Creates a new {@link FileDetailsView} instance.
@@ -48,7 +54,8 @@ public class FileDetailsView extends DefaultAsyncTableContentProvider implements
      * @param owner
      *         the owner (build) of this view
      * @param fileLink
-     *         the file the view should be created for
+     *         the file the view should be created for: either {@code file.<path ID>} or {@code fileName.<hash code>}
+     *         for links of older releases
      * @param repositoryStatistics
      *         the whole repository statistics
      * @param decorator
@@ -57,20 +64,81 @@ public class FileDetailsView extends DefaultAsyncTableContentProvider implements
     public FileDetailsView(final Run<?, ?> owner, final String fileLink,
             final RepositoryStatistics repositoryStatistics,
             final CommitDecorator decorator) {
+        this(owner, fileLink, repositoryStatistics, decorator,
+                new ChartModelCache(null, fileLink, repositoryStatistics.getFingerprint(), 0));
+    }
+
+    /**
+     * Creates a new {@link FileDetailsView} instance.
+     *
+     * @param owner
+     *         the owner (build) of this view
+     * @param fileLink
+     *         the file the view should be created for
+     * @param repositoryStatistics
+     *         the whole repository statistics
+     * @param decorator
+     *         renders commit links
+     * @param chartModels
+     *         the cache of the chart models of the build
+     */
+    FileDetailsView(final Run<?, ?> owner, final String fileLink,
+            final RepositoryStatistics repositoryStatistics, final CommitDecorator decorator,
+            final ChartModelCache chartModels) {
+        this(owner, decorator, requireFile(find(fileLink, repositoryStatistics), fileLink), chartModels);
+    }
+
+    /**
+     * Creates a new {@link FileDetailsView} instance. Only the statistics of the selected file will be decoded.
+     *
+     * @param owner
+     *         the owner (build) of this view
+     * @param fileLink
+     *         the file the view should be created for
+     * @param indexedStatistics
+     *         indexed access to the repository statistics
+     * @param decorator
+     *         renders commit links
+     * @param chartModels
+     *         the cache of the chart models of the build
+     */
+    FileDetailsView(final Run<?, ?> owner, final String fileLink,
+            final IndexedRepositoryStatistics indexedStatistics, final CommitDecorator decorator,
+            final ChartModelCache chartModels) {
+        this(owner, decorator, requireFile(find(fileLink, indexedStatistics), fileLink), chartModels);
+    }
+
+    private FileDetailsView(final Run<?, ?> owner, final CommitDecorator decorator,
+            final FileStatistics fileStatistics, final ChartModelCache chartModels) {
         super();
 
         this.owner = owner;
-        this.fileHash = fileLink.substring(FILE_NAME_PROPERTY.length());
-        this.repositoryStatistics = repositoryStatistics;
         this.decorator = decorator;
-        fileStatistics = filterStatistics();
+        this.fileStatistics = fileStatistics;
+        this.chartModels = chartModels;
     }
 
-    private FileStatistics filterStatistics() {
-        return repositoryStatistics.getFileStatistics()
+    private static Optional<FileStatistics> find(final String fileLink, final RepositoryStatistics statistics) {
+        var pathId = PathId.fromLink(fileLink);
+        if (pathId.isPresent()) {
+            return statistics.findByPathId(pathId.getAsLong());
+        }
+        return statistics.getFileStatistics()
                 .stream()
-                .filter(f -> String.valueOf(f.getFileName().hashCode()).equals(fileHash)).findAny().orElseThrow(
-                        () -> new NoSuchElementException("No file found with hash code " + fileHash));
+                .filter(f -> PathId.matchesLegacyLink(f.getFileName(), fileLink))
+                .findAny();
+    }
+
+    private static Optional<FileStatistics> find(final String fileLink, final IndexedRepositoryStatistics statistics) {
+        var pathId = PathId.fromLink(fileLink);
+        if (pathId.isPresent()) {
+            return statistics.findByPathId(pathId.getAsLong());
+        }
+        return statistics.findFirst(fileName -> PathId.matchesLegacyLink(fileName, fileLink));
+    }
+
+    private static FileStatistics requireFile(final Optional<FileStatistics> fileStatistics, final String fileLink) {
+        return fileStatistics.orElseThrow(() -> new NoSuchElementException("No file found for link " + fileLink));
     }
 
     public Run<?, ?> getOwner() {
@@ -86,6 +154,19 @@ public class FileDetailsView extends DefaultAsyncTableContentProvider implements
         return new FileChurnTrendChart().create(fileStatistics, decorator);
     }
 
+    /**
+     * Returns a LinesChartModel for this file detailing the added and deleted lines of the commits of the specified
+     * interval. This model is used to drill down into a data point of an aggregated chart.
+     *
+     * @param interval
+     *         the label of the interval
+     *
+     * @return LinesChartModel for the commits of the interval
+     */
+    LinesChartModel createChartModel(final String interval) {
+        return new FileChurnTrendChart().create(fileStatistics, decorator, interval);
+    }
+
     /**
      * Returns the repository URL for the specified commit.
      *
@@ -104,6 +185,39 @@ public class FileDetailsView extends DefaultAsyncTableContentProvider implements
     @SuppressWarnings("unused") // Called by jelly view
     @Override
     public String getBuildTrendModel() {
+        return chartModels.get(getTrendId(), false, this::createTrendModel);
+    }
+
+    /**
+     * Serves the UI model of the file churn chart as JSON. If the request contains the parameter {@code interval},
+     * then the model shows the commits of the selected interval of an aggregated chart. The response supports
+     * conditional requests.
+     *
+     * @param request
+     *         Stapler request
+     * @param response
+     *         Stapler response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    public void doTrendChart(final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        var interval = request.getParameter(INTERVAL_PARAMETER);
+        if (interval != null && TimeBucket.parseInterval(interval).isPresent()) {
+            chartModels.serve(getTrendId() + "-" + interval, false,
+                    () -> new JacksonFacade().toJson(createChartModel(interval)), request, response);
+        }
+        else {
+            chartModels.serve(getTrendId(), false, this::createTrendModel, request, response);
+        }
+    }
+
+    private String getTrendId() {
+        return "trend-" + Long.toHexString(PathId.of(getFullPath()));
+    }
+
+    private String createTrendModel() {
         return new JacksonFacade().toJson(createChartModel());
     }
 
@@ -126,6 +240,32 @@ public class FileDetailsView extends DefaultAsyncTableContentProvider implements
         return new FileTableModel();
     }
 
+    /**
+     * Returns the rows of the specified page of the commits table as JSON. The commits are sorted by the specified
+     * column and filtered by the specified search term.
+     *
+     * @param id
+     *         the ID of the table
+     * @param start
+     *         the index of the first row of the page
+     * @param length
+     *         the number of rows of the page, a negative value selects all rows
+     * @param column
+     *         the index of the column to sort by
+     * @param ascending
+     *         determines whether the rows should be sorted in ascending or descending order
+     * @param search
+     *         the search term, the rows are filtered by commit IDs or authors that contain the term (ignoring case)
+     *
+     * @return the rows of the page as JSON
+     */
+    @JavaScriptMethod
+    @SuppressWarnings("unused") // Called by jelly view
+    public String getTablePage(final String id, final int start, final int length, final int column,
+            final boolean ascending, final String search) {
+        return new JacksonFacade().toJson(new FileTableModel().getPage(start, length, column, ascending, search));
+    }
+
     private class FileTableModel extends TableModel {
         @Override
         public String getId() {
@@ -154,6 +294,27 @@ public class FileDetailsView extends DefaultAsyncTableContentProvider implements
                     .map(commit -> new ForensicsRow(commit, decorator))
                     .collect(Collectors.toList());
         }
+
+        TablePage getPage(final int start, final int length, final int column, final boolean ascending,
+                final String search) {
+            var commits = fileStatistics.getCommits().stream()
+                    .filter(commit -> StringUtils.isBlank(search)
+                            || StringUtils.containsIgnoreCase(commit.getId(), search.trim())
+                            || StringUtils.containsIgnoreCase(commit.getAuthor(), search.trim()))
+                    .sorted(getComparator(column))
+                    .collect(Collectors.toList());
+            return TablePage.of(commits, fileStatistics.getCommits().size(), start, length, ascending,
+                    commit -> new ForensicsRow(commit, decorator));
+        }
+
+        private Comparator<CommitDiffItem> getComparator(final int column) {
+            return switch (column) {
+                case 1 -> Comparator.comparing(CommitDiffItem::getAuthor);
+                case 2 -> Comparator.comparingInt(CommitDiffItem::getTotalAddedLines);
+                case 3 -> Comparator.comparingInt(CommitDiffItem::getTotalDeletedLines);
+                default -> Comparator.comparing(CommitDiffItem::getId);
+            };
+        }
     }
 
     /**
@@ -189,16 +350,67 @@ public class FileDetailsView extends DefaultAsyncTableContentProvider implements
         }
     }
 
+    /**
+     * Creates the churn trend chart of a file. Files with a short history show one data point per commit. For files
+     * with a long history the commits are aggregated by day, week, or month (depending on the length of the history),
+     * and the resulting series is downsampled to at most {@value #MAXIMUM_POINTS} points, so that even files with tens
+     * of thousands of commits produce a small model. The label of an aggregated data point identifies its interval: the
+     * commits of an interval can be shown using {@link #create(FileStatistics, CommitDecorator, String)}. If all
+     * commits are part of the same interval, then the commits are downsampled without aggregation.
+     */
     static class FileChurnTrendChart {
         private static final String ADDED_KEY = "added";
         private static final String DELETED_KEY = "deleted";
+        private static final String COMMIT_ITEM_NAME = "Commit";
+        static final int MAXIMUM_POINTS = 250;
 
         public LinesChartModel create(final FileStatistics fileStatistics,
                 final CommitDecorator decorator) {
-            var dataSet = createDataSetPerCommit(fileStatistics, decorator);
+            return create(fileStatistics.getCommits(), decorator);
+        }
+
+        /**
+         * Creates the chart for the commits of the specified interval.
+         *
+         * @param fileStatistics
+         *         the statistics of the file
+         * @param decorator
+         *         renders the commit IDs
+         * @param interval
+         *         the label of the interval, as shown in an aggregated chart
+         *
+         * @return the chart model, or the model for all commits if the interval is not valid
+         */
+        public LinesChartModel create(final FileStatistics fileStatistics, final CommitDecorator decorator,
+                final String interval) {
+            return TimeBucket.parseInterval(interval)
+                    .map(range -> fileStatistics.getCommits().stream()
+                            .filter(commit -> commit.getTime() >= range[0] && commit.getTime() < range[1])
+                            .collect(Collectors.toList()))
+                    .map(commits -> create(commits, decorator))
+                    .orElseGet(() -> create(fileStatistics, decorator));
+        }
 
+        private LinesChartModel create(final List<CommitDiffItem> commits, final CommitDecorator decorator) {
+            if (commits.size() <= MAXIMUM_POINTS) {
+                return createModel(createDataSetPerCommit(commits, decorator), COMMIT_ITEM_NAME);
+            }
+            var sorted = commits.stream()
+                    .sorted(Comparator.comparingInt(CommitDiffItem::getTime))
+                    .collect(Collectors.toList());
+            int first = sorted.get(0).getTime();
+            int last = sorted.get(sorted.size() - 1).getTime();
+            var bucket = TimeBucket.of(first, last);
+            if (bucket.getLabel(first).equals(bucket.getLabel(last))) {
+                // a single interval (e.g., a drilled down day) would be aggregated to a single point
+                return createModel(createDownsampledDataSetPerCommit(sorted, decorator), COMMIT_ITEM_NAME);
+            }
+            return createModel(createDataSetPerInterval(sorted, bucket), bucket.getDisplayName());
+        }
+
+        private LinesChartModel createModel(final LinesDataSet dataSet, final String domainAxisItemName) {
             var model = new LinesChartModel(dataSet);
-            model.setDomainAxisItemName("Commit");
+            model.setDomainAxisItemName(domainAxisItemName);
             var added = new LineSeries(Messages.TrendChart_Churn_Legend_Added(), JenkinsPalette.GREEN.normal(),
                     StackedMode.SEPARATE_LINES, FilledMode.FILLED);
             added.addAll(dataSet.getSeries(ADDED_KEY));
@@ -211,19 +423,74 @@ public class FileDetailsView extends DefaultAsyncTableContentProvider implements
             return model;
         }
 
-        private LinesDataSet createDataSetPerCommit(final FileStatistics current,
+        private LinesDataSet createDataSetPerCommit(final List<CommitDiffItem> commits,
+                final CommitDecorator decorator) {
+            var model = new LinesDataSet();
+            for (CommitDiffItem commit : commits) {
+                model.add(decorator.asText(commit.getId()), computeSeries(commit));
+            }
+            return model;
+        }
+
+        private LinesDataSet createDownsampledDataSetPerCommit(final List<CommitDiffItem> sortedCommits,
                 final CommitDecorator decorator) {
+            int size = sortedCommits.size();
+            double[] x = new double[size];
+            double[] y = new double[size];
+            for (int i = 0; i < size; i++) {
+                var commit = sortedCommits.get(i);
+                x[i] = commit.getTime();
+                y[i] = commit.getTotalAddedLines() + commit.getTotalDeletedLines();
+            }
+
             var model = new LinesDataSet();
-            for (CommitDiffItem commit : current.getCommits()) {
+            for (int index : LargestTriangleThreeBuckets.select(x, y, MAXIMUM_POINTS)) {
+                var commit = sortedCommits.get(index);
                 model.add(decorator.asText(commit.getId()), computeSeries(commit));
             }
             return model;
         }
 
+        private LinesDataSet createDataSetPerInterval(final List<CommitDiffItem> sortedCommits,
+                final TimeBucket bucket) {
+            List<String> labels = new ArrayList<>();
+            List<int[]> churn = new ArrayList<>();
+            List<Integer> times = new ArrayList<>();
+            for (CommitDiffItem commit : sortedCommits) {
+                var label = bucket.getLabel(commit.getTime());
+                if (labels.isEmpty() || !labels.get(labels.size() - 1).equals(label)) {
+                    labels.add(label);
+                    churn.add(new int[2]);
+                    times.add(commit.getTime());
+                }
+                var interval = churn.get(churn.size() - 1);
+                interval[0] += commit.getTotalAddedLines();
+                interval[1] += commit.getTotalDeletedLines();
+            }
+
+            int size = labels.size();
+            double[] x = new double[size];
+            double[] y = new double[size];
+            for (int i = 0; i < size; i++) {
+                x[i] = times.get(i);
+                y[i] = churn.get(i)[0] + churn.get(i)[1];
+            }
+
+            var model = new LinesDataSet();
+            for (int index : LargestTriangleThreeBuckets.select(x, y, MAXIMUM_POINTS)) {
+                model.add(labels.get(index), computeSeries(churn.get(index)[0], churn.get(index)[1]));
+            }
+            return model;
+        }
+
         private Map<String, Integer> computeSeries(final CommitDiffItem commit) {
+            return computeSeries(commit.getTotalAddedLines(), commit.getTotalDeletedLines());
+        }
+
+        private Map<String, Integer> computeSeries(final int addedLines, final int deletedLines) {
             Map<String, Integer> commitChanges = new HashMap<>();
-            commitChanges.put(ADDED_KEY, commit.getTotalAddedLines());
-            commitChanges.put(DELETED_KEY, commit.getTotalDeletedLines());
+            commitChanges.put(ADDED_KEY, addedLines);
+            commitChanges.put(DELETED_KEY, deletedLines);
             return commitChanges;
         }
     }
@@ -0,0 +1,118 @@
+package io.jenkins.plugins.forensics.miner;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import io.jenkins.plugins.forensics.miner.StatisticsQuery.Field;
+
+/**
+ * A file that matches a {@link StatisticsQuery}. If the query has a time window, then the number of authors, the number
+ * of commits and the churn are computed from the commits in that window. The remaining properties describe the file
+ * itself and do not depend on the time window.
+ *
+ * @author Ullrich Hafner
+ */
+public final class FileQueryResult {
+    private final String fileName;
+    private final int numberOfAuthors;
+    private final int numberOfCommits;
+    private final int creationTime;
+    private final int lastModificationTime;
+    private final int linesOfCode;
+    private final int churn;
+
+    FileQueryResult(final FileStatistics file) {
+        this(file, file.getNumberOfAuthors(), file.getNumberOfCommits(), file.getAbsoluteChurn());
+    }
+
+    FileQueryResult(final FileStatistics file, final int numberOfAuthors, final int numberOfCommits,
+            final int churn) {
+        this.fileName = file.getFileName();
+        this.numberOfAuthors = numberOfAuthors;
+        this.numberOfCommits = numberOfCommits;
+        this.creationTime = file.getCreationTime();
+        this.lastModificationTime = file.getLastModificationTime();
+        this.linesOfCode = file.getLinesOfCode();
+        this.churn = churn;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public int getNumberOfAuthors() {
+        return numberOfAuthors;
+    }
+
+    public int getNumberOfCommits() {
+        return numberOfCommits;
+    }
+
+    public int getCreationTime() {
+        return creationTime;
+    }
+
+    public int getLastModificationTime() {
+        return lastModificationTime;
+    }
+
+    public int getLinesOfCode() {
+        return linesOfCode;
+    }
+
+    public int getChurn() {
+        return churn;
+    }
+
+    /**
+     * Returns the values of the specified fields of this result, keyed by the name of the field.
+     *
+     * @param fields
+     *         the fields to include
+     *
+     * @return the values of the fields, in the order of the {@link Field} constants
+     */
+    public Map<String, Object> project(final Set<Field> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Field field : Field.values()) {
+            if (fields.contains(field)) {
+                values.put(field.getName(), getValue(field));
+            }
+        }
+        return values;
+    }
+
+    private Object getValue(final Field field) {
+        return switch (field) {
+            case FILE -> fileName;
+            case AUTHORS -> numberOfAuthors;
+            case COMMITS -> numberOfCommits;
+            case CREATION_TIME -> creationTime;
+            case LAST_MODIFICATION_TIME -> lastModificationTime;
+            case LINES_OF_CODE -> linesOfCode;
+            case CHURN -> churn;
+        };
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (FileQueryResult) o;
+        return numberOfAuthors == that.numberOfAuthors && numberOfCommits == that.numberOfCommits
+                && creationTime == that.creationTime && lastModificationTime == that.lastModificationTime
+                && linesOfCode == that.linesOfCode && churn == that.churn && fileName.equals(that.fileName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileName, numberOfAuthors, numberOfCommits, creationTime, lastModificationTime,
+                linesOfCode, churn);
+    }
+}
@@ -3,6 +3,7 @@ package io.jenkins.plugins.forensics.miner;
 import edu.hm.hafner.util.PathUtil;
 import edu.hm.hafner.util.TreeString;
 import edu.hm.hafner.util.TreeStringBuilder;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.Serial;
@@ -43,6 +44,8 @@ public final class FileStatistics implements Serializable {
     private CommitStatistics statistics = new CommitStatistics(); // since 0.8.0
     @SuppressWarnings("PMD.LooseCoupling")
     private ArrayList<CommitDiffItem> commits = new ArrayList<>(); // since 0.8.0
+    @CheckForNull
+    private CommitRollup rollup; // since 3.0.0
 
     /**
      * Creates a new instance of {@link FileStatistics}.
@@ -55,10 +58,58 @@ public final class FileStatistics implements Serializable {
         this.fileName = fileName;
     }
 
+    /**
+     * Creates a copy of the specified {@link FileStatistics}. The list of commits is copied as well, so the copy can
+     * inspect additional commits without affecting the original instance.
+     *
+     * @param copy
+     *         the statistics to copy
+     */
+    FileStatistics(final FileStatistics copy) {
+        fileName = copy.fileName;
+        creationTime = copy.creationTime;
+        lastModificationTime = copy.lastModificationTime;
+        statistics = copy.statistics;
+        commits = new ArrayList<>(copy.commits);
+        rollup = copy.rollup;
+    }
+
+    /**
+     * Creates a new instance of {@link FileStatistics} with the specified properties. This constructor is used to
+     * restore instances that have been persisted, the properties are not computed from the commits again.
+     *
+     * @param fileName
+     *         the name of the file
+     * @param creationTime
+     *         the time of the creation
+     * @param lastModificationTime
+     *         the time of the last modification
+     * @param statistics
+     *         the statistics of all commits of the file
+     * @param commits
+     *         the retained commits of the file
+     * @param rollup
+     *         the aggregate of the compacted commits of the file, or {@code null} if no commits have been compacted
+     */
+    FileStatistics(final TreeString fileName, final int creationTime, final int lastModificationTime,
+            final CommitStatistics statistics, final List<CommitDiffItem> commits,
+            @CheckForNull final CommitRollup rollup) {
+        this.fileName = fileName;
+        this.creationTime = creationTime;
+        this.lastModificationTime = lastModificationTime;
+        this.statistics = statistics;
+        this.commits = new ArrayList<>(commits);
+        this.rollup = rollup;
+    }
+
     public String getFileName() {
         return fileName.toString();
     }
 
+    CommitStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
      * Called after deserialization to retain backward compatibility.
      *
@@ -77,9 +128,10 @@ public final class FileStatistics implements Serializable {
     }
 
     /**
-     * Returns all commits this file was part of.
+     * Returns all commits this file was part of. If the commit history of this file has been {@link
+     * #compact(CommitRetentionPolicy, int) compacted}, then only the retained commits are returned.
      *
-     * @return all commits for this file
+     * @return all (retained) commits for this file
      */
     public List<CommitDiffItem> getCommits() {
         return commits;
@@ -170,11 +222,88 @@ public final class FileStatistics implements Serializable {
     private void updateProperties() {
         int lastCommit = commits.size() - 1;
         lastModificationTime = commits.get(lastCommit).getTime();
-        creationTime = commits.get(0).getTime();
-        statistics = new CommitStatistics(commits);
+        if (rollup == null) {
+            creationTime = commits.get(0).getTime();
+            statistics = new CommitStatistics(commits);
+        }
+        else {
+            creationTime = rollup.getCreationTime();
+            statistics = rollup.aggregate(commits);
+        }
         fileName = TreeString.valueOf(commits.get(lastCommit).getNewPath());
     }
 
+    /**
+     * Returns the aggregate of the commits that have been removed from the commit history of this file.
+     *
+     * @return the aggregate of the compacted commits, or {@code null} if no commits have been compacted
+     */
+    @CheckForNull
+    CommitRollup getRollup() {
+        return rollup;
+    }
+
+    /**
+     * Sets the aggregate of commits that have been compacted before. This method is used to restore the statistics of
+     * a file from a delta, it must be called before the retained commits are inspected.
+     *
+     * @param compactedCommits
+     *         the aggregate of the compacted commits
+     */
+    void restoreRollup(@CheckForNull final CommitRollup compactedCommits) {
+        rollup = compactedCommits;
+    }
+
+    /**
+     * Returns new statistics that prepend the specified older history to the commits of this file. The older history
+     * must contain only commits that are older than the commits of this file. The statistics of this file are not
+     * modified.
+     *
+     * @param olderHistory
+     *         the statistics of the same file at the time before the first commit of this file
+     *
+     * @return the statistics of the file with the complete history
+     */
+    FileStatistics prependHistory(final FileStatistics olderHistory) {
+        var merged = new FileStatistics(olderHistory);
+        if (rollup != null) {
+            var olderRollup = merged.commits.isEmpty()
+                    ? merged.rollup : CommitRollup.of(merged.rollup, merged.commits);
+            merged.rollup = olderRollup == null ? rollup : CommitRollup.concat(olderRollup, rollup);
+            merged.commits = new ArrayList<>();
+        }
+        merged.inspectCommits(commits);
+        return merged;
+    }
+
+    /**
+     * Compacts the commit history of this file: the commits that should not be retained according to the specified
+     * policy are removed from the commits of this file and are aggregated in a {@link CommitRollup}. All properties of
+     * this file remain unchanged. The diff items of a single commit are never split between the rollup and the
+     * retained commits.
+     *
+     * @param policy
+     *         the retention policy
+     * @param newestTime
+     *         the time of the newest commit in the repository
+     *
+     * @return the number of removed commits
+     */
+    int compact(final CommitRetentionPolicy policy, final int newestTime) {
+        int compacted = policy.getNumberOfCommitsToCompact(commits, newestTime);
+        while (compacted > 0 && commits.get(compacted - 1).getId().equalsIgnoreCase(commits.get(compacted).getId())) {
+            compacted--;
+        }
+        if (compacted == 0) {
+            return 0;
+        }
+
+        rollup = CommitRollup.of(rollup, commits.subList(0, compacted));
+        commits = new ArrayList<>(commits.subList(compacted, commits.size()));
+
+        return compacted;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -186,12 +315,12 @@ public final class FileStatistics implements Serializable {
         var that = (FileStatistics) o;
         return creationTime == that.creationTime && lastModificationTime == that.lastModificationTime
                 && Objects.equals(fileName, that.fileName) && Objects.equals(statistics, that.statistics)
-                && Objects.equals(commits, that.commits);
+                && Objects.equals(commits, that.commits) && Objects.equals(rollup, that.rollup);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fileName, creationTime, lastModificationTime, statistics, commits);
+        return Objects.hash(fileName, creationTime, lastModificationTime, statistics, commits, rollup);
     }
 
     @Override
@@ -0,0 +1,64 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.io.FilenameUtils;
+
+import java.util.Comparator;
+
+/**
+ * Defines the sort orders of the files of the repository statistics. The constants are in the same order as the columns
+ * of the {@link ForensicsTableModel}.
+ *
+ * @author Ullrich Hafner
+ * @see RepositoryStatistics#getSortedFiles(FileStatisticsOrder)
+ */
+public enum FileStatisticsOrder {
+    /** Sorts the files by the name without the path. */
+    FILE_NAME(Comparator.comparing(FileStatisticsOrder::getBaseName)),
+    /** Sorts the files by the number of authors. */
+    NUMBER_OF_AUTHORS(Comparator.comparingInt(FileStatistics::getNumberOfAuthors)),
+    /** Sorts the files by the number of commits. */
+    NUMBER_OF_COMMITS(Comparator.comparingInt(FileStatistics::getNumberOfCommits)),
+    /** Sorts the files by the time of the last commit. */
+    LAST_MODIFICATION_TIME(Comparator.comparingInt(FileStatistics::getLastModificationTime)),
+    /** Sorts the files by the time of the first commit. */
+    CREATION_TIME(Comparator.comparingInt(FileStatistics::getCreationTime)),
+    /** Sorts the files by the lines of code. */
+    LINES_OF_CODE(Comparator.comparingInt(FileStatistics::getLinesOfCode)),
+    /** Sorts the files by the absolute churn. */
+    CHURN(Comparator.comparingInt(FileStatistics::getAbsoluteChurn));
+
+    private final Comparator<FileStatistics> comparator;
+
+    FileStatisticsOrder(final Comparator<FileStatistics> comparator) {
+        this.comparator = comparator.thenComparing(FileStatistics::getFileName);
+    }
+
+    /**
+     * Returns the comparator of this sort order. Files with the same sort key are sorted by their full path.
+     *
+     * @return the comparator
+     */
+    public Comparator<FileStatistics> getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Returns the sort order for the specified column of the {@link ForensicsTableModel}.
+     *
+     * @param column
+     *         the index of the column
+     *
+     * @return the sort order, {@link #FILE_NAME} if the index is out of range
+     */
+    public static FileStatisticsOrder fromColumn(final int column) {
+        var values = values();
+        if (column < 0 || column >= values.length) {
+            return FILE_NAME;
+        }
+        return values[column];
+    }
+
+    private static String getBaseName(final FileStatistics file) {
+        return FilenameUtils.getName(file.getFileName());
+    }
+}
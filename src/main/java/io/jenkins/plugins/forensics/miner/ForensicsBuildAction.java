@@ -3,12 +3,20 @@ package io.jenkins.plugins.forensics.miner;
 import org.apache.commons.lang3.StringUtils;
 
 import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.io.IOException;
 import java.io.Serial;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.kohsuke.stapler.StaplerProxy;
+import hudson.Extension;
 import hudson.model.Run;
+import hudson.model.listeners.RunListener;
 
 import io.jenkins.plugins.util.BuildAction;
 
@@ -17,12 +25,35 @@ import io.jenkins.plugins.util.BuildAction;
  * summary on the build page. The actual visualization of the results is defined in the matching {@code summary.jelly}
  * file. This action also provides access to the forensics details: these are rendered using a new view instance.
  *
+ * <p>
+ * The statistics are either stored as a full snapshot or as a {@link RepositoryStatisticsDelta delta} to the
+ * statistics of the previous build. Deltas are resolved transparently in {@link #getResult()}: the statistics are
+ * restored from the nearest snapshot and all subsequent deltas. If the statistics of a build are identical to the
+ * statistics of the previous build (i.e., no new commits have been mined), then nothing is stored at all: the action
+ * just references the build that actually stores the statistics.
+ * </p>
+ *
  * @author Ullrich Hafner
  */
 public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> implements StaplerProxy {
     @Serial
     private static final long serialVersionUID = -263122257268060032L;
     private static final String DEFAULT_FILE_NAME = "repository-statistics.xml";
+    private static final String BASE_NAME = "repository-statistics";
+    private static final String DELTA_NAME = "-delta";
+    private static final String BINARY_SUFFIX = ".bin";
+    private static final String XML_SUFFIX = ".xml";
+    private static final Logger LOGGER = Logger.getLogger(ForensicsBuildAction.class.getName());
+
+    /** Determines how the statistics of a build are stored. */
+    enum StorageMode {
+        /** The full statistics are stored in the build folder. */
+        SNAPSHOT,
+        /** Only the changes with respect to the statistics of the previous build are stored in the build folder. */
+        DELTA,
+        /** Nothing is stored in the build folder, the statistics are identical to the statistics of another build. */
+        REFERENCE
+    }
 
     private final int miningDurationSeconds;
     private final String urlName;
@@ -35,6 +66,17 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
     private final int totalChurn; // since 1.1.0
     private CommitStatistics commitStatistics;  // since 1.1.0
 
+    private StorageMode storage; // since 3.0.0
+    private int previousBuild; // since 3.0.0
+    private int deltaChainLength; // since 3.0.0
+    private String fingerprint; // since 3.0.0
+    private String historyStartCommitId; // since 3.0.0
+    @CheckForNull
+    private StatisticsSummary summary; // since 3.0.0
+
+    @CheckForNull
+    private transient ChartModelCache chartModels;
+
     /**
      * Creates a new instance of {@link ForensicsBuildAction}.
      *
@@ -51,7 +93,34 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
      */
     public ForensicsBuildAction(final Run<?, ?> owner, final RepositoryStatistics repositoryStatistics,
             final int miningDurationSeconds, final String scmKey, final int number) {
-        this(owner, repositoryStatistics, true, miningDurationSeconds, scmKey, number);
+        this(owner, repositoryStatistics, miningDurationSeconds, scmKey, number, null, 0);
+    }
+
+    /**
+     * Creates a new instance of {@link ForensicsBuildAction} that stores the statistics as a delta to the statistics of
+     * the specified previous action. A full snapshot of the statistics is stored if there is no previous action or if
+     * the number of consecutive deltas reaches the specified snapshot interval.
+     *
+     * @param owner
+     *         the associated build that created the statistics
+     * @param repositoryStatistics
+     *         the statistics to persist with this action
+     * @param miningDurationSeconds
+     *         the duration of the mining operation in [s]
+     * @param scmKey
+     *         key of the repository
+     * @param number
+     *         unique number of the results (used as part of the serialization file name)
+     * @param previous
+     *         the action of a previous build for the same repository (or {@code null} if there is no such action)
+     * @param snapshotInterval
+     *         the number of builds after which a full snapshot of the statistics is stored, values less than 2 store
+     *         a full snapshot in every build
+     */
+    public ForensicsBuildAction(final Run<?, ?> owner, final RepositoryStatistics repositoryStatistics,
+            final int miningDurationSeconds, final String scmKey, final int number,
+            @CheckForNull final ForensicsBuildAction previous, final int snapshotInterval) {
+        this(owner, repositoryStatistics, true, miningDurationSeconds, scmKey, number, previous, snapshotInterval);
     }
 
     /**
@@ -73,6 +142,13 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
     @VisibleForTesting
     ForensicsBuildAction(final Run<?, ?> owner, final RepositoryStatistics repositoryStatistics,
             final boolean canSerialize, final int miningDurationSeconds, final String scmKey, final int number) {
+        this(owner, repositoryStatistics, canSerialize, miningDurationSeconds, scmKey, number, null, 0);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private ForensicsBuildAction(final Run<?, ?> owner, final RepositoryStatistics repositoryStatistics,
+            final boolean canSerialize, final int miningDurationSeconds, final String scmKey, final int number,
+            @CheckForNull final ForensicsBuildAction previous, final int snapshotInterval) {
         super(owner, repositoryStatistics, false);
 
         numberOfFiles = repositoryStatistics.size();
@@ -85,10 +161,58 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
         totalLinesOfCode = repositoryStatistics.getTotalLinesOfCode();
         totalChurn = repositoryStatistics.getTotalChurn();
         commitStatistics = repositoryStatistics.getLatestStatistics();
+        fingerprint = repositoryStatistics.getFingerprint();
+        historyStartCommitId = repositoryStatistics.getHistoryStartCommitId();
+        summary = StatisticsSummary.of(repositoryStatistics);
+        storage = StorageMode.SNAPSHOT;
 
         if (canSerialize) {
-            createXmlStream().write(owner.getRootDir().toPath().resolve(fileName), repositoryStatistics);
+            if (previous != null && isUnchanged(repositoryStatistics, previous)) {
+                storage = StorageMode.REFERENCE;
+                previousBuild = previous.getHolder();
+                deltaChainLength = previous.deltaChainLength;
+
+                return;
+            }
+            var delta = createDelta(repositoryStatistics, previous, snapshotInterval);
+            if (delta.isPresent() && previous != null) {
+                storage = StorageMode.DELTA;
+                previousBuild = previous.getOwner().getNumber();
+                deltaChainLength = previous.deltaChainLength + 1;
+                fileName = createDeltaFileName(number);
+
+                new RepositoryStatisticsDeltaXmlStream().write(getResultPath(), delta.get());
+            }
+            else {
+                createXmlStream().write(getResultPath(), repositoryStatistics);
+            }
+        }
+    }
+
+    private boolean isUnchanged(final RepositoryStatistics repositoryStatistics,
+            final ForensicsBuildAction previous) {
+        return fingerprint.equals(previous.fingerprint)
+                && repositoryStatistics.equals(previous.getResult());
+    }
+
+    /**
+     * Returns the number of the build that stores the statistics of this action.
+     *
+     * @return the number of the build that stores the statistics
+     */
+    private int getHolder() {
+        if (storage == StorageMode.REFERENCE) {
+            return previousBuild;
+        }
+        return getOwner().getNumber();
+    }
+
+    private Optional<RepositoryStatisticsDelta> createDelta(final RepositoryStatistics repositoryStatistics,
+            @CheckForNull final ForensicsBuildAction previous, final int snapshotInterval) {
+        if (previous == null || snapshotInterval < 2 || previous.deltaChainLength + 1 >= snapshotInterval) {
+            return Optional.empty();
         }
+        return RepositoryStatisticsDelta.create(previous.getResult(), repositoryStatistics);
     }
 
     @Override
@@ -103,15 +227,39 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
         if (commitStatistics == null) {
             commitStatistics = new CommitStatistics();
         }
+        if (storage == null) {
+            storage = StorageMode.SNAPSHOT;
+        }
+        if (fingerprint == null) {
+            fingerprint = StringUtils.EMPTY;
+        }
+        if (historyStartCommitId == null) {
+            historyStartCommitId = StringUtils.EMPTY;
+        }
 
         return super.readResolve();
     }
 
+    @Override
+    public void onAttached(final Run<?, ?> r) {
+        super.onAttached(r);
+
+        TrendIndex.getInstance().add(r, this);
+    }
+
     private String createFileName(final int number) {
+        return createFileName(BASE_NAME, number) + BINARY_SUFFIX;
+    }
+
+    private String createDeltaFileName(final int number) {
+        return createFileName(BASE_NAME + DELTA_NAME, number) + XML_SUFFIX;
+    }
+
+    private String createFileName(final String baseName, final int number) {
         if (number == 0) {
-            return DEFAULT_FILE_NAME;
+            return baseName;
         }
-        return "repository-statistics-%d.xml".formatted(number);
+        return "%s-%d".formatted(baseName, number);
     }
 
     private String createUrlName(final int number) {
@@ -121,6 +269,130 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
         return "%s-%d".formatted(ForensicsJobAction.FORENSICS_ID, number);
     }
 
+    private Path getResultPath() {
+        return getOwner().getRootDir().toPath().resolve(fileName);
+    }
+
+    /**
+     * Returns the statistics of this action. If the statistics are stored as delta, then the statistics are restored
+     * from the statistics of the previous build and the stored delta. If the statistics are stored in another build,
+     * then the statistics of that build are returned. Loaded statistics are kept in the {@link
+     * RepositoryStatisticsCache}.
+     *
+     * @return the statistics
+     */
+    @Override
+    public RepositoryStatistics getResult() {
+        return RepositoryStatisticsCache.getInstance().get(this, this::loadResult);
+    }
+
+    private RepositoryStatistics loadResult() {
+        if (storage == StorageMode.SNAPSHOT) {
+            return super.getResult();
+        }
+        return restoreResult();
+    }
+
+    /**
+     * Returns whether the statistics of this action are stored as a delta to the statistics of a previous build.
+     *
+     * @return {@code true} if the statistics are stored as delta, {@code false} if a full snapshot is stored
+     */
+    public boolean isDelta() {
+        return storage == StorageMode.DELTA;
+    }
+
+    /**
+     * Returns whether the statistics of this action are identical to the statistics of a previous build and are stored
+     * in the folder of that build.
+     *
+     * @return {@code true} if the statistics are stored in a previous build, {@code false} otherwise
+     */
+    public boolean isReference() {
+        return storage == StorageMode.REFERENCE;
+    }
+
+    /**
+     * Returns indexed access to the persisted statistics of this action. Indexed access decodes the statistics of
+     * individual files on demand, so it is much cheaper than {@link #getResult()} if only some files are required.
+     *
+     * @return the indexed statistics, or an empty result if the statistics are not stored in an indexed file
+     */
+    Optional<IndexedRepositoryStatistics> getIndexedResult() {
+        if (isDelta()) {
+            return Optional.empty();
+        }
+        if (isReference()) {
+            return findPreviousAction().flatMap(ForensicsBuildAction::getIndexedResult);
+        }
+        return IndexedRepositoryStatistics.open(getResultPath());
+    }
+
+    private RepositoryStatistics restoreResult() {
+        if (isReference()) {
+            return getPreviousResult().withLatestStatistics(commitStatistics);
+        }
+        var delta = new RepositoryStatisticsDeltaXmlStream().read(getResultPath());
+        return delta.apply(getPreviousResult());
+    }
+
+    private RepositoryStatistics getPreviousResult() {
+        return findPreviousAction().map(ForensicsBuildAction::getResult).orElseGet(() -> {
+            LOGGER.log(Level.SEVERE, "Statistics of build #{0} required to restore the statistics of {1} are missing",
+                    new Object[] {previousBuild, getOwner()});
+            var missing = new RepositoryStatistics();
+            missing.markIncomplete();
+            return missing;
+        });
+    }
+
+    private Optional<ForensicsBuildAction> findPreviousAction() {
+        var build = getOwner().getParent().getBuildByNumber(previousBuild);
+        if (build == null) {
+            return Optional.empty();
+        }
+        return build.getActions(ForensicsBuildAction.class).stream()
+                .filter(action -> action.getScmKey().equals(scmKey))
+                .findAny();
+    }
+
+    /**
+     * Stores the statistics of this action as a full snapshot. This is required if the build that contains the
+     * statistics this action is based on will be deleted.
+     *
+     * @throws IOException
+     *         if the build could not be saved
+     */
+    private void convertToSnapshot() throws IOException {
+        if (storage != StorageMode.SNAPSHOT) {
+            var statistics = getResult();
+
+            fileName = StringUtils.removeEnd(fileName.replace(DELTA_NAME, StringUtils.EMPTY), XML_SUFFIX)
+                    + BINARY_SUFFIX;
+            createXmlStream().write(getResultPath(), statistics);
+            storage = StorageMode.SNAPSHOT;
+            previousBuild = 0;
+            deltaChainLength = 0;
+
+            getOwner().save();
+        }
+    }
+
+    /**
+     * Changes the build that stores the statistics of this referencing action.
+     *
+     * @param holder
+     *         the number of the build that stores the statistics
+     *
+     * @throws IOException
+     *         if the build could not be saved
+     */
+    private void changeReference(final int holder) throws IOException {
+        previousBuild = holder;
+
+        getOwner().save();
+    }
+
     @Override
     protected ForensicsJobAction createProjectAction() {
         return new ForensicsJobAction(getOwner().getParent(), scmKey);
@@ -153,7 +425,30 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
      */
     @Override
     public Object getTarget() {
-        return new ForensicsViewModel(getOwner(), getResult(), scmKey);
+        return new ForensicsViewModel(getOwner(), this::getResult, this::getIndexedResult, this::getSummary, scmKey,
+                getChartModelCache());
+    }
+
+    /**
+     * Returns the cache of the chart models of this action. Once the build has been completed, the models of the
+     * repository wide charts are persisted in the build folder.
+     *
+     * @return the cache of the chart models
+     */
+    ChartModelCache getChartModelCache() {
+        var cache = chartModels;
+        if (cache != null) {
+            return cache;
+        }
+        var owner = getOwner();
+        boolean isCompleted = !owner.isBuilding();
+        cache = new ChartModelCache(isCompleted ? owner.getRootDir().toPath() : null,
+                StringUtils.substringBeforeLast(fileName, "."), fingerprint + "/" + scmKey,
+                owner.getTimeInMillis() + owner.getDuration());
+        if (isCompleted) {
+            chartModels = cache; // the statistics of a completed build do not change anymore
+        }
+        return cache;
     }
 
     @Override
@@ -161,6 +456,25 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
         return urlName;
     }
 
+    /**
+     * Returns whether the statistics of this action contain only the recent part of the history of the repository.
+     * The older history will be backfilled by subsequent builds.
+     *
+     * @return {@code true} if the older history has not been mined yet, {@code false} otherwise
+     */
+    public boolean isPartial() {
+        return StringUtils.isNotEmpty(historyStartCommitId);
+    }
+
+    /**
+     * Returns the ID of the oldest mined commit if the history before this commit has not been mined yet.
+     *
+     * @return the ID of the oldest mined commit, or an empty string if the statistics contain the complete history
+     */
+    public String getHistoryStartCommitId() {
+        return historyStartCommitId;
+    }
+
     public int getNumberOfFiles() {
         return numberOfFiles;
     }
@@ -177,6 +491,22 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
         return totalChurn;
     }
 
+    /**
+     * Returns the summary of the distributions of the statistics of this action. The summary is stored with this
+     * action, so it is available without loading the statistics. For actions of older releases, the summary is
+     * computed once from the statistics.
+     *
+     * @return the summary of the statistics
+     */
+    public StatisticsSummary getSummary() {
+        var computed = summary;
+        if (computed == null) {
+            computed = StatisticsSummary.of(getResult());
+            summary = computed;
+        }
+        return computed;
+    }
+
     public CommitStatistics getCommitStatistics() {
         return commitStatistics;
     }
@@ -189,4 +519,51 @@ public class ForensicsBuildAction extends BuildAction<RepositoryStatistics> impl
     public String toString() {
         return "%s [%s]".formatted(urlName, scmKey);
     }
+
+    /**
+     * Converts the statistics of the following builds into a full snapshot if these statistics are stored as a delta
+     * to or as a reference to the statistics of a deleted build. If several subsequent builds reference the deleted
+     * build, then the first of these builds stores a full snapshot, and the other builds will reference this snapshot.
+     */
+    @Extension
+    public static class DeletedBuildListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            for (ForensicsBuildAction action : run.getActions(ForensicsBuildAction.class)) {
+                try {
+                    convertDependentActions(run, action.getScmKey());
+                }
+                catch (IOException exception) {
+                    LOGGER.log(Level.SEVERE, "Can't convert forensics statistics that depend on " + run, exception);
+                }
+            }
+        }
+
+        private void convertDependentActions(final Run<?, ?> run, final String scmKey) throws IOException {
+            int holder = 0;
+            for (Run<?, ?> next = run.getNextBuild(); next != null; next = next.getNextBuild()) {
+                var dependent = next.getActions(ForensicsBuildAction.class).stream()
+                        .filter(action -> action.getScmKey().equals(scmKey))
+                        .findAny();
+                if (dependent.isPresent()) {
+                    var action = dependent.get();
+                    if (action.storage == StorageMode.SNAPSHOT || action.previousBuild != run.getNumber()) {
+                        return;
+                    }
+                    if (action.isDelta()) {
+                        action.convertToSnapshot();
+
+                        return;
+                    }
+                    if (holder == 0) {
+                        action.convertToSnapshot();
+                        holder = next.getNumber();
+                    }
+                    else {
+                        action.changeReference(holder);
+                    }
+                }
+            }
+        }
+    }
 }
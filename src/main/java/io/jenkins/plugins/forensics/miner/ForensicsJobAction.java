@@ -10,8 +10,10 @@ import edu.hm.hafner.util.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import hudson.model.Job;
 import hudson.model.Run;
@@ -63,9 +65,27 @@ public class ForensicsJobAction extends AsyncConfigurableTrendJobAction<Forensic
         return new BuildActionIterator<>(ForensicsBuildAction.class, latestAction, predicate);
     }
 
+    /**
+     * Returns the trend of the forensics statistics. The trend is read from the {@link TrendIndex} of the job, so the
+     * builds do not need to be loaded.
+     *
+     * @return the trend, the latest build is the head of the list
+     */
+    List<BuildResult<TrendEntry>> createTrend() {
+        return TrendIndex.getInstance().getForensicsTrend(getOwner(), scmKey)
+                .stream()
+                .map(TrendEntry::toBuildResult)
+                .collect(Collectors.toList());
+    }
+
     @Override
     protected LinesChartModel createChartModel(final String configuration) {
-        return createChart(createBuildHistory(), configuration);
+        return createChart(createTrend(), configuration);
+    }
+
+    @Override
+    public boolean isTrendVisible() {
+        return TrendIndex.getInstance().hasForensicsTrend(getOwner(), scmKey);
     }
 
     /**
@@ -104,22 +124,24 @@ public class ForensicsJobAction extends AsyncConfigurableTrendJobAction<Forensic
         return FORENSICS_ID;
     }
 
-    LinesChartModel createChart(final Iterable<? extends BuildResult<ForensicsBuildAction>> buildHistory,
+    LinesChartModel createChart(final Iterable<? extends BuildResult<TrendEntry>> buildHistory,
             final String configuration) {
         ChartModelConfiguration modelConfiguration = ChartModelConfiguration.fromJson(configuration);
         var chart = getChart(configuration);
         if (chart == ChartType.LOC) {
-            return new CodeMetricTrendChart().create(buildHistory, modelConfiguration);
+            return new CodeMetricTrendChart().create(buildHistory, modelConfiguration,
+                    TrendEntrySeriesBuilder.codeMetric());
         }
         if (chart == ChartType.DELTA) {
             return new AddedVersusDeletedLinesTrendChart().create(buildHistory, modelConfiguration,
-                    new AddedVersusDeletedLinesForensicsSeriesBuilder());
+                    TrendEntrySeriesBuilder.addedVersusDeletedLines());
         }
         if (chart == ChartType.COUNT) {
             return new RelativeCountTrendChart().create(buildHistory, modelConfiguration,
-                    new RelativeCountForensicsSeriesBuilder());
+                    TrendEntrySeriesBuilder.relativeCount());
         }
-        return new FilesCountTrendChart().create(buildHistory, modelConfiguration);
+        return new FilesCountTrendChart().create(buildHistory, modelConfiguration,
+                TrendEntrySeriesBuilder.filesCount());
     }
 
     private ChartType getChart(final String configuration) {
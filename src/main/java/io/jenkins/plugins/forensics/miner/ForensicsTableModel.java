@@ -1,6 +1,7 @@
 package io.jenkins.plugins.forensics.miner;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +28,12 @@ import static j2html.TagCreator.*;
  * <li>time of first commit</li>
  * </ul>
  *
+ * <p>
+ * Large repositories should be shown using {@link #getPage(int, int, int, boolean, String) server side paging}: then
+ * the rows are sorted using the precomputed sort orders of the {@link RepositoryStatistics} and only the rows of the
+ * visible page are created.
+ * </p>
+ *
  * @author Ullrich Hafner
  */
 public class ForensicsTableModel extends TableModel {
@@ -86,6 +93,32 @@ public class ForensicsTableModel extends TableModel {
         return statistics.getFileStatistics().stream().map(ForensicsRow::new).collect(Collectors.toList());
     }
 
+    /**
+     * Returns the rows of the specified page. The files are sorted by the specified column and filtered by the
+     * specified search term.
+     *
+     * @param start
+     *         the index of the first row of the page
+     * @param length
+     *         the number of rows of the page, a negative value selects all rows
+     * @param column
+     *         the index of the column to sort by
+     * @param ascending
+     *         determines whether the rows should be sorted in ascending or descending order
+     * @param search
+     *         the search term, the rows are filtered by the paths of the files that contain the term (ignoring case)
+     *
+     * @return the rows of the page
+     */
+    public TablePage getPage(final int start, final int length, final int column, final boolean ascending,
+            final String search) {
+        var order = FileStatisticsOrder.fromColumn(column);
+        var sorted = StringUtils.isBlank(search)
+                ? statistics.getSortedFiles(order)
+                : statistics.findFiles(search, order);
+        return TablePage.of(sorted, statistics.size(), start, length, ascending, ForensicsRow::new);
+    }
+
     /**
      * A table row that shows the source control statistics.
      */
@@ -105,7 +138,7 @@ public class ForensicsTableModel extends TableModel {
         public String getFileName() {
             var fullPath = fileStatistics.getFileName();
 
-            return a().withHref("fileName." + fullPath.hashCode())
+            return a().withHref(PathId.toLink(fullPath))
                     .withText(FilenameUtils.getName(fullPath))
                     .attr("data-bs-toggle", "tooltip")
                     .attr("data-bs-placement", "left")
@@ -1,17 +1,30 @@
 package io.jenkins.plugins.forensics.miner;
 
-import java.io.IOException;
-import java.util.NoSuchElementException;
+import org.apache.commons.lang3.StringUtils;
 
 import edu.hm.hafner.echarts.JacksonFacade;
+import edu.hm.hafner.util.VisibleForTesting;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.kohsuke.stapler.StaplerRequest2;
 import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
+import org.kohsuke.stapler.verb.GET;
 import hudson.model.ModelObject;
 import hudson.model.Run;
 
 import io.jenkins.plugins.datatables.DefaultAsyncTableContentProvider;
+import io.jenkins.plugins.forensics.miner.StatisticsQuery.Field;
 import io.jenkins.plugins.forensics.util.CommitDecorator;
 import io.jenkins.plugins.forensics.util.CommitDecoratorFactory;
 
@@ -22,9 +35,23 @@ import io.jenkins.plugins.forensics.util.CommitDecoratorFactory;
  * @author Ullrich Hafner
  */
 public class ForensicsViewModel extends DefaultAsyncTableContentProvider implements ModelObject {
+    private static final String AUTHORS_CHART = "authors";
+    private static final String COMMITS_CHART = "commits";
+    private static final String FORMAT_PARAMETER = "format";
+    private static final String RECORDS_PARAMETER = "records";
+    private static final String JSON_CONTENT_TYPE = "application/json;charset=UTF-8";
+    private static final int DEFAULT_QUERY_LIMIT = 100;
+    @VisibleForTesting
+    static final int MAXIMUM_QUERY_LIMIT = 1000;
+    private static final int SEARCH_LIMIT = 20;
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
     private final Run<?, ?> owner;
-    private final RepositoryStatistics repositoryStatistics;
+    private final Supplier<RepositoryStatistics> repositoryStatistics;
+    private final Supplier<Optional<IndexedRepositoryStatistics>> indexedStatistics;
+    private final Supplier<StatisticsSummary> summary;
     private final String scmKey;
+    private final ChartModelCache chartModels;
 
     /**
      * Creates a new {@link ForensicsViewModel} instance.
@@ -37,11 +64,39 @@ public class ForensicsViewModel extends DefaultAsyncTableContentProvider impleme
      *         key of the repository
      */
     ForensicsViewModel(final Run<?, ?> owner, final RepositoryStatistics repositoryStatistics, final String scmKey) {
+        this(owner, () -> repositoryStatistics, Optional::empty, () -> StatisticsSummary.of(repositoryStatistics),
+                scmKey, new ChartModelCache(null, scmKey, repositoryStatistics.getFingerprint(), 0));
+    }
+
+    /**
+     * Creates a new {@link ForensicsViewModel} instance that loads the statistics on demand. The details view of a
+     * single file uses the indexed statistics (if available), so the complete statistics are loaded only for the views
+     * that show all files.
+     *
+     * @param owner
+     *         the build as owner of this view
+     * @param repositoryStatistics
+     *         provides the statistics to show in the view
+     * @param indexedStatistics
+     *         provides indexed access to the statistics, if available
+     * @param summary
+     *         provides the summary of the distributions of the statistics
+     * @param scmKey
+     *         key of the repository
+     * @param chartModels
+     *         the cache of the chart models
+     */
+    ForensicsViewModel(final Run<?, ?> owner, final Supplier<RepositoryStatistics> repositoryStatistics,
+            final Supplier<Optional<IndexedRepositoryStatistics>> indexedStatistics,
+            final Supplier<StatisticsSummary> summary, final String scmKey, final ChartModelCache chartModels) {
         super();
 
         this.owner = owner;
         this.repositoryStatistics = repositoryStatistics;
+        this.indexedStatistics = indexedStatistics;
+        this.summary = summary;
         this.scmKey = scmKey;
+        this.chartModels = chartModels;
     }
 
     public Run<?, ?> getOwner() {
@@ -59,7 +114,33 @@ public class ForensicsViewModel extends DefaultAsyncTableContentProvider impleme
 
     @Override
     public ForensicsTableModel getTableModel(final String id) {
-        return new ForensicsTableModel(repositoryStatistics);
+        return new ForensicsTableModel(repositoryStatistics.get());
+    }
+
+    /**
+     * Returns the rows of the specified page of the files table as JSON. The files are sorted by the specified column
+     * and filtered by the specified search term.
+     *
+     * @param id
+     *         the ID of the table
+     * @param start
+     *         the index of the first row of the page
+     * @param length
+     *         the number of rows of the page, a negative value selects all rows
+     * @param column
+     *         the index of the column to sort by
+     * @param ascending
+     *         determines whether the rows should be sorted in ascending or descending order
+     * @param search
+     *         the search term, the rows are filtered by the paths of the files that contain the term (ignoring case)
+     *
+     * @return the rows of the page as JSON
+     */
+    @JavaScriptMethod
+    @SuppressWarnings("unused") // Called by jelly view
+    public String getTablePage(final String id, final int start, final int length, final int column,
+            final boolean ascending, final String search) {
+        return new JacksonFacade().toJson(getTableModel(id).getPage(start, length, column, ascending, search));
     }
 
     /**
@@ -70,8 +151,11 @@ public class ForensicsViewModel extends DefaultAsyncTableContentProvider impleme
     @JavaScriptMethod
     @SuppressWarnings("unused") // Called by jelly view
     public String getAuthorsModel() {
-        return new JacksonFacade().toJson(new SizePieChart().create(repositoryStatistics,
-                FileStatistics::getNumberOfAuthors, 5, 10, 15, 25, 50));
+        return chartModels.get(AUTHORS_CHART, true, this::createAuthorsModel);
+    }
+
+    private String createAuthorsModel() {
+        return new JacksonFacade().toJson(new SizePieChart().create(summary.get().getAuthorsDistribution()));
     }
 
     /**
@@ -82,8 +166,236 @@ public class ForensicsViewModel extends DefaultAsyncTableContentProvider impleme
     @JavaScriptMethod
     @SuppressWarnings("unused") // Called by jelly view
     public String getCommitsModel() {
-        return new JacksonFacade().toJson(new SizePieChart().create(repositoryStatistics,
-                FileStatistics::getNumberOfCommits, 5, 10, 25, 50, 100, 250));
+        return chartModels.get(COMMITS_CHART, true, this::createCommitsModel);
+    }
+
+    private String createCommitsModel() {
+        return new JacksonFacade().toJson(new SizePieChart().create(summary.get().getCommitsDistribution()));
+    }
+
+    /**
+     * Exports the statistics of all files as CSV or NDJSON. The request parameter {@code format} selects the output
+     * format ({@code csv} or {@code ndjson}), the request parameter {@code records} selects whether one record per file
+     * ({@code files}) or one record per commit of a file ({@code commits}) is written. The records are streamed to the
+     * client one after another (compressed if supported by the client).
+     *
+     * @param request
+     *         Stapler request
+     * @param response
+     *         Stapler response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    public void doExport(final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        var format = StatisticsExporter.Format.fromParameter(request.getParameter(FORMAT_PARAMETER));
+        var records = StatisticsExporter.Records.fromParameter(request.getParameter(RECORDS_PARAMETER));
+
+        response.setContentType(format.getContentType());
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"forensics-%s.%s\"".formatted(records.getName(), format.getExtension()));
+
+        var exporter = new StatisticsExporter(format, records);
+        try (var writer = response.getCompressedWriter(request)) {
+            var indexed = indexedStatistics.get();
+            if (indexed.isPresent()) {
+                exporter.export(indexed.get()::forEach, writer);
+            }
+            else {
+                exporter.export(repositoryStatistics.get().getFileStatistics()::forEach, writer);
+            }
+        }
+    }
+
+    /**
+     * Returns the files that match a {@link StatisticsQuery} as JSON. The query is composed of the following request
+     * parameters (all parameters are optional):
+     * <ul>
+     *     <li>{@code prefix}: selects the files below the specified folder</li>
+     *     <li>{@code glob}: selects the files that match the specified Ant glob pattern</li>
+     *     <li>{@code since}, {@code until}: the time window in seconds since the epoch, alternatively {@code days}
+     *     selects the last number of days</li>
+     *     <li>{@code author}: selects the files that have been changed by the specified author</li>
+     *     <li>{@code minAuthors}, {@code minCommits}, {@code minLinesOfCode}, {@code minChurn}, ...: the minimum value
+     *     of a field</li>
+     *     <li>{@code sort}, {@code order}: the field to sort by ({@code file} by default) and the sort order
+     *     ({@code asc} or {@code desc}, descending for all fields but the file name by default)</li>
+     *     <li>{@code limit}: the maximum number of files to return (100 by default, at most 1000)</li>
+     *     <li>{@code fields}: the comma separated list of fields to return</li>
+     * </ul>
+     *
+     * @param request
+     *         Stapler request
+     * @param response
+     *         Stapler response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    public void doQuery(final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        StatisticsQuery query;
+        try {
+            query = createQuery(request::getParameter, (int) (System.currentTimeMillis() / 1000));
+        }
+        catch (IllegalArgumentException exception) {
+            response.sendError(StaplerResponse2.SC_BAD_REQUEST, exception.getMessage());
+            return;
+        }
+
+        var files = repositoryStatistics.get().query(query).stream()
+                .map(file -> file.project(query.getFields()))
+                .collect(Collectors.toList());
+        response.setContentType(JSON_CONTENT_TYPE);
+        response.getWriter().write(new JacksonFacade().toJson(Map.of("size", files.size(), "files", files)));
+    }
+
+    /**
+     * Searches for the files with a path that matches the request parameter {@code term}. Returns a JSON array with
+     * the best matches: each match contains the path of the file and the link to the details view of the file.
+     *
+     * @param request
+     *         Stapler request
+     * @param response
+     *         Stapler response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    public void doSearch(final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        var matches = searchPaths(request.getParameter("term"));
+        response.setContentType(JSON_CONTENT_TYPE);
+        response.getWriter().write(new JacksonFacade().toJson(matches));
+    }
+
+    @VisibleForTesting
+    List<Map<String, String>> searchPaths(final String term) {
+        if (StringUtils.isBlank(term)) {
+            return List.of();
+        }
+        return repositoryStatistics.get().searchPaths(term, SEARCH_LIMIT).stream()
+                .map(path -> Map.of("path", path, "link", PathId.toLink(path)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the aggregated statistics of the directory given by the request parameter {@code path} and of its
+     * subdirectories as JSON object. If the parameter is missing, then the statistics of the repository root are
+     * returned. Unknown directories return the status 404.
+     *
+     * @param request
+     *         Stapler request
+     * @param response
+     *         Stapler response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    public void doDirectories(final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        var directory = getDirectory(StringUtils.defaultString(request.getParameter("path")));
+        if (directory.isEmpty()) {
+            response.sendError(StaplerResponse2.SC_NOT_FOUND, "No such directory");
+            return;
+        }
+        response.setContentType(JSON_CONTENT_TYPE);
+        response.getWriter().write(new JacksonFacade().toJson(directory.get()));
+    }
+
+    @VisibleForTesting
+    Optional<Map<String, Object>> getDirectory(final String path) {
+        return repositoryStatistics.get().getDirectoryTree().find(path).map(directory -> {
+            var properties = toMap(directory);
+            properties.put("children", directory.getChildren().stream()
+                    .map(ForensicsViewModel::toMap)
+                    .collect(Collectors.toList()));
+            return properties;
+        });
+    }
+
+    private static Map<String, Object> toMap(final DirectoryStatistics directory) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("path", directory.getPath());
+        properties.put("name", directory.getName());
+        properties.put("files", directory.getNumberOfFiles());
+        properties.put("linesOfCode", directory.getLinesOfCode());
+        properties.put("churn", directory.getChurn());
+        properties.put("commits", directory.getNumberOfCommits());
+        properties.put("authors", directory.getNumberOfAuthors());
+        return properties;
+    }
+
+    @VisibleForTesting
+    static StatisticsQuery createQuery(final Function<String, String> parameters, final int now) {
+        var query = StatisticsQuery.all()
+                .withPathPrefix(parameters.apply("prefix"))
+                .withGlob(parameters.apply("glob"))
+                .withAuthor(parameters.apply("author"))
+                .withLimit(toLimit(toInt(parameters, "limit", DEFAULT_QUERY_LIMIT)));
+
+        int since = toSince(parameters, now);
+        int until = toInt(parameters, "until", Integer.MAX_VALUE);
+        if (since > 0 || until < Integer.MAX_VALUE) {
+            query = query.withTimeWindow(since, until);
+        }
+
+        for (Field field : Field.values()) {
+            if (field != Field.FILE) {
+                var name = "min" + StringUtils.capitalize(field.getName());
+                if (parameters.apply(name) != null) {
+                    query = query.withMinimum(field, toInt(parameters, name, 0));
+                }
+            }
+        }
+
+        var sort = toField(StringUtils.defaultIfBlank(parameters.apply("sort"), Field.FILE.getName()));
+        var order = parameters.apply("order");
+        query = query.withOrder(sort, order == null ? sort != Field.FILE : !"asc".equalsIgnoreCase(order));
+
+        var fields = EnumSet.noneOf(Field.class);
+        for (String name : StringUtils.split(StringUtils.defaultString(parameters.apply("fields")), ',')) {
+            fields.add(toField(name.trim()));
+        }
+        return query.withFields(fields);
+    }
+
+    private static int toLimit(final int limit) {
+        if (limit < 1) {
+            return MAXIMUM_QUERY_LIMIT;
+        }
+        return Math.min(limit, MAXIMUM_QUERY_LIMIT);
+    }
+
+    private static int toSince(final Function<String, String> parameters, final int now) {
+        int days = toInt(parameters, "days", 0);
+        if (days == 0) {
+            return toInt(parameters, "since", 0);
+        }
+        long since = now - (long) days * SECONDS_PER_DAY;
+        if (days < 0 || since < 0) {
+            throw new IllegalArgumentException("Parameter 'days' is out of range: " + days);
+        }
+        return (int) since;
+    }
+
+    private static Field toField(final String name) {
+        return Field.fromName(name).orElseThrow(
+                () -> new IllegalArgumentException("Unknown field: " + name));
+    }
+
+    private static int toInt(final Function<String, String> parameters, final String name, final int defaultValue) {
+        var value = parameters.apply(name);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Parameter '%s' is not a number: %s".formatted(name, value), exception);
+        }
     }
 
     /**
@@ -103,7 +415,11 @@ public class ForensicsViewModel extends DefaultAsyncTableContentProvider impleme
         try {
             CommitDecorator decorator = CommitDecoratorFactory.findCommitDecorator(owner);
 
-            return new FileDetailsView(owner, link, repositoryStatistics, decorator);
+            var indexed = indexedStatistics.get();
+            if (indexed.isPresent()) {
+                return new FileDetailsView(owner, link, indexed.get(), decorator, chartModels);
+            }
+            return new FileDetailsView(owner, link, repositoryStatistics.get(), decorator, chartModels);
         }
         catch (NoSuchElementException nse) {
             try {
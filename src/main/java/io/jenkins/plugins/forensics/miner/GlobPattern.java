@@ -0,0 +1,117 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A glob pattern in the Ant glob syntax of the {@link PathFilter} that is matched segment by segment without a regular
+ * expression. The pattern is split into the segments of a path: a {@code **} segment matches zero or more segments of
+ * a path, any other segment matches exactly one segment, where {@code *} matches zero or more characters and
+ * {@code ?} matches a single character (a {@code **} within a segment is equivalent to {@code *}). Both levels use
+ * the greedy wildcard algorithm that resumes at the last wildcard, so matching a path takes at most
+ * {@code O(pattern length * path length)} steps. Since the patterns are provided by users of the REST API, patterns
+ * with many wildcards must not trigger the backtracking of a regular expression.
+ *
+ * @author Ullrich Hafner
+ */
+final class GlobPattern {
+    private static final String ANY_SEGMENTS = "**";
+
+    private final String[] segments;
+
+    /**
+     * Creates a new {@link GlobPattern}.
+     *
+     * @param glob
+     *         the glob pattern, relative to the repository root
+     */
+    GlobPattern(final String glob) {
+        var normalized = StringUtils.removeStart(glob.replace('\\', '/'), "/");
+        List<String> parts = new ArrayList<>();
+        for (String segment : StringUtils.split(normalized, '/')) {
+            if (isAnySegments(segment) && !parts.isEmpty() && isAnySegments(parts.get(parts.size() - 1))) {
+                continue; // repeated ** segments are equivalent to a single ** segment
+            }
+            parts.add(segment);
+        }
+        segments = parts.toArray(new String[0]);
+    }
+
+    private static boolean isAnySegments(final String segment) {
+        return ANY_SEGMENTS.equals(segment);
+    }
+
+    /**
+     * Returns whether the specified path matches this pattern.
+     *
+     * @param path
+     *         the path, relative to the repository root
+     *
+     * @return {@code true} if the path matches, {@code false} otherwise
+     */
+    boolean matches(final String path) {
+        var names = StringUtils.split(StringUtils.removeStart(path.replace('\\', '/'), "/"), '/');
+
+        int segment = 0;
+        int name = 0;
+        int wildcard = -1;
+        int resume = 0;
+        while (name < names.length) {
+            if (segment < segments.length && isAnySegments(segments[segment])) {
+                wildcard = segment++;
+                resume = name;
+            }
+            else if (segment < segments.length && matchesSegment(segments[segment], names[name])) {
+                segment++;
+                name++;
+            }
+            else if (wildcard >= 0) {
+                segment = wildcard + 1;
+                name = ++resume;
+            }
+            else {
+                return false;
+            }
+        }
+        while (segment < segments.length && isAnySegments(segments[segment])) {
+            segment++;
+        }
+        return segment == segments.length;
+    }
+
+    private static boolean matchesSegment(final String pattern, final String name) {
+        int position = 0;
+        int character = 0;
+        int wildcard = -1;
+        int resume = 0;
+        while (character < name.length()) {
+            if (position < pattern.length() && pattern.charAt(position) == '*') {
+                wildcard = position++;
+                resume = character;
+            }
+            else if (position < pattern.length()
+                    && (pattern.charAt(position) == '?' || pattern.charAt(position) == name.charAt(character))) {
+                position++;
+                character++;
+            }
+            else if (wildcard >= 0) {
+                position = wildcard + 1;
+                character = ++resume;
+            }
+            else {
+                return false;
+            }
+        }
+        while (position < pattern.length() && pattern.charAt(position) == '*') {
+            position++;
+        }
+        return position == pattern.length();
+    }
+
+    @Override
+    public String toString() {
+        return String.join("/", segments);
+    }
+}
@@ -0,0 +1,284 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.hm.hafner.util.TreeString;
+import edu.hm.hafner.util.TreeStringBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import io.jenkins.plugins.forensics.miner.RepositoryStatisticsBinaryFormat.BufferDecoder;
+
+/**
+ * Provides read access to the statistics of a file that has been written using the {@link
+ * RepositoryStatisticsBinaryFormat binary format}. The file is mapped into memory and the statistics of individual files
+ * are decoded on demand using the index of the file. The totals of the repository are read from the header. So the heap
+ * required by an instance is independent of the size of the repository.
+ *
+ * <p>
+ * Instances should not be stored for a longer time (e.g., in a build action): on some platforms a file cannot be
+ * deleted as long as it is mapped into memory.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class IndexedRepositoryStatistics {
+    private final ByteBuffer buffer;
+
+    private final String latestCommitId;
+    private final CommitStatistics latestStatistics;
+    private final int totalLinesOfCode;
+    private final int totalChurn;
+
+    private final int pathTable;
+    private final int authorTable;
+    private final int commitIdTable;
+    private final int fileTable;
+    private final int size;
+    private final int pathIdTable;
+
+    /**
+     * Opens the specified statistics file. Only files that have been written with the binary format are supported.
+     *
+     * @param file
+     *         the file to open
+     *
+     * @return the indexed statistics, or an empty result if the file does not exist or is not a binary file (e.g.,
+     *         an XML file)
+     */
+    static Optional<IndexedRepositoryStatistics> open(final Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE || length < RepositoryStatisticsBinaryFormat.TRAILER_SIZE) {
+                return Optional.empty();
+            }
+            return Optional.of(new IndexedRepositoryStatistics(channel.map(MapMode.READ_ONLY, 0, length)));
+        }
+        catch (IOException | UncheckedIOException | IndexOutOfBoundsException exception) {
+            return Optional.empty(); // fallback to a complete read that reports the problem
+        }
+    }
+
+    private IndexedRepositoryStatistics(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        var header = new BufferDecoder(buffer, 0);
+        RepositoryStatisticsBinaryFormat.readVersion(header);
+        latestCommitId = header.readString();
+        latestStatistics = RepositoryStatisticsBinaryFormat.readStatistics(header);
+        totalLinesOfCode = header.readSigned();
+        totalChurn = header.readSigned();
+
+        int trailer = buffer.limit() - RepositoryStatisticsBinaryFormat.TRAILER_SIZE;
+        var magic = new BufferDecoder(buffer, trailer + Long.BYTES)
+                .readBytes(RepositoryStatisticsBinaryFormat.TRAILER_SIZE - Long.BYTES);
+        if (!RepositoryStatisticsBinaryFormat.isMagic(magic)) {
+            throw new IOException("Missing trailer of repository statistics file");
+        }
+        pathTable = toPosition(buffer.getLong(trailer));
+        authorTable = skipOffsets(pathTable);
+        commitIdTable = skipOffsets(authorTable);
+        fileTable = skipOffsets(commitIdTable);
+        size = buffer.getInt(fileTable);
+        pathIdTable = toPosition(fileTable + Integer.BYTES
+                + (long) size * RepositoryStatisticsBinaryFormat.FILE_ENTRY_SIZE);
+    }
+
+    private int skipOffsets(final int table) {
+        return toPosition(table + Integer.BYTES + (long) buffer.getInt(table) * Long.BYTES);
+    }
+
+    private int toPosition(final long offset) {
+        if (offset < 0 || offset > buffer.limit()) {
+            throw new UncheckedIOException(new IOException("Invalid offset in repository statistics file: " + offset));
+        }
+        return (int) offset;
+    }
+
+    public String getLatestCommitId() {
+        return latestCommitId;
+    }
+
+    public CommitStatistics getLatestStatistics() {
+        return latestStatistics;
+    }
+
+    public int getTotalLinesOfCode() {
+        return totalLinesOfCode;
+    }
+
+    public int getTotalChurn() {
+        return totalChurn;
+    }
+
+    /**
+     * Returns the number of files in the repository.
+     *
+     * @return number of files in the repository
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the specified file is part of the repository.
+     *
+     * @param fileName
+     *         the name of the file
+     *
+     * @return {@code true} if the file file is part of the repository, {@code false} otherwise
+     */
+    public boolean contains(final String fileName) {
+        return indexOf(fileName) >= 0;
+    }
+
+    /**
+     * Returns the statistics for the specified file. Only the block of the specified file will be decoded.
+     *
+     * @param fileName
+     *         absolute file name
+     *
+     * @return the statistics for that file, or an empty result if the file is not part of the repository
+     */
+    public Optional<FileStatistics> find(final String fileName) {
+        int index = indexOf(fileName);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(decodeFile(index));
+    }
+
+    /**
+     * Returns the statistics for the file with the specified path identifier. The file is found using a binary search
+     * in the index of the path identifiers.
+     *
+     * @param pathId
+     *         the identifier of the path of the file, see {@link PathId#of(String)}
+     *
+     * @return the statistics for that file, or an empty result if there is no such file
+     */
+    public Optional<FileStatistics> findByPathId(final long pathId) {
+        int low = 0;
+        int high = buffer.getInt(pathIdTable) - 1;
+        while (low <= high) { // find the first entry with the identifier
+            int middle = (low + high) >>> 1;
+            if (buffer.getLong(getPathIdEntry(middle)) < pathId) {
+                low = middle + 1;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        if (low < buffer.getInt(pathIdTable) && buffer.getLong(getPathIdEntry(low)) == pathId) {
+            int index = buffer.getInt(getPathIdEntry(low) + Long.BYTES);
+            if (index < 0 || index >= size) {
+                throw new UncheckedIOException(new IOException("Invalid file index in repository statistics file"));
+            }
+            return Optional.of(decodeFile(index));
+        }
+        return Optional.empty();
+    }
+
+    private int getPathIdEntry(final int index) {
+        return pathIdTable + Integer.BYTES + index * RepositoryStatisticsBinaryFormat.PATH_ID_ENTRY_SIZE;
+    }
+
+    /**
+     * Returns the statistics for the first file with a name that matches the specified predicate. The names of the
+     * files are scanned using the index, only the block of the matching file will be decoded.
+     *
+     * @param fileName
+     *         the predicate for the file name
+     *
+     * @return the statistics for that file, or an empty result if no file matches
+     */
+    public Optional<FileStatistics> findFirst(final Predicate<String> fileName) {
+        for (int i = 0; i < size; i++) {
+            if (fileName.test(getFileName(i))) {
+                return Optional.of(decodeFile(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Performs the specified action for the statistics of each file, in the order of the file names. The files are
+     * decoded one after another, so the statistics of the previous files can be garbage collected while the action
+     * processes the next file.
+     *
+     * @param action
+     *         the action to perform for each file
+     */
+    public void forEach(final Consumer<FileStatistics> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(decodeFile(i));
+        }
+    }
+
+    private int indexOf(final String fileName) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = getFileName(middle).compareTo(fileName);
+            if (comparison < 0) {
+                low = middle + 1;
+            }
+            else if (comparison > 0) {
+                high = middle - 1;
+            }
+            else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private String getFileName(final int index) {
+        return readEntry(pathTable, buffer.getInt(getFileEntry(index)));
+    }
+
+    private int getFileEntry(final int index) {
+        return fileTable + Integer.BYTES + index * RepositoryStatisticsBinaryFormat.FILE_ENTRY_SIZE;
+    }
+
+    private String readEntry(final int table, final int index) {
+        if (index < 0 || index >= buffer.getInt(table)) {
+            throw new UncheckedIOException(new IOException("Invalid dictionary index in repository statistics file"));
+        }
+        try {
+            int entry = toPosition(table + Integer.BYTES + (long) index * Long.BYTES);
+            return new BufferDecoder(buffer, toPosition(buffer.getLong(entry))).readString();
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private FileStatistics decodeFile(final int index) {
+        var builder = new TreeStringBuilder();
+        Map<Integer, TreeString> paths = new HashMap<>();
+        Map<Integer, String> authors = new HashMap<>();
+        Map<Integer, String> commitIds = new HashMap<>();
+
+        try {
+            int offset = toPosition(buffer.getLong(getFileEntry(index) + Integer.BYTES));
+            return RepositoryStatisticsBinaryFormat.readFile(new BufferDecoder(buffer, offset),
+                    i -> paths.computeIfAbsent(i, key -> builder.intern(readEntry(pathTable, key))),
+                    i -> authors.computeIfAbsent(i, key -> readEntry(authorTable, key)),
+                    i -> commitIds.computeIfAbsent(i, key -> readEntry(commitIdTable, key)));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.jenkins.plugins.forensics.miner;
+
+/**
+ * Downsamples a series of data points using the Largest-Triangle-Three-Buckets (LTTB) algorithm. The algorithm keeps
+ * the first and the last point and splits the remaining points into equally sized buckets. From each bucket the point
+ * is selected that forms the largest triangle with the point selected in the previous bucket and the average of the
+ * next bucket. In contrast to averaging or picking every n-th point, peaks and valleys of the series are preserved.
+ *
+ * @author Ullrich Hafner
+ */
+final class LargestTriangleThreeBuckets {
+    private LargestTriangleThreeBuckets() {
+        // prevents instantiation
+    }
+
+    /**
+     * Selects the points that should be shown.
+     *
+     * @param x
+     *         the x values of the points, must be sorted in ascending order
+     * @param y
+     *         the y values of the points
+     * @param threshold
+     *         the maximum number of points to select
+     *
+     * @return the indices of the selected points in ascending order
+     */
+    static int[] select(final double[] x, final double[] y, final int threshold) {
+        int size = x.length;
+        if (threshold >= size || threshold < 3) {
+            int count = threshold < 3 ? Math.min(size, 2) : size;
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = i == count - 1 ? size - 1 : i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int previous = 0;
+        selected[0] = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            if (nextCount > 0) {
+                averageX /= nextCount;
+                averageY /= nextCount;
+            }
+            else { // the last bucket: the next point is the last point
+                averageX = x[size - 1];
+                averageY = y[size - 1];
+            }
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = nextStart;
+            double maximumArea = -1;
+            int candidate = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[previous] - averageX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (averageY - y[previous]));
+                if (area > maximumArea) {
+                    maximumArea = area;
+                    candidate = i;
+                }
+            }
+            selected[bucket + 1] = candidate;
+            previous = candidate;
+        }
+        selected[threshold - 1] = size - 1;
+        return selected;
+    }
+}
@@ -2,13 +2,18 @@ package io.jenkins.plugins.forensics.miner;
 
 import edu.hm.hafner.util.FilteredLog;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 import hudson.model.Run;
 
-import io.jenkins.plugins.util.BuildAction;
-
 /**
  * Queries the repository statistics of a build for a subselection of results.
  *
@@ -16,6 +21,7 @@ import io.jenkins.plugins.util.BuildAction;
  */
 public class MinerService {
     static final String NO_MINER_ERROR = "Repository miner is not configured, skipping repository mining";
+    static final int MAX_REPORTED_MISSING_FILES = 10;
 
     /**
      * Queries the statistics for the selected files of the aggregated repository statistics of the specified build.
@@ -33,31 +39,99 @@ public class MinerService {
      */
     public RepositoryStatistics queryStatisticsFor(final String scm, final Run<?, ?> build,
             final Set<String> files, final FilteredLog logger) {
-        var selected = new RepositoryStatistics();
-
         List<ForensicsBuildAction> actions = build.getActions(ForensicsBuildAction.class);
         if (actions.isEmpty()) {
             logger.logInfo(NO_MINER_ERROR);
-            return selected;
+            return new RepositoryStatistics();
         }
 
-        var everything = actions.stream()
+        var action = actions.stream()
                 .filter(a -> a.getScmKey().contains(scm))
-                .findAny()
-                .map(BuildAction::getResult)
-                .orElse(new RepositoryStatistics());
+                .findAny();
+        if (action.isEmpty()) {
+            logger.logInfo("Extracting repository forensics for %d affected files (files in repository: 0)",
+                    files.size());
+            logMissingFiles(files, logger);
+            logger.logInfo("-> 0 affected files processed");
+            return new RepositoryStatistics();
+        }
+        return select(action.get(), files, logger).toRepositoryStatistics();
+    }
+
+    /**
+     * Queries the statistics for the selected files of the aggregated repository statistics of the specified build. In
+     * contrast to {@link #queryStatisticsFor(String, Run, Set, FilteredLog)}, the statistics of the selected files are
+     * not copied: the returned selections are read-only views of the statistics of the build. Files that are not part
+     * of a repository are summarized in {@link RepositoryStatisticsSelection#getMissingFiles()} of the selection.
+     *
+     * @param scms
+     *         the SCMs to get the results from (substrings of the SCM keys), an empty collection selects all SCMs
+     * @param build
+     *         the build
+     * @param files
+     *         the files to get the statistics for
+     * @param logger
+     *         the logger
+     *
+     * @return the selections for each of the matching SCMs, mapped by the SCM key
+     */
+    public Map<String, RepositoryStatisticsSelection> queryStatisticsFor(final Collection<String> scms,
+            final Run<?, ?> build, final Set<String> files, final FilteredLog logger) {
+        List<ForensicsBuildAction> actions = build.getActions(ForensicsBuildAction.class);
+        if (actions.isEmpty()) {
+            logger.logInfo(NO_MINER_ERROR);
+            return Collections.emptyMap();
+        }
+
+        Map<String, RepositoryStatisticsSelection> selections = new LinkedHashMap<>();
+        for (ForensicsBuildAction action : actions) {
+            if (scms.isEmpty() || scms.stream().anyMatch(scm -> action.getScmKey().contains(scm))) {
+                var selection = select(action, files, logger);
+                if (!selection.getMissingFiles().isEmpty()) {
+                    logger.logInfo("-> %d files without statistics", selection.getMissingFiles().size());
+                }
+                selections.put(action.getScmKey(), selection);
+            }
+        }
+        return selections;
+    }
+
+    private RepositoryStatisticsSelection select(final ForensicsBuildAction action, final Set<String> files,
+            final FilteredLog logger) {
+        var indexed = action.getIndexedResult();
+        if (indexed.isPresent()) {
+            var everything = indexed.get();
+            logger.logInfo("Extracting repository forensics for %d affected files (files in repository: %d)",
+                    files.size(), everything.size());
+            return select(action.getScmKey(), files, everything::find, logger);
+        }
+
+        var everything = Optional.ofNullable(action.getResult())
+                .map(RepositoryStatistics::getMapping)
+                .orElse(Collections.emptyMap());
         logger.logInfo("Extracting repository forensics for %d affected files (files in repository: %d)",
                 files.size(), everything.size());
+        return select(action.getScmKey(), files, file -> Optional.ofNullable(everything.get(file)), logger);
+    }
 
+    private RepositoryStatisticsSelection select(final String scmKey, final Set<String> files,
+            final Function<String, Optional<FileStatistics>> lookup, final FilteredLog logger) {
+        Map<String, FileStatistics> selected = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
         for (String file : files) {
-            if (everything.contains(file)) {
-                selected.add(everything.get(file));
-            }
-            else {
-                logger.logError("No statistics found for file '%s'", file);
-            }
+            lookup.apply(file).ifPresentOrElse(statistics -> selected.put(file, statistics), () -> missing.add(file));
         }
+        logMissingFiles(missing, logger);
         logger.logInfo("-> %d affected files processed", selected.size());
-        return selected;
+        return new RepositoryStatisticsSelection(scmKey, selected, missing);
+    }
+
+    private void logMissingFiles(final Collection<String> missing, final FilteredLog logger) {
+        missing.stream()
+                .limit(MAX_REPORTED_MISSING_FILES)
+                .forEach(file -> logger.logError("No statistics found for file '%s'", file));
+        if (missing.size() > MAX_REPORTED_MISSING_FILES) {
+            logger.logError("No statistics found for %d more files", missing.size() - MAX_REPORTED_MISSING_FILES);
+        }
     }
 }
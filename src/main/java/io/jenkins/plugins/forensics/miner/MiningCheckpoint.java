@@ -0,0 +1,346 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Persists the partial results of a mining run, so that an interrupted mining run (e.g., an aborted build or a
+ * disconnected agent) does not need to start from scratch again. A checkpoint consists of the statistics that have been
+ * aggregated so far and of the ID of the last commit that has been aggregated (the watermark). The checkpoint is stored
+ * in the job folder: the next build resumes the mining from the watermark if the checkpoint has been created on top of
+ * the same statistics that the next build would use otherwise. Each build writes its own checkpoint file, so concurrent
+ * builds of the same job do not overwrite the checkpoints of each other. Checkpoints that have been created on top of
+ * other statistics are outdated: they are deleted when a build looks for a checkpoint to resume from. The checkpoints
+ * of a deleted build are deleted with the build.
+ *
+ * <p>
+ * A {@link RepositoryMiner} saves checkpoints using {@link #save(RepositoryStatistics, String)} or by passing the
+ * checkpoint to a {@link CommitIngestionPipeline}. The miner must provide the commits in chronological order (oldest
+ * commits first) and must continue the mining with the commit after {@link RepositoryStatistics#getLatestCommitId()}
+ * of the statistics passed to {@link RepositoryMiner#mine(RepositoryStatistics, MiningCheckpoint, FilteredLog)}. So a
+ * checkpoint must only be saved when all diff items of the watermark commit have been aggregated.
+ * Checkpoints are written at most once per {@link #getInterval() interval}, since writing requires serializing all
+ * statistics.
+ * </p>
+ *
+ * <p>
+ * Instances are serializable, so a miner that runs on an agent can write the checkpoint to the controller.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class MiningCheckpoint implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(MiningCheckpoint.class.getName());
+
+    static final long DEFAULT_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+    private static final String FILE_PREFIX = "forensics-checkpoint-";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BUILD_SEPARATOR = "-";
+
+    /**
+     * Returns a checkpoint that does not store anything.
+     *
+     * @return a disabled checkpoint
+     */
+    public static MiningCheckpoint disabled() {
+        return new MiningCheckpoint(null, StringUtils.EMPTY, StringUtils.EMPTY, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Creates a checkpoint for the specified SCM and build in the specified job folder.
+     *
+     * @param jobRootDir
+     *         the root folder of the job
+     * @param scmKey
+     *         the key of the mined SCM
+     * @param buildNumber
+     *         the number of the build that mines the SCM
+     * @param baseCommitId
+     *         the latest commit of the statistics the mining run starts with (empty if the mining starts from scratch)
+     *
+     * @return the checkpoint
+     */
+    static MiningCheckpoint create(final File jobRootDir, final String scmKey, final int buildNumber,
+            final String baseCommitId) {
+        var fileName = getScmPrefix(scmKey) + buildNumber + FILE_SUFFIX;
+        return new MiningCheckpoint(new FilePath(jobRootDir).child(fileName), scmKey, baseCommitId,
+                DEFAULT_INTERVAL);
+    }
+
+    private static String getScmPrefix(final String scmKey) {
+        return FILE_PREFIX + Long.toHexString(PathId.of(scmKey)) + BUILD_SEPARATOR;
+    }
+
+    /**
+     * Deletes the checkpoints of all SCMs of the specified build.
+     *
+     * @param jobRootDir
+     *         the root folder of the job
+     * @param buildNumber
+     *         the number of the build
+     */
+    static void deleteCheckpoints(final File jobRootDir, final int buildNumber) {
+        var suffix = BUILD_SEPARATOR + buildNumber + FILE_SUFFIX;
+        var checkpoints = jobRootDir.listFiles(
+                (directory, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(suffix));
+        if (checkpoints == null) {
+            return;
+        }
+        for (File checkpoint : checkpoints) {
+            if (!checkpoint.delete()) {
+                LOGGER.log(Level.WARNING, "Can't delete mining checkpoint {0}", checkpoint);
+            }
+        }
+    }
+
+    @CheckForNull
+    private final FilePath file;
+    private final String scmKey;
+    private final String baseCommitId;
+    private final long interval;
+
+    private transient long lastSave;
+    /** The checkpoint of an interrupted build that has been restored by this build. */
+    @CheckForNull
+    private transient FilePath restoredFile;
+
+    @VisibleForTesting
+    MiningCheckpoint(@CheckForNull final FilePath file, final String scmKey, final String baseCommitId,
+            final long interval) {
+        this.file = file;
+        this.scmKey = scmKey;
+        this.baseCommitId = baseCommitId;
+        this.interval = interval;
+    }
+
+    /**
+     * Returns whether this checkpoint actually stores the partial results.
+     *
+     * @return {@code true} if this checkpoint is enabled, {@code false} otherwise
+     */
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * Returns the minimum time between two checkpoints.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Saves the specified partial statistics if the last checkpoint is older than the {@link #getInterval() interval}.
+     * Failures are logged, but do not abort the mining.
+     *
+     * @param partialStatistics
+     *         the statistics that have been aggregated so far, must not be modified concurrently
+     * @param watermark
+     *         the ID of the last commit that has been aggregated
+     * @param logger
+     *         the logger to report failures
+     *
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     */
+    public void saveIfDue(final RepositoryStatistics partialStatistics, final String watermark,
+            final FilteredLog logger) throws InterruptedException {
+        long now = System.currentTimeMillis();
+        if (isEnabled() && now - lastSave >= interval) {
+            try {
+                save(partialStatistics, watermark);
+                logger.logInfo("-> saved checkpoint at commit %s", watermark);
+            }
+            catch (IOException exception) {
+                logger.logException(exception, "Can't save mining checkpoint");
+            }
+            lastSave = now;
+        }
+    }
+
+    /**
+     * Saves the specified partial statistics.
+     *
+     * @param partialStatistics
+     *         the statistics that have been aggregated so far, must not be modified concurrently
+     * @param watermark
+     *         the ID of the last commit that has been aggregated
+     *
+     * @throws IOException
+     *         if the checkpoint could not be written
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     */
+    public void save(final RepositoryStatistics partialStatistics, final String watermark)
+            throws IOException, InterruptedException {
+        if (file == null) {
+            return;
+        }
+        var temp = file.getParent().createTempFile(file.getName(), TEMP_SUFFIX);
+        try {
+            try (var output = new DataOutputStream(temp.write())) {
+                output.writeUTF(scmKey);
+                output.writeUTF(baseCommitId);
+                RepositoryStatisticsBinaryFormat.write(output, new RepositoryStatistics(watermark, partialStatistics));
+            }
+            temp.renameTo(file);
+        }
+        finally {
+            if (temp.exists()) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Restores the statistics of the last checkpoint. A checkpoint is only used if it has been created on top of the
+     * same statistics as this checkpoint, i.e., if the base commits are equal. If this build has no checkpoint yet,
+     * then the newest checkpoint of another build of the same SCM is used, e.g. of an interrupted previous build.
+     * Outdated checkpoints of the SCM that have been created on top of other statistics will never be used again, so
+     * they are deleted.
+     *
+     * @param logger
+     *         the logger to report failures
+     *
+     * @return the statistics of the last checkpoint, or an empty result if there is no usable checkpoint
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     */
+    Optional<RepositoryStatistics> restore(final FilteredLog logger) throws InterruptedException {
+        if (file == null) {
+            return Optional.empty();
+        }
+        try {
+            for (FilePath candidate : findCandidates(file)) {
+                var restored = restore(candidate, logger);
+                if (restored.isPresent()) {
+                    if (!candidate.equals(file)) {
+                        restoredFile = candidate;
+                    }
+                    return restored;
+                }
+            }
+        }
+        catch (IOException exception) {
+            logger.logException(exception, "Can't restore mining checkpoint");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the checkpoint files of the SCM of the specified file: the specified file first, followed by the
+     * checkpoints of the other builds, the newest checkpoint first.
+     */
+    private static List<FilePath> findCandidates(final FilePath checkpoint) throws IOException, InterruptedException {
+        var directory = checkpoint.getParent();
+        List<FilePath> candidates = new ArrayList<>();
+        if (directory == null || !directory.exists()) {
+            return candidates;
+        }
+        var prefix = StringUtils.substringBeforeLast(checkpoint.getName(), BUILD_SEPARATOR) + BUILD_SEPARATOR;
+        Map<FilePath, Long> others = new HashMap<>();
+        for (FilePath candidate : directory.list(prefix + "*" + FILE_SUFFIX)) {
+            if (!candidate.equals(checkpoint)) {
+                others.put(candidate, candidate.lastModified());
+            }
+        }
+        if (checkpoint.exists()) {
+            candidates.add(checkpoint);
+        }
+        others.entrySet().stream()
+                .sorted(Map.Entry.<FilePath, Long>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .forEach(candidates::add);
+        return candidates;
+    }
+
+    private Optional<RepositoryStatistics> restore(final FilePath checkpoint, final FilteredLog logger)
+            throws InterruptedException {
+        try (var input = new DataInputStream(checkpoint.read())) {
+            if (!scmKey.equals(input.readUTF())) { // the identifiers of the SCM keys collide
+                return Optional.empty();
+            }
+            if (baseCommitId.equals(input.readUTF())) {
+                return Optional.of(RepositoryStatisticsBinaryFormat.read(input));
+            }
+        }
+        catch (IOException exception) {
+            logger.logException(exception, "Can't restore mining checkpoint %s", checkpoint.getName());
+            return Optional.empty();
+        }
+        logger.logInfo("-> deleting outdated mining checkpoint %s", checkpoint.getName());
+        delete(checkpoint, logger);
+        return Optional.empty();
+    }
+
+    /**
+     * Deletes the last checkpoint of this build, e.g. after the mining run has been completed. The checkpoint of an
+     * interrupted build that has been restored is deleted as well, since its results are part of this build now. The
+     * checkpoints of other builds are not touched.
+     *
+     * @param logger
+     *         the logger to report failures
+     *
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     */
+    void delete(final FilteredLog logger) throws InterruptedException {
+        delete(file, logger);
+        delete(restoredFile, logger);
+        restoredFile = null;
+    }
+
+    private void delete(@CheckForNull final FilePath checkpoint, final FilteredLog logger)
+            throws InterruptedException {
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            if (checkpoint.exists() && !checkpoint.delete()) {
+                logger.logError("Can't delete mining checkpoint %s", checkpoint.getRemote());
+            }
+        }
+        catch (IOException exception) {
+            logger.logException(exception, "Can't delete mining checkpoint");
+        }
+    }
+
+    /**
+     * Deletes the mining checkpoints of deleted builds.
+     */
+    @Extension
+    public static class DeletedBuildListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            deleteCheckpoints(run.getParent().getRootDir(), run.getNumber());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Defines which part of the history of a repository should be mined by a {@link RepositoryMiner}. Mining the complete
+ * history of a large repository in the first build might block the build for a long time. In this case the first
+ * build mines just the most recent commits, and the older history is backfilled in chunks by the subsequent builds.
+ *
+ * <p>
+ * A scope is either unlimited, or it limits the number of commits to mine. If a scope has a start commit, then just the
+ * commits that are older than the start commit should be mined (backfill of the history).
+ * </p>
+ *
+ * <p>
+ * If a miner stops before the root of the history has been reached, then it must mark the returned statistics with
+ * {@link RepositoryStatistics#setHistoryStartCommitId(String)} using the oldest mined commit.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class MiningScope implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final MiningScope ALL = new MiningScope(StringUtils.EMPTY, 0);
+
+    /**
+     * Returns a scope that mines the complete history.
+     *
+     * @return a scope for the complete history
+     */
+    public static MiningScope all() {
+        return ALL;
+    }
+
+    /**
+     * Returns a scope that mines the most recent commits of the history.
+     *
+     * @param maximumCommits
+     *         the maximum number of commits to mine, values less than 1 mine the complete history
+     *
+     * @return a scope for the most recent commits
+     */
+    public static MiningScope recent(final int maximumCommits) {
+        return new MiningScope(StringUtils.EMPTY, maximumCommits);
+    }
+
+    /**
+     * Returns a scope that mines the commits that are older than the specified commit.
+     *
+     * @param startCommitId
+     *         the ID of the oldest commit that has been mined already, the mining starts with the parents of this
+     *         commit
+     * @param maximumCommits
+     *         the maximum number of commits to mine, values less than 1 mine all older commits
+     *
+     * @return a scope for the older commits
+     */
+    public static MiningScope olderThan(final String startCommitId, final int maximumCommits) {
+        return new MiningScope(startCommitId, maximumCommits);
+    }
+
+    private final String startCommitId;
+    private final int maximumCommits;
+
+    private MiningScope(final String startCommitId, final int maximumCommits) {
+        this.startCommitId = startCommitId;
+        this.maximumCommits = Math.max(0, maximumCommits);
+    }
+
+    /**
+     * Returns whether the number of commits to mine is limited.
+     *
+     * @return {@code true} if the number of commits is limited, {@code false} if all commits should be mined
+     */
+    public boolean isLimited() {
+        return maximumCommits > 0;
+    }
+
+    /**
+     * Returns the maximum number of commits to mine.
+     *
+     * @return the maximum number of commits, or 0 if the number of commits is not limited
+     */
+    public int getMaximumCommits() {
+        return maximumCommits;
+    }
+
+    /**
+     * Returns whether this scope backfills the history that is older than a given start commit.
+     *
+     * @return {@code true} if this scope backfills older history, {@code false} if the most recent commits should be
+     *         mined
+     */
+    public boolean isBackfill() {
+        return StringUtils.isNotEmpty(startCommitId);
+    }
+
+    /**
+     * Returns the ID of the oldest commit that has been mined already. The backfill starts with the parents of this
+     * commit.
+     *
+     * @return the ID of the start commit, or an empty string if this scope does not backfill older history
+     */
+    public String getStartCommitId() {
+        return startCommitId;
+    }
+
+    @Override
+    public String toString() {
+        if (isBackfill()) {
+            return "%s commits older than %s".formatted(isLimited() ? maximumCommits : "all", startCommitId);
+        }
+        return isLimited() ? "%d most recent commits".formatted(maximumCommits) : "all commits";
+    }
+}
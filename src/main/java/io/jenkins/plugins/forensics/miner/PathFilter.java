@@ -0,0 +1,191 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Filters the paths of the repository files that should be mined. The filter is composed of a list of include patterns
+ * and a list of exclude patterns. A path is mined if it matches one of the include patterns (or if there are no include
+ * patterns at all) and if it matches none of the exclude patterns.
+ *
+ * <p>
+ * The patterns use the Ant glob syntax: {@code *} matches zero or more characters within a path segment, {@code ?}
+ * matches a single character within a path segment, and {@code **} matches zero or more path segments. Patterns are
+ * matched against the whole path relative to the repository root, e.g. use {@code **}{@code /*.png} to match PNG
+ * images in all folders. All patterns of a list are compiled into a single regular expression, so checking a path
+ * requires just one match per list.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class PathFilter implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final PathFilter ALL = new PathFilter(null, null);
+    private static final String SEPARATORS = ",\n\r";
+
+    /**
+     * Returns a filter that accepts all paths.
+     *
+     * @return a filter that accepts all paths
+     */
+    public static PathFilter all() {
+        return ALL;
+    }
+
+    /**
+     * Creates a filter for the specified include and exclude patterns.
+     *
+     * @param includePatterns
+     *         the glob patterns of the paths to mine, separated by commas or new lines; an empty string includes all
+     *         paths
+     * @param excludePatterns
+     *         the glob patterns of the paths to skip, separated by commas or new lines; an empty string excludes no
+     *         paths
+     *
+     * @return the filter
+     */
+    public static PathFilter of(final String includePatterns, final String excludePatterns) {
+        var includes = compile(includePatterns);
+        var excludes = compile(excludePatterns);
+        if (includes == null && excludes == null) {
+            return ALL;
+        }
+        return new PathFilter(includes, excludes);
+    }
+
+    @CheckForNull
+    private static Pattern compile(final String patterns) {
+        var globs = Arrays.stream(StringUtils.split(patterns, SEPARATORS))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .map(PathFilter::toRegex)
+                .collect(Collectors.toList());
+        if (globs.isEmpty()) {
+            return null;
+        }
+        return Pattern.compile(String.join("|", globs));
+    }
+
+    static String toRegex(final String glob) {
+        var normalized = StringUtils.removeStart(glob.replace('\\', '/'), "/");
+        var regex = new StringBuilder("(?:");
+        int length = normalized.length();
+        for (int i = 0; i < length; i++) {
+            char c = normalized.charAt(i);
+            if (c == '*') {
+                if (i + 1 < length && normalized.charAt(i + 1) == '*') {
+                    i++;
+                    if (i + 1 < length && normalized.charAt(i + 1) == '/') {
+                        i++;
+                        regex.append("(?:.*/)?");
+                    }
+                    else {
+                        regex.append(".*");
+                    }
+                }
+                else {
+                    regex.append("[^/]*");
+                }
+            }
+            else if (c == '?') {
+                regex.append("[^/]");
+            }
+            else if (Character.isLetterOrDigit(c) || c == '/') {
+                regex.append(c);
+            }
+            else {
+                regex.append('\\').append(c);
+            }
+        }
+        return regex.append(')').toString();
+    }
+
+    @CheckForNull
+    private final Pattern includes;
+    @CheckForNull
+    private final Pattern excludes;
+
+    private PathFilter(@CheckForNull final Pattern includes, @CheckForNull final Pattern excludes) {
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    /**
+     * Returns whether this filter accepts all paths.
+     *
+     * @return {@code true} if this filter accepts all paths, {@code false} otherwise
+     */
+    public boolean isAcceptingAll() {
+        return includes == null && excludes == null;
+    }
+
+    /**
+     * Returns whether the specified path should be mined.
+     *
+     * @param path
+     *         the path of the file, relative to the repository root
+     *
+     * @return {@code true} if the path should be mined, {@code false} if the path should be skipped
+     */
+    public boolean isIncluded(final String path) {
+        if (CommitDiffItem.NO_FILE_NAME.equals(path)) {
+            return false;
+        }
+        if (isAcceptingAll()) {
+            return true;
+        }
+        var relative = StringUtils.removeStart(path, "/");
+        return (includes == null || includes.matcher(relative).matches())
+                && (excludes == null || !excludes.matcher(relative).matches());
+    }
+
+    /**
+     * Returns whether the specified commit should be mined. A commit is mined if its old path or its new path should
+     * be mined, so that moving a file into or out of the filtered paths is still recorded.
+     *
+     * @param commit
+     *         the commit to check
+     *
+     * @return {@code true} if the commit should be mined, {@code false} if the commit should be skipped
+     */
+    public boolean isIncluded(final CommitDiffItem commit) {
+        return isIncluded(commit.getNewPath()) || isIncluded(commit.getOldPath());
+    }
+
+    /**
+     * Returns the commits that should be mined.
+     *
+     * @param commits
+     *         the commits to filter
+     *
+     * @return the commits that should be mined, the specified list if all commits should be mined
+     */
+    public List<CommitDiffItem> filter(final List<CommitDiffItem> commits) {
+        if (isAcceptingAll()) {
+            return commits;
+        }
+        List<CommitDiffItem> included = new ArrayList<>(commits.size());
+        for (CommitDiffItem commit : commits) {
+            if (isIncluded(commit)) {
+                included.add(commit);
+            }
+        }
+        return included;
+    }
+
+    @Override
+    public String toString() {
+        return "includes: %s, excludes: %s".formatted(includes, excludes);
+    }
+}
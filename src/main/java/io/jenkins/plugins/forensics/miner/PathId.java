@@ -0,0 +1,91 @@
+package io.jenkins.plugins.forensics.miner;
+
+import java.util.OptionalLong;
+
+/**
+ * Computes stable 64-bit identifiers for the paths of repository files. The identifier of a path is the 64-bit FNV-1a
+ * hash of its characters, so it does not depend on the JVM or on the other files of the repository. The identifiers
+ * are used in the links of the details views of the files: in contrast to the 32-bit {@link String#hashCode()} that has
+ * been used in the links before, collisions are practically impossible even for repositories with millions of files.
+ *
+ * @author Ullrich Hafner
+ */
+final class PathId {
+    /** Prefix of the links that use the 64-bit identifier. */
+    static final String LINK_PREFIX = "file.";
+    /** Prefix of the links of older releases that use {@link String#hashCode()}. */
+    static final String LEGACY_LINK_PREFIX = "fileName.";
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf2_9ce4_8422_2325L;
+    private static final long FNV_PRIME = 0x100_0000_01b3L;
+
+    private PathId() {
+        // prevents instantiation
+    }
+
+    /**
+     * Returns the identifier of the specified path.
+     *
+     * @param path
+     *         the path of the file
+     *
+     * @return the identifier
+     */
+    static long of(final String path) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the relative link to the details view of the specified path.
+     *
+     * @param path
+     *         the path of the file
+     *
+     * @return the link
+     */
+    static String toLink(final String path) {
+        return LINK_PREFIX + Long.toHexString(of(path));
+    }
+
+    /**
+     * Returns the identifier of the specified link.
+     *
+     * @param link
+     *         the link to the details view of a file
+     *
+     * @return the identifier, or an empty result if the link does not contain a 64-bit identifier (e.g., a link of an
+     *         older release)
+     */
+    static OptionalLong fromLink(final String link) {
+        if (!link.startsWith(LINK_PREFIX)) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseUnsignedLong(link.substring(LINK_PREFIX.length()), 16));
+        }
+        catch (NumberFormatException exception) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Returns whether the specified link of an older release references the specified path.
+     *
+     * @param path
+     *         the path of the file
+     * @param legacyLink
+     *         the link that contains the {@link String#hashCode()} of the path
+     *
+     * @return {@code true} if the link references the path, {@code false} otherwise
+     */
+    static boolean matchesLegacyLink(final String path, final String legacyLink) {
+        return legacyLink.length() > LEGACY_LINK_PREFIX.length()
+                && String.valueOf(path.hashCode()).equals(legacyLink.substring(LEGACY_LINK_PREFIX.length()));
+    }
+}
@@ -0,0 +1,290 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Searches the paths of the files of the {@link RepositoryStatistics}. The index maps each trigram (three consecutive
+ * characters) of the lower case paths to the sorted list of the paths that contain the trigram. A substring search
+ * intersects the lists of the trigrams of the search term and verifies the remaining candidates only. A fuzzy search
+ * ranks the paths by the number of trigrams they share with the search term, so paths with typos in the search term are
+ * found as well.
+ *
+ * <p>
+ * The index is immutable and computed once for each snapshot of the {@link RepositoryStatistics}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class PathSearchIndex {
+    private static final int GRAM = 3;
+    /** The minimum ratio of the trigrams of the search term that must be part of a fuzzy match. */
+    private static final double MINIMUM_SIMILARITY = 0.4;
+
+    private final String[] paths;
+    private final String[] normalizedPaths;
+    private final Map<Long, int[]> postings;
+
+    PathSearchIndex(final Collection<String> fileNames) {
+        paths = fileNames.toArray(new String[0]);
+        Arrays.sort(paths);
+        normalizedPaths = new String[paths.length];
+
+        Map<Long, Postings> lists = new HashMap<>();
+        for (int path = 0; path < paths.length; path++) {
+            normalizedPaths[path] = normalize(paths[path]);
+            for (long trigram : getTrigrams(normalizedPaths[path])) {
+                lists.computeIfAbsent(trigram, key -> new Postings()).add(path);
+            }
+        }
+        postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+        lists.forEach((trigram, list) -> postings.put(trigram, list.toArray()));
+    }
+
+    /**
+     * Returns the paths that contain the specified term (ignoring case).
+     *
+     * @param term
+     *         the term to search for
+     *
+     * @return the matching paths, in the order of the paths
+     */
+    List<String> findSubstring(final String term) {
+        var matches = findSubstringMatches(normalize(term));
+        List<String> found = new ArrayList<>(matches.length);
+        for (int path : matches) {
+            found.add(paths[path]);
+        }
+        return found;
+    }
+
+    /**
+     * Marks the paths that contain the specified term (ignoring case). The bits of the result correspond to the
+     * positions of the paths in the index, see {@link #getPath(int)}.
+     *
+     * @param term
+     *         the term to search for
+     *
+     * @return the positions of the matching paths
+     */
+    BitSet markSubstring(final String term) {
+        var matches = findSubstringMatches(normalize(term));
+        var marked = new BitSet(paths.length);
+        for (int path : matches) {
+            marked.set(path);
+        }
+        return marked;
+    }
+
+    /**
+     * Returns the number of paths in this index.
+     *
+     * @return the number of paths
+     */
+    int size() {
+        return paths.length;
+    }
+
+    /**
+     * Returns the path at the specified position. The paths are sorted in ascending order.
+     *
+     * @param position
+     *         the position of the path
+     *
+     * @return the path
+     */
+    String getPath(final int position) {
+        return paths[position];
+    }
+
+    /**
+     * Searches for the paths that match the specified term. The paths that contain the term (ignoring case) are
+     * returned first: paths where the file name contains the term are ranked before paths where just the folder
+     * contains the term, shorter paths are ranked before longer paths. If there are fewer matches than requested, the
+     * result is filled with the best fuzzy matches.
+     *
+     * @param term
+     *         the term to search for
+     * @param limit
+     *         the maximum number of paths to return
+     *
+     * @return the matching paths
+     */
+    List<String> search(final String term, final int limit) {
+        var normalized = normalize(term);
+        if (normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        var substringMatches = findSubstringMatches(normalized);
+        var ranked = Arrays.stream(substringMatches).boxed()
+                .sorted(Comparator.<Integer>comparingInt(path -> isInFileName(path, normalized) ? 0 : 1)
+                        .thenComparingInt(path -> paths[path].length())
+                        .thenComparingInt(path -> path))
+                .limit(limit)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        List<String> found = new ArrayList<>(limit);
+        for (int path : ranked) {
+            found.add(paths[path]);
+        }
+        if (found.size() < limit) {
+            var excluded = new BitSet(paths.length);
+            for (int path : substringMatches) {
+                excluded.set(path);
+            }
+            for (int path : findFuzzyMatches(normalized, limit - found.size(), excluded)) {
+                found.add(paths[path]);
+            }
+        }
+        return found;
+    }
+
+    private boolean isInFileName(final int path, final String normalized) {
+        return FilenameUtils.getName(normalizedPaths[path]).contains(normalized);
+    }
+
+    private int[] findSubstringMatches(final String normalized) {
+        if (normalized.isEmpty()) {
+            return new int[0];
+        }
+        if (normalized.length() < GRAM) { // no trigrams to look up, but short terms are rare and cheap to verify
+            return verify(null, normalized);
+        }
+
+        var trigrams = getTrigrams(normalized);
+        List<int[]> lists = new ArrayList<>(trigrams.length);
+        for (long trigram : trigrams) {
+            var list = postings.get(trigram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length)); // start with the shortest list
+
+        var candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists.get(i));
+        }
+        return verify(candidates, normalized);
+    }
+
+    /**
+     * Verifies that the candidates actually contain the term: the trigrams of a candidate might be in a different
+     * order than in the term.
+     */
+    private int[] verify(@CheckForNull final int[] candidates, final String normalized) {
+        int size = candidates == null ? paths.length : candidates.length;
+        int[] matches = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int path = candidates == null ? i : candidates[i];
+            if (normalizedPaths[path].contains(normalized)) {
+                matches[count++] = path;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private int[] findFuzzyMatches(final String normalized, final int limit, final BitSet excluded) {
+        var trigrams = getTrigrams(normalized);
+        if (trigrams.length == 0) {
+            return new int[0];
+        }
+
+        int[] shared = new int[paths.length];
+        for (long trigram : trigrams) {
+            var list = postings.get(trigram);
+            if (list != null) {
+                for (int path : list) {
+                    shared[path]++;
+                }
+            }
+        }
+
+        int minimum = Math.max(1, (int) Math.ceil(trigrams.length * MINIMUM_SIMILARITY));
+        return IntStream.range(0, paths.length)
+                .filter(path -> shared[path] >= minimum && !excluded.get(path))
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(path -> -shared[path])
+                        .thenComparingInt(path -> paths[path].length())
+                        .thenComparingInt(path -> path))
+                .limit(limit)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int[] intersect(final int[] left, final int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            }
+            else if (left[i] > right[j]) {
+                j++;
+            }
+            else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static String normalize(final String text) {
+        return StringUtils.defaultString(text).trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Returns the distinct trigrams of the specified text. Each trigram is packed into a long value.
+     */
+    private static long[] getTrigrams(final String text) {
+        int count = text.length() - GRAM + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    /**
+     * A growing list of path indices. Paths are added in ascending order, so the list is sorted.
+     */
+    private static final class Postings {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(final int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -4,11 +4,13 @@ import edu.hm.hafner.util.FilteredLog;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * Obtains commit statistics for a source code repository. Computation of the commit statistics should be done
  * incrementally, if supported by the underlying SCM  (i.e., only commits new in the current build should be
- * inspected).
+ * inspected). Miners that walk large histories should push the mined commits in batches into a {@link
+ * CommitIngestionPipeline} rather than collecting all commits of a mining run before aggregating them.
  *
  * @author Ullrich Hafner
  */
@@ -16,6 +18,29 @@ public abstract class RepositoryMiner implements Serializable {
     @Serial
     private static final long serialVersionUID = -8878714986510536182L;
 
+    private PathFilter pathFilter = PathFilter.all(); // since 3.0.0
+
+    /**
+     * Sets the filter for the paths of the repository files that should be mined. Miners should skip all commits that
+     * are rejected by this filter before they are aggregated, e.g. by using {@link
+     * CommitIngestionPipeline#withPathFilter(PathFilter)} or {@link PathFilter#filter(List)}.
+     *
+     * @param pathFilter
+     *         the filter to use
+     */
+    public void setPathFilter(final PathFilter pathFilter) {
+        this.pathFilter = pathFilter;
+    }
+
+    /**
+     * Returns the filter for the paths of the repository files that should be mined.
+     *
+     * @return the filter to use
+     */
+    public PathFilter getPathFilter() {
+        return pathFilter == null ? PathFilter.all() : pathFilter; // might be null after deserialization
+    }
+
     /**
      * Obtains commit statistics for a source code repository.
      *
@@ -32,6 +57,79 @@ public abstract class RepositoryMiner implements Serializable {
     public abstract RepositoryStatistics mine(RepositoryStatistics previousStatistics, FilteredLog logger)
             throws InterruptedException;
 
+    /**
+     * Obtains commit statistics for a source code repository and periodically saves the partial results in the
+     * specified checkpoint. If the mining run is interrupted, then the next mining run will start with the statistics
+     * of the last checkpoint. Miners that support checkpoints should override this method, the default implementation
+     * ignores the checkpoint and delegates to {@link #mine(RepositoryStatistics, FilteredLog)}.
+     *
+     * @param previousStatistics
+     *         the repository statistics of the previous build or of the last checkpoint - if there is no such build
+     *         then an empty instance will be provided
+     * @param checkpoint
+     *         the checkpoint to save the partial results
+     * @param logger
+     *         the logger to use
+     *
+     * @return the aggregated statistics containing the commit statistics for the current build and the previous builds
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     * @see CommitIngestionPipeline#CommitIngestionPipeline(RepositoryStatistics, FilteredLog, MiningCheckpoint)
+     */
+    public RepositoryStatistics mine(final RepositoryStatistics previousStatistics, final MiningCheckpoint checkpoint,
+            final FilteredLog logger) throws InterruptedException {
+        return mine(previousStatistics, logger);
+    }
+
+    /**
+     * Obtains commit statistics for a source code repository within the specified scope. If the statistics of the
+     * previous build are empty, then a miner that supports scopes should mine only the most recent commits of the
+     * scope and mark the returned statistics using {@link RepositoryStatistics#setHistoryStartCommitId(String)}. The
+     * older history will be backfilled by subsequent builds using {@link #mineHistory(MiningScope, FilteredLog)}. The
+     * default implementation ignores the scope and delegates to {@link #mine(RepositoryStatistics, MiningCheckpoint,
+     * FilteredLog)}.
+     *
+     * @param previousStatistics
+     *         the repository statistics of the previous build or of the last checkpoint - if there is no such build
+     *         then an empty instance will be provided
+     * @param scope
+     *         the part of the history to mine if the mining starts from scratch
+     * @param checkpoint
+     *         the checkpoint to save the partial results
+     * @param logger
+     *         the logger to use
+     *
+     * @return the aggregated statistics containing the commit statistics for the current build and the previous builds
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     */
+    public RepositoryStatistics mine(final RepositoryStatistics previousStatistics, final MiningScope scope,
+            final MiningCheckpoint checkpoint, final FilteredLog logger) throws InterruptedException {
+        return mine(previousStatistics, checkpoint, logger);
+    }
+
+    /**
+     * Obtains the commit statistics of the part of the history that is older than the start commit of the specified
+     * scope. The returned statistics contain just the older commits in chronological order, i.e., the statistics of the
+     * repository at the time of the start commit. If the root of the history has not been reached yet, then the
+     * returned statistics must be marked using {@link RepositoryStatistics#setHistoryStartCommitId(String)}. Miners
+     * that mine only the recent history in {@link #mine(RepositoryStatistics, MiningScope, MiningCheckpoint,
+     * FilteredLog)} must override this method, the default implementation returns empty statistics.
+     *
+     * @param scope
+     *         the part of the history to mine
+     * @param logger
+     *         the logger to use
+     *
+     * @return the statistics of the older history
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     */
+    public RepositoryStatistics mineHistory(final MiningScope scope, final FilteredLog logger)
+            throws InterruptedException {
+        return new RepositoryStatistics();
+    }
+
     /**
      * A repository miner that does nothing.
      */
@@ -3,10 +3,18 @@ package io.jenkins.plugins.forensics.miner;
 import org.apache.commons.lang3.StringUtils;
 
 import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
@@ -23,10 +31,11 @@ import hudson.scm.SCM;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.Publisher;
 import hudson.tasks.Recorder;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import jenkins.tasks.SimpleBuildStep;
 
 import io.jenkins.plugins.forensics.util.ScmResolver;
-import io.jenkins.plugins.util.BuildAction;
 import io.jenkins.plugins.util.LogHandler;
 
 /**
@@ -47,6 +56,13 @@ import io.jenkins.plugins.util.LogHandler;
  */
 public class RepositoryMinerStep extends Recorder implements SimpleBuildStep {
     private String scm = StringUtils.EMPTY;
+    private int parallelism = 1; // @since 3.0.0
+    private int snapshotInterval; // @since 3.0.0
+    private int maximumCommitsPerFile; // @since 3.0.0
+    private int maximumCommitAgeInDays; // @since 3.0.0
+    private int historyChunkSize; // @since 3.0.0
+    private String includePatterns = StringUtils.EMPTY; // @since 3.0.0
+    private String excludePatterns = StringUtils.EMPTY; // @since 3.0.0
 
     /**
      * Creates a new instance of {@link  RepositoryMinerStep}.
@@ -70,6 +86,27 @@ public class RepositoryMinerStep extends Recorder implements SimpleBuildStep {
         if (scm == null) {
             scm = StringUtils.EMPTY;
         }
+        if (parallelism < 1) {
+            parallelism = 1;
+        }
+        if (snapshotInterval < 0) {
+            snapshotInterval = 0;
+        }
+        if (maximumCommitsPerFile < 0) {
+            maximumCommitsPerFile = 0;
+        }
+        if (maximumCommitAgeInDays < 0) {
+            maximumCommitAgeInDays = 0;
+        }
+        if (historyChunkSize < 0) {
+            historyChunkSize = 0;
+        }
+        if (includePatterns == null) {
+            includePatterns = StringUtils.EMPTY;
+        }
+        if (excludePatterns == null) {
+            excludePatterns = StringUtils.EMPTY;
+        }
         return this;
     }
 
@@ -89,6 +126,131 @@ public class RepositoryMinerStep extends Recorder implements SimpleBuildStep {
         return scm;
     }
 
+    /**
+     * Sets the maximum number of repositories that will be mined concurrently. If a job checks out several
+     * repositories, then mining these repositories in parallel reduces the duration of this step to the duration of
+     * the slowest repository. The results (and the log messages) of the repositories are still recorded in the order of
+     * the SCMs of the job.
+     *
+     * @param parallelism
+     *         the maximum number of repositories to mine concurrently, values less than 2 will mine the repositories one
+     *         after another
+     */
+    @DataBoundSetter
+    public void setParallelism(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of builds after which a full snapshot of the repository statistics will be stored. In all other
+     * builds, just the changes with respect to the statistics of the previous build will be stored. Since each build
+     * typically changes only a small number of files, this reduces the disk space and the time required to persist the
+     * statistics of large repositories considerably. Restoring the statistics of a build requires reading the last
+     * snapshot and all subsequent changes, so a small interval makes the restore faster.
+     *
+     * @param snapshotInterval
+     *         the number of builds after which a full snapshot will be stored, values less than 2 store a full snapshot
+     *         in every build
+     */
+    @DataBoundSetter
+    public void setSnapshotInterval(final int snapshotInterval) {
+        this.snapshotInterval = Math.max(0, snapshotInterval);
+    }
+
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /**
+     * Sets the maximum number of commits that will be retained in the commit history of each file. Older commits will
+     * be compacted into an aggregate that still provides the exact statistics of the file (number of authors, number of
+     * commits, lines of code, churn, etc.). Only the details of the compacted commits will be lost.
+     *
+     * @param maximumCommitsPerFile
+     *         the maximum number of commits to retain per file, use 0 to retain all commits
+     */
+    @DataBoundSetter
+    public void setMaximumCommitsPerFile(final int maximumCommitsPerFile) {
+        this.maximumCommitsPerFile = Math.max(0, maximumCommitsPerFile);
+    }
+
+    public int getMaximumCommitsPerFile() {
+        return maximumCommitsPerFile;
+    }
+
+    /**
+     * Sets the maximum age of the commits that will be retained in the commit history of each file. The age of a
+     * commit is measured relative to the newest commit of the repository. Older commits will be compacted into an
+     * aggregate that still provides the exact statistics of the file. The latest commit of a file is always retained.
+     *
+     * @param maximumCommitAgeInDays
+     *         the maximum age of the retained commits in days, use 0 to retain commits of any age
+     */
+    @DataBoundSetter
+    public void setMaximumCommitAgeInDays(final int maximumCommitAgeInDays) {
+        this.maximumCommitAgeInDays = Math.max(0, maximumCommitAgeInDays);
+    }
+
+    public int getMaximumCommitAgeInDays() {
+        return maximumCommitAgeInDays;
+    }
+
+    /**
+     * Sets the maximum number of commits of the older history that will be mined in a build. If set, then the first
+     * build of a job mines only the specified number of the most recent commits, and each subsequent build backfills
+     * the next chunk of older commits until the complete history has been mined. So the first build of a job with a
+     * large repository is not blocked for a long time. Note that the repository miner of the SCM must support mining
+     * the history in chunks, otherwise the complete history is mined in the first build.
+     *
+     * @param historyChunkSize
+     *         the maximum number of commits of the older history to mine in a build, use 0 to mine the complete
+     *         history in the first build
+     */
+    @DataBoundSetter
+    public void setHistoryChunkSize(final int historyChunkSize) {
+        this.historyChunkSize = Math.max(0, historyChunkSize);
+    }
+
+    public int getHistoryChunkSize() {
+        return historyChunkSize;
+    }
+
+    /**
+     * Sets the Ant style glob patterns of the repository files that should be mined, e.g. {@code src/**}. Multiple
+     * patterns can be separated by commas or new lines. If no pattern is set, then all files will be mined.
+     *
+     * @param includePatterns
+     *         the patterns of the files to mine
+     */
+    @DataBoundSetter
+    public void setIncludePatterns(final String includePatterns) {
+        this.includePatterns = includePatterns;
+    }
+
+    public String getIncludePatterns() {
+        return includePatterns;
+    }
+
+    /**
+     * Sets the Ant style glob patterns of the repository files that should be skipped, e.g. vendored code, generated
+     * sources or binary assets. Multiple patterns can be separated by commas or new lines.
+     *
+     * @param excludePatterns
+     *         the patterns of the files to skip
+     */
+    @DataBoundSetter
+    public void setExcludePatterns(final String excludePatterns) {
+        this.excludePatterns = excludePatterns;
+    }
+
+    public String getExcludePatterns() {
+        return excludePatterns;
+    }
+
     @Override
     public void perform(@NonNull final Run<?, ?> run, @NonNull final FilePath workspace, @NonNull final EnvVars env,
             @NonNull final Launcher launcher, @NonNull final TaskListener listener) throws InterruptedException {
@@ -97,43 +259,208 @@ public class RepositoryMinerStep extends Recorder implements SimpleBuildStep {
 
     private void mineRepositories(final Run<?, ?> run, final FilePath workspace, final TaskListener listener)
             throws InterruptedException {
-        int number = 0;
-        for (SCM repository : new ScmResolver().getScms(run, getScm())) {
-            long startOfMining = System.nanoTime();
-            var logHandler = new LogHandler(listener, "Forensics");
+        List<SCM> repositories = new ArrayList<>(new ScmResolver().getScms(run, getScm()));
+        if (parallelism > 1 && repositories.size() > 1) {
+            mineRepositoriesInParallel(repositories, run, workspace, listener);
+        }
+        else {
+            int number = 0;
+            for (SCM repository : repositories) {
+                var logHandler = new LogHandler(listener, "Forensics");
+                var logger = createLogger(repository);
 
-            var logger = new FilteredLog("Errors while mining " + repository);
-            logger.logInfo("Creating SCM miner to obtain statistics for affected repository files");
-            logger.logInfo("-> checking SCM '%s'", repository.getKey());
+                run.addAction(mineRepository(repository, number, run, workspace, listener, logger, logHandler));
 
-            RepositoryMiner miner = MinerFactory.findMiner(repository, run, workspace, listener, logger);
-            logHandler.log(logger);
+                number++;
+            }
+        }
+    }
 
-            var repositoryStatistics = previousBuildStatistics(scm, run);
-            var addedRepositoryStatistics = miner.mine(repositoryStatistics, logger);
+    private void mineRepositoriesInParallel(final List<SCM> repositories, final Run<?, ?> run,
+            final FilePath workspace, final TaskListener listener) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, repositories.size()),
+                new NamingThreadFactory(new DaemonThreadFactory(), "Forensics repository miner"));
+        try {
+            List<FilteredLog> loggers = new ArrayList<>();
+            List<Future<ForensicsBuildAction>> actions = new ArrayList<>();
+            for (int number = 0; number < repositories.size(); number++) {
+                var repository = repositories.get(number);
+                var logger = createLogger(repository);
+                int actionNumber = number;
+                loggers.add(logger);
+                actions.add(executor.submit(
+                        () -> mineRepository(repository, actionNumber, run, workspace, listener, logger, null)));
+            }
 
-            logHandler.log(logger);
-            int miningDurationSeconds = (int) (1 + (System.nanoTime() - startOfMining) / 1_000_000_000L);
-            run.addAction(new ForensicsBuildAction(run, addedRepositoryStatistics, miningDurationSeconds,
-                    repository.getKey(), number));
+            for (int number = 0; number < repositories.size(); number++) {
+                var action = waitFor(actions.get(number));
+                new LogHandler(listener, "Forensics").log(loggers.get(number));
+                run.addAction(action);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
 
-            number++;
+    private ForensicsBuildAction waitFor(final Future<ForensicsBuildAction> action) throws InterruptedException {
+        try {
+            return action.get();
+        }
+        catch (ExecutionException exception) {
+            var cause = exception.getCause();
+            if (cause instanceof InterruptedException interruptedException) {
+                throw interruptedException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Mining of repository failed", cause);
         }
     }
 
-    private RepositoryStatistics previousBuildStatistics(final String repository, final Run<?, ?> run) {
+    private FilteredLog createLogger(final SCM repository) {
+        return new FilteredLog("Errors while mining " + repository);
+    }
+
+    /**
+     * Mines the specified repository and creates the action that persists the results.
+     *
+     * @param repository
+     *         the repository to mine
+     * @param number
+     *         unique number of the results (used as part of the serialization file name)
+     * @param run
+     *         the current build
+     * @param workspace
+     *         the workspace of the current build
+     * @param listener
+     *         the task listener
+     * @param logger
+     *         the logger for the repository
+     * @param logHandler
+     *         the log handler to print the log messages while mining, or {@code null} if the messages will be
+     *         printed by the caller afterward
+     *
+     * @return the action with the mined statistics
+     * @throws InterruptedException
+     *         if the user canceled the processing
+     */
+    private ForensicsBuildAction mineRepository(final SCM repository, final int number, final Run<?, ?> run,
+            final FilePath workspace, final TaskListener listener, final FilteredLog logger,
+            @CheckForNull final LogHandler logHandler) throws InterruptedException {
+        long startOfMining = System.nanoTime();
+
+        logger.logInfo("Creating SCM miner to obtain statistics for affected repository files");
+        logger.logInfo("-> checking SCM '%s'", repository.getKey());
+
+        RepositoryMiner miner = MinerFactory.findMiner(repository, run, workspace, listener, logger);
+        var pathFilter = PathFilter.of(includePatterns, excludePatterns);
+        miner.setPathFilter(pathFilter);
+        log(logHandler, logger);
+
+        var previousAction = findPreviousAction(repository.getKey(), run);
+        var repositoryStatistics = previousAction
+                .map(ForensicsBuildAction::getResult)
+                .map(RepositoryStatistics::new) // the miner adds the new commits to this copy
+                .orElse(new RepositoryStatistics());
+        var checkpoint = MiningCheckpoint.create(run.getParent().getRootDir(), repository.getKey(), run.getNumber(),
+                repositoryStatistics.getLatestCommitId());
+        var resumed = checkpoint.restore(logger);
+        if (resumed.isPresent()) {
+            logger.logInfo("-> resuming interrupted mining from checkpoint at commit %s",
+                    resumed.get().getLatestCommitId());
+            repositoryStatistics = resumed.get();
+        }
+        var scope = previousAction.isPresent() ? MiningScope.all() : MiningScope.recent(historyChunkSize);
+        var addedRepositoryStatistics = miner.mine(repositoryStatistics, scope, checkpoint, logger);
+        checkpoint.delete(logger);
+
+        var backfill = findBackfillScope(repository.getKey(), run, historyChunkSize);
+        if (backfill.isPresent()) {
+            logger.logInfo("-> backfilling older history: %s", backfill.get());
+            addedRepositoryStatistics = addedRepositoryStatistics.prependHistory(
+                    miner.mineHistory(backfill.get(), logger));
+        }
+        if (addedRepositoryStatistics.isPartial()) {
+            logger.logInfo("-> history before commit %s will be mined in the next build",
+                    addedRepositoryStatistics.getHistoryStartCommitId());
+        }
+        int skipped = addedRepositoryStatistics.retainFiles(pathFilter);
+        if (skipped > 0) {
+            logger.logInfo("-> skipped %d files that do not match the path filter", skipped);
+        }
+        int compacted = addedRepositoryStatistics.applyRetention(
+                new CommitRetentionPolicy(maximumCommitsPerFile, maximumCommitAgeInDays));
+        if (compacted > 0) {
+            logger.logInfo("-> compacted %d old commits of the file histories", compacted);
+        }
+
+        log(logHandler, logger);
+        int miningDurationSeconds = (int) (1 + (System.nanoTime() - startOfMining) / 1_000_000_000L);
+        var action = new ForensicsBuildAction(run, addedRepositoryStatistics, miningDurationSeconds,
+                repository.getKey(), number, previousAction.orElse(null), snapshotInterval);
+        if (action.isReference()) {
+            logger.logInfo("-> statistics unchanged, skipped storing a copy of the statistics of the previous build");
+        }
+        else if (action.isDelta()) {
+            logger.logInfo("-> stored changes with respect to the statistics of the previous build");
+        }
+        RepositoryStatisticsCache.getInstance().put(action, addedRepositoryStatistics);
+        return action;
+    }
+
+    private void log(@CheckForNull final LogHandler logHandler, final FilteredLog logger) {
+        if (logHandler != null) {
+            logHandler.log(logger);
+        }
+    }
+
+    /**
+     * Returns the scope of the older history that should be mined for the specified repository. If the statistics of
+     * the repository in the previous build are partial, then the next chunk of commits before the start of the mined
+     * history will be mined.
+     *
+     * @param scmKey
+     *         the key of the repository
+     * @param run
+     *         the current build
+     * @param historyChunkSize
+     *         the maximum number of older commits to mine
+     *
+     * @return the scope of the older history, or an empty result if the history of the repository is complete
+     */
+    @VisibleForTesting
+    static Optional<MiningScope> findBackfillScope(final String scmKey, final Run<?, ?> run,
+            final int historyChunkSize) {
+        return findPreviousAction(scmKey, run)
+                .filter(ForensicsBuildAction::isPartial)
+                .map(action -> MiningScope.olderThan(action.getHistoryStartCommitId(), historyChunkSize));
+    }
+
+    /**
+     * Finds the action of the specified repository in the latest previous build that contains forensics results. In
+     * jobs that check out several repositories, the actions of the other repositories are skipped.
+     *
+     * @param scmKey
+     *         the key of the repository
+     * @param run
+     *         the current build
+     *
+     * @return the action of the repository in the previous build, or an empty result if there is no such action
+     */
+    @VisibleForTesting
+    static Optional<ForensicsBuildAction> findPreviousAction(final String scmKey, final Run<?, ?> run) {
         for (Run<?, ?> build = run.getPreviousBuild(); build != null; build = build.getPreviousBuild()) {
             List<ForensicsBuildAction> actions = build.getActions(ForensicsBuildAction.class);
             if (!actions.isEmpty()) {
                 return actions.stream()
-                        .filter(a -> a.getScmKey().contains(repository))
-                        .findAny()
-                        .map(BuildAction::getResult)
-                        .orElse(new RepositoryStatistics());
+                        .filter(a -> a.getScmKey().equals(scmKey))
+                        .findAny();
             }
         }
 
-        return new RepositoryStatistics();
+        return Optional.empty();
     }
 
     @Override
@@ -10,19 +10,35 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
+import io.jenkins.plugins.forensics.miner.DirectoryStatistics.FileChange;
+import io.jenkins.plugins.forensics.miner.DirectoryStatistics.FileSnapshot;
 import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
 
 /**
  * Provides access to the SCM commit statistics of all repository files up to a specific commit.
  *
+ * <p>
+ * Copies of an instance share the {@link FileStatistics} of unchanged files with the original instance: the statistics
+ * of a file are copied only when the commits of the file are modified (copy-on-write). So the statistics of consecutive
+ * builds typically share most of their files. Readers always obtain a stable snapshot of the mapping of file names to
+ * statistics (see {@link #getMapping()}): neither the snapshot nor the contained file statistics are modified by
+ * subsequent changes of this instance.
+ * </p>
+ *
  * @author Ullrich Hafner
  */
 public class RepositoryStatistics implements Serializable {
@@ -35,10 +51,24 @@ public class RepositoryStatistics implements Serializable {
 
     @SuppressWarnings("PMD.LooseCoupling")
     private transient HashMap<String, FileStatistics> statisticsMapping = new HashMap<>();
+    /** The file statistics that are not visible outside this instance and can be modified in place. */
+    private transient Set<FileStatistics> writableFiles = createIdentitySet();
+    /** The published snapshot of the mapping, {@code null} if the mapping has been modified afterward. */
+    @CheckForNull
+    private transient volatile Map<String, FileStatistics> snapshot;
+    /** The sort orders and the path identifiers of the files of a snapshot, computed on demand. */
+    @CheckForNull
+    private transient volatile SnapshotIndex snapshotIndex;
+    /** The directory tree of the current mapping, {@code null} if the tree needs to be rebuilt. */
+    @CheckForNull
+    private transient volatile DirectoryStatistics directoryTree;
+    /** Determines whether some files could not be restored from the statistics of an older build. */
+    private transient boolean incomplete;
     @SuppressWarnings("PMD.LooseCoupling")
     private ArrayList<FileStatistics> fileStatistics = new ArrayList<>();
 
     private String latestCommitId; // @since 0.8.0
+    private String historyStartCommitId = StringUtils.EMPTY; // @since 3.0.0
     private CommitStatistics statistics = new CommitStatistics();
     private int totalLinesOfCode;
     private int totalChurn;
@@ -60,6 +90,65 @@ public class RepositoryStatistics implements Serializable {
         this.latestCommitId = latestCommitId;
     }
 
+    /**
+     * Creates a copy of the specified {@link RepositoryStatistics}. The statistics of the files are shared with the
+     * original instance until they are modified, so the copy can inspect additional commits without affecting the
+     * original instance.
+     *
+     * @param copy
+     *         the statistics to copy
+     */
+    public RepositoryStatistics(final RepositoryStatistics copy) {
+        this(copy.latestCommitId, copy);
+    }
+
+    /**
+     * Creates a copy of the specified {@link RepositoryStatistics} with a different latest commit ID. The statistics
+     * of the files are shared with the original instance until they are modified, so the copy can inspect additional
+     * commits without affecting the original instance.
+     *
+     * @param latestCommitId
+     *         the ID of the latest commit of the copy
+     * @param copy
+     *         the statistics to copy
+     */
+    RepositoryStatistics(final String latestCommitId, final RepositoryStatistics copy) {
+        this(latestCommitId);
+
+        statisticsMapping.putAll(copy.getMapping());
+        directoryTree = copy.directoryTree;
+        historyStartCommitId = copy.historyStartCommitId;
+        incomplete = copy.incomplete;
+        statistics = copy.statistics;
+        totalLinesOfCode = copy.totalLinesOfCode;
+        totalChurn = copy.totalChurn;
+    }
+
+    /**
+     * Creates a new instance of {@link RepositoryStatistics} with the specified properties. This constructor is used
+     * to restore instances that have been persisted, the totals are not computed from the files again.
+     *
+     * @param latestCommitId
+     *         the ID of the latest commit
+     * @param files
+     *         the statistics of the files
+     * @param latestStatistics
+     *         the statistics of the latest commits
+     * @param totalLinesOfCode
+     *         the total lines of code of all files
+     * @param totalChurn
+     *         the total churn of all files
+     */
+    RepositoryStatistics(final String latestCommitId, final Collection<FileStatistics> files,
+            final CommitStatistics latestStatistics, final int totalLinesOfCode, final int totalChurn) {
+        this(latestCommitId);
+
+        files.forEach(file -> statisticsMapping.put(file.getFileName(), file));
+        statistics = latestStatistics;
+        this.totalLinesOfCode = totalLinesOfCode;
+        this.totalChurn = totalChurn;
+    }
+
     /**
      * Called after deserialization to retain backward compatibility.
      *
@@ -71,6 +160,9 @@ public class RepositoryStatistics implements Serializable {
         if (latestCommitId == null) {
             latestCommitId = StringUtils.EMPTY;
         }
+        if (historyStartCommitId == null) {
+            historyStartCommitId = StringUtils.EMPTY;
+        }
         if (statisticsPerFile == null) { // since 0.8.0: rebuild mapping
             statisticsMapping = new HashMap<>();
             fileStatistics.forEach(s -> statisticsMapping.put(s.getFileName(), s));
@@ -79,6 +171,7 @@ public class RepositoryStatistics implements Serializable {
             statisticsMapping = statisticsPerFile;
             statisticsPerFile = null; // set to null to remove the field from serialization
         }
+        writableFiles = createIdentitySet();
 
         return this;
     }
@@ -89,7 +182,7 @@ public class RepositoryStatistics implements Serializable {
      * @return this
      */
     protected Object writeReplace() {
-        fileStatistics = new ArrayList<>(statisticsMapping.values());
+        fileStatistics = new ArrayList<>(getMapping().values());
 
         return this;
     }
@@ -100,7 +193,7 @@ public class RepositoryStatistics implements Serializable {
      * @return {@code true} if the repository is empty, {@code false} otherwise
      */
     public boolean isEmpty() {
-        return statisticsMapping.isEmpty();
+        return getMapping().isEmpty();
     }
 
     /**
@@ -121,13 +214,63 @@ public class RepositoryStatistics implements Serializable {
         return StringUtils.isNotBlank(latestCommitId);
     }
 
+    /**
+     * Returns whether these statistics contain only the recent part of the history of the repository. The older
+     * history will be mined by subsequent builds.
+     *
+     * @return {@code true} if the older history has not been mined yet, {@code false} if the statistics contain the
+     *         complete history
+     */
+    public boolean isPartial() {
+        return StringUtils.isNotEmpty(historyStartCommitId);
+    }
+
+    /**
+     * Returns the ID of the oldest commit that has been mined if the history before this commit has not been mined
+     * yet.
+     *
+     * @return the ID of the oldest mined commit, or an empty string if the statistics contain the complete history
+     */
+    public String getHistoryStartCommitId() {
+        return historyStartCommitId;
+    }
+
+    /**
+     * Marks these statistics as partial: the history before the specified commit has not been mined yet. Note that
+     * this property is not part of the persisted statistics, it is stored in the {@link ForensicsBuildAction}.
+     *
+     * @param historyStartCommitId
+     *         the ID of the oldest mined commit, or an empty string if the statistics contain the complete history
+     */
+    public void setHistoryStartCommitId(final String historyStartCommitId) {
+        this.historyStartCommitId = historyStartCommitId;
+    }
+
+    /**
+     * Returns whether these statistics could not be restored completely, since the statistics of the older build they
+     * are based on are missing (or do not contain all required files). In this case the files contain only the commits
+     * that have been recorded for the build that owns these statistics. Note that this property is not persisted.
+     *
+     * @return {@code true} if some files could not be restored, {@code false} otherwise
+     */
+    public boolean isIncomplete() {
+        return incomplete;
+    }
+
+    /**
+     * Marks these statistics as incomplete: some files could not be restored from the statistics of an older build.
+     */
+    void markIncomplete() {
+        incomplete = true;
+    }
+
     /**
      * Returns the number of files in the repository.
      *
      * @return number of files in the repository
      */
     public int size() {
-        return statisticsMapping.size();
+        return getMapping().size();
     }
 
     /**
@@ -139,7 +282,7 @@ public class RepositoryStatistics implements Serializable {
      * @return {@code true} if the file file is part of the repository, {@code false} otherwise
      */
     public boolean contains(final String fileName) {
-        return statisticsMapping.containsKey(fileName);
+        return getMapping().containsKey(fileName);
     }
 
     /**
@@ -148,7 +291,7 @@ public class RepositoryStatistics implements Serializable {
      * @return the file names
      */
     public Set<String> getFiles() {
-        return Collections.unmodifiableSet(statisticsMapping.keySet());
+        return getMapping().keySet();
     }
 
     /**
@@ -157,16 +300,264 @@ public class RepositoryStatistics implements Serializable {
      * @return the statistics
      */
     public Collection<FileStatistics> getFileStatistics() {
-        return Collections.unmodifiableCollection(statisticsMapping.values());
+        return getMapping().values();
+    }
+
+    /**
+     * Returns the statistics for all repository files sorted in ascending order. The sort orders are computed once
+     * for each snapshot of the mapping (see {@link #getMapping()}), so subsequent calls for an unmodified instance
+     * return the same list.
+     *
+     * @param order
+     *         the sort order
+     *
+     * @return the sorted statistics
+     */
+    public List<FileStatistics> getSortedFiles(final FileStatisticsOrder order) {
+        return getSnapshotIndex().getSortedFiles(order);
+    }
+
+    /**
+     * Returns the statistics for the file with the specified path identifier. The index of the path identifiers is
+     * computed once for each snapshot of the mapping (see {@link #getMapping()}).
+     *
+     * @param pathId
+     *         the identifier of the path of the file, see {@link PathId#of(String)}
+     *
+     * @return the statistics for that file, or an empty result if there is no such file
+     */
+    Optional<FileStatistics> findByPathId(final long pathId) {
+        return getSnapshotIndex().findByPathId(pathId);
+    }
+
+    /**
+     * Returns the files that match the specified query. The index that is used to evaluate queries is computed once for
+     * each snapshot of the mapping (see {@link #getMapping()}), so subsequent queries of an unmodified instance do not
+     * need to scan all files and commits.
+     *
+     * @param query
+     *         the query to evaluate
+     *
+     * @return the matching files, in the order of the query
+     */
+    public List<FileQueryResult> query(final StatisticsQuery query) {
+        return getSnapshotIndex().getQueryIndex().query(query);
     }
 
     /**
-     * Returns the mapping of file names to statistics.
+     * Searches for the files with a path that matches the specified term. Paths that contain the term (ignoring case)
+     * are returned first, followed by similar paths (fuzzy matches). The search index is computed once for each snapshot
+     * of the mapping (see {@link #getMapping()}).
+     *
+     * @param term
+     *         the term to search for
+     * @param limit
+     *         the maximum number of paths to return
+     *
+     * @return the paths of the matching files, the best matches first
+     */
+    public List<String> searchPaths(final String term, final int limit) {
+        return getSnapshotIndex().getPathSearchIndex().search(term, limit);
+    }
+
+    /**
+     * Returns the statistics of the files with a path that contains the specified term (ignoring case), sorted by the
+     * specified order.
+     *
+     * @param term
+     *         the term to search for
+     * @param order
+     *         the sort order
+     *
+     * @return the sorted statistics of the matching files
+     */
+    List<FileStatistics> findFiles(final String term, final FileStatisticsOrder order) {
+        var index = getSnapshotIndex();
+        var matches = index.getPathSearchIndex().markSubstring(term);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        var sorted = index.getSortedFiles(order);
+        var positions = index.getPathPositions(order);
+        List<FileStatistics> files = new ArrayList<>(matches.cardinality());
+        for (int i = 0; i < positions.length; i++) {
+            if (matches.get(positions[i])) {
+                files.add(sorted.get(i));
+            }
+        }
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Returns the directory tree of the files: each directory aggregates the statistics of all files below the
+     * directory. The tree is built in parallel using the common {@link ForkJoinPool} on the first access after a
+     * structural modification. Additional commits that only add or modify files are applied incrementally to an
+     * existing tree.
+     *
+     * @return the root of the directory tree
+     */
+    public DirectoryStatistics getDirectoryTree() {
+        var tree = directoryTree;
+        if (tree == null) {
+            return buildDirectoryTree();
+        }
+        return tree;
+    }
+
+    private synchronized DirectoryStatistics buildDirectoryTree() {
+        var tree = directoryTree;
+        if (tree == null) {
+            tree = DirectoryStatistics.of(getMapping(), ForkJoinPool.commonPool());
+            directoryTree = tree;
+        }
+        return tree;
+    }
+
+    /**
+     * Returns an estimation of the heap used by the indices that have been computed for the current snapshot of the
+     * mapping, i.e. the sort orders, the path identifiers, the query index, the path search index, and the directory
+     * tree. The estimation uses the same unit as {@link RepositoryStatisticsCache#weigh(RepositoryStatistics)}: the
+     * number of referenced elements.
+     *
+     * @return the estimated weight of the computed indices
+     */
+    long getIndexWeight() {
+        long indexWeight = 0;
+        var index = snapshotIndex;
+        if (index != null) {
+            indexWeight += index.getWeight();
+        }
+        var tree = directoryTree;
+        if (tree != null) {
+            indexWeight += tree.getNumberOfDirectories();
+        }
+        return indexWeight;
+    }
+
+    @SuppressWarnings("ReferenceEquality")
+    private SnapshotIndex getSnapshotIndex() {
+        var mapping = getMapping();
+        var index = snapshotIndex;
+        if (index == null || index.mapping != mapping) {
+            index = new SnapshotIndex(mapping);
+            snapshotIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the mapping of file names to statistics. The returned mapping is an immutable snapshot: subsequent
+     * changes of this instance do not affect the mapping or the statistics of the files in the mapping.
      *
      * @return the mapping of file names to statistics
      */
     public Map<String, FileStatistics> getMapping() {
-        return Collections.unmodifiableMap(statisticsMapping);
+        var published = snapshot;
+        if (published == null) {
+            return publish();
+        }
+        return published;
+    }
+
+    private synchronized Map<String, FileStatistics> publish() {
+        var published = snapshot;
+        if (published == null) {
+            published = Collections.unmodifiableMap(new HashMap<>(statisticsMapping));
+            writableFiles.clear(); // all files are visible now and must be copied before modifications
+            snapshot = published;
+        }
+        return published;
+    }
+
+    /**
+     * Prepares this instance for a modification: the published snapshot will be replaced on the next read access, and
+     * the directory tree will be rebuilt.
+     */
+    private void startModification() {
+        snapshot = null;
+        directoryTree = null;
+    }
+
+    /**
+     * Captures the statistics of the files that are affected by the specified commits before the commits are inspected,
+     * so that the directory tree can be updated incrementally afterward. Deleted and moved files change the structure of
+     * the tree, in this case the tree will be rebuilt.
+     *
+     * @param commits
+     *         the commits that will be inspected
+     *
+     * @return the statistics of the affected files before the commits are inspected (a {@code null} value marks a new
+     *         file), or {@code null} if the directory tree cannot be updated incrementally
+     */
+    @CheckForNull
+    private Map<String, FileSnapshot> captureDirectoryChanges(final List<CommitDiffItem> commits) {
+        if (directoryTree == null || commits.stream().anyMatch(c -> c.isDelete() || c.isMove())) {
+            return null;
+        }
+        Map<String, FileSnapshot> before = new HashMap<>();
+        for (CommitDiffItem commit : commits) {
+            var fileName = commit.getNewPath();
+            if (!before.containsKey(fileName)) {
+                var existing = statisticsMapping.get(fileName);
+                before.put(fileName, existing == null ? null : new FileSnapshot(existing));
+            }
+        }
+        return before;
+    }
+
+    private void updateDirectoryTree(@CheckForNull final DirectoryStatistics tree,
+            @CheckForNull final Map<String, FileSnapshot> before, final List<CommitDiffItem> commits) {
+        if (tree == null || before == null) {
+            return;
+        }
+        Map<String, List<CommitDiffItem>> commitsPerFile = commits.stream()
+                .collect(Collectors.groupingBy(CommitDiffItem::getNewPath));
+        List<FileChange> changes = new ArrayList<>(commitsPerFile.size());
+        commitsPerFile.forEach((fileName, commitsOfFile) -> changes.add(new FileChange(fileName,
+                before.get(fileName), statisticsMapping.get(fileName), commitsOfFile)));
+        directoryTree = tree.update(changes);
+    }
+
+    /**
+     * Returns the statistics of the specified file for a modification. If the statistics of the file are shared with
+     * another instance or with a published snapshot, then the statistics will be replaced with a copy first.
+     *
+     * @param fileName
+     *         the name of the file
+     *
+     * @return the statistics of the file that can be modified, or {@code null} if the file is not part of this instance
+     */
+    @CheckForNull
+    private FileStatistics getWritable(final String fileName) {
+        var file = statisticsMapping.get(fileName);
+        if (file == null || writableFiles.contains(file)) {
+            return file;
+        }
+        var copy = new FileStatistics(file);
+        statisticsMapping.put(fileName, copy);
+        writableFiles.add(copy);
+        return copy;
+    }
+
+    private FileStatistics createWritable(final FileStatisticsBuilder builder, final String fileName) {
+        var file = builder.build(fileName);
+        writableFiles.add(file);
+        return file;
+    }
+
+    /**
+     * Replaces the statistics of all files that are affected by the specified commits with writable copies.
+     */
+    private void prepareWrite(final List<CommitDiffItem> commits) {
+        for (CommitDiffItem commit : commits) {
+            getWritable(commit.getOldPath());
+            getWritable(commit.getNewPath());
+        }
+    }
+
+    private static Set<FileStatistics> createIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
     }
 
     /**
@@ -180,8 +571,9 @@ public class RepositoryStatistics implements Serializable {
      *         if the file name is not registered
      */
     public FileStatistics get(final String fileName) {
-        if (contains(fileName)) {
-            return statisticsMapping.get(fileName);
+        var file = getMapping().get(fileName);
+        if (file != null) {
+            return file;
         }
         throw new NoSuchElementException("No information for file %s stored".formatted(fileName));
     }
@@ -192,8 +584,57 @@ public class RepositoryStatistics implements Serializable {
      * @param commits
      *         the additional commits
      */
-    public void addAll(final List<CommitDiffItem> commits) {
+    public synchronized void addAll(final List<CommitDiffItem> commits) {
+        inspectCommits(commits, new FileStatisticsBuilder());
+        completeIngestion(new CommitStatistics(commits));
+    }
+
+    /**
+     * Adds and inspects the specified commits in parallel using the common {@link ForkJoinPool}. The result is identical
+     * to the result of {@link #addAll(List)}.
+     *
+     * @param commits
+     *         the additional commits
+     */
+    public void addAllInParallel(final List<CommitDiffItem> commits) {
+        addAllInParallel(commits, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Adds and inspects the specified commits in parallel using the specified {@link ForkJoinPool}. The commits are
+     * partitioned into shards by the paths of the affected files, each shard is aggregated by a separate task of the
+     * pool. The result is identical to the result of {@link #addAll(List)}.
+     *
+     * @param commits
+     *         the additional commits
+     * @param pool
+     *         the pool to run the aggregation tasks
+     */
+    public synchronized void addAllInParallel(final List<CommitDiffItem> commits, final ForkJoinPool pool) {
+        var tree = directoryTree;
+        var before = captureDirectoryChanges(commits);
+        startModification();
+        prepareWrite(commits);
         var builder = new FileStatisticsBuilder();
+        new ShardedCommitAggregator(pool).aggregate(statisticsMapping, commits, name -> createWritable(builder, name));
+        updateDirectoryTree(tree, before, commits);
+        completeIngestion(new CommitStatistics(commits));
+    }
+
+    /**
+     * Inspects the specified commits and applies the delete, move and modify semantics of each commit to the file
+     * statistics. The totals of this instance are not updated, see {@link #completeIngestion(CommitStatistics)}.
+     *
+     * @param commits
+     *         the additional commits
+     * @param builder
+     *         the builder to create new {@link FileStatistics} instances
+     */
+    synchronized void inspectCommits(final List<CommitDiffItem> commits, final FileStatisticsBuilder builder) {
+        var tree = directoryTree;
+        var before = captureDirectoryChanges(commits);
+        startModification();
+        prepareWrite(commits);
         for (CommitDiffItem commit : commits) {
             if (commit.isDelete()) {
                 statisticsMapping.remove(commit.getOldPath());
@@ -201,7 +642,7 @@ public class RepositoryStatistics implements Serializable {
             else if (commit.isMove()) {
                 var existing = statisticsMapping.remove(commit.getOldPath());
                 if (existing == null) {
-                    statisticsMapping.putIfAbsent(commit.getNewPath(), builder.build(commit.getNewPath()));
+                    statisticsMapping.computeIfAbsent(commit.getNewPath(), name -> createWritable(builder, name));
                 }
                 else {
                     statisticsMapping.put(commit.getNewPath(), existing);
@@ -209,11 +650,22 @@ public class RepositoryStatistics implements Serializable {
                 statisticsMapping.get(commit.getNewPath()).inspectCommit(commit);
             }
             else {
-                statisticsMapping.putIfAbsent(commit.getNewPath(), builder.build(commit.getNewPath()));
-                statisticsMapping.get(commit.getNewPath()).inspectCommit(commit);
+                statisticsMapping.computeIfAbsent(commit.getNewPath(), name -> createWritable(builder, name))
+                        .inspectCommit(commit);
             }
         }
-        statistics = new CommitStatistics(commits);
+        updateDirectoryTree(tree, before, commits);
+    }
+
+    /**
+     * Completes the ingestion of the commits of a mining run: stores the statistics of the new commits and updates the
+     * totals of all files.
+     *
+     * @param latestStatistics
+     *         the statistics of all commits that have been added in the mining run
+     */
+    synchronized void completeIngestion(final CommitStatistics latestStatistics) {
+        statistics = latestStatistics;
         updateTotalLoc();
     }
 
@@ -223,8 +675,13 @@ public class RepositoryStatistics implements Serializable {
      * @param additionalStatistics
      *         the additional statistics to add
      */
-    public void addAll(final Collection<FileStatistics> additionalStatistics) {
-        additionalStatistics.forEach(this::add);
+    public synchronized void addAll(final Collection<FileStatistics> additionalStatistics) {
+        startModification();
+        for (FileStatistics additional : additionalStatistics) {
+            getWritable(additional.getFileName());
+            statisticsMapping.merge(additional.getFileName(), additional, this::merge);
+        }
+        updateTotalLoc();
     }
 
     /**
@@ -243,11 +700,99 @@ public class RepositoryStatistics implements Serializable {
      * @param additionalStatistics
      *         the additional statistics to add
      */
-    public void add(final FileStatistics additionalStatistics) {
+    public synchronized void add(final FileStatistics additionalStatistics) {
+        startModification();
+        getWritable(additionalStatistics.getFileName());
         statisticsMapping.merge(additionalStatistics.getFileName(), additionalStatistics, this::merge);
         updateTotalLoc();
     }
 
+    /**
+     * Replaces the statistics of the specified file. The totals of this instance are not updated, see {@link
+     * #completeIngestion(CommitStatistics)}.
+     *
+     * @param fileName
+     *         the name of the file
+     * @param fileStatistics
+     *         the new statistics of the file
+     */
+    synchronized void replace(final String fileName, final FileStatistics fileStatistics) {
+        startModification();
+        statisticsMapping.put(fileName, fileStatistics);
+    }
+
+    /**
+     * Removes the statistics of the specified file. The totals of this instance are not updated, see {@link
+     * #completeIngestion(CommitStatistics)}.
+     *
+     * @param fileName
+     *         the name of the file
+     */
+    synchronized void remove(final String fileName) {
+        startModification();
+        statisticsMapping.remove(fileName);
+    }
+
+    /**
+     * Removes the statistics of all files that are rejected by the specified filter.
+     *
+     * @param filter
+     *         the filter for the files to retain
+     *
+     * @return the number of removed files
+     */
+    synchronized int retainFiles(final PathFilter filter) {
+        if (filter.isAcceptingAll()) {
+            return 0;
+        }
+        var tree = directoryTree;
+        startModification();
+        int size = statisticsMapping.size();
+        statisticsMapping.keySet().removeIf(fileName -> !filter.isIncluded(fileName));
+        int removed = size - statisticsMapping.size();
+        if (removed > 0) {
+            updateTotalLoc();
+        }
+        else {
+            directoryTree = tree;
+        }
+        return removed;
+    }
+
+    /**
+     * Compacts the commit histories of all files according to the specified retention policy. The age of the commits
+     * is measured relative to the newest commit of the repository. The totals and the properties of the files are not
+     * changed.
+     *
+     * @param policy
+     *         the retention policy
+     *
+     * @return the number of commits that have been removed from the commit histories
+     * @see FileStatistics#compact(CommitRetentionPolicy, int)
+     */
+    synchronized int applyRetention(final CommitRetentionPolicy policy) {
+        if (policy.isRetainingAll()) {
+            return 0;
+        }
+        var tree = directoryTree;
+        startModification();
+        int newestTime = statisticsMapping.values().stream()
+                .mapToInt(FileStatistics::getLastModificationTime)
+                .max()
+                .orElse(0);
+        int compacted = 0;
+        for (String fileName : new ArrayList<>(statisticsMapping.keySet())) {
+            var file = statisticsMapping.get(fileName);
+            if (policy.getNumberOfCommitsToCompact(file.getCommits(), newestTime) > 0) {
+                compacted += Objects.requireNonNull(getWritable(fileName)).compact(policy, newestTime);
+            }
+        }
+        if (compacted == 0) {
+            directoryTree = tree;
+        }
+        return compacted;
+    }
+
     private void updateTotalLoc() {
         totalLinesOfCode = sum(FileStatistics::getLinesOfCode);
         totalChurn = sum(FileStatistics::getAbsoluteChurn);
@@ -262,6 +807,85 @@ public class RepositoryStatistics implements Serializable {
         return existing;
     }
 
+    /**
+     * Returns new statistics that prepend the specified older history to the history of these statistics. The older
+     * history must contain only commits that are older than all commits of these statistics, i.e., it describes the
+     * repository at the time before the first commit of these statistics. Each file of these statistics is merged with
+     * the file of the older history that has the name of the file before its first commit (i.e., the old name of a
+     * moved file). Files of the older history that are not continued by these statistics have been deleted and are
+     * skipped. These statistics are not modified.
+     *
+     * @param olderHistory
+     *         the statistics of the older history
+     *
+     * @return the statistics with the merged history, the history start of these statistics is taken from the older
+     *         history
+     */
+    RepositoryStatistics prependHistory(final RepositoryStatistics olderHistory) {
+        var merged = new RepositoryStatistics(latestCommitId);
+        merged.historyStartCommitId = olderHistory.historyStartCommitId;
+
+        Map<String, FileStatistics> olderFiles = olderHistory.getMapping();
+        for (Map.Entry<String, FileStatistics> entry : getMapping().entrySet()) {
+            var file = entry.getValue();
+            var commits = file.getCommits();
+            FileStatistics olderFile = null;
+            if (!commits.isEmpty()) {
+                var first = commits.get(0);
+                olderFile = olderFiles.get(first.isMove() ? first.getOldPath() : first.getNewPath());
+            }
+            merged.statisticsMapping.put(entry.getKey(), olderFile == null ? file : file.prependHistory(olderFile));
+        }
+        merged.completeIngestion(statistics);
+        return merged;
+    }
+
+    /**
+     * Returns a copy of these statistics with different statistics of the latest commits. The copy shares the
+     * statistics of the files with this instance, so neither instance must be modified afterward.
+     *
+     * @param latestStatistics
+     *         the statistics of the latest commits of the copy
+     *
+     * @return the copy
+     */
+    RepositoryStatistics withLatestStatistics(final CommitStatistics latestStatistics) {
+        var copy = new RepositoryStatistics(latestCommitId, getMapping().values(), latestStatistics,
+                totalLinesOfCode, totalChurn);
+        copy.historyStartCommitId = historyStartCommitId;
+        copy.incomplete = incomplete;
+        copy.directoryTree = directoryTree;
+        return copy;
+    }
+
+    /**
+     * Returns a fingerprint of these statistics. The fingerprint is composed of the latest commit ID and a hash of the
+     * names and the aggregated properties of all files. Computing the fingerprint does not require inspecting the
+     * individual commits. Different fingerprints guarantee different statistics, equal fingerprints indicate (but do
+     * not guarantee) equal statistics.
+     *
+     * @return the fingerprint
+     */
+    String getFingerprint() {
+        long hash = 0;
+        for (Map.Entry<String, FileStatistics> entry : getMapping().entrySet()) {
+            var file = entry.getValue();
+            hash += mix(Objects.hash(entry.getKey(), file.getNumberOfCommits(), file.getNumberOfAuthors(),
+                    file.getCreationTime(), file.getLastModificationTime(), file.getLinesOfCode(),
+                    file.getAbsoluteChurn()));
+        }
+        return "%s:%d:%016x".formatted(latestCommitId, size(), hash);
+    }
+
+    /**
+     * Spreads the bits of a 32-bit hash over 64 bits so that the sum of the hashes of all files is order-independent
+     * but still sensitive to small changes.
+     */
+    private static long mix(final int hash) {
+        long value = hash * 0x9E37_79B9_7F4A_7C15L;
+        return value ^ value >>> 29;
+    }
+
     public int getTotalChurn() {
         return totalChurn;
     }
@@ -283,11 +907,99 @@ public class RepositoryStatistics implements Serializable {
             return false;
         }
         var that = (RepositoryStatistics) o;
-        return statisticsMapping.equals(that.statisticsMapping) && latestCommitId.equals(that.latestCommitId);
+        return getMapping().equals(that.getMapping()) && latestCommitId.equals(that.latestCommitId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(statisticsMapping, latestCommitId);
+        return Objects.hash(getMapping(), latestCommitId);
+    }
+
+    /**
+     * The sort orders and the path identifiers of the files of a snapshot of the mapping.
+     */
+    private static final class SnapshotIndex {
+        private final Map<String, FileStatistics> mapping;
+        private final Map<FileStatisticsOrder, List<FileStatistics>> orders = new EnumMap<>(FileStatisticsOrder.class);
+        /** The positions of the sorted files in the {@link PathSearchIndex}, for each sort order. */
+        private final Map<FileStatisticsOrder, int[]> pathPositions = new EnumMap<>(FileStatisticsOrder.class);
+        @CheckForNull
+        private Map<Long, FileStatistics> pathIds;
+        @CheckForNull
+        private StatisticsQueryIndex queryIndex;
+        @CheckForNull
+        private PathSearchIndex pathSearchIndex;
+        /** The estimated weight of the computed indices, see {@link #getIndexWeight()}. */
+        private long weight;
+
+        SnapshotIndex(final Map<String, FileStatistics> mapping) {
+            this.mapping = mapping;
+        }
+
+        synchronized long getWeight() {
+            return weight;
+        }
+
+        synchronized List<FileStatistics> getSortedFiles(final FileStatisticsOrder order) {
+            return orders.computeIfAbsent(order, this::sort);
+        }
+
+        synchronized int[] getPathPositions(final FileStatisticsOrder order) {
+            return pathPositions.computeIfAbsent(order, this::locate);
+        }
+
+        synchronized Optional<FileStatistics> findByPathId(final long pathId) {
+            if (pathIds == null) {
+                pathIds = new HashMap<>();
+                for (String fileName : new TreeSet<>(mapping.keySet())) { // colliding IDs select the first path
+                    pathIds.putIfAbsent(PathId.of(fileName), mapping.get(fileName));
+                }
+                weight += pathIds.size();
+            }
+            return Optional.ofNullable(pathIds.get(pathId));
+        }
+
+        synchronized StatisticsQueryIndex getQueryIndex() {
+            if (queryIndex == null) {
+                queryIndex = new StatisticsQueryIndex(mapping);
+                // the index stores four values for each commit of each file
+                weight += mapping.size() + 4L * mapping.values().stream()
+                        .mapToLong(file -> file.getCommits().size())
+                        .sum();
+            }
+            return queryIndex;
+        }
+
+        synchronized PathSearchIndex getPathSearchIndex() {
+            if (pathSearchIndex == null) {
+                pathSearchIndex = new PathSearchIndex(mapping.keySet());
+                // each character of a path starts at most one trigram posting
+                weight += mapping.size() + mapping.keySet().stream().mapToLong(String::length).sum();
+            }
+            return pathSearchIndex;
+        }
+
+        private int[] locate(final FileStatisticsOrder order) {
+            var search = getPathSearchIndex();
+            Map<FileStatistics, Integer> positions = new IdentityHashMap<>(search.size());
+            for (int position = 0; position < search.size(); position++) {
+                positions.put(mapping.get(search.getPath(position)), position);
+            }
+
+            var sorted = getSortedFiles(order);
+            int[] located = new int[sorted.size()];
+            for (int i = 0; i < located.length; i++) {
+                located[i] = positions.get(sorted.get(i));
+            }
+            weight += located.length;
+            return located;
+        }
+
+        private List<FileStatistics> sort(final FileStatisticsOrder order) {
+            weight += mapping.size();
+            var sorted = new ArrayList<>(mapping.values());
+            sorted.sort(order.getComparator());
+            return Collections.unmodifiableList(sorted);
+        }
     }
 }
@@ -0,0 +1,673 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.hm.hafner.util.TreeString;
+import edu.hm.hafner.util.TreeStringBuilder;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary encoding of {@link RepositoryStatistics}. Compared with the XML serialization of {@link
+ * RepositoryStatisticsXmlStream} the encoding avoids repeating the paths, authors and commit IDs of the commits: these
+ * strings are stored once in dictionaries at the beginning of the file and are referenced by their index afterwards.
+ * All numbers are stored as variable length integers, so small numbers require just a single byte.
+ *
+ * <p>
+ * The file has the following layout:
+ * </p>
+ * <ol>
+ *     <li>Header: the magic bytes {@code FRST}, the version of the format, the latest commit ID, the statistics of the
+ *     latest commits and the totals of the repository.</li>
+ *     <li>Dictionaries: all paths, authors and commit IDs.</li>
+ *     <li>Files: a block for each file that contains the properties of the file and the {@link CommitRollup} of the
+ *     file (if any), followed by the commits of the file. The authors and file names of the rollup are stored as
+ *     references into the dictionaries. The commits of a block are stored column by column (all commit IDs, then all
+ *     authors, then all times, etc.), the times are stored as differences to the previous commit.</li>
+ *     <li>Index: the offsets of all dictionary entries and the offsets of the file blocks sorted by file name. All
+ *     values of the index have a fixed size, so the index can be accessed randomly.</li>
+ *     <li>Path identifiers: the {@link PathId identifiers} of the paths of all files, each followed by the position of
+ *     the file in the index. The entries are sorted by identifier, so a file can be found by its identifier using a
+ *     binary search.</li>
+ *     <li>Trailer: the offset of the index followed by the magic bytes.</li>
+ * </ol>
+ * The index allows reading the statistics of individual files without decoding the whole file, see {@link
+ * IndexedRepositoryStatistics}.
+ *
+ * @author Ullrich Hafner
+ */
+final class RepositoryStatisticsBinaryFormat {
+    private static final byte[] MAGIC = {'F', 'R', 'S', 'T'};
+    static final int VERSION = 1;
+    /** Size of the trailer: offset of the index and magic bytes. */
+    static final int TRAILER_SIZE = Long.BYTES + MAGIC.length;
+    /** Size of an entry in the file index: index of the path and offset of the file block. */
+    static final int FILE_ENTRY_SIZE = Integer.BYTES + Long.BYTES;
+    /** Size of an entry in the path identifier index: identifier of the path and position of the file in the index. */
+    static final int PATH_ID_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
+    private RepositoryStatisticsBinaryFormat() {
+        // prevents instantiation
+    }
+
+    /**
+     * Returns whether the specified file has been written using the binary format.
+     *
+     * @param file
+     *         the file to check
+     *
+     * @return {@code true} if the file starts with the magic bytes of the binary format, {@code false} otherwise
+     * @throws IOException
+     *         if the file could not be read
+     */
+    static boolean isBinary(final Path file) throws IOException {
+        try (var stream = Files.newInputStream(file)) {
+            return isMagic(stream.readNBytes(MAGIC.length));
+        }
+    }
+
+    /**
+     * Returns whether the specified bytes are the magic bytes of the binary format.
+     *
+     * @param bytes
+     *         the bytes to check
+     *
+     * @return {@code true} if the bytes are the magic bytes, {@code false} otherwise
+     */
+    static boolean isMagic(final byte[] bytes) {
+        return Arrays.equals(MAGIC, bytes);
+    }
+
+    /**
+     * Writes the specified statistics to a file. The statistics are written to a temporary file first that replaces
+     * the file atomically, so readers never see a partially written file.
+     *
+     * @param file
+     *         the file to write
+     * @param statistics
+     *         the statistics to write
+     *
+     * @throws IOException
+     *         if the file could not be written
+     */
+    static void write(final Path file, final RepositoryStatistics statistics) throws IOException {
+        var temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            write(Files.newOutputStream(temp), statistics);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes the specified statistics to a stream. The stream will be closed afterward.
+     *
+     * @param stream
+     *         the stream to write to
+     * @param statistics
+     *         the statistics to write
+     *
+     * @throws IOException
+     *         if the stream could not be written
+     */
+    static void write(final OutputStream stream, final RepositoryStatistics statistics) throws IOException {
+        try (var output = new Encoder(new BufferedOutputStream(stream))) {
+            write(output, statistics);
+        }
+    }
+
+    private static void write(final Encoder output, final RepositoryStatistics statistics) throws IOException {
+        List<FileStatistics> files = new ArrayList<>(statistics.getFileStatistics());
+        files.sort(Comparator.comparing(FileStatistics::getFileName));
+
+        var paths = new Dictionary();
+        var authors = new Dictionary();
+        var commitIds = new Dictionary();
+        for (FileStatistics file : files) {
+            paths.add(file.getFileName());
+            for (CommitDiffItem commit : file.getCommits()) {
+                paths.add(commit.getOldPath());
+                paths.add(commit.getNewPath());
+                authors.add(commit.getAuthor());
+                commitIds.add(commit.getId());
+            }
+            var rollup = file.getRollup();
+            if (rollup != null) {
+                rollup.getFiles().forEach(paths::add);
+                rollup.getAuthors().forEach(authors::add);
+            }
+        }
+
+        output.writeBytes(MAGIC);
+        output.writeVarint(VERSION);
+        output.writeString(statistics.getLatestCommitId());
+        writeStatistics(output, statistics.getLatestStatistics());
+        output.writeSigned(statistics.getTotalLinesOfCode());
+        output.writeSigned(statistics.getTotalChurn());
+
+        var pathOffsets = paths.write(output);
+        var authorOffsets = authors.write(output);
+        var commitIdOffsets = commitIds.write(output);
+
+        output.writeVarint(files.size());
+        var fileOffsets = new long[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            fileOffsets[i] = output.getPosition();
+            writeFile(output, files.get(i), paths, authors, commitIds);
+        }
+
+        long indexOffset = output.getPosition();
+        output.writeOffsets(pathOffsets);
+        output.writeOffsets(authorOffsets);
+        output.writeOffsets(commitIdOffsets);
+        output.writeFixedInt(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            output.writeFixedInt(paths.indexOf(files.get(i).getFileName()));
+            output.writeFixedLong(fileOffsets[i]);
+        }
+        writePathIds(output, files);
+
+        output.writeFixedLong(indexOffset);
+        output.writeBytes(MAGIC);
+    }
+
+    private static void writePathIds(final Encoder output, final List<FileStatistics> files) throws IOException {
+        var entries = new long[files.size()][];
+        for (int i = 0; i < files.size(); i++) {
+            entries[i] = new long[] {PathId.of(files.get(i).getFileName()), i};
+        }
+        Arrays.sort(entries, Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]));
+
+        output.writeFixedInt(entries.length);
+        for (long[] entry : entries) {
+            output.writeFixedLong(entry[0]);
+            output.writeFixedInt((int) entry[1]);
+        }
+    }
+
+    private static void writeStatistics(final Encoder output, final CommitStatistics statistics) throws IOException {
+        output.writeSigned(statistics.getAddedLines());
+        output.writeSigned(statistics.getDeletedLines());
+        output.writeVarint(statistics.getAuthorCount());
+        output.writeVarint(statistics.getCommitCount());
+        output.writeVarint(statistics.getFilesCount());
+    }
+
+    private static void writeFile(final Encoder output, final FileStatistics file,
+            final Dictionary paths, final Dictionary authors, final Dictionary commitIds) throws IOException {
+        output.writeVarint(paths.indexOf(file.getFileName()));
+        output.writeSigned(file.getCreationTime());
+        output.writeSigned(file.getLastModificationTime() - file.getCreationTime());
+        writeStatistics(output, file.getStatistics());
+        writeRollup(output, file.getRollup(), paths, authors);
+
+        List<CommitDiffItem> commits = file.getCommits();
+        output.writeVarint(commits.size());
+        for (CommitDiffItem commit : commits) {
+            output.writeVarint(commitIds.indexOf(commit.getId()));
+        }
+        for (CommitDiffItem commit : commits) {
+            output.writeVarint(authors.indexOf(commit.getAuthor()));
+        }
+        int previousTime = file.getCreationTime();
+        for (CommitDiffItem commit : commits) {
+            output.writeSigned(commit.getTime() - previousTime);
+            previousTime = commit.getTime();
+        }
+        for (CommitDiffItem commit : commits) {
+            output.writeSigned(commit.getTotalAddedLines());
+        }
+        for (CommitDiffItem commit : commits) {
+            output.writeSigned(commit.getTotalDeletedLines());
+        }
+        for (CommitDiffItem commit : commits) {
+            output.writeVarint(paths.indexOf(commit.getOldPath()));
+        }
+        for (CommitDiffItem commit : commits) {
+            output.writeVarint(paths.indexOf(commit.getNewPath()));
+        }
+    }
+
+    private static void writeRollup(final Encoder output, @CheckForNull final CommitRollup rollup,
+            final Dictionary paths, final Dictionary authors) throws IOException {
+        if (rollup == null) {
+            output.writeVarint(0);
+            return;
+        }
+        output.writeVarint(1);
+        output.writeSigned(rollup.getCreationTime());
+        output.writeSigned(rollup.getAddedLines());
+        output.writeSigned(rollup.getDeletedLines());
+        output.writeVarint(rollup.getCommitCount());
+        output.writeVarint(rollup.getAuthors().size());
+        for (String author : rollup.getAuthors()) {
+            output.writeVarint(authors.indexOf(author));
+        }
+        output.writeVarint(rollup.getFiles().size());
+        for (String path : rollup.getFiles()) {
+            output.writeVarint(paths.indexOf(path));
+        }
+    }
+
+    /**
+     * Reads the statistics from the specified file.
+     *
+     * @param file
+     *         the file to read
+     *
+     * @return the statistics
+     * @throws IOException
+     *         if the file could not be read or is not a valid statistics file
+     */
+    static RepositoryStatistics read(final Path file) throws IOException {
+        return read(Files.newInputStream(file));
+    }
+
+    /**
+     * Reads the statistics from the specified stream. The stream will be closed afterward.
+     *
+     * @param stream
+     *         the stream to read from
+     *
+     * @return the statistics
+     * @throws IOException
+     *         if the stream could not be read or does not contain valid statistics
+     */
+    static RepositoryStatistics read(final InputStream stream) throws IOException {
+        try (var input = new StreamDecoder(new BufferedInputStream(stream))) {
+            return read(input);
+        }
+    }
+
+    private static RepositoryStatistics read(final Decoder input) throws IOException {
+        readVersion(input);
+
+        var latestCommitId = input.readString();
+        var latestStatistics = readStatistics(input);
+        int totalLinesOfCode = input.readSigned();
+        int totalChurn = input.readSigned();
+
+        Map<String, String> strings = new HashMap<>();
+        var paths = readPaths(input, new TreeStringBuilder(), strings);
+        var authors = readStrings(input, strings);
+        var commitIds = readStrings(input, strings);
+
+        int size = input.readVarint();
+        List<FileStatistics> files = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            files.add(readFile(input, index -> paths[index], index -> authors[index], index -> commitIds[index]));
+        }
+
+        return new RepositoryStatistics(latestCommitId, files, latestStatistics, totalLinesOfCode, totalChurn);
+    }
+
+    /**
+     * Reads and verifies the magic bytes and the version of the format.
+     *
+     * @param input
+     *         the input positioned at the start of the file
+     *
+     * @throws IOException
+     *         if the input is not a statistics file or has an unsupported version
+     */
+    static void readVersion(final Decoder input) throws IOException {
+        if (!isMagic(input.readBytes(MAGIC.length))) {
+            throw new IOException("Not a repository statistics file");
+        }
+        int version = input.readVarint();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of the repository statistics format: " + version);
+        }
+    }
+
+    static CommitStatistics readStatistics(final Decoder input) throws IOException {
+        return new CommitStatistics(input.readSigned(), input.readSigned(),
+                input.readVarint(), input.readVarint(), input.readVarint());
+    }
+
+    private static TreeString[] readPaths(final Decoder input, final TreeStringBuilder builder,
+            final Map<String, String> deduplicated) throws IOException {
+        var strings = readStrings(input, deduplicated);
+        var paths = new TreeString[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            paths[i] = builder.intern(strings[i]);
+        }
+        return paths;
+    }
+
+    /**
+     * Reads a dictionary of strings. Equal strings of the dictionaries of the same file share a single instance. The
+     * strings are not interned, since the JVM string table would grow with every loaded file.
+     */
+    private static String[] readStrings(final Decoder input, final Map<String, String> deduplicated)
+            throws IOException {
+        var strings = new String[input.readVarint()];
+        for (int i = 0; i < strings.length; i++) {
+            var value = input.readString();
+            strings[i] = deduplicated.computeIfAbsent(value, key -> key);
+        }
+        return strings;
+    }
+
+    /**
+     * Reads the block of a file.
+     *
+     * @param input
+     *         the input positioned at the start of the block
+     * @param paths
+     *         resolves the indexes of the path dictionary
+     * @param authors
+     *         resolves the indexes of the author dictionary
+     * @param commitIds
+     *         resolves the indexes of the commit ID dictionary
+     *
+     * @return the statistics of the file
+     * @throws IOException
+     *         if the block could not be read
+     */
+    static FileStatistics readFile(final Decoder input, final Lookup<TreeString> paths,
+            final Lookup<String> authors, final Lookup<String> commitIds) throws IOException {
+        var fileName = paths.get(input.readVarint());
+        int creationTime = input.readSigned();
+        int lastModificationTime = creationTime + input.readSigned();
+        var statistics = readStatistics(input);
+        var rollup = readRollup(input, paths, authors);
+
+        int size = input.readVarint();
+        var ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = commitIds.get(input.readVarint());
+        }
+        var authorOfCommit = new String[size];
+        for (int i = 0; i < size; i++) {
+            authorOfCommit[i] = authors.get(input.readVarint());
+        }
+        List<CommitDiffItem> commits = new ArrayList<>(size);
+        int time = creationTime;
+        for (int i = 0; i < size; i++) {
+            time += input.readSigned();
+            commits.add(new CommitDiffItem(ids[i], authorOfCommit[i], time, false));
+        }
+        for (CommitDiffItem commit : commits) {
+            commit.addLines(input.readSigned());
+        }
+        for (CommitDiffItem commit : commits) {
+            commit.deleteLines(input.readSigned());
+        }
+        for (CommitDiffItem commit : commits) {
+            commit.setOldPath(paths.get(input.readVarint()));
+        }
+        for (CommitDiffItem commit : commits) {
+            commit.setNewPath(paths.get(input.readVarint()));
+        }
+
+        return new FileStatistics(fileName, creationTime, lastModificationTime, statistics, commits, rollup);
+    }
+
+    @CheckForNull
+    private static CommitRollup readRollup(final Decoder input, final Lookup<TreeString> paths,
+            final Lookup<String> authors) throws IOException {
+        if (input.readVarint() == 0) {
+            return null;
+        }
+        int creationTime = input.readSigned();
+        int addedLines = input.readSigned();
+        int deletedLines = input.readSigned();
+        int commitCount = input.readVarint();
+        List<String> rolledUpAuthors = new ArrayList<>();
+        int authorCount = input.readVarint();
+        for (int i = 0; i < authorCount; i++) {
+            rolledUpAuthors.add(authors.get(input.readVarint()));
+        }
+        List<String> rolledUpFiles = new ArrayList<>();
+        int fileCount = input.readVarint();
+        for (int i = 0; i < fileCount; i++) {
+            rolledUpFiles.add(paths.get(input.readVarint()).toString());
+        }
+        return new CommitRollup(creationTime, addedLines, deletedLines, commitCount, rolledUpAuthors, rolledUpFiles);
+    }
+
+    /**
+     * Resolves the index of a dictionary entry.
+     *
+     * @param <T>
+     *         type of the entries
+     */
+    @FunctionalInterface
+    interface Lookup<T> {
+        /**
+         * Returns the entry with the specified index.
+         *
+         * @param index
+         *         the index of the entry
+         *
+         * @return the entry
+         * @throws IOException
+         *         if the entry could not be read
+         */
+        T get(int index) throws IOException;
+    }
+
+    /**
+     * Assigns a unique index to each distinct string.
+     */
+    private static class Dictionary {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        void add(final String value) {
+            if (indexes.putIfAbsent(value, values.size()) == null) {
+                values.add(value);
+            }
+        }
+
+        int indexOf(final String value) {
+            return indexes.get(value);
+        }
+
+        long[] write(final Encoder output) throws IOException {
+            var offsets = new long[values.size()];
+            output.writeVarint(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                offsets[i] = output.getPosition();
+                output.writeString(values.get(i));
+            }
+            return offsets;
+        }
+    }
+
+    /**
+     * Writes variable length integers, fixed size integers and strings to an output stream.
+     */
+    private static class Encoder implements AutoCloseable {
+        private final OutputStream output;
+        private long position;
+
+        Encoder(final OutputStream output) {
+            this.output = output;
+        }
+
+        long getPosition() {
+            return position;
+        }
+
+        void writeBytes(final byte[] bytes) throws IOException {
+            output.write(bytes);
+            position += bytes.length;
+        }
+
+        private void writeByte(final int value) throws IOException {
+            output.write(value);
+            position++;
+        }
+
+        void writeVarint(final int value) throws IOException {
+            int remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                writeByte(remaining & 0x7F | 0x80);
+                remaining >>>= 7;
+            }
+            writeByte(remaining);
+        }
+
+        void writeSigned(final int value) throws IOException {
+            writeVarint(value << 1 ^ value >> 31);
+        }
+
+        void writeFixedInt(final int value) throws IOException {
+            for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+                writeByte(value >>> shift & 0xFF);
+            }
+        }
+
+        void writeFixedLong(final long value) throws IOException {
+            for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+                writeByte((int) (value >>> shift & 0xFF));
+            }
+        }
+
+        void writeOffsets(final long[] offsets) throws IOException {
+            writeFixedInt(offsets.length);
+            for (long offset : offsets) {
+                writeFixedLong(offset);
+            }
+        }
+
+        void writeString(final String value) throws IOException {
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            writeBytes(bytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+    }
+
+    /**
+     * Reads variable length integers and strings.
+     */
+    abstract static class Decoder {
+        /**
+         * Reads the next byte.
+         *
+         * @return the next byte or -1 if the end of the input has been reached
+         * @throws IOException
+         *         if the byte could not be read
+         */
+        abstract int read() throws IOException;
+
+        /**
+         * Reads the specified number of bytes.
+         *
+         * @param length
+         *         the number of bytes to read
+         *
+         * @return the bytes
+         * @throws IOException
+         *         if the bytes could not be read
+         */
+        abstract byte[] readBytes(int length) throws IOException;
+
+        int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                int next = read();
+                if (next < 0) {
+                    throw new EOFException("Unexpected end of repository statistics file");
+                }
+                value |= (next & 0x7F) << shift;
+                if ((next & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length integer in repository statistics file");
+        }
+
+        int readSigned() throws IOException {
+            int value = readVarint();
+            return value >>> 1 ^ -(value & 1);
+        }
+
+        String readString() throws IOException {
+            return new String(readBytes(readVarint()), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Decodes the values of an input stream.
+     */
+    private static class StreamDecoder extends Decoder implements AutoCloseable {
+        private final InputStream input;
+
+        StreamDecoder(final InputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        int read() throws IOException {
+            return input.read();
+        }
+
+        @Override
+        byte[] readBytes(final int length) throws IOException {
+            var bytes = input.readNBytes(length);
+            if (bytes.length != length) {
+                throw new EOFException("Unexpected end of repository statistics file");
+            }
+            return bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    /**
+     * Decodes the values of a buffer starting at a given position. The position of the buffer is not changed.
+     */
+    static class BufferDecoder extends Decoder {
+        private final ByteBuffer buffer;
+
+        BufferDecoder(final ByteBuffer buffer, final int position) {
+            this.buffer = buffer.duplicate().position(position);
+        }
+
+        @Override
+        int read() {
+            if (buffer.hasRemaining()) {
+                return buffer.get() & 0xFF;
+            }
+            return -1;
+        }
+
+        @Override
+        byte[] readBytes(final int length) throws IOException {
+            if (buffer.remaining() < length) {
+                throw new EOFException("Unexpected end of repository statistics file");
+            }
+            var bytes = new byte[length];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+}
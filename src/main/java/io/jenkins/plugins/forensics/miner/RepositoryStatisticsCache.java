@@ -0,0 +1,583 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import jenkins.util.SystemProperties;
+
+/**
+ * Caches the {@link RepositoryStatistics} of {@link ForensicsBuildAction build actions} on the controller. All views,
+ * trend charts and {@link MinerService} queries obtain the statistics of a build from this cache, so the statistics of
+ * frequently used builds are parsed only once, regardless of the job they belong to. The {@link RepositoryMinerStep}
+ * stores the statistics that have just been mined in this cache, so the next build of the job (or several concurrent
+ * builds) starts the mining with these statistics without parsing the statistics file of the previous build.
+ *
+ * <p>
+ * The memory used by the cache is bounded by a budget: each entry is weighted by the number of files and commits of
+ * the statistics and by the size of the indices that have been computed for the statistics (see {@link
+ * RepositoryStatistics#getIndexWeight()}). If the total weight of all entries exceeds the budget then the least
+ * recently used entries are evicted. The budget can be configured with the system property {@code
+ * io.jenkins.plugins.forensics.miner.RepositoryStatisticsCache.maximumWeight}. A budget of 0 disables the cache.
+ * Evicted statistics and statistics that exceed the budget on their own are still held by soft references: as long as
+ * the garbage collector did not reclaim them, they are returned without loading them again.
+ * Concurrent requests for statistics that are not loaded yet are coalesced: only the first request reads the
+ * statistics, all other requests wait for this result.
+ * </p>
+ *
+ * <p>
+ * Note that the cached instances are shared, so they must not be modified.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class RepositoryStatisticsCache {
+    /** Name of the system property that defines the maximum weight of all cached statistics. */
+    static final String MAXIMUM_WEIGHT_PROPERTY = RepositoryStatisticsCache.class.getName() + ".maximumWeight";
+    /** Default maximum weight: about one million commits. */
+    static final long DEFAULT_MAXIMUM_WEIGHT = 1_000_000L;
+
+    private static final Logger LOGGER = Logger.getLogger(RepositoryStatisticsCache.class.getName());
+    private static final RepositoryStatisticsCache INSTANCE = new RepositoryStatisticsCache(
+            SystemProperties.getLong(MAXIMUM_WEIGHT_PROPERTY, DEFAULT_MAXIMUM_WEIGHT));
+
+    /**
+     * Returns the singleton instance of this cache.
+     *
+     * @return the cache
+     */
+    public static RepositoryStatisticsCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final long maximumWeight;
+
+    /** Entries in access order: the first entry is the least recently used one. Guarded by {@code this}. */
+    private final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<CacheKey, CompletableFuture<RepositoryStatistics>> loading = new ConcurrentHashMap<>();
+    /** Statistics outside the budget that have not been reclaimed yet. Guarded by {@code this}. */
+    private final Map<CacheKey, ReclaimableEntry> reclaimable = new HashMap<>();
+    private final ReferenceQueue<RepositoryStatistics> reclaimed = new ReferenceQueue<>();
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long loadCount;
+    private long loadFailureCount;
+    private long totalLoadTime;
+    private long evictionCount;
+
+    @VisibleForTesting
+    RepositoryStatisticsCache(final long maximumWeight) {
+        this.maximumWeight = Math.max(0, maximumWeight);
+    }
+
+    /**
+     * Returns the statistics of the specified action. If these statistics are not in the cache yet, then they will be
+     * loaded using the specified loader. Concurrent loads of the same statistics are coalesced.
+     *
+     * @param action
+     *         the action to get the statistics for
+     * @param loader
+     *         loads the statistics of the action
+     *
+     * @return the statistics of the action, must not be modified by the caller
+     */
+    RepositoryStatistics get(final ForensicsBuildAction action, final Supplier<RepositoryStatistics> loader) {
+        var key = CacheKey.of(action);
+
+        var cached = getIfPresent(key, true);
+        if (cached != null) {
+            return cached;
+        }
+
+        var candidate = new CompletableFuture<RepositoryStatistics>();
+        var inProgress = loading.putIfAbsent(key, candidate);
+        if (inProgress != null) {
+            return await(inProgress);
+        }
+        try {
+            var loadedMeanwhile = getIfPresent(key, false);
+            if (loadedMeanwhile != null) {
+                candidate.complete(loadedMeanwhile);
+
+                return loadedMeanwhile;
+            }
+            var statistics = load(loader);
+            put(key, statistics);
+            candidate.complete(statistics);
+
+            return statistics;
+        }
+        catch (RuntimeException exception) {
+            candidate.completeExceptionally(exception);
+
+            throw exception;
+        }
+        finally {
+            loading.remove(key, candidate);
+        }
+    }
+
+    @CheckForNull
+    private synchronized RepositoryStatistics getIfPresent(final CacheKey key, final boolean record) {
+        var statistics = find(key);
+        if (record) {
+            if (statistics == null) {
+                missCount++;
+            }
+            else {
+                hitCount++;
+            }
+        }
+        return statistics;
+    }
+
+    @CheckForNull
+    private RepositoryStatistics find(final CacheKey key) {
+        var entry = entries.get(key);
+        if (entry != null) {
+            reweigh(entry);
+
+            return entry.getStatistics();
+        }
+        purgeReclaimed();
+        var softEntry = reclaimable.get(key);
+        return softEntry == null ? null : softEntry.get();
+    }
+
+    /**
+     * Updates the weight of the specified entry, since the indices of the statistics are computed on demand after the
+     * statistics have been cached.
+     */
+    private void reweigh(final CacheEntry entry) {
+        long entryWeight = entry.getBaseWeight() + entry.getStatistics().getIndexWeight();
+        weight += entryWeight - entry.getWeight();
+        entry.setWeight(entryWeight);
+
+        evictLeastRecentlyUsed();
+    }
+
+    private RepositoryStatistics load(final Supplier<RepositoryStatistics> loader) {
+        long start = System.nanoTime();
+        try {
+            var statistics = loader.get();
+            recordLoad(System.nanoTime() - start, true);
+
+            return statistics;
+        }
+        catch (RuntimeException exception) {
+            recordLoad(System.nanoTime() - start, false);
+
+            throw exception;
+        }
+    }
+
+    private synchronized void recordLoad(final long duration, final boolean successful) {
+        totalLoadTime += duration;
+        if (successful) {
+            loadCount++;
+        }
+        else {
+            loadFailureCount++;
+        }
+    }
+
+    private static RepositoryStatistics await(final CompletableFuture<RepositoryStatistics> statistics) {
+        try {
+            return statistics.join();
+        }
+        catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Stores the statistics of the specified action, e.g. the statistics that have just been mined in a build.
+     *
+     * @param action
+     *         the action that persists the statistics
+     * @param statistics
+     *         the statistics of the action
+     */
+    void put(final ForensicsBuildAction action, final RepositoryStatistics statistics) {
+        put(CacheKey.of(action), statistics);
+    }
+
+    private synchronized void put(final CacheKey key, final RepositoryStatistics statistics) {
+        long baseWeight = weighFiles(statistics);
+        long entryWeight = baseWeight + statistics.getIndexWeight();
+        if (entryWeight > maximumWeight) {
+            LOGGER.log(Level.FINE, "Statistics of {0} exceed the cache budget ({1} > {2})",
+                    new Object[] {key, entryWeight, maximumWeight});
+            remove(key);
+            keepReclaimable(key, statistics);
+
+            return;
+        }
+        reclaimable.remove(key);
+        var previous = entries.put(key, new CacheEntry(statistics, baseWeight, entryWeight));
+        if (previous != null) {
+            weight -= previous.getWeight();
+        }
+        weight += entryWeight;
+
+        evictLeastRecentlyUsed();
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (weight > maximumWeight && iterator.hasNext()) {
+            var evicted = iterator.next();
+            weight -= evicted.getValue().getWeight();
+            iterator.remove();
+            evictionCount++;
+            keepReclaimable(evicted.getKey(), evicted.getValue().getStatistics());
+        }
+    }
+
+    private void remove(final CacheKey key) {
+        var removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.getWeight();
+        }
+    }
+
+    private void keepReclaimable(final CacheKey key, final RepositoryStatistics statistics) {
+        purgeReclaimed();
+        reclaimable.put(key, new ReclaimableEntry(key, statistics, reclaimed));
+    }
+
+    /**
+     * Removes the entries of statistics that have been reclaimed by the garbage collector.
+     */
+    private void purgeReclaimed() {
+        for (var reference = reclaimed.poll(); reference != null; reference = reclaimed.poll()) {
+            var entry = (ReclaimableEntry) reference;
+            reclaimable.remove(entry.getKey(), entry);
+        }
+    }
+
+    /**
+     * Simulates the garbage collector: clears the references to all statistics outside the budget.
+     */
+    @VisibleForTesting
+    synchronized void clearReclaimable() {
+        reclaimable.values().forEach(ReclaimableEntry::enqueue);
+    }
+
+    /**
+     * Returns the weight of the specified statistics in the cache. The weight is an estimation of the heap required by
+     * the statistics: the number of files plus the number of commits of all files plus the weight of the indices that
+     * have been computed for the statistics.
+     *
+     * @param statistics
+     *         the statistics to weigh
+     *
+     * @return the weight
+     */
+    static long weigh(final RepositoryStatistics statistics) {
+        return weighFiles(statistics) + statistics.getIndexWeight();
+    }
+
+    private static long weighFiles(final RepositoryStatistics statistics) {
+        long commits = 0;
+        for (FileStatistics file : statistics.getFileStatistics()) {
+            commits += file.getCommits().size();
+        }
+        return 1 + statistics.size() + commits;
+    }
+
+    /**
+     * Removes the cached statistics of the specified build.
+     *
+     * @param run
+     *         the build that has been deleted
+     */
+    synchronized void invalidate(final Run<?, ?> run) {
+        var job = run.getParent().getFullName();
+        removeIf(key -> key.belongsTo(job) && key.buildNumber == run.getNumber());
+        reclaimable.keySet().removeIf(key -> key.belongsTo(job) && key.buildNumber == run.getNumber());
+    }
+
+    /**
+     * Removes the cached statistics of all builds of the specified job.
+     *
+     * @param fullName
+     *         the full name of the job
+     */
+    synchronized void invalidate(final String fullName) {
+        removeIf(key -> key.belongsTo(fullName));
+        reclaimable.keySet().removeIf(key -> key.belongsTo(fullName));
+    }
+
+    private void removeIf(final Predicate<CacheKey> filter) {
+        Iterator<Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (filter.test(entry.getKey())) {
+                weight -= entry.getValue().getWeight();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        reclaimable.clear();
+        weight = 0;
+    }
+
+    /**
+     * Returns the current statistics of this cache, e.g. to be inspected in the script console.
+     *
+     * @return the statistics of this cache
+     */
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(entries.size(), weight, maximumWeight, hitCount, missCount, loadCount,
+                loadFailureCount, totalLoadTime, evictionCount);
+    }
+
+    /**
+     * Identifies the statistics of an SCM in a build.
+     */
+    private static final class CacheKey {
+        private final String job;
+        private final int buildNumber;
+        private final String scmKey;
+
+        static CacheKey of(final ForensicsBuildAction action) {
+            var owner = action.getOwner();
+            return new CacheKey(owner.getParent().getFullName(), owner.getNumber(), action.getScmKey());
+        }
+
+        private CacheKey(final String job, final int buildNumber, final String scmKey) {
+            this.job = job;
+            this.buildNumber = buildNumber;
+            this.scmKey = scmKey;
+        }
+
+        boolean belongsTo(final String fullName) {
+            return job.equals(fullName);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            var cacheKey = (CacheKey) o;
+            return buildNumber == cacheKey.buildNumber && job.equals(cacheKey.job) && scmKey.equals(cacheKey.scmKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(job, buildNumber, scmKey);
+        }
+
+        @Override
+        public String toString() {
+            return "%s #%d (%s)".formatted(job, buildNumber, scmKey);
+        }
+    }
+
+    /**
+     * The cached statistics of a build and their weight.
+     */
+    private static final class CacheEntry {
+        private final RepositoryStatistics statistics;
+        private final long baseWeight;
+        private long weight;
+
+        CacheEntry(final RepositoryStatistics statistics, final long baseWeight, final long weight) {
+            this.statistics = statistics;
+            this.baseWeight = baseWeight;
+            this.weight = weight;
+        }
+
+        RepositoryStatistics getStatistics() {
+            return statistics;
+        }
+
+        /**
+         * Returns the weight of the files and commits of the statistics, without the indices.
+         *
+         * @return the weight of the files
+         */
+        long getBaseWeight() {
+            return baseWeight;
+        }
+
+        long getWeight() {
+            return weight;
+        }
+
+        void setWeight(final long weight) {
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Statistics outside the budget of the cache, held until they are reclaimed by the garbage collector.
+     */
+    private static final class ReclaimableEntry extends SoftReference<RepositoryStatistics> {
+        private final CacheKey key;
+
+        ReclaimableEntry(final CacheKey key, final RepositoryStatistics statistics,
+                final ReferenceQueue<RepositoryStatistics> queue) {
+            super(statistics, queue);
+
+            this.key = key;
+        }
+
+        CacheKey getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * A snapshot of the usage statistics of the cache.
+     */
+    public static final class CacheStatistics {
+        private final int size;
+        private final long weight;
+        private final long maximumWeight;
+        private final long hitCount;
+        private final long missCount;
+        private final long loadCount;
+        private final long loadFailureCount;
+        private final long totalLoadTime;
+        private final long evictionCount;
+
+        @SuppressWarnings("checkstyle:ParameterNumber")
+        CacheStatistics(final int size, final long weight, final long maximumWeight, final long hitCount,
+                final long missCount, final long loadCount, final long loadFailureCount, final long totalLoadTime,
+                final long evictionCount) {
+            this.size = size;
+            this.weight = weight;
+            this.maximumWeight = maximumWeight;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadCount = loadCount;
+            this.loadFailureCount = loadFailureCount;
+            this.totalLoadTime = totalLoadTime;
+            this.evictionCount = evictionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        public long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getLoadCount() {
+            return loadCount;
+        }
+
+        public long getLoadFailureCount() {
+            return loadFailureCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * Returns the ratio of requests that have been served from the cache.
+         *
+         * @return the hit rate, a value between 0 and 1
+         */
+        public double getHitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        /**
+         * Returns the average time required to load the statistics of a build.
+         *
+         * @return the average load time in milliseconds
+         */
+        public long getAverageLoadTime() {
+            long loads = loadCount + loadFailureCount;
+            return loads == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLoadTime / loads);
+        }
+
+        @Override
+        public String toString() {
+            return "size=%d, weight=%d/%d, hits=%d, misses=%d, loads=%d, failures=%d, average load=%d ms, evictions=%d"
+                    .formatted(size, weight, maximumWeight, hitCount, missCount, loadCount, loadFailureCount,
+                            getAverageLoadTime(), evictionCount);
+        }
+    }
+
+    /**
+     * Removes the statistics of deleted builds from the cache.
+     */
+    @Extension
+    public static class DeletedBuildListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            getInstance().invalidate(run);
+        }
+    }
+
+    /**
+     * Removes the statistics of deleted or renamed jobs from the cache.
+     */
+    @Extension
+    public static class DeletedJobListener extends ItemListener {
+        @Override
+        public void onDeleted(final Item item) {
+            getInstance().invalidate(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+            getInstance().invalidate(oldFullName);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+
+import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
+
+/**
+ * The difference between the {@link RepositoryStatistics} of two consecutive builds. A delta contains the names of the
+ * removed files and, for each new or changed file, just the commits that have been added in the newer build. Applying
+ * the delta to the statistics of the older build restores the statistics of the newer build.
+ *
+ * @author Ullrich Hafner
+ */
+class RepositoryStatisticsDelta implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String latestCommitId;
+    private final CommitStatistics latestStatistics;
+    @SuppressWarnings("PMD.LooseCoupling")
+    private final ArrayList<String> removedFiles = new ArrayList<>();
+    @SuppressWarnings("PMD.LooseCoupling")
+    private final ArrayList<FileDelta> changedFiles = new ArrayList<>();
+
+    /**
+     * Computes the delta between the specified statistics.
+     *
+     * @param previous
+     *         the statistics of the older build
+     * @param current
+     *         the statistics of the newer build
+     *
+     * @return the delta, or an empty result if the current statistics cannot be represented as a delta
+     */
+    static Optional<RepositoryStatisticsDelta> create(final RepositoryStatistics previous,
+            final RepositoryStatistics current) {
+        var delta = new RepositoryStatisticsDelta(current.getLatestCommitId(), current.getLatestStatistics());
+
+        Map<String, FileStatistics> previousFiles = previous.getMapping();
+        for (String fileName : previousFiles.keySet()) {
+            if (!current.contains(fileName)) {
+                delta.removedFiles.add(fileName);
+            }
+        }
+        for (Entry<String, FileStatistics> entry : current.getMapping().entrySet()) {
+            var file = entry.getValue();
+            if (file.getCommits().isEmpty()) {
+                return Optional.empty(); // statistics of releases before 0.8.0 have no commits
+            }
+            var baseFileName = findBase(entry.getKey(), file, previousFiles);
+            if (baseFileName == null) {
+                delta.changedFiles.add(new FileDelta(entry.getKey(), null, file.getCommits(), file.getRollup()));
+            }
+            else {
+                var base = previousFiles.get(baseFileName);
+                if (!base.equals(file) || !baseFileName.equals(entry.getKey())) {
+                    var commits = file.getCommits();
+                    delta.changedFiles.add(new FileDelta(entry.getKey(), baseFileName,
+                            commits.subList(base.getCommits().size(), commits.size()), null));
+                }
+            }
+        }
+        return Optional.of(delta);
+    }
+
+    /**
+     * Finds the file statistics of the older build that the specified file continues. This is the file with the same
+     * name, or for moved files the file with the old name. A file is continued if the commits of the older file are a
+     * prefix of the commits of the newer file and if both files share the same rollup of compacted commits.
+     */
+    @CheckForNull
+    private static String findBase(final String fileName, final FileStatistics file,
+            final Map<String, FileStatistics> previousFiles) {
+        var sameName = previousFiles.get(fileName);
+        if (sameName != null && isContinuedBy(sameName, file)) {
+            return fileName;
+        }
+        for (CommitDiffItem commit : file.getCommits()) {
+            if (commit.isMove()) {
+                var oldName = previousFiles.get(commit.getOldPath());
+                if (oldName != null && isContinuedBy(oldName, file)) {
+                    return commit.getOldPath();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isContinuedBy(final FileStatistics base, final FileStatistics file) {
+        List<CommitDiffItem> baseCommits = base.getCommits();
+        List<CommitDiffItem> commits = file.getCommits();
+
+        return !baseCommits.isEmpty() && baseCommits.size() <= commits.size()
+                && Objects.equals(base.getRollup(), file.getRollup())
+                && baseCommits.equals(commits.subList(0, baseCommits.size()));
+    }
+
+    /**
+     * Creates an empty delta that does not change the statistics of the older build.
+     */
+    RepositoryStatisticsDelta() {
+        this(StringUtils.EMPTY, new CommitStatistics());
+    }
+
+    private RepositoryStatisticsDelta(final String latestCommitId, final CommitStatistics latestStatistics) {
+        this.latestCommitId = latestCommitId;
+        this.latestStatistics = latestStatistics;
+    }
+
+    int getNumberOfChangedFiles() {
+        return changedFiles.size();
+    }
+
+    int getNumberOfRemovedFiles() {
+        return removedFiles.size();
+    }
+
+    /**
+     * Applies this delta to the statistics of the older build. If the statistics of the older build do not contain the
+     * base file of a changed file (e.g., since the older build has been deleted), then the changed file contains only
+     * the commits of this delta and the result is marked as {@link RepositoryStatistics#isIncomplete() incomplete}.
+     *
+     * @param previous
+     *         the statistics of the older build, will not be modified
+     *
+     * @return the statistics of the newer build
+     */
+    RepositoryStatistics apply(final RepositoryStatistics previous) {
+        var builder = new FileStatisticsBuilder();
+
+        var result = new RepositoryStatistics(latestCommitId, previous);
+        for (FileDelta change : changedFiles) {
+            FileStatistics file;
+            if (change.baseFileName == null) {
+                file = builder.build(change.fileName);
+                file.restoreRollup(change.rollup);
+            }
+            else if (previous.contains(change.baseFileName)) {
+                file = new FileStatistics(previous.get(change.baseFileName));
+            }
+            else {
+                file = builder.build(change.fileName);
+                result.markIncomplete();
+            }
+            file.inspectCommits(change.commits);
+            result.replace(change.fileName, file);
+        }
+        removedFiles.forEach(result::remove);
+        result.completeIngestion(latestStatistics);
+        return result;
+    }
+
+    /**
+     * The commits that have been added to a file. If the file has no base file, then the delta contains all retained
+     * commits and the rollup of the compacted commits of the file.
+     */
+    static class FileDelta implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final String fileName;
+        @CheckForNull
+        private final String baseFileName;
+        @SuppressWarnings("PMD.LooseCoupling")
+        private final ArrayList<CommitDiffItem> commits;
+        @CheckForNull
+        private final CommitRollup rollup; // since 3.0.0
+
+        FileDelta(final String fileName, @CheckForNull final String baseFileName,
+                final List<CommitDiffItem> commits, @CheckForNull final CommitRollup rollup) {
+            this.fileName = fileName;
+            this.baseFileName = baseFileName;
+            this.commits = new ArrayList<>(commits);
+            this.rollup = rollup;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.jenkins.plugins.forensics.miner;
+
+import hudson.util.XStream2;
+
+import io.jenkins.plugins.util.AbstractXmlStream;
+
+/**
+ * Reads {@link RepositoryStatisticsDelta} instances from an XML file.
+ *
+ * @author Ullrich Hafner
+ */
+class RepositoryStatisticsDeltaXmlStream extends AbstractXmlStream<RepositoryStatisticsDelta> {
+    /**
+     * Creates a new {@link RepositoryStatisticsDeltaXmlStream}.
+     */
+    RepositoryStatisticsDeltaXmlStream() {
+        super(RepositoryStatisticsDelta.class);
+    }
+
+    @Override
+    protected RepositoryStatisticsDelta createDefaultValue() {
+        return new RepositoryStatisticsDelta();
+    }
+
+    @Override
+    protected void configureXStream(final XStream2 xStream) {
+        xStream.alias("diff", CommitDiffItem.class);
+        xStream.alias("delta", RepositoryStatisticsDelta.class);
+        xStream.alias("change", RepositoryStatisticsDelta.FileDelta.class);
+        xStream.alias("rollup", CommitRollup.class);
+    }
+}
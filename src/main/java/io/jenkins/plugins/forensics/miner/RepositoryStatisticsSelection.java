@@ -0,0 +1,157 @@
+package io.jenkins.plugins.forensics.miner;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * A read-only view of the statistics of a subselection of the files of a repository. The view references the
+ * {@link FileStatistics} instances of the statistics of the build, the statistics of the files are not copied. The
+ * totals of the selected files are computed lazily when they are requested for the first time. The files that have been
+ * requested but that are not part of the repository are available as a set.
+ *
+ * @author Ullrich Hafner
+ * @see MinerService#queryStatisticsFor(Collection, hudson.model.Run, Set, edu.hm.hafner.util.FilteredLog)
+ */
+public final class RepositoryStatisticsSelection {
+    private static final int UNDEFINED = -1;
+
+    private final String scmKey;
+    private final Map<String, FileStatistics> selectedFiles;
+    private final Set<String> missingFiles;
+
+    private int totalLinesOfCode = UNDEFINED;
+    private int totalChurn = UNDEFINED;
+
+    RepositoryStatisticsSelection(final String scmKey, final Map<String, FileStatistics> selectedFiles,
+            final Set<String> missingFiles) {
+        this.scmKey = scmKey;
+        this.selectedFiles = Collections.unmodifiableMap(selectedFiles);
+        this.missingFiles = Collections.unmodifiableSet(missingFiles);
+    }
+
+    /**
+     * Returns the key of the SCM the files have been selected from.
+     *
+     * @return the key of the SCM
+     */
+    public String getScmKey() {
+        return scmKey;
+    }
+
+    /**
+     * Returns whether no file has been selected.
+     *
+     * @return {@code true} if no requested file is part of the repository, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return selectedFiles.isEmpty();
+    }
+
+    /**
+     * Returns the number of selected files.
+     *
+     * @return number of selected files
+     */
+    public int size() {
+        return selectedFiles.size();
+    }
+
+    /**
+     * Returns whether the specified file has been selected.
+     *
+     * @param fileName
+     *         the name of the file
+     *
+     * @return {@code true} if the file has been selected, {@code false} otherwise
+     */
+    public boolean contains(final String fileName) {
+        return selectedFiles.containsKey(fileName);
+    }
+
+    /**
+     * Returns the names of the selected files.
+     *
+     * @return the names of the selected files
+     */
+    public Set<String> getFiles() {
+        return selectedFiles.keySet();
+    }
+
+    /**
+     * Returns the statistics of the selected files.
+     *
+     * @return the statistics of the selected files
+     */
+    public Collection<FileStatistics> getFileStatistics() {
+        return selectedFiles.values();
+    }
+
+    /**
+     * Returns the statistics for the specified file.
+     *
+     * @param fileName
+     *         the name of the file
+     *
+     * @return the statistics for that file, or an empty result if the file has not been selected
+     */
+    public Optional<FileStatistics> find(final String fileName) {
+        return Optional.ofNullable(selectedFiles.get(fileName));
+    }
+
+    /**
+     * Returns the names of the requested files that are not part of the repository.
+     *
+     * @return the names of the missing files
+     */
+    public Set<String> getMissingFiles() {
+        return missingFiles;
+    }
+
+    /**
+     * Returns the total lines of code of the selected files.
+     *
+     * @return the total lines of code
+     */
+    public int getTotalLinesOfCode() {
+        if (totalLinesOfCode == UNDEFINED) {
+            totalLinesOfCode = sum(FileStatistics::getLinesOfCode);
+        }
+        return totalLinesOfCode;
+    }
+
+    /**
+     * Returns the total churn of the selected files.
+     *
+     * @return the total churn
+     */
+    public int getTotalChurn() {
+        if (totalChurn == UNDEFINED) {
+            totalChurn = sum(FileStatistics::getAbsoluteChurn);
+        }
+        return totalChurn;
+    }
+
+    private int sum(final ToIntFunction<FileStatistics> property) {
+        return selectedFiles.values().stream().mapToInt(property).sum();
+    }
+
+    /**
+     * Creates new repository statistics that contain the selected files.
+     *
+     * @return the repository statistics of the selected files
+     */
+    public RepositoryStatistics toRepositoryStatistics() {
+        var statistics = new RepositoryStatistics();
+        statistics.addAll(selectedFiles.values());
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        return "%s: %d files selected, %d files missing".formatted(scmKey, selectedFiles.size(), missingFiles.size());
+    }
+}
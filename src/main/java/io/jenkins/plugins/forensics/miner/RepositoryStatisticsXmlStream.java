@@ -1,15 +1,25 @@
 package io.jenkins.plugins.forensics.miner;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import hudson.util.XStream2;
 
 import io.jenkins.plugins.util.AbstractXmlStream;
 
 /**
- * Reads {@link RepositoryStatistics} from an XML file.
+ * Reads and writes {@link RepositoryStatistics} from and to a file. New files are written using the compact {@link
+ * RepositoryStatisticsBinaryFormat binary format} unless the file name has the suffix {@code .xml}. When reading, the
+ * format is detected automatically, so the XML files of older releases can still be read.
  *
  * @author Ullrich Hafner
  */
 public class RepositoryStatisticsXmlStream extends AbstractXmlStream<RepositoryStatistics> {
+    private static final Logger LOGGER = Logger.getLogger(RepositoryStatisticsXmlStream.class.getName());
+    private static final String XML_SUFFIX = ".xml";
+
     /**
      * Creates a new {@link RepositoryStatisticsXmlStream}.
      */
@@ -27,5 +37,41 @@ public class RepositoryStatisticsXmlStream extends AbstractXmlStream<RepositoryS
         xStream.alias("diff", CommitDiffItem.class);
         xStream.alias("repo", RepositoryStatistics.class);
         xStream.alias("file", FileStatistics.class);
+        xStream.alias("rollup", CommitRollup.class);
+    }
+
+    @Override
+    public RepositoryStatistics read(final Path file) {
+        try {
+            if (RepositoryStatisticsBinaryFormat.isBinary(file)) {
+                return RepositoryStatisticsBinaryFormat.read(file);
+            }
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.SEVERE, "Failed to read repository statistics from " + file, exception);
+
+            return createDefaultValue();
+        }
+        return super.read(file);
+    }
+
+    @Override
+    public void write(final Path file, final RepositoryStatistics statistics) {
+        if (isXml(file)) {
+            super.write(file, statistics);
+        }
+        else {
+            try {
+                RepositoryStatisticsBinaryFormat.write(file, statistics);
+            }
+            catch (IOException exception) {
+                LOGGER.log(Level.SEVERE, "Failed to write repository statistics to " + file, exception);
+            }
+        }
+    }
+
+    private boolean isXml(final Path file) {
+        var fileName = file.getFileName();
+        return fileName != null && fileName.toString().endsWith(XML_SUFFIX);
     }
 }
@@ -0,0 +1,125 @@
+package io.jenkins.plugins.forensics.miner;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregates commits into a mapping of file statistics using several threads of a {@link ForkJoinPool}. The aggregation
+ * is split into two phases:
+ * <ol>
+ *     <li>An ordered, sequential pre-pass applies the delete, move and modify semantics of all commits to the mapping
+ *     of file names. In this phase the commits are not inspected yet, they are just assigned to the {@link
+ *     FileStatistics} instance that would receive the commit in a sequential aggregation. This resolves rename chains,
+ *     even if the old and new names of a moved file belong to different shards.</li>
+ *     <li>The file statistics instances are partitioned into shards by a stable hash of the path that received the first
+ *     commit. Each shard inspects the commits of its files in the original order.</li>
+ * </ol>
+ * Since each {@link FileStatistics} instance is modified by exactly one shard and the commits of each file are inspected
+ * in the same order, the result is identical to {@link RepositoryStatistics#addAll(List)}.
+ *
+ * @author Ullrich Hafner
+ */
+class ShardedCommitAggregator {
+    private static final int SHARDS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new instance of {@link ShardedCommitAggregator}.
+     *
+     * @param pool
+     *         the pool that runs the aggregation of the shards
+     */
+    ShardedCommitAggregator(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Inspects the specified commits and applies the delete, move and modify semantics of each commit to the specified
+     * mapping.
+     *
+     * @param mapping
+     *         the mapping of file names to statistics that will be modified
+     * @param commits
+     *         the commits to inspect
+     * @param factory
+     *         creates the {@link FileStatistics} instances of new files, called in the sequential pre-pass only
+     */
+    void aggregate(final Map<String, FileStatistics> mapping, final List<CommitDiffItem> commits,
+            final Function<String, FileStatistics> factory) {
+        Map<FileStatistics, Shard> shardOfFile = new IdentityHashMap<>();
+        Map<FileStatistics, List<CommitDiffItem>> commitsOfFile = new IdentityHashMap<>();
+
+        int numberOfShards = Math.max(1, pool.getParallelism() * SHARDS_PER_THREAD);
+        List<Shard> shards = new ArrayList<>(numberOfShards);
+        for (int i = 0; i < numberOfShards; i++) {
+            shards.add(new Shard());
+        }
+
+        for (CommitDiffItem commit : commits) {
+            if (commit.isDelete()) {
+                mapping.remove(commit.getOldPath());
+            }
+            else {
+                var newPath = commit.getNewPath();
+                if (commit.isMove()) {
+                    var existing = mapping.remove(commit.getOldPath());
+                    if (existing == null) {
+                        mapping.computeIfAbsent(newPath, factory);
+                    }
+                    else {
+                        mapping.put(newPath, existing);
+                    }
+                }
+                else {
+                    mapping.computeIfAbsent(newPath, factory);
+                }
+                var target = mapping.get(newPath);
+                commitsOfFile.computeIfAbsent(target, file -> {
+                    shardOfFile.put(file, shards.get(Math.floorMod(newPath.hashCode(), numberOfShards)));
+                    return new ArrayList<>();
+                }).add(commit);
+            }
+        }
+
+        for (Entry<FileStatistics, List<CommitDiffItem>> entry : commitsOfFile.entrySet()) {
+            shardOfFile.get(entry.getKey()).add(entry.getKey(), entry.getValue());
+        }
+
+        List<ForkJoinTask<?>> tasks = shards.stream()
+                .filter(Shard::hasFiles)
+                .map(shard -> ForkJoinTask.adapt(shard::inspect))
+                .collect(Collectors.toList());
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    /**
+     * The files of a shard together with the commits that should be inspected for each file.
+     */
+    private static class Shard {
+        private final List<FileStatistics> files = new ArrayList<>();
+        private final List<List<CommitDiffItem>> commits = new ArrayList<>();
+
+        void add(final FileStatistics file, final List<CommitDiffItem> commitsOfFile) {
+            files.add(file);
+            commits.add(commitsOfFile);
+        }
+
+        boolean hasFiles() {
+            return !files.isEmpty();
+        }
+
+        void inspect() {
+            for (int i = 0; i < files.size(); i++) {
+                files.get(i).inspectCommits(commits.get(i));
+            }
+        }
+    }
+}
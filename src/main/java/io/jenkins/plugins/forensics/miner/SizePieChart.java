@@ -3,6 +3,7 @@ package io.jenkins.plugins.forensics.miner;
 import edu.hm.hafner.echarts.PieChartModel;
 import edu.hm.hafner.echarts.PieData;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
@@ -35,20 +36,50 @@ class SizePieChart {
      */
     public PieChartModel create(final RepositoryStatistics repositoryStatistics,
             final Function<FileStatistics, Integer> sizeMethod, final int... breakpoints) {
+        return create(createDistribution(repositoryStatistics.getFileStatistics(), sizeMethod, breakpoints));
+    }
+
+    /**
+     * Creates the chart for the specified distribution.
+     *
+     * @param distribution
+     *         the number of files per breakpoint, see {@link #createDistribution(Collection, Function, int...)}
+     *
+     * @return the chart model
+     */
+    public PieChartModel create(final Map<Integer, Integer> distribution) {
         var model = new PieChartModel();
-        Map<Integer, Integer> distribution = new TreeMap<>();
-        for (FileStatistics file : repositoryStatistics.getFileStatistics()) {
-            distribution.merge(determineBreakpoint(sizeMethod.apply(file), breakpoints), 1, Integer::sum);
-        }
         int color = 0;
-        for (Entry<Integer, Integer> entry : distribution.entrySet()) {
+        for (Entry<Integer, Integer> entry : new TreeMap<>(distribution).entrySet()) {
             model.add(new PieData("< " + entry.getKey(), entry.getValue()), JenkinsPalette.chartColor(color).normal());
             color++;
         }
         return model;
     }
 
-    private int determineBreakpoint(final int size, final int... breakpoints) {
+    /**
+     * Computes the distribution of the files by the size property: each file is counted for the breakpoint of its
+     * interval.
+     *
+     * @param files
+     *         the files to count
+     * @param sizeMethod
+     *         the method that obtains the size property
+     * @param breakpoints
+     *         the breakpoints to create the pie segments for
+     *
+     * @return the number of files per breakpoint
+     */
+    static Map<Integer, Integer> createDistribution(final Collection<FileStatistics> files,
+            final Function<FileStatistics, Integer> sizeMethod, final int... breakpoints) {
+        Map<Integer, Integer> distribution = new TreeMap<>();
+        for (FileStatistics file : files) {
+            distribution.merge(determineBreakpoint(sizeMethod.apply(file), breakpoints), 1, Integer::sum);
+        }
+        return distribution;
+    }
+
+    private static int determineBreakpoint(final int size, final int... breakpoints) {
         for (int breakpoint : breakpoints) {
             if (size < breakpoint) {
                 return breakpoint;
@@ -0,0 +1,238 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Exports the statistics of a repository as CSV or as newline delimited JSON (NDJSON). Each file (or each commit of a
+ * file) is written as a single record directly to the output, no intermediate collections are created. So the memory
+ * required for an export does not depend on the size of the repository if the files are provided one after another
+ * (see {@link IndexedRepositoryStatistics#forEach(Consumer)}).
+ *
+ * @author Ullrich Hafner
+ */
+final class StatisticsExporter {
+    /** The supported output formats. */
+    enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson;charset=UTF-8", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(final String contentType, final String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+
+        String getExtension() {
+            return extension;
+        }
+
+        static Format fromParameter(final String parameter) {
+            for (Format format : values()) {
+                if (Strings.CI.equals(parameter, format.name())) {
+                    return format;
+                }
+            }
+            return CSV;
+        }
+    }
+
+    /** The exported records. */
+    enum Records {
+        /** One record per file. */
+        FILES("file", "authors", "commits", "creationTime", "lastModificationTime", "linesOfCode", "churn"),
+        /** One record per commit of a file. */
+        COMMITS("file", "commit", "author", "time", "addedLines", "deletedLines");
+
+        private final String[] columns;
+
+        Records(final String... columns) {
+            this.columns = columns;
+        }
+
+        String getName() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+
+        static Records fromParameter(final String parameter) {
+            for (Records records : values()) {
+                if (Strings.CI.equals(parameter, records.name())) {
+                    return records;
+                }
+            }
+            return FILES;
+        }
+    }
+
+    private final Format format;
+    private final Records records;
+
+    StatisticsExporter(final Format format, final Records records) {
+        this.format = format;
+        this.records = records;
+    }
+
+    /**
+     * Writes the statistics of the files that are provided by the specified source.
+     *
+     * @param files
+     *         provides the statistics of all files, one after another
+     * @param writer
+     *         the writer to write the records to
+     *
+     * @throws IOException
+     *         if the records could not be written
+     */
+    void export(final Consumer<Consumer<FileStatistics>> files, final Writer writer) throws IOException {
+        var output = createOutput(writer);
+        output.start();
+        try {
+            files.accept(file -> write(file, output));
+        }
+        catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        output.finish();
+    }
+
+    private void write(final FileStatistics file, final RecordOutput output) {
+        try {
+            if (records == Records.FILES) {
+                output.write(file.getFileName(), file.getNumberOfAuthors(), file.getNumberOfCommits(),
+                        file.getCreationTime(), file.getLastModificationTime(), file.getLinesOfCode(),
+                        file.getAbsoluteChurn());
+            }
+            else {
+                for (CommitDiffItem commit : file.getCommits()) {
+                    output.write(file.getFileName(), commit.getId(), commit.getAuthor(), commit.getTime(),
+                            commit.getTotalAddedLines(), commit.getTotalDeletedLines());
+                }
+            }
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private RecordOutput createOutput(final Writer writer) throws IOException {
+        if (format == Format.NDJSON) {
+            return new JsonOutput(records.columns, writer);
+        }
+        return new CsvOutput(records.columns, writer);
+    }
+
+    /**
+     * Writes records with the values of the columns.
+     */
+    private interface RecordOutput {
+        void start() throws IOException;
+
+        void write(Object... values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * Writes records as CSV (RFC 4180), starting with a header line.
+     */
+    private static final class CsvOutput implements RecordOutput {
+        private static final String SEPARATOR = ",";
+        private static final String LINE_BREAK = "\r\n";
+
+        private final String[] columns;
+        private final Writer writer;
+
+        CsvOutput(final String[] columns, final Writer writer) {
+            this.columns = columns;
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(SEPARATOR, columns));
+            writer.write(LINE_BREAK);
+        }
+
+        @Override
+        public void write(final Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(SEPARATOR);
+                }
+                writer.write(escape(String.valueOf(values[i])));
+            }
+            writer.write(LINE_BREAK);
+        }
+
+        private String escape(final String value) {
+            if (StringUtils.containsAny(value, ',', '"', '\r', '\n')) {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+            return value;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes each record as a JSON object in a separate line.
+     */
+    private static final class JsonOutput implements RecordOutput {
+        private final String[] columns;
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        JsonOutput(final String[] columns, final Writer writer) throws IOException {
+            this.columns = columns;
+            this.writer = writer;
+            generator = new JsonFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                    .setRootValueSeparator(null); // records are separated by new lines
+        }
+
+        @Override
+        public void start() {
+            // no header
+        }
+
+        @Override
+        public void write(final Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof Integer number) {
+                    generator.writeNumberField(columns[i], number);
+                }
+                else {
+                    generator.writeStringField(columns[i], String.valueOf(values[i]));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+            writer.flush();
+        }
+    }
+}
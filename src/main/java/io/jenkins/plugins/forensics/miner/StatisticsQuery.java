@@ -0,0 +1,354 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * A query that selects files of the {@link RepositoryStatistics}. A query is composed of predicates for the path, the
+ * time window, the author and minimum values of the metrics of the files. The matching files are ordered by one of the
+ * metrics, optionally limited to the top K files.
+ *
+ * <p>
+ * If a time window is set, then the metrics of a file are computed from the commits in that window only (e.g., the
+ * number of authors that changed the file in the last 90 days), files without commits in the window are skipped.
+ * Otherwise, the metrics of the complete history are used. Note that the history of a file might have been compacted
+ * (see {@link CommitRetentionPolicy}): compacted commits are not part of any time window.
+ * </p>
+ *
+ * <p>
+ * Queries are immutable, each {@code with} method returns a new query. The query is evaluated with
+ * {@link RepositoryStatistics#query(StatisticsQuery)}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class StatisticsQuery {
+    /** The fields of the query results: used to order and to project the results. */
+    public enum Field {
+        FILE(Comparator.comparing(FileQueryResult::getFileName)),
+        AUTHORS(FileQueryResult::getNumberOfAuthors),
+        COMMITS(FileQueryResult::getNumberOfCommits),
+        CREATION_TIME(FileQueryResult::getCreationTime),
+        LAST_MODIFICATION_TIME(FileQueryResult::getLastModificationTime),
+        LINES_OF_CODE(FileQueryResult::getLinesOfCode),
+        CHURN(FileQueryResult::getChurn);
+
+        private final Comparator<FileQueryResult> comparator;
+
+        Field(final ToIntFunction<FileQueryResult> property) {
+            this(Comparator.comparingInt(property));
+        }
+
+        Field(final Comparator<FileQueryResult> comparator) {
+            this.comparator = comparator;
+        }
+
+        Comparator<FileQueryResult> getComparator() {
+            return comparator;
+        }
+
+        /**
+         * Returns the name of this field as used in the JSON representation of the results.
+         *
+         * @return the name of the field
+         */
+        public String getName() {
+            var words = StringUtils.split(name().toLowerCase(Locale.ENGLISH), '_');
+            var camelCase = new StringBuilder(words[0]);
+            for (int i = 1; i < words.length; i++) {
+                camelCase.append(StringUtils.capitalize(words[i]));
+            }
+            return camelCase.toString();
+        }
+
+        /**
+         * Returns the field with the specified name.
+         *
+         * @param name
+         *         the name of the field, see {@link #getName()}
+         *
+         * @return the field, or an empty result if there is no such field
+         */
+        public static Optional<Field> fromName(final String name) {
+            for (Field field : values()) {
+                if (field.getName().equalsIgnoreCase(name) || field.name().equalsIgnoreCase(name)) {
+                    return Optional.of(field);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private static final StatisticsQuery ALL = new StatisticsQuery(StringUtils.EMPTY, null, 0, Integer.MAX_VALUE,
+            null, createNoMinimums(), Field.FILE, false, Integer.MAX_VALUE, EnumSet.allOf(Field.class));
+
+    /**
+     * Creates the minimum values of a query without restrictions. Lines of code are the added minus the deleted lines,
+     * so they may be negative for files with a partial or compacted history: the minimums must not default to 0.
+     */
+    private static int[] createNoMinimums() {
+        var minimums = new int[Field.values().length];
+        Arrays.fill(minimums, Integer.MIN_VALUE);
+        return minimums;
+    }
+
+    /**
+     * Returns a query that selects all files, ordered by the file name.
+     *
+     * @return a query for all files
+     */
+    public static StatisticsQuery all() {
+        return ALL;
+    }
+
+    private final String pathPrefix;
+    @CheckForNull
+    private final String glob;
+    @CheckForNull
+    private final GlobPattern globPattern;
+    private final int since;
+    private final int until;
+    @CheckForNull
+    private final String author;
+    private final int[] minimums;
+    private final Field order;
+    private final boolean descending;
+    private final int limit;
+    private final Set<Field> fields;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private StatisticsQuery(final String pathPrefix, @CheckForNull final String glob, final int since,
+            final int until, @CheckForNull final String author, final int[] minimums, final Field order,
+            final boolean descending, final int limit, final Set<Field> fields) {
+        this.pathPrefix = pathPrefix;
+        this.glob = glob;
+        this.globPattern = glob == null ? null : new GlobPattern(glob);
+        this.since = since;
+        this.until = until;
+        this.author = author;
+        this.minimums = minimums;
+        this.order = order;
+        this.descending = descending;
+        this.limit = limit;
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Returns a new query that selects just the files below the specified folder (or the file with the specified path).
+     *
+     * @param prefix
+     *         the path prefix, relative to the repository root
+     *
+     * @return the new query
+     */
+    public StatisticsQuery withPathPrefix(final String prefix) {
+        return new StatisticsQuery(normalizePrefix(prefix), glob, since, until, author, minimums, order, descending,
+                limit, fields);
+    }
+
+    private static String normalizePrefix(final String prefix) {
+        return StringUtils.removeEnd(StringUtils.removeStart(
+                StringUtils.defaultString(prefix).replace('\\', '/'), "/"), "/");
+    }
+
+    /**
+     * Returns a new query that selects just the files that match the specified glob pattern. The pattern uses the Ant
+     * glob syntax of the {@link PathFilter}.
+     *
+     * @param pattern
+     *         the glob pattern, an empty pattern matches all files
+     *
+     * @return the new query
+     */
+    public StatisticsQuery withGlob(final String pattern) {
+        return new StatisticsQuery(pathPrefix, StringUtils.defaultIfBlank(pattern, null), since, until, author,
+                minimums, order, descending, limit, fields);
+    }
+
+    /**
+     * Returns a new query that considers just the commits in the specified time window.
+     *
+     * @param start
+     *         the start of the window (inclusive), given as number of seconds since the epoch
+     * @param end
+     *         the end of the window (inclusive), given as number of seconds since the epoch
+     *
+     * @return the new query
+     */
+    public StatisticsQuery withTimeWindow(final int start, final int end) {
+        return new StatisticsQuery(pathPrefix, glob, start, end, author, minimums, order, descending, limit, fields);
+    }
+
+    /**
+     * Returns a new query that selects just the files that have been changed by the specified author. If a time window
+     * is set, the author must have changed the file in that window.
+     *
+     * @param name
+     *         the name of the author, an empty name selects the files of all authors
+     *
+     * @return the new query
+     */
+    public StatisticsQuery withAuthor(final String name) {
+        return new StatisticsQuery(pathPrefix, glob, since, until, StringUtils.defaultIfBlank(name, null), minimums,
+                order, descending, limit, fields);
+    }
+
+    /**
+     * Returns a new query that selects just the files where the value of the specified field is at least the given
+     * minimum.
+     *
+     * @param field
+     *         the field to check, must be a numeric field
+     * @param minimum
+     *         the minimum value
+     *
+     * @return the new query
+     * @throws IllegalArgumentException
+     *         if the field is not numeric
+     */
+    public StatisticsQuery withMinimum(final Field field, final int minimum) {
+        if (field == Field.FILE) {
+            throw new IllegalArgumentException("Minimum values are not supported for file names");
+        }
+        var copy = minimums.clone();
+        copy[field.ordinal()] = minimum;
+        return new StatisticsQuery(pathPrefix, glob, since, until, author, copy, order, descending, limit, fields);
+    }
+
+    /**
+     * Returns a new query that orders the results by the specified field.
+     *
+     * @param field
+     *         the field to order the results by, ties are ordered by the file name
+     * @param isDescending
+     *         determines whether to sort in descending order
+     *
+     * @return the new query
+     */
+    public StatisticsQuery withOrder(final Field field, final boolean isDescending) {
+        return new StatisticsQuery(pathPrefix, glob, since, until, author, minimums, field, isDescending, limit,
+                fields);
+    }
+
+    /**
+     * Returns a new query that returns just the first K results of the order.
+     *
+     * @param maximum
+     *         the maximum number of results, values less than 1 return all results
+     *
+     * @return the new query
+     */
+    public StatisticsQuery withLimit(final int maximum) {
+        return new StatisticsQuery(pathPrefix, glob, since, until, author, minimums, order, descending,
+                maximum < 1 ? Integer.MAX_VALUE : maximum, fields);
+    }
+
+    /**
+     * Returns a new query that projects the results to the specified fields.
+     *
+     * @param projection
+     *         the fields to include in the results, an empty set includes all fields
+     *
+     * @return the new query
+     */
+    public StatisticsQuery withFields(final Set<Field> projection) {
+        var copy = projection.isEmpty() ? EnumSet.allOf(Field.class) : EnumSet.copyOf(projection);
+        return new StatisticsQuery(pathPrefix, glob, since, until, author, minimums, order, descending, limit, copy);
+    }
+
+    public String getPathPrefix() {
+        return pathPrefix;
+    }
+
+    boolean matchesGlob(final String fileName) {
+        return globPattern == null || globPattern.matches(fileName);
+    }
+
+    public int getSince() {
+        return since;
+    }
+
+    public int getUntil() {
+        return until;
+    }
+
+    /**
+     * Returns whether the metrics of the files should be computed for a time window.
+     *
+     * @return {@code true} if a time window is set, {@code false} if the complete history is used
+     */
+    public boolean hasTimeWindow() {
+        return since > 0 || until < Integer.MAX_VALUE;
+    }
+
+    public Optional<String> getAuthor() {
+        return Optional.ofNullable(author);
+    }
+
+    /**
+     * Returns whether the specified result satisfies all minimum values of this query.
+     *
+     * @param result
+     *         the result to check
+     *
+     * @return {@code true} if all minimum values are satisfied, {@code false} otherwise
+     */
+    boolean satisfiesMinimums(final FileQueryResult result) {
+        return result.getNumberOfAuthors() >= minimums[Field.AUTHORS.ordinal()]
+                && result.getNumberOfCommits() >= minimums[Field.COMMITS.ordinal()]
+                && result.getCreationTime() >= minimums[Field.CREATION_TIME.ordinal()]
+                && result.getLastModificationTime() >= minimums[Field.LAST_MODIFICATION_TIME.ordinal()]
+                && result.getLinesOfCode() >= minimums[Field.LINES_OF_CODE.ordinal()]
+                && result.getChurn() >= minimums[Field.CHURN.ordinal()];
+    }
+
+    /**
+     * Returns the comparator that orders the results of this query. Ties are ordered by the file name.
+     *
+     * @return the comparator
+     */
+    Comparator<FileQueryResult> getComparator() {
+        var comparator = descending ? order.getComparator().reversed() : order.getComparator();
+        return comparator.thenComparing(Field.FILE.getComparator());
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Set<Field> getFields() {
+        return fields;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (StatisticsQuery) o;
+        return since == that.since && until == that.until && descending == that.descending && limit == that.limit
+                && pathPrefix.equals(that.pathPrefix) && Objects.equals(glob, that.glob)
+                && Objects.equals(author, that.author) && Arrays.equals(minimums, that.minimums)
+                && order == that.order && fields.equals(that.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pathPrefix, glob, since, until, author, Arrays.hashCode(minimums), order,
+                descending, limit, fields);
+    }
+}
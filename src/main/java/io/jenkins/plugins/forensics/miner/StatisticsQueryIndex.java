@@ -0,0 +1,244 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Evaluates {@link StatisticsQuery queries} without scanning all files and commits of the statistics. The index
+ * consists of:
+ * <ul>
+ *     <li>the sorted paths of all files: all files below a folder form a contiguous range of this array, so a path
+ *     prefix is resolved with two binary searches (a flattened path trie)</li>
+ *     <li>the commits of each file, sorted by time: the commits in a time window are resolved with two binary
+ *     searches</li>
+ *     <li>the files of each author: a sorted posting list that is intersected with the range of the path prefix</li>
+ * </ul>
+ *
+ * <p>
+ * The index is immutable and computed once for each snapshot of the {@link RepositoryStatistics}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class StatisticsQueryIndex {
+    private static final Comparator<CommitDiffItem> BY_TIME = Comparator.comparingInt(CommitDiffItem::getTime)
+            .thenComparing(CommitDiffItem::getId);
+
+    private final String[] fileNames;
+    private final FileStatistics[] files;
+    /** The times of the commits of each file in ascending order. */
+    private final int[][] commitTimes;
+    /** The commit IDs (as ordinals) of the commits of each file, in the same order as the times. */
+    private final int[][] commitIds;
+    /** The authors (as ordinals) of the commits of each file, in the same order as the times. */
+    private final int[][] commitAuthors;
+    /** The churn of the commits of each file, in the same order as the times. */
+    private final int[][] commitChurn;
+    private final Map<String, Integer> authors = new HashMap<>();
+    /** The sorted indices of the files of each author. */
+    private final int[][] filesPerAuthor;
+
+    StatisticsQueryIndex(final Map<String, FileStatistics> mapping) {
+        fileNames = mapping.keySet().toArray(new String[0]);
+        Arrays.sort(fileNames);
+
+        int size = fileNames.length;
+        files = new FileStatistics[size];
+        commitTimes = new int[size][];
+        commitIds = new int[size][];
+        commitAuthors = new int[size][];
+        commitChurn = new int[size][];
+
+        Map<String, Integer> ids = new HashMap<>();
+        List<List<Integer>> postings = new ArrayList<>();
+        for (int file = 0; file < size; file++) {
+            files[file] = mapping.get(fileNames[file]);
+
+            var commits = files[file].getCommits().toArray(new CommitDiffItem[0]);
+            Arrays.sort(commits, BY_TIME);
+            int count = commits.length;
+            commitTimes[file] = new int[count];
+            commitIds[file] = new int[count];
+            commitAuthors[file] = new int[count];
+            commitChurn[file] = new int[count];
+            for (int i = 0; i < count; i++) {
+                var commit = commits[i];
+                commitTimes[file][i] = commit.getTime();
+                commitIds[file][i] = ids.computeIfAbsent(commit.getId(), id -> ids.size());
+                commitChurn[file][i] = commit.getTotalAddedLines() + commit.getTotalDeletedLines();
+
+                int author = authors.computeIfAbsent(commit.getAuthor(), name -> authors.size());
+                commitAuthors[file][i] = author;
+                if (author == postings.size()) {
+                    postings.add(new ArrayList<>());
+                }
+                var filesOfAuthor = postings.get(author);
+                if (filesOfAuthor.isEmpty() || filesOfAuthor.get(filesOfAuthor.size() - 1) != file) {
+                    filesOfAuthor.add(file);
+                }
+            }
+        }
+
+        filesPerAuthor = new int[postings.size()][];
+        for (int author = 0; author < filesPerAuthor.length; author++) {
+            filesPerAuthor[author] = postings.get(author).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Returns the files that match the specified query.
+     *
+     * @param query
+     *         the query to evaluate
+     *
+     * @return the matching files, in the order of the query
+     */
+    List<FileQueryResult> query(final StatisticsQuery query) {
+        var evaluation = new Evaluation(query);
+        if (query.getAuthor().isPresent()) {
+            var author = authors.get(query.getAuthor().get());
+            if (author == null) {
+                return List.of();
+            }
+            evaluation.author = author;
+        }
+
+        var prefix = query.getPathPrefix();
+        if (prefix.isEmpty()) {
+            evaluation.evaluateRange(0, fileNames.length);
+        }
+        else {
+            int file = Arrays.binarySearch(fileNames, prefix);
+            if (file >= 0) {
+                evaluation.evaluateRange(file, file + 1);
+            }
+            // all paths that start with 'prefix/' are sorted before the paths that start with 'prefix0'
+            evaluation.evaluateRange(lowerBound(fileNames, prefix + '/'),
+                    lowerBound(fileNames, prefix + (char) ('/' + 1)));
+        }
+        return evaluation.getResults();
+    }
+
+    private static int lowerBound(final String[] sorted, final String key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static int lowerBound(final int[] sorted, final int from, final int to, final int key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < key) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The state of the evaluation of a single query.
+     */
+    private final class Evaluation {
+        private final StatisticsQuery query;
+        private final PriorityQueue<FileQueryResult> results;
+        private final Comparator<FileQueryResult> order;
+        /** Marks the authors that have been counted already for the current file. */
+        private final int[] countedAuthors;
+        private int author = -1;
+
+        Evaluation(final StatisticsQuery query) {
+            this.query = query;
+            order = query.getComparator();
+            results = new PriorityQueue<>(order.reversed()); // the head is the worst result
+            countedAuthors = new int[authors.size()];
+            Arrays.fill(countedAuthors, -1);
+        }
+
+        void evaluateRange(final int from, final int to) {
+            if (author < 0) {
+                for (int file = from; file < to; file++) {
+                    evaluate(file);
+                }
+            }
+            else {
+                var filesOfAuthor = filesPerAuthor[author];
+                int end = lowerBound(filesOfAuthor, 0, filesOfAuthor.length, to);
+                for (int i = lowerBound(filesOfAuthor, 0, end, from); i < end; i++) {
+                    evaluate(filesOfAuthor[i]);
+                }
+            }
+        }
+
+        private void evaluate(final int file) {
+            if (!query.matchesGlob(fileNames[file])) {
+                return;
+            }
+            FileQueryResult result;
+            if (query.hasTimeWindow()) {
+                result = evaluateTimeWindow(file);
+                if (result == null) {
+                    return;
+                }
+            }
+            else {
+                result = new FileQueryResult(files[file]);
+            }
+            if (query.satisfiesMinimums(result)) {
+                results.add(result);
+                if (results.size() > query.getLimit()) {
+                    results.poll();
+                }
+            }
+        }
+
+        @CheckForNull
+        private FileQueryResult evaluateTimeWindow(final int file) {
+            var times = commitTimes[file];
+            int start = lowerBound(times, 0, times.length, query.getSince());
+            int end = query.getUntil() == Integer.MAX_VALUE
+                    ? times.length : lowerBound(times, start, times.length, query.getUntil() + 1);
+            if (start >= end) {
+                return null;
+            }
+
+            var ids = commitIds[file];
+            int numberOfAuthors = 0;
+            int numberOfCommits = 0;
+            int churn = 0;
+            boolean hasAuthor = author < 0;
+            for (int i = start; i < end; i++) {
+                int commitAuthor = commitAuthors[file][i];
+                if (countedAuthors[commitAuthor] != file) {
+                    countedAuthors[commitAuthor] = file;
+                    numberOfAuthors++;
+                }
+                if (i == start || ids[i] != ids[i - 1]) { // the changes of a commit are adjacent
+                    numberOfCommits++;
+                }
+                hasAuthor |= commitAuthor == author;
+                churn += commitChurn[file][i];
+            }
+            if (!hasAuthor) {
+                return null;
+            }
+            return new FileQueryResult(files[file], numberOfAuthors, numberOfCommits, churn);
+        }
+
+        List<FileQueryResult> getResults() {
+            var sorted = new ArrayList<>(results);
+            sorted.sort(order);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.hm.hafner.util.Generated;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Summarizes the distributions of the properties of all files of the repository statistics. The summary is computed
+ * once at mining time and is stored with the {@link ForensicsBuildAction}, so the overview and the charts of a build
+ * can be rendered without loading the statistics of all files. The summary contains:
+ * <ul>
+ *     <li>the number of files per number of authors and per number of commits (grouped by breakpoints)</li>
+ *     <li>the percentiles of the lines of code and of the absolute churn of the files</li>
+ * </ul>
+ *
+ * @author Ullrich Hafner
+ */
+public final class StatisticsSummary implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** The breakpoints of the distribution of the number of authors. */
+    static final int[] AUTHORS_BREAKPOINTS = {5, 10, 15, 25, 50};
+    /** The breakpoints of the distribution of the number of commits. */
+    static final int[] COMMITS_BREAKPOINTS = {5, 10, 25, 50, 100, 250};
+    /** The percentiles that are stored in the summary. */
+    private static final int[] PERCENTILES = {50, 75, 90, 95, 99, 100};
+
+    /**
+     * Computes the summary of the specified statistics.
+     *
+     * @param statistics
+     *         the statistics to summarize
+     *
+     * @return the summary
+     */
+    public static StatisticsSummary of(final RepositoryStatistics statistics) {
+        var files = statistics.getFileStatistics();
+        return new StatisticsSummary(
+                SizePieChart.createDistribution(files, FileStatistics::getNumberOfAuthors, AUTHORS_BREAKPOINTS),
+                SizePieChart.createDistribution(files, FileStatistics::getNumberOfCommits, COMMITS_BREAKPOINTS),
+                computePercentiles(files, FileStatistics::getLinesOfCode),
+                computePercentiles(files, FileStatistics::getAbsoluteChurn));
+    }
+
+    private static int[] computePercentiles(final Collection<FileStatistics> files,
+            final ToIntFunction<FileStatistics> property) {
+        int[] values = files.stream().mapToInt(property).sorted().toArray();
+        int[] percentiles = new int[PERCENTILES.length];
+        if (values.length > 0) {
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                int rank = (int) Math.ceil(PERCENTILES[i] / 100.0 * values.length); // nearest rank method
+                percentiles[i] = values[Math.max(rank, 1) - 1];
+            }
+        }
+        return percentiles;
+    }
+
+    @SuppressWarnings("PMD.LooseCoupling")
+    private final TreeMap<Integer, Integer> authorsDistribution;
+    @SuppressWarnings("PMD.LooseCoupling")
+    private final TreeMap<Integer, Integer> commitsDistribution;
+    private final int[] linesOfCodePercentiles;
+    private final int[] churnPercentiles;
+
+    StatisticsSummary(final Map<Integer, Integer> authorsDistribution, final Map<Integer, Integer> commitsDistribution,
+            final int[] linesOfCodePercentiles, final int[] churnPercentiles) {
+        this.authorsDistribution = new TreeMap<>(authorsDistribution);
+        this.commitsDistribution = new TreeMap<>(commitsDistribution);
+        this.linesOfCodePercentiles = linesOfCodePercentiles.clone();
+        this.churnPercentiles = churnPercentiles.clone();
+    }
+
+    /**
+     * Returns the number of files per number of authors. The keys are the breakpoints of the intervals.
+     *
+     * @return the distribution of the number of authors
+     * @see SizePieChart
+     */
+    public Map<Integer, Integer> getAuthorsDistribution() {
+        return Collections.unmodifiableMap(authorsDistribution);
+    }
+
+    /**
+     * Returns the number of files per number of commits. The keys are the breakpoints of the intervals.
+     *
+     * @return the distribution of the number of commits
+     * @see SizePieChart
+     */
+    public Map<Integer, Integer> getCommitsDistribution() {
+        return Collections.unmodifiableMap(commitsDistribution);
+    }
+
+    /**
+     * Returns the specified percentile of the lines of code of the files.
+     *
+     * @param percentile
+     *         the percentile, one of 50, 75, 90, 95, 99, or 100 (the maximum)
+     *
+     * @return the lines of code of the percentile
+     * @throws IllegalArgumentException
+     *         if the percentile is not part of the summary
+     */
+    public int getLinesOfCodePercentile(final int percentile) {
+        return linesOfCodePercentiles[indexOf(percentile)];
+    }
+
+    /**
+     * Returns the specified percentile of the absolute churn of the files.
+     *
+     * @param percentile
+     *         the percentile, one of 50, 75, 90, 95, 99, or 100 (the maximum)
+     *
+     * @return the churn of the percentile
+     * @throws IllegalArgumentException
+     *         if the percentile is not part of the summary
+     */
+    public int getChurnPercentile(final int percentile) {
+        return churnPercentiles[indexOf(percentile)];
+    }
+
+    private int indexOf(final int percentile) {
+        int index = Arrays.binarySearch(PERCENTILES, percentile);
+        if (index < 0) {
+            throw new IllegalArgumentException("Percentile " + percentile + " is not part of the summary, use one of "
+                    + Arrays.toString(PERCENTILES));
+        }
+        return index;
+    }
+
+    @Override
+    @Generated
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (StatisticsSummary) o;
+        return authorsDistribution.equals(that.authorsDistribution)
+                && commitsDistribution.equals(that.commitsDistribution)
+                && Arrays.equals(linesOfCodePercentiles, that.linesOfCodePercentiles)
+                && Arrays.equals(churnPercentiles, that.churnPercentiles);
+    }
+
+    @Override
+    @Generated
+    public int hashCode() {
+        int result = Objects.hash(authorsDistribution, commitsDistribution);
+        result = 31 * result + Arrays.hashCode(linesOfCodePercentiles);
+        result = 31 * result + Arrays.hashCode(churnPercentiles);
+        return result;
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return "authors: %s, commits: %s, LOC percentiles: %s, churn percentiles: %s".formatted(authorsDistribution,
+                commitsDistribution, Arrays.toString(linesOfCodePercentiles), Arrays.toString(churnPercentiles));
+    }
+}
@@ -0,0 +1,69 @@
+package io.jenkins.plugins.forensics.miner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A single page of the rows of a table that is paged, sorted and filtered on the server side. Only the rows of the
+ * visible page are created. The properties correspond to the response of a server side DataTables request.
+ *
+ * @author Ullrich Hafner
+ */
+public final class TablePage {
+    private final int recordsTotal;
+    private final int recordsFiltered;
+    private final List<Object> data;
+
+    /**
+     * Creates the page of the specified sorted elements.
+     *
+     * @param sorted
+     *         all elements that match the search term, sorted in ascending order
+     * @param total
+     *         the total number of elements without filtering
+     * @param start
+     *         the index of the first row of the page
+     * @param length
+     *         the number of rows of the page, a negative value selects all rows
+     * @param ascending
+     *         determines whether the rows should be shown in ascending or descending order
+     * @param toRow
+     *         creates the row for an element
+     * @param <T>
+     *         the type of the elements
+     *
+     * @return the page
+     */
+    static <T> TablePage of(final List<T> sorted, final int total, final int start, final int length,
+            final boolean ascending, final Function<T, Object> toRow) {
+        int size = sorted.size();
+        int from = Math.min(Math.max(0, start), size);
+        int to = length < 0 ? size : (int) Math.min(size, (long) from + length);
+
+        List<Object> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            rows.add(toRow.apply(sorted.get(ascending ? i : size - 1 - i)));
+        }
+        return new TablePage(total, size, rows);
+    }
+
+    TablePage(final int recordsTotal, final int recordsFiltered, final List<Object> data) {
+        this.recordsTotal = recordsTotal;
+        this.recordsFiltered = recordsFiltered;
+        this.data = Collections.unmodifiableList(data);
+    }
+
+    public int getRecordsTotal() {
+        return recordsTotal;
+    }
+
+    public int getRecordsFiltered() {
+        return recordsFiltered;
+    }
+
+    public List<Object> getData() {
+        return data;
+    }
+}
@@ -0,0 +1,215 @@
+package io.jenkins.plugins.forensics.miner;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.IsoFields;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Time intervals that are used to aggregate the commits of files with a long history in the churn trend chart. The
+ * intervals are computed in UTC. Each interval is identified by a unique label (e.g., {@code 2024-03-04} for a day,
+ * {@code 2024-W10} for a week, or {@code 2024-03} for a month), so the label of a data point can be used to drill down
+ * to the commits of the interval.
+ *
+ * @author Ullrich Hafner
+ */
+enum TimeBucket {
+    /** Aggregates the commits of a day. */
+    DAY("Day", "\\d{4}-\\d{2}-\\d{2}") {
+        @Override
+        LocalDate getStart(final LocalDate date) {
+            return date;
+        }
+
+        @Override
+        LocalDate getEnd(final LocalDate start) {
+            return start.plusDays(1);
+        }
+
+        @Override
+        String getLabel(final LocalDate start) {
+            return start.toString();
+        }
+
+        @Override
+        LocalDate parse(final String label) {
+            return LocalDate.parse(label);
+        }
+    },
+    /** Aggregates the commits of an ISO week (starting on Monday). */
+    WEEK("Week", "\\d{4}-W\\d{2}") {
+        @Override
+        LocalDate getStart(final LocalDate date) {
+            return date.with(DayOfWeek.MONDAY);
+        }
+
+        @Override
+        LocalDate getEnd(final LocalDate start) {
+            return start.plusWeeks(1);
+        }
+
+        @Override
+        String getLabel(final LocalDate start) {
+            return "%d-W%02d".formatted(start.get(IsoFields.WEEK_BASED_YEAR),
+                    start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        }
+
+        @Override
+        LocalDate parse(final String label) {
+            int year = Integer.parseInt(label.substring(0, 4));
+            int week = Integer.parseInt(label.substring(6));
+            var start = LocalDate.of(year, 1, 4)
+                    .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, week)
+                    .with(DayOfWeek.MONDAY);
+            if (!getLabel(start).equals(label)) {
+                throw new DateTimeParseException("Invalid week", label, 0);
+            }
+            return start;
+        }
+    },
+    /** Aggregates the commits of a month. */
+    MONTH("Month", "\\d{4}-\\d{2}") {
+        @Override
+        LocalDate getStart(final LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        LocalDate getEnd(final LocalDate start) {
+            return start.plusMonths(1);
+        }
+
+        @Override
+        String getLabel(final LocalDate start) {
+            return start.toString().substring(0, 7);
+        }
+
+        @Override
+        LocalDate parse(final String label) {
+            return LocalDate.parse(label + "-01");
+        }
+    };
+
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final long MAXIMUM_DAYS_FOR_DAYS = 180;
+    private static final long MAXIMUM_DAYS_FOR_WEEKS = 3 * 365;
+
+    private final String displayName;
+    private final Pattern labelPattern;
+
+    TimeBucket(final String displayName, final String labelPattern) {
+        this.displayName = displayName;
+        this.labelPattern = Pattern.compile(labelPattern);
+    }
+
+    /**
+     * Returns the name of the interval that is shown in the chart.
+     *
+     * @return the display name
+     */
+    String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Returns the start of the interval that contains the specified date.
+     *
+     * @param date
+     *         the date
+     *
+     * @return the first day of the interval
+     */
+    abstract LocalDate getStart(LocalDate date);
+
+    /**
+     * Returns the end of the interval that starts at the specified date.
+     *
+     * @param start
+     *         the first day of the interval
+     *
+     * @return the first day of the next interval
+     */
+    abstract LocalDate getEnd(LocalDate start);
+
+    /**
+     * Returns the label of the interval that starts at the specified date.
+     *
+     * @param start
+     *         the first day of the interval
+     *
+     * @return the label
+     */
+    abstract String getLabel(LocalDate start);
+
+    abstract LocalDate parse(String label);
+
+    /**
+     * Returns the label of the interval that contains the specified time.
+     *
+     * @param time
+     *         the time in seconds since the epoch
+     *
+     * @return the label of the interval
+     */
+    String getLabel(final int time) {
+        return getLabel(getStart(toDate(time)));
+    }
+
+    /**
+     * Selects the interval for a history with the specified length: the longer the history, the longer the interval.
+     *
+     * @param first
+     *         the time of the first commit (in seconds since the epoch)
+     * @param last
+     *         the time of the last commit (in seconds since the epoch)
+     *
+     * @return the interval
+     */
+    static TimeBucket of(final long first, final long last) {
+        long days = (last - first) / SECONDS_PER_DAY;
+        if (days <= MAXIMUM_DAYS_FOR_DAYS) {
+            return DAY;
+        }
+        if (days <= MAXIMUM_DAYS_FOR_WEEKS) {
+            return WEEK;
+        }
+        return MONTH;
+    }
+
+    /**
+     * Returns the time range of the interval with the specified label.
+     *
+     * @param label
+     *         the label of the interval, as created by {@link #getLabel(int)}
+     *
+     * @return the start (inclusive) and end (exclusive) of the interval in seconds since the epoch, or an empty result
+     *         if the label is not valid
+     */
+    static Optional<long[]> parseInterval(final String label) {
+        for (TimeBucket bucket : values()) {
+            if (bucket.labelPattern.matcher(label).matches()) {
+                try {
+                    var start = bucket.parse(label);
+                    return Optional.of(new long[] {toSeconds(start), toSeconds(bucket.getEnd(start))});
+                }
+                catch (DateTimeException | IllegalArgumentException exception) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static LocalDate toDate(final int time) {
+        return Instant.ofEpochSecond(time).atOffset(ZoneOffset.UTC).toLocalDate();
+    }
+
+    private static long toSeconds(final LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+}
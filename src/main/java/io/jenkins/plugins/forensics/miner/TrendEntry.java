@@ -0,0 +1,132 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.hm.hafner.echarts.Build;
+import edu.hm.hafner.echarts.BuildResult;
+import edu.hm.hafner.util.Generated;
+
+import java.util.Objects;
+
+/**
+ * The values of a single build that are required to render the trend charts of a repository. These entries are stored
+ * in the {@link TrendIndex} of a job, so the trend charts can be rendered without loading the builds. Since the builds
+ * are not loaded, the charts label a build with its number: custom display names of builds are not shown, since they
+ * can be changed at any time after the build has been indexed.
+ *
+ * @author Ullrich Hafner
+ */
+final class TrendEntry {
+    private final int buildNumber;
+    private final int buildTime;
+    private final String scmKey;
+    private final int numberOfFiles;
+    private final int totalLinesOfCode;
+    private final int totalChurn;
+    private final CommitStatistics commitStatistics;
+
+    /**
+     * Creates a new instance of {@link TrendEntry}.
+     *
+     * @param buildNumber
+     *         the number of the build
+     * @param buildTime
+     *         the start time of the build (in seconds since the epoch)
+     * @param scmKey
+     *         key of the repository
+     * @param numberOfFiles
+     *         the number of files in the repository
+     * @param totalLinesOfCode
+     *         the total number of lines of code of all files
+     * @param totalChurn
+     *         the total churn of all files
+     * @param commitStatistics
+     *         the statistics of the commits of the build
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    TrendEntry(final int buildNumber, final int buildTime, final String scmKey, final int numberOfFiles,
+            final int totalLinesOfCode, final int totalChurn, final CommitStatistics commitStatistics) {
+        this.buildNumber = buildNumber;
+        this.buildTime = buildTime;
+        this.scmKey = scmKey;
+        this.numberOfFiles = numberOfFiles;
+        this.totalLinesOfCode = totalLinesOfCode;
+        this.totalChurn = totalChurn;
+        this.commitStatistics = commitStatistics;
+    }
+
+    int getBuildNumber() {
+        return buildNumber;
+    }
+
+    int getBuildTime() {
+        return buildTime;
+    }
+
+    String getScmKey() {
+        return scmKey;
+    }
+
+    int getNumberOfFiles() {
+        return numberOfFiles;
+    }
+
+    int getTotalLinesOfCode() {
+        return totalLinesOfCode;
+    }
+
+    int getTotalChurn() {
+        return totalChurn;
+    }
+
+    CommitStatistics getCommitStatistics() {
+        return commitStatistics;
+    }
+
+    /**
+     * Returns the label of the build in the trend charts.
+     *
+     * @return the label of the build
+     */
+    String getLabel() {
+        return "#" + buildNumber;
+    }
+
+    /**
+     * Returns this entry as a result of the charts API.
+     *
+     * @return the build result
+     */
+    BuildResult<TrendEntry> toBuildResult() {
+        return new BuildResult<>(new Build(buildNumber, getLabel(), buildTime), this);
+    }
+
+    @Override
+    @Generated
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (TrendEntry) o;
+        return buildNumber == that.buildNumber
+                && buildTime == that.buildTime
+                && numberOfFiles == that.numberOfFiles
+                && totalLinesOfCode == that.totalLinesOfCode
+                && totalChurn == that.totalChurn
+                && scmKey.equals(that.scmKey)
+                && commitStatistics.equals(that.commitStatistics);
+    }
+
+    @Override
+    @Generated
+    public int hashCode() {
+        return Objects.hash(buildNumber, buildTime, scmKey, numberOfFiles, totalLinesOfCode, totalChurn,
+                commitStatistics);
+    }
+
+    @Override
+    public String toString() {
+        return "%s [%s]".formatted(getLabel(), scmKey);
+    }
+}
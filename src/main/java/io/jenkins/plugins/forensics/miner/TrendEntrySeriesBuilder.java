@@ -0,0 +1,79 @@
+package io.jenkins.plugins.forensics.miner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import edu.hm.hafner.echarts.SeriesBuilder;
+
+/**
+ * Builds one x-axis point for the series of a line chart using the values of the {@link TrendIndex}. The series are
+ * the same as the series of the corresponding builders for the actions (e.g., {@link CodeMetricSeriesBuilder}).
+ *
+ * @author Ullrich Hafner
+ */
+class TrendEntrySeriesBuilder extends SeriesBuilder<TrendEntry> {
+    /**
+     * Creates a builder for the series of the number of files.
+     *
+     * @return the builder
+     * @see FilesCountSeriesBuilder
+     */
+    static TrendEntrySeriesBuilder filesCount() {
+        return new TrendEntrySeriesBuilder(entry -> {
+            Map<String, Integer> series = new HashMap<>();
+            series.put(FilesCountSeriesBuilder.TOTALS_KEY, entry.getNumberOfFiles());
+            return series;
+        });
+    }
+
+    /**
+     * Creates a builder for the series of the lines of code and the churn.
+     *
+     * @return the builder
+     * @see CodeMetricSeriesBuilder
+     */
+    static TrendEntrySeriesBuilder codeMetric() {
+        return new TrendEntrySeriesBuilder(entry -> {
+            Map<String, Integer> series = new HashMap<>();
+            series.put(CodeMetricSeriesBuilder.LOC_KEY, entry.getTotalLinesOfCode());
+            series.put(CodeMetricSeriesBuilder.CHURN_KEY, entry.getTotalChurn());
+            return series;
+        });
+    }
+
+    /**
+     * Creates a builder for the series of the added and deleted lines.
+     *
+     * @return the builder
+     * @see AddedVersusDeletedLinesForensicsSeriesBuilder
+     */
+    static TrendEntrySeriesBuilder addedVersusDeletedLines() {
+        return new TrendEntrySeriesBuilder(entry -> AddedVersusDeletedLinesForensicsSeriesBuilder
+                .computeAddedVsDeletedSeries(entry.getCommitStatistics()));
+    }
+
+    /**
+     * Creates a builder for the series of the number of modified files, commits and authors.
+     *
+     * @return the builder
+     * @see RelativeCountForensicsSeriesBuilder
+     */
+    static TrendEntrySeriesBuilder relativeCount() {
+        return new TrendEntrySeriesBuilder(entry -> RelativeCountForensicsSeriesBuilder
+                .computeRelativeCountStatistics(entry.getCommitStatistics()));
+    }
+
+    private final Function<TrendEntry, Map<String, Integer>> seriesFunction;
+
+    private TrendEntrySeriesBuilder(final Function<TrendEntry, Map<String, Integer>> seriesFunction) {
+        super();
+
+        this.seriesFunction = seriesFunction;
+    }
+
+    @Override
+    protected Map<String, Integer> computeSeries(final TrendEntry current) {
+        return seriesFunction.apply(current);
+    }
+}
@@ -0,0 +1,476 @@
+package io.jenkins.plugins.forensics.miner;
+
+import edu.hm.hafner.util.VisibleForTesting;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Stores the values of all builds of a job that are required to render the trend charts of the {@link
+ * ForensicsJobAction} and the {@link CommitStatisticsJobAction}. Without this index, every trend chart would load all
+ * builds of the job (and sometimes even the statistics of these builds) just to read some numbers.
+ *
+ * <p>
+ * The index of a job is stored in the file {@value #FILE_NAME} in the folder of the job. The file is append-only: a
+ * record is appended whenever a {@link ForensicsBuildAction} or a {@link CommitStatisticsBuildAction} is attached to a
+ * build, a tombstone record is appended whenever such a build is deleted. If the file does not exist yet (or is not
+ * readable), then the index is rebuilt on demand from the actions of all builds of the job. Files with many obsolete
+ * records are compacted when they are loaded.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class TrendIndex {
+    private static final Logger LOGGER = Logger.getLogger(TrendIndex.class.getName());
+    private static final TrendIndex INSTANCE = new TrendIndex();
+
+    /** The name of the index file in the folder of a job. */
+    static final String FILE_NAME = "forensics-trend.idx";
+
+    private static final int MAGIC = 0x4654_4958; // FTIX
+    private static final int VERSION = 2;
+    private static final int FORENSICS_RECORD = 1;
+    private static final int COMMITS_RECORD = 2;
+    private static final int DELETED_RECORD = 3;
+    private static final int MINIMUM_COMPACTION_SIZE = 64;
+
+    /**
+     * Returns the singleton instance of this index.
+     *
+     * @return the index
+     */
+    static TrendIndex getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, JobIndex> jobs = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    TrendIndex() {
+        // use getInstance() outside of tests
+    }
+
+    /**
+     * Returns the trend of the forensics statistics of the specified repository. Only completed builds are part of the
+     * trend.
+     *
+     * @param job
+     *         the job to get the trend for
+     * @param scmKey
+     *         key of the repository
+     *
+     * @return the entries of the trend, sorted in descending order (i.e., the latest build is the head of the list)
+     */
+    List<TrendEntry> getForensicsTrend(final Job<?, ?> job, final String scmKey) {
+        return getJobIndex(job).getTrend(job, FORENSICS_RECORD, scmKey);
+    }
+
+    /**
+     * Returns the trend of the commit statistics of the specified repository. Only completed builds are part of the
+     * trend.
+     *
+     * @param job
+     *         the job to get the trend for
+     * @param scmKey
+     *         key of the repository
+     *
+     * @return the entries of the trend, sorted in descending order (i.e., the latest build is the head of the list)
+     */
+    List<TrendEntry> getCommitStatisticsTrend(final Job<?, ?> job, final String scmKey) {
+        return getJobIndex(job).getTrend(job, COMMITS_RECORD, scmKey);
+    }
+
+    /**
+     * Returns whether the trend of the forensics statistics of the specified repository contains at least two
+     * completed builds.
+     *
+     * @param job
+     *         the job to check
+     * @param scmKey
+     *         key of the repository
+     *
+     * @return {@code true} if the trend contains at least two builds, {@code false} otherwise
+     */
+    boolean hasForensicsTrend(final Job<?, ?> job, final String scmKey) {
+        return getJobIndex(job).hasTrend(job, FORENSICS_RECORD, scmKey);
+    }
+
+    /**
+     * Returns whether the trend of the commit statistics of the specified repository contains at least two completed
+     * builds.
+     *
+     * @param job
+     *         the job to check
+     * @param scmKey
+     *         key of the repository
+     *
+     * @return {@code true} if the trend contains at least two builds, {@code false} otherwise
+     */
+    boolean hasCommitStatisticsTrend(final Job<?, ?> job, final String scmKey) {
+        return getJobIndex(job).hasTrend(job, COMMITS_RECORD, scmKey);
+    }
+
+    /**
+     * Adds the values of the specified action to the index of its job.
+     *
+     * @param run
+     *         the build the action has been attached to
+     * @param action
+     *         the attached action
+     */
+    void add(final Run<?, ?> run, final ForensicsBuildAction action) {
+        getJobIndex(run.getParent()).append(FORENSICS_RECORD, createEntry(run, action));
+    }
+
+    /**
+     * Adds the values of the specified action to the index of its job.
+     *
+     * @param run
+     *         the build the action has been attached to
+     * @param action
+     *         the attached action
+     */
+    void add(final Run<?, ?> run, final CommitStatisticsBuildAction action) {
+        getJobIndex(run.getParent()).append(COMMITS_RECORD, createEntry(run, action));
+    }
+
+    /**
+     * Removes the values of the specified build from the index of its job.
+     *
+     * @param run
+     *         the build that has been deleted
+     */
+    void remove(final Run<?, ?> run) {
+        getJobIndex(run.getParent()).remove(run.getNumber());
+    }
+
+    /**
+     * Removes the loaded index of the specified job from memory.
+     *
+     * @param fullName
+     *         the full name of the job
+     */
+    void invalidate(final String fullName) {
+        jobs.remove(fullName);
+    }
+
+    private JobIndex getJobIndex(final Job<?, ?> job) {
+        return jobs.computeIfAbsent(job.getFullName(),
+                name -> new JobIndex(job.getRootDir().toPath().resolve(FILE_NAME)));
+    }
+
+    private static TrendEntry createEntry(final Run<?, ?> run, final ForensicsBuildAction action) {
+        return createEntry(run, action, action.getCommitStatistics());
+    }
+
+    private static TrendEntry createEntry(final Run<?, ?> run, final ForensicsBuildAction action,
+            final CommitStatistics commitStatistics) {
+        return new TrendEntry(run.getNumber(), getBuildTime(run), action.getScmKey(), action.getNumberOfFiles(),
+                action.getTotalLinesOfCode(), action.getTotalChurn(), commitStatistics);
+    }
+
+    private static TrendEntry createEntry(final Run<?, ?> run, final CommitStatisticsBuildAction action) {
+        return new TrendEntry(run.getNumber(), getBuildTime(run), action.getScmKey(), 0, 0, 0,
+                action.getCommitStatistics());
+    }
+
+    private static int getBuildTime(final Run<?, ?> run) {
+        return (int) (run.getTimeInMillis() / 1000);
+    }
+
+    /**
+     * The index of a single job. The entries are loaded when the index is accessed for the first time.
+     */
+    private static final class JobIndex {
+        private final Path file;
+        private final Map<Integer, Map<String, NavigableMap<Integer, TrendEntry>>> entries = new HashMap<>();
+        private boolean isLoaded;
+        private int records;
+
+        JobIndex(final Path file) {
+            this.file = file;
+        }
+
+        synchronized List<TrendEntry> getTrend(final Job<?, ?> job, final int type, final String scmKey) {
+            return new ArrayList<>(getCompletedEntries(job, type, scmKey).descendingMap().values());
+        }
+
+        synchronized boolean hasTrend(final Job<?, ?> job, final int type, final String scmKey) {
+            var trend = getCompletedEntries(job, type, scmKey);
+            return !trend.isEmpty() && trend.lowerKey(trend.lastKey()) != null;
+        }
+
+        /**
+         * Returns a view of the entries of all completed builds. Must be called while holding the lock of this index.
+         */
+        private NavigableMap<Integer, TrendEntry> getCompletedEntries(final Job<?, ?> job, final int type,
+                final String scmKey) {
+            if (!isLoaded && !read()) {
+                rebuild(job);
+            }
+            var lastCompletedBuild = job.getLastCompletedBuild();
+            if (lastCompletedBuild == null) {
+                return Collections.emptyNavigableMap();
+            }
+            return getEntries(type, scmKey).headMap(lastCompletedBuild.getNumber(), true);
+        }
+
+        synchronized void append(final int type, final TrendEntry entry) {
+            if (!isLoaded && !(Files.exists(file) && read())) {
+                return; // the entry will be part of the index when the index is rebuilt
+            }
+            put(type, entry);
+            appendRecord(output -> writeEntry(output, type, entry));
+        }
+
+        synchronized void remove(final int buildNumber) {
+            if (!isLoaded && !(Files.exists(file) && read())) {
+                return;
+            }
+            if (removeBuild(buildNumber)) {
+                appendRecord(output -> {
+                    output.writeByte(DELETED_RECORD);
+                    output.writeInt(buildNumber);
+                });
+            }
+        }
+
+        private NavigableMap<Integer, TrendEntry> getEntries(final int type, final String scmKey) {
+            return entries.computeIfAbsent(type, t -> new HashMap<>())
+                    .computeIfAbsent(scmKey, key -> new TreeMap<>());
+        }
+
+        private void put(final int type, final TrendEntry entry) {
+            getEntries(type, entry.getScmKey()).put(entry.getBuildNumber(), entry);
+            records++;
+        }
+
+        private boolean removeBuild(final int buildNumber) {
+            boolean isRemoved = false;
+            for (Map<String, NavigableMap<Integer, TrendEntry>> repositories : entries.values()) {
+                for (NavigableMap<Integer, TrendEntry> trend : repositories.values()) {
+                    isRemoved |= trend.remove(buildNumber) != null;
+                }
+            }
+            records++;
+            return isRemoved;
+        }
+
+        private int size() {
+            return entries.values().stream()
+                    .flatMap(repositories -> repositories.values().stream())
+                    .mapToInt(Map::size)
+                    .sum();
+        }
+
+        private void clear() {
+            entries.clear();
+            records = 0;
+        }
+
+        private boolean read() {
+            clear();
+            boolean isComplete;
+            try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                    return false;
+                }
+                isComplete = readRecords(input);
+            }
+            catch (IOException exception) {
+                LOGGER.log(Level.FINE, "Can't read trend index " + file, exception);
+                clear();
+                return false;
+            }
+            isLoaded = true;
+            if (!isComplete || records > MINIMUM_COMPACTION_SIZE && records > 2 * size()) {
+                write(); // removes obsolete and incomplete records
+            }
+            return true;
+        }
+
+        private boolean readRecords(final DataInputStream input) throws IOException {
+            try {
+                for (int type = input.read(); type >= 0; type = input.read()) {
+                    if (type == DELETED_RECORD) {
+                        removeBuild(input.readInt());
+                    }
+                    else if (type == FORENSICS_RECORD || type == COMMITS_RECORD) {
+                        put(type, readEntry(input));
+                    }
+                    else {
+                        return false; // the rest of the file is corrupt
+                    }
+                }
+                return true;
+            }
+            catch (EOFException exception) {
+                return false; // the last record has not been written completely
+            }
+        }
+
+        private TrendEntry readEntry(final DataInputStream input) throws IOException {
+            int buildNumber = input.readInt();
+            int buildTime = input.readInt();
+            var scmKey = input.readUTF();
+            int numberOfFiles = input.readInt();
+            int totalLinesOfCode = input.readInt();
+            int totalChurn = input.readInt();
+            var commitStatistics = new CommitStatistics(input.readInt(), input.readInt(), input.readInt(),
+                    input.readInt(), input.readInt());
+            return new TrendEntry(buildNumber, buildTime, scmKey, numberOfFiles, totalLinesOfCode, totalChurn,
+                    commitStatistics);
+        }
+
+        private void writeEntry(final DataOutputStream output, final int type, final TrendEntry entry)
+                throws IOException {
+            output.writeByte(type);
+            output.writeInt(entry.getBuildNumber());
+            output.writeInt(entry.getBuildTime());
+            output.writeUTF(entry.getScmKey());
+            output.writeInt(entry.getNumberOfFiles());
+            output.writeInt(entry.getTotalLinesOfCode());
+            output.writeInt(entry.getTotalChurn());
+            var commits = entry.getCommitStatistics();
+            output.writeInt(commits.getAddedLines());
+            output.writeInt(commits.getDeletedLines());
+            output.writeInt(commits.getAuthorCount());
+            output.writeInt(commits.getCommitCount());
+            output.writeInt(commits.getFilesCount());
+        }
+
+        private void rebuild(final Job<?, ?> job) {
+            clear();
+            for (Run<?, ?> run = job.getLastBuild(); run != null; run = run.getPreviousBuild()) {
+                for (ForensicsBuildAction action : run.getActions(ForensicsBuildAction.class)) {
+                    put(FORENSICS_RECORD, createEntry(run, action, getCommitStatistics(action)));
+                }
+                for (CommitStatisticsBuildAction action : run.getActions(CommitStatisticsBuildAction.class)) {
+                    put(COMMITS_RECORD, createEntry(run, action));
+                }
+            }
+            isLoaded = true;
+            write();
+        }
+
+        private CommitStatistics getCommitStatistics(final ForensicsBuildAction action) {
+            if (action.getTotalLinesOfCode() == 0) { // actions of releases before 1.1.0 do not store the statistics
+                return action.getResult().getLatestStatistics();
+            }
+            return action.getCommitStatistics();
+        }
+
+        private void write() {
+            var temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                records = 0;
+                for (Map.Entry<Integer, Map<String, NavigableMap<Integer, TrendEntry>>> type : entries.entrySet()) {
+                    for (NavigableMap<Integer, TrendEntry> trend : type.getValue().values()) {
+                        for (TrendEntry entry : trend.values()) {
+                            writeEntry(output, type.getKey(), entry);
+                            records++;
+                        }
+                    }
+                }
+            }
+            catch (IOException exception) {
+                LOGGER.log(Level.WARNING, "Can't write trend index " + file, exception);
+                return;
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException exception) {
+                LOGGER.log(Level.WARNING, "Can't replace trend index " + file, exception);
+            }
+        }
+
+        private void appendRecord(final RecordWriter writer) {
+            var buffer = new ByteArrayOutputStream();
+            try {
+                try (var output = new DataOutputStream(buffer)) {
+                    writer.write(output);
+                }
+                Files.write(file, buffer.toByteArray(), StandardOpenOption.APPEND); // a single write per record
+            }
+            catch (IOException exception) {
+                LOGGER.log(Level.WARNING, "Can't append to trend index " + file + ", index will be rebuilt", exception);
+                try {
+                    Files.deleteIfExists(file);
+                }
+                catch (IOException ignored) {
+                    // the index will be rebuilt anyway since it will not be loaded again
+                }
+                isLoaded = false;
+                clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a single record of the index.
+     */
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream output) throws IOException;
+    }
+
+    /**
+     * Appends a tombstone to the index if a build with forensics results has been deleted.
+     */
+    @Extension
+    public static class DeletedBuildListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            if (!run.getActions(ForensicsBuildAction.class).isEmpty()
+                    || !run.getActions(CommitStatisticsBuildAction.class).isEmpty()) {
+                getInstance().remove(run);
+            }
+        }
+    }
+
+    /**
+     * Removes the loaded indices of deleted or renamed jobs from memory. The index files are stored in the folder of
+     * the job, so they are deleted or moved together with the job.
+     */
+    @Extension
+    public static class DeletedJobListener extends ItemListener {
+        @Override
+        public void onDeleted(final Item item) {
+            getInstance().invalidate(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+            getInstance().invalidate(oldFullName);
+        }
+    }
+}
@@ -1,13 +1,34 @@
 /* global jQuery3, proxy, echartsJenkinsApi, bootstrap5 */
 (function () {
-    proxy.getBuildTrendModel(function (lineModel) {
-        const openCommit = function (commit) {
-            proxy.getCommitUrl(commit, function (commitUrl) {
-                if (commitUrl.responseJSON.startsWith('http')) {
-                    window.location.assign(commitUrl.responseJSON);
-                }
+    const url = window.location.pathname.replace(/\/$/, '') + '/trendChart';
+    const reset = document.getElementById('churn-trend-reset');
+
+    const openCommit = function (commit) {
+        proxy.getCommitUrl(commit, function (commitUrl) {
+            if (commitUrl.responseJSON.startsWith('http')) {
+                window.location.assign(commitUrl.responseJSON);
+            }
+        });
+    };
+    const render = function (chartUrl) {
+        fetch(chartUrl, {cache: 'no-cache'})
+            .then(response => response.text())
+            .then(lineModel => {
+                // Aggregated charts show intervals (day, week, or month) rather than commits
+                const isAggregated = JSON.parse(lineModel).domainAxisItemName !== 'Commit';
+                echartsJenkinsApi.renderConfigurableZoomableTrendChart('churn-trend-chart', lineModel, null,
+                    isAggregated ? drillDown : openCommit);
             });
-        };
-        echartsJenkinsApi.renderConfigurableZoomableTrendChart('churn-trend-chart', lineModel.responseJSON, null, openCommit);
+    };
+    const drillDown = function (interval) {
+        render(url + '?interval=' + encodeURIComponent(interval));
+        reset.classList.remove('d-none');
+    };
+
+    reset.addEventListener('click', function (event) {
+        event.preventDefault();
+        reset.classList.add('d-none');
+        render(url);
     });
+    render(url);
 })();
@@ -0,0 +1,56 @@
+(function () {
+    const base = window.location.pathname.replace(/\/$/, '');
+    const breadcrumb = document.getElementById('directory-path');
+    const rows = document.querySelector('#directory-tree tbody');
+    const properties = ['files', 'linesOfCode', 'churn', 'commits', 'authors'];
+
+    const createLink = function (text, path) {
+        const link = document.createElement('a');
+        link.href = '#';
+        link.textContent = text;
+        link.addEventListener('click', function (event) {
+            event.preventDefault();
+            open(path);
+        });
+        return link;
+    };
+
+    const showPath = function (path) {
+        breadcrumb.replaceChildren(createLink('/', ''));
+        let current = '';
+        path.split('/').filter(name => name.length > 0).forEach(function (name) {
+            current = current.length === 0 ? name : current + '/' + name;
+            breadcrumb.append(' ', createLink(name, current), ' /');
+        });
+    };
+
+    const createRow = function (directory, name) {
+        const row = document.createElement('tr');
+        const cell = document.createElement('td');
+        cell.appendChild(name);
+        row.appendChild(cell);
+        properties.forEach(function (property) {
+            const value = document.createElement('td');
+            value.className = 'text-end';
+            value.textContent = directory[property];
+            row.appendChild(value);
+        });
+        return row;
+    };
+
+    const show = function (directory) {
+        showPath(directory.path);
+        rows.replaceChildren(createRow(directory, document.createTextNode('.')));
+        directory.children.forEach(function (child) {
+            rows.appendChild(createRow(child, createLink(child.name + '/', child.path)));
+        });
+    };
+
+    const open = function (path) {
+        fetch(base + '/directories?path=' + encodeURIComponent(path))
+            .then(response => response.json())
+            .then(show);
+    };
+
+    open('');
+})();
@@ -0,0 +1,45 @@
+(function () {
+    const base = window.location.pathname.replace(/\/$/, '');
+    const input = document.getElementById('path-search');
+    const results = document.getElementById('path-search-results');
+    let timer = null;
+    let latest = 0;
+
+    const show = function (matches) {
+        results.replaceChildren();
+        matches.forEach(function (match) {
+            const link = document.createElement('a');
+            link.className = 'list-group-item list-group-item-action';
+            link.href = base + '/' + match.link;
+            link.textContent = match.path;
+            results.appendChild(link);
+        });
+    };
+
+    const search = function () {
+        const term = input.value.trim();
+        const request = ++latest;
+        if (term.length === 0) {
+            show([]);
+            return;
+        }
+        fetch(base + '/search?term=' + encodeURIComponent(term))
+            .then(response => response.json())
+            .then(matches => {
+                if (request === latest) { // ignore responses of outdated terms
+                    show(matches);
+                }
+            });
+    };
+
+    input.addEventListener('input', function () {
+        clearTimeout(timer);
+        timer = setTimeout(search, 150);
+    });
+    input.addEventListener('keydown', function (event) {
+        if (event.key === 'Enter' && results.firstChild) {
+            event.preventDefault();
+            window.location.assign(results.firstChild.href);
+        }
+    });
+})();
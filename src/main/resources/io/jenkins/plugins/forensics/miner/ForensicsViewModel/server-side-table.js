@@ -0,0 +1,36 @@
+/* global jQuery3, serverSideTableProxy */
+jQuery3(function () {
+    const renderDate = function (seconds, type) {
+        if (type === 'display' && typeof seconds === 'number') {
+            return new Date(seconds * 1000).toLocaleDateString();
+        }
+        return seconds;
+    };
+
+    jQuery3('table.server-side-table').each(function () {
+        const table = jQuery3(this);
+        const id = table.attr('id');
+        const columns = JSON.parse(table.attr('data-columns-definition'));
+        table.find('thead th').each(function (index) {
+            if (jQuery3(this).hasClass('date') && index < columns.length) {
+                columns[index].render = renderDate;
+            }
+        });
+
+        table.DataTable({
+            serverSide: true,
+            processing: true,
+            searchDelay: 500,
+            columns: columns,
+            ajax: function (request, callback) {
+                const order = request.order.length > 0 ? request.order[0] : {column: 0, dir: 'asc'};
+                serverSideTableProxy.getTablePage(id, request.start, request.length, order.column,
+                    order.dir === 'asc', request.search.value, function (response) {
+                        const page = JSON.parse(response.responseObject());
+                        page.draw = request.draw;
+                        callback(page);
+                    });
+            }
+        });
+    });
+});
@@ -0,0 +1,115 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link ChartModelCache}.
+ *
+ * @author Ullrich Hafner
+ */
+class ChartModelCacheTest {
+    private static final String ID = "authors";
+    private static final String MODEL = "{\"model\":1}";
+    private static final long LAST_MODIFIED = 1_600_000_000_000L;
+
+    @Test
+    void shouldComputeModelsOnlyOnce() {
+        var cache = new ChartModelCache(null, "prefix", "version", LAST_MODIFIED);
+        var computations = new AtomicInteger();
+
+        assertThat(cache.get(ID, true, () -> compute(computations))).isEqualTo(MODEL);
+        assertThat(cache.get(ID, true, () -> compute(computations))).isEqualTo(MODEL);
+        assertThat(computations).hasValue(1);
+
+        for (int i = 0; i <= ChartModelCache.MAXIMUM_SIZE; i++) {
+            cache.get("trend-" + i, false, () -> MODEL);
+        }
+        assertThat(cache.get(ID, true, () -> compute(computations))).isEqualTo(MODEL);
+        assertThat(computations).hasValue(2);
+    }
+
+    @Test
+    void shouldPersistModels(@TempDir final Path folder) {
+        var computations = new AtomicInteger();
+
+        var cache = new ChartModelCache(folder, "prefix", "version", LAST_MODIFIED);
+        assertThat(cache.get(ID, true, () -> compute(computations))).isEqualTo(MODEL);
+        assertThat(cache.get("trend", false, () -> compute(computations))).isEqualTo(MODEL);
+        assertThat(folder.resolve("prefix-authors-v" + ChartModelCache.MODEL_VERSION + ".json"))
+                .exists().hasContent(MODEL);
+        assertThat(folder.resolve(cache.getFileName("trend"))).doesNotExist();
+        assertThat(folder).isDirectoryNotContaining("glob:**.tmp");
+
+        var restored = new ChartModelCache(folder, "prefix", "version", LAST_MODIFIED);
+        assertThat(restored.get(ID, true, () -> compute(computations))).isEqualTo(MODEL);
+        assertThat(computations).hasValue(2);
+    }
+
+    @Test
+    void shouldIgnoreModelsOfOtherVersions(@TempDir final Path folder) throws IOException {
+        Files.writeString(folder.resolve("prefix-authors.json"), "{\"old\":0}");
+        var computations = new AtomicInteger();
+
+        var cache = new ChartModelCache(folder, "prefix", "version", LAST_MODIFIED);
+
+        assertThat(cache.get(ID, true, () -> compute(computations))).isEqualTo(MODEL);
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    void shouldAnswerConditionalRequests() throws IOException {
+        var cache = new ChartModelCache(null, "prefix", "version", LAST_MODIFIED);
+        var etag = cache.getETag(ID);
+        assertThat(etag).isNotEqualTo(cache.getETag("commits"))
+                .isNotEqualTo(new ChartModelCache(null, "prefix", "other", LAST_MODIFIED).getETag(ID));
+
+        var request = mock(StaplerRequest2.class);
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(-1L);
+        var response = mock(StaplerResponse2.class);
+        var body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+        cache.serve(ID, true, () -> MODEL, request, response);
+
+        verify(response).setHeader("ETag", etag);
+        verify(response).setDateHeader("Last-Modified", LAST_MODIFIED);
+        verify(response, never()).setStatus(StaplerResponse2.SC_NOT_MODIFIED);
+        assertThat(body).hasToString(MODEL);
+
+        var revalidation = mock(StaplerRequest2.class);
+        when(revalidation.getHeader("If-None-Match")).thenReturn(etag);
+        var notModified = mock(StaplerResponse2.class);
+
+        cache.serve(ID, true, () -> MODEL, revalidation, notModified);
+
+        verify(notModified).setStatus(StaplerResponse2.SC_NOT_MODIFIED);
+        verify(notModified, never()).getWriter();
+
+        var ifModifiedSince = mock(StaplerRequest2.class);
+        when(ifModifiedSince.getDateHeader("If-Modified-Since")).thenReturn(LAST_MODIFIED);
+        var alsoNotModified = mock(StaplerResponse2.class);
+
+        cache.serve(ID, true, () -> MODEL, ifModifiedSince, alsoNotModified);
+
+        verify(alsoNotModified).setStatus(StaplerResponse2.SC_NOT_MODIFIED);
+    }
+
+    private String compute(final AtomicInteger computations) {
+        computations.incrementAndGet();
+        return MODEL;
+    }
+}
@@ -0,0 +1,83 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.TreeString;
+import edu.hm.hafner.util.TreeStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link CommitIngestionPipeline}.
+ *
+ * @author Ullrich Hafner
+ */
+class CommitIngestionPipelineTest {
+    private static final TreeStringBuilder BUILDER = new TreeStringBuilder();
+    private static final TreeString FIRST = BUILDER.intern("first.txt");
+    private static final TreeString SECOND = BUILDER.intern("second.txt");
+    private static final TreeString MOVED = BUILDER.intern("moved.txt");
+    private static final TreeString NO_FILE = BUILDER.intern(CommitDiffItem.NO_FILE_NAME);
+
+    @Test
+    void shouldAggregateBatchesLikeAddAll() throws InterruptedException {
+        var first = List.of(
+                new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(FIRST),
+                new CommitDiffItem("1", "one", 10).addLines(5).setNewPath(SECOND));
+        var second = List.of(
+                new CommitDiffItem("2", "two", 20).addLines(3).deleteLines(2).setNewPath(FIRST),
+                new CommitDiffItem("3", "One", 30).setOldPath(SECOND).setNewPath(MOVED).addLines(1));
+        var third = List.of(
+                new CommitDiffItem("4", "three", 40).deleteLines(11).setOldPath(FIRST).setNewPath(NO_FILE));
+
+        var logger = new FilteredLog("Errors");
+        RepositoryStatistics streamed;
+        try (var pipeline = new CommitIngestionPipeline(new RepositoryStatistics("4"), logger, 1)) {
+            pipeline.accept(first);
+            pipeline.accept(second);
+            pipeline.accept(List.of());
+            pipeline.accept(third);
+
+            streamed = pipeline.finish();
+        }
+
+        List<CommitDiffItem> all = new ArrayList<>(first);
+        all.addAll(second);
+        all.addAll(third);
+        var expected = new RepositoryStatistics("4");
+        expected.addAll(all);
+
+        assertThat(streamed).isEqualTo(expected)
+                .hasOnlyFiles("moved.txt")
+                .hasTotalLinesOfCode(6)
+                .hasTotalChurn(6)
+                .hasLatestStatistics(expected.getLatestStatistics());
+        assertThat(streamed.getLatestStatistics())
+                .hasCommitCount(4)
+                .hasAuthorCount(3)
+                .hasFilesCount(3);
+
+        var summary = new FilteredLog("Errors");
+        CommitStatistics.logCommits(all, summary);
+        assertThat(logger.getInfoMessages()).as("Batches end on commit boundaries").startsWith(
+                "-> batch 1: 3 commit diff items of 2 commits aggregated (18 lines added, 2 lines deleted)",
+                "-> batch 2: 1 commit diff items of 1 commits aggregated (1 lines added, 0 lines deleted)",
+                "-> batch 3: 1 commit diff items of 1 commits aggregated (0 lines added, 11 lines deleted)");
+        assertThat(logger.getInfoMessages()).endsWith(summary.getInfoMessages().toArray(new String[0]));
+    }
+
+    @Test
+    void shouldRejectBatchesAfterFinish() throws InterruptedException {
+        try (var pipeline = new CommitIngestionPipeline(new RepositoryStatistics(), new FilteredLog("Errors"))) {
+            assertThat(pipeline.finish()).isEmpty();
+            assertThat(pipeline.finish()).isEmpty();
+
+            assertThatIllegalStateException().isThrownBy(() -> pipeline.accept(List.of(
+                    new CommitDiffItem("1", "one", 10).setNewPath(FIRST))));
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package io.jenkins.plugins.forensics.miner;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -28,25 +30,19 @@ class CommitStatisticsJobActionTest {
     private static final String SCM_KEY = "key123";
 
     @Test
-    void shouldCorrectlyReturnWhetherTrendIsVisible() {
-        Job<?, ?> job = mock(Job.class);
-        Run<?, ?> run1 = createRun(1, "run1");
-        Run<?, ?> run2 = createRun(2, "run2");
-        Run<?, ?> run3 = createRun(3, "run3");
+    void shouldCorrectlyReturnWhetherTrendIsVisible(@TempDir final Path empty, @TempDir final Path builds) {
+        Job<?, ?> job = createJob(empty, "empty");
 
         var commitStatisticsJobAction = new CommitStatisticsJobAction(job, SCM_KEY);
         assertThat(commitStatisticsJobAction.isTrendVisible()).isFalse();
 
-        when(job.getLastCompletedBuild()).thenAnswer(i -> run1);
-        when(run1.getPreviousBuild()).thenAnswer(i -> run2);
-        when(run2.getPreviousBuild()).thenAnswer(i -> run3);
-
-        assertThat(commitStatisticsJobAction.isTrendVisible()).isTrue();
+        var jobWithBuilds = createJobWithBuilds(builds, "builds");
+        assertThat(new CommitStatisticsJobAction(jobWithBuilds, SCM_KEY).isTrendVisible()).isTrue();
     }
 
     @ParameterizedTest
     @ValueSource(strings = {"delta", "count"})
-    void shouldReturnBuildTrendModel(final String chartType) {
+    void shouldReturnBuildTrendModel(final String chartType, @TempDir final Path folder) {
         Map<String, Object> configurationMap = new HashMap<>();
         configurationMap.put("buildAsDomain", true);
         configurationMap.put("numberOfBuilds", 50);
@@ -55,14 +51,7 @@ class CommitStatisticsJobActionTest {
 
         var configuration = toJson(configurationMap);
 
-        Job<?, ?> job = mock(Job.class);
-        Run<?, ?> run1 = createRun(1, "run1");
-        Run<?, ?> run2 = createRun(2, "run2");
-        Run<?, ?> run3 = createRun(3, "run3");
-
-        when(job.getLastCompletedBuild()).thenAnswer(i -> run1);
-        when(run1.getPreviousBuild()).thenAnswer(i -> run2);
-        when(run2.getPreviousBuild()).thenAnswer(i -> run3);
+        var job = createJobWithBuilds(folder, "trend-" + chartType);
 
         var commitStatisticsJobAction = new CommitStatisticsJobAction(job, SCM_KEY);
         var chartModel = commitStatisticsJobAction.getConfigurableBuildTrendModel(configuration);
@@ -70,15 +59,36 @@ class CommitStatisticsJobActionTest {
         assertThat(chartModel).isNotBlank();
 
         assertThatJson(chartModel).node("domainAxisLabels")
-                .isArray().containsExactly("run1", "run2", "run3");
+                .isArray().containsExactly("#1", "#2", "#3");
         assertThatJson(chartModel).node("buildNumbers")
                 .isArray().containsExactly(1, 2, 3);
     }
 
-    private Run<?, ?> createRun(final int runNumber, final String displayName) {
+    private Job<?, ?> createJobWithBuilds(final Path folder, final String name) {
+        Job<?, ?> job = createJob(folder, name);
+        Run<?, ?> run1 = createRun(1);
+        Run<?, ?> run2 = createRun(2);
+        Run<?, ?> run3 = createRun(3);
+
+        when(job.getLastBuild()).thenAnswer(i -> run3);
+        when(job.getLastCompletedBuild()).thenAnswer(i -> run3);
+        when(run3.getPreviousBuild()).thenAnswer(i -> run2);
+        when(run2.getPreviousBuild()).thenAnswer(i -> run1);
+        return job;
+    }
+
+    private Job<?, ?> createJob(final Path folder, final String name) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn(getClass().getName() + "/" + name);
+        when(job.getRootDir()).thenReturn(folder.toFile());
+        TrendIndex.getInstance().invalidate(job.getFullName());
+        return job;
+    }
+
+    private Run<?, ?> createRun(final int runNumber) {
         Run<?, ?> run = mock(Run.class);
         when(run.getNumber()).thenReturn(runNumber);
-        when(run.getDisplayName()).thenReturn(displayName);
+        when(run.getDisplayName()).thenReturn("custom name of " + runNumber);
         when(run.getActions(CommitStatisticsBuildAction.class)).thenReturn(
                 Collections.singletonList(new CommitStatisticsBuildAction(run, SCM_KEY, new CommitStatistics()))
         );
@@ -0,0 +1,142 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.TreeString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link DirectoryStatistics}.
+ *
+ * @author Ullrich Hafner
+ */
+class DirectoryStatisticsTest {
+    private static final String INVOICE = "services/billing/Invoice.java";
+    private static final String PAYMENT = "services/billing/api/Payment.java";
+    private static final String PARCEL = "services/shipping/Parcel.java";
+    private static final String README = "README.md";
+
+    @Test
+    void shouldAggregateDirectories() {
+        var root = createStatistics().getDirectoryTree();
+
+        assertDirectory(root, "", 4, 26, 3, 3);
+        assertThat(root.getName()).isEmpty();
+        assertThat(root.getChildren()).extracting(DirectoryStatistics::getName).containsExactly("services");
+
+        var services = root.find("services").orElseThrow();
+        assertDirectory(services, "services", 3, 25, 3, 3);
+        assertThat(services.getChildren()).extracting(DirectoryStatistics::getName)
+                .containsExactly("billing", "shipping");
+
+        var billing = root.find("services/billing").orElseThrow();
+        assertDirectory(billing, "services/billing", 2, 18, 2, 2);
+        assertThat(billing.getChurn()).isEqualTo(18);
+        assertDirectory(root.find("services/billing/api/").orElseThrow(), "services/billing/api", 1, 8, 2, 2);
+        assertDirectory(services.find("shipping").orElseThrow(), "services/shipping", 1, 7, 1, 1);
+
+        assertThat(root.find("")).contains(root);
+        assertThat(root.find("services/unknown")).isEmpty();
+        assertThat(root.find("README.md")).as("Files are no directories").isEmpty();
+    }
+
+    @Test
+    void shouldUpdateTreeIncrementally() {
+        var statistics = createStatistics();
+        var before = statistics.getDirectoryTree();
+
+        statistics.addAll(List.of(
+                createCommit("4", "Dave", 500, PAYMENT, 2),
+                createCommit("4", "Dave", 500, "docs/guide.md", 4)));
+
+        var after = statistics.getDirectoryTree();
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.find("services/shipping")).as("Unchanged directories are shared")
+                .containsSame(before.find("services/shipping").orElseThrow());
+        assertEqualTrees(after, DirectoryStatistics.of(statistics.getMapping(), ForkJoinPool.commonPool()));
+
+        assertDirectory(after, "", 5, 32, 4, 4);
+        assertDirectory(after.find("services/billing/api").orElseThrow(), "services/billing/api", 1, 10, 3, 3);
+        assertDirectory(after.find("docs").orElseThrow(), "docs", 1, 4, 1, 1);
+        assertThat(after.getChildren()).extracting(DirectoryStatistics::getName).containsExactly("docs", "services");
+    }
+
+    @Test
+    void shouldRebuildTreeAfterDelete() {
+        var statistics = createStatistics();
+        var before = statistics.getDirectoryTree();
+
+        statistics.addAll(List.of(new CommitDiffItem("4", "Dave", 500)
+                .setOldPath(TreeString.valueOf(PARCEL))));
+
+        var after = statistics.getDirectoryTree();
+        assertThat(after).isNotSameAs(before);
+        assertDirectory(after, "", 3, 19, 2, 2);
+        assertThat(after.find("services/shipping")).isEmpty();
+    }
+
+    @Test
+    void shouldAggregateLargeDirectoriesInParallel() {
+        List<CommitDiffItem> commits = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            commits.add(createCommit(String.valueOf(i % 10), "Author " + i % 7, i,
+                    "module-" + i % 2 + "/src/File" + i + ".java", 1));
+        }
+        var statistics = new RepositoryStatistics();
+        statistics.addAll(commits);
+
+        var root = DirectoryStatistics.of(statistics.getMapping(), new ForkJoinPool(4));
+
+        assertDirectory(root, "", 1000, 1000, 10, 7);
+        assertDirectory(root.find("module-0/src").orElseThrow(), "module-0/src", 500, 500, 5, 7);
+        assertDirectory(root.find("module-1").orElseThrow(), "module-1", 500, 500, 5, 7);
+    }
+
+    @Test
+    void shouldHandleEmptyRepository() {
+        var root = new RepositoryStatistics().getDirectoryTree();
+
+        assertDirectory(root, "", 0, 0, 0, 0);
+        assertThat(root.getChildren()).isEmpty();
+    }
+
+    private RepositoryStatistics createStatistics() {
+        var statistics = new RepositoryStatistics();
+        statistics.addAll(List.of(
+                createCommit("1", "Alice", 100, INVOICE, 10),
+                createCommit("1", "Alice", 100, PAYMENT, 5),
+                createCommit("2", "Bob", 200, PAYMENT, 3),
+                createCommit("2", "Bob", 200, README, 1),
+                createCommit("3", "Carol", 300, PARCEL, 7)));
+        return statistics;
+    }
+
+    private static CommitDiffItem createCommit(final String id, final String author, final int time,
+            final String file, final int addedLines) {
+        return new CommitDiffItem(id, author, time).addLines(addedLines).setNewPath(TreeString.valueOf(file));
+    }
+
+    private static void assertDirectory(final DirectoryStatistics directory, final String path, final int files,
+            final int linesOfCode, final int commits, final int authors) {
+        assertThat(directory.getPath()).isEqualTo(path);
+        assertThat(directory.getNumberOfFiles()).isEqualTo(files);
+        assertThat(directory.getLinesOfCode()).isEqualTo(linesOfCode);
+        assertThat(directory.getNumberOfCommits()).isEqualTo(commits);
+        assertThat(directory.getNumberOfAuthors()).isEqualTo(authors);
+    }
+
+    private static void assertEqualTrees(final DirectoryStatistics actual, final DirectoryStatistics expected) {
+        assertDirectory(actual, expected.getPath(), expected.getNumberOfFiles(), expected.getLinesOfCode(),
+                expected.getNumberOfCommits(), expected.getNumberOfAuthors());
+        assertThat(actual.getChurn()).isEqualTo(expected.getChurn());
+        assertThat(actual.getChildren()).hasSameSizeAs(expected.getChildren());
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            assertEqualTrees(actual.getChildren().get(i), expected.getChildren().get(i));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import io.jenkins.plugins.forensics.miner.FileDetailsView.FileChurnTrendChart;
+import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
+import io.jenkins.plugins.forensics.util.CommitDecorator.NullDecorator;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link FileChurnTrendChart}.
+ *
+ * @author Ullrich Hafner
+ */
+class FileChurnTrendChartTest {
+    private static final int ONE_DAY = 60 * 60 * 24;
+    private static final int START = (int) LocalDate.of(2020, 1, 1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+
+    @Test
+    void shouldShowCommitsOfShortHistory() {
+        var statistics = new FileStatisticsBuilder().build("file");
+        statistics.inspectCommit(new CommitDiffItem("1", "one", START).addLines(10));
+        statistics.inspectCommit(new CommitDiffItem("2", "one", START + ONE_DAY).deleteLines(5));
+
+        var model = new FileChurnTrendChart().create(statistics, new NullDecorator());
+
+        assertThat(model.getDomainAxisItemName()).isEqualTo("Commit");
+        assertThat(model.getDomainAxisLabels()).containsExactly("1", "2");
+    }
+
+    @Test
+    void shouldAggregateAndDownsampleLongHistory() {
+        var statistics = new FileStatisticsBuilder().build("file");
+        int commits = 10 * 365 * 4; // four commits per day for ten years
+        for (int i = 0; i < commits; i++) {
+            statistics.inspectCommit(new CommitDiffItem(String.valueOf(i), "author", START + i * ONE_DAY / 4)
+                    .addLines(1));
+        }
+
+        var chart = new FileChurnTrendChart();
+        var model = chart.create(statistics, new NullDecorator());
+
+        assertThat(model.getDomainAxisItemName()).isEqualTo("Month");
+        assertThat(model.getDomainAxisLabels()).hasSizeLessThanOrEqualTo(FileChurnTrendChart.MAXIMUM_POINTS)
+                .startsWith("2020-01", "2020-02")
+                .endsWith("2029-12");
+        assertThat(model.getSeries().get(0).getData()).startsWith(124, 116);
+
+        var month = chart.create(statistics, new NullDecorator(), "2020-02");
+        assertThat(month.getDomainAxisItemName()).isEqualTo("Commit");
+        assertThat(month.getDomainAxisLabels()).hasSize(116).startsWith("124");
+
+        var invalid = chart.create(statistics, new NullDecorator(), "invalid");
+        assertThat(invalid.getDomainAxisLabels()).isEqualTo(model.getDomainAxisLabels());
+    }
+
+    @Test
+    void shouldDownsampleCommitsOfSingleDay() {
+        var statistics = new FileStatisticsBuilder().build("file");
+        statistics.inspectCommit(new CommitDiffItem("old", "author", START).addLines(1));
+        int commits = 400;
+        for (int i = 0; i < commits; i++) {
+            statistics.inspectCommit(new CommitDiffItem(String.valueOf(i), "author", START + 10 * ONE_DAY + i * 60)
+                    .addLines(i % 10));
+        }
+
+        var chart = new FileChurnTrendChart();
+        var model = chart.create(statistics, new NullDecorator());
+        assertThat(model.getDomainAxisItemName()).isEqualTo("Day");
+        assertThat(model.getDomainAxisLabels()).containsExactly("2020-01-01", "2020-01-11");
+
+        var day = chart.create(statistics, new NullDecorator(), "2020-01-11");
+        assertThat(day.getDomainAxisItemName()).isEqualTo("Commit");
+        assertThat(day.getDomainAxisLabels()).hasSize(FileChurnTrendChart.MAXIMUM_POINTS)
+                .startsWith("0")
+                .endsWith("399");
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import edu.hm.hafner.util.SerializableTest;
 import edu.hm.hafner.util.TreeStringBuilder;
 
+import java.util.List;
 import java.util.Set;
 
 import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
@@ -78,6 +79,61 @@ class FileStatisticsTest extends SerializableTest<FileStatistics> {
         assertThat(createStatistics("/path/to/file.txt")).hasFileName("/path/to/file.txt");
     }
 
+    @Test
+    void shouldCompactOldCommits() {
+        var statistics = createStatistics(FILE);
+        var first = new CommitDiffItem("1", "one", ONE_DAY * 2).addLines(10);
+        var second = new CommitDiffItem("2", "One", ONE_DAY * 3).addLines(2).deleteLines(1);
+        var third = new CommitDiffItem("3", "two", ONE_DAY * 4).deleteLines(3);
+        var fourth = new CommitDiffItem("4", "three", ONE_DAY * 5).addLines(1);
+        statistics.inspectCommits(List.of(first, second, third, fourth));
+        var expected = new FileStatistics(statistics);
+
+        assertThat(statistics.compact(CommitRetentionPolicy.RETAIN_ALL, ONE_DAY * 5)).isZero();
+        assertThat(statistics.compact(new CommitRetentionPolicy(2, 0), ONE_DAY * 5)).isEqualTo(2);
+        assertThat(statistics).hasCommits(third, fourth);
+        assertThat(statistics.getRollup()).isNotNull();
+        assertThatIsEquivalent(statistics, expected);
+
+        var fifth = new CommitDiffItem("5", "four", ONE_DAY * 6).addLines(4);
+        statistics.inspectCommit(fifth);
+        expected.inspectCommit(fifth);
+        assertThatIsEquivalent(statistics, expected);
+
+        assertThat(statistics.compact(new CommitRetentionPolicy(0, 1), ONE_DAY * 6)).isEqualTo(1);
+        assertThat(statistics).hasCommits(fourth, fifth);
+        assertThatIsEquivalent(statistics, expected);
+
+        assertThat(statistics.compact(new CommitRetentionPolicy(0, 1), ONE_DAY * 100)).isEqualTo(1);
+        assertThat(statistics).hasCommits(fifth);
+        assertThatIsEquivalent(statistics, expected);
+    }
+
+    @Test
+    void shouldNotSplitCommitsWhenCompacting() {
+        var statistics = createStatistics(FILE);
+        var first = new CommitDiffItem("1", "one", ONE_DAY).addLines(1);
+        var second = new CommitDiffItem("2", "two", ONE_DAY * 2).addLines(2);
+        var third = new CommitDiffItem("2", "two", ONE_DAY * 2).deleteLines(1);
+        statistics.inspectCommits(List.of(first, second, third));
+        var expected = new FileStatistics(statistics);
+
+        assertThat(statistics.compact(new CommitRetentionPolicy(1, 0), ONE_DAY * 2)).isEqualTo(1);
+        assertThat(statistics).hasCommits(second, third);
+        assertThatIsEquivalent(statistics, expected);
+    }
+
+    private void assertThatIsEquivalent(final FileStatistics actual, final FileStatistics expected) {
+        assertThat(actual).hasFileName(expected.getFileName())
+                .hasNumberOfCommits(expected.getNumberOfCommits())
+                .hasNumberOfAuthors(expected.getNumberOfAuthors())
+                .hasCreationTime(expected.getCreationTime())
+                .hasLastModificationTime(expected.getLastModificationTime())
+                .hasLinesOfCode(expected.getLinesOfCode())
+                .hasAbsoluteChurn(expected.getAbsoluteChurn());
+        assertThat(actual.getStatistics()).isEqualTo(expected.getStatistics());
+    }
+
     @Override
     protected FileStatistics createSerializable() {
         var statistics = createStatistics(FILE);
@@ -2,6 +2,11 @@ package io.jenkins.plugins.forensics.miner;
 
 import org.junit.jupiter.api.Test;
 
+import edu.hm.hafner.util.TreeStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import io.jenkins.plugins.datatables.TableColumn;
 import io.jenkins.plugins.forensics.miner.ForensicsTableModel.ForensicsRow;
 
@@ -43,6 +48,40 @@ class ForensicsTableModelTest {
         assertThat((ForensicsRow) actual).hasAuthorsSize(0);
     }
 
+    @Test
+    void shouldReturnSortedAndFilteredPages() {
+        var builder = new TreeStringBuilder();
+        var statistics = new RepositoryStatistics();
+        List<CommitDiffItem> commits = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            commits.add(new CommitDiffItem(String.valueOf(i), "author", i).addLines(i)
+                    .setNewPath(builder.intern("/src/File" + i + ".java")));
+        }
+        statistics.addAll(commits);
+        var tableModel = new ForensicsTableModel(statistics);
+
+        var page = tableModel.getPage(10, 5, 5, true, "");
+        assertThat(page.getRecordsTotal()).isEqualTo(50);
+        assertThat(page.getRecordsFiltered()).isEqualTo(50);
+        assertThat(page.getData()).hasSize(5).extracting(row -> ((ForensicsRow) row).getLinesOfCode())
+                .containsExactly(10, 11, 12, 13, 14);
+
+        var descending = tableModel.getPage(0, 3, 5, false, "");
+        assertThat(descending.getData()).extracting(row -> ((ForensicsRow) row).getLinesOfCode())
+                .containsExactly(49, 48, 47);
+
+        var filtered = tableModel.getPage(0, -1, 5, true, "file4");
+        assertThat(filtered.getRecordsFiltered()).isEqualTo(11);
+        assertThat(filtered.getData()).hasSize(11);
+
+        var beyond = tableModel.getPage(100, 10, 99, true, null);
+        assertThat(beyond.getData()).isEmpty();
+        assertThat(beyond.getRecordsFiltered()).isEqualTo(50);
+
+        assertThat(statistics.getSortedFiles(FileStatisticsOrder.LINES_OF_CODE))
+                .isSameAs(statistics.getSortedFiles(FileStatisticsOrder.LINES_OF_CODE));
+    }
+
     private FileStatistics createFileStatistics() {
         FileStatistics fileStatistics = mock(FileStatistics.class);
         CommitDiffItem commitDiffItem = mock(CommitDiffItem.class);
@@ -66,7 +105,7 @@ class ForensicsTableModelTest {
 
         assertThat(forensicsRow)
                 .hasFileName(
-                        "<a href=\"fileName.-734768633\" data-bs-toggle=\"tooltip\" data-bs-placement=\"left\" title=\"filename\">filename</a>")
+                        "<a href=\"" + PathId.toLink("filename") + "\" data-bs-toggle=\"tooltip\" data-bs-placement=\"left\" title=\"filename\">filename</a>")
                 .hasAuthorsSize(1)
                 .hasCommitsSize(2)
                 .hasModifiedAt(3)
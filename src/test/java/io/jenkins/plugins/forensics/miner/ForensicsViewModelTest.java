@@ -8,6 +8,8 @@ import edu.hm.hafner.echarts.PieChartModel;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import org.kohsuke.stapler.StaplerRequest2;
@@ -15,6 +17,7 @@ import org.kohsuke.stapler.StaplerResponse2;
 import hudson.model.Run;
 
 import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
+import io.jenkins.plugins.forensics.miner.StatisticsQuery.Field;
 import io.jenkins.plugins.forensics.util.CommitDecorator.NullDecorator;
 import io.jenkins.plugins.forensics.util.CommitDecoratorFactory;
 
@@ -30,6 +33,7 @@ import static org.mockito.Mockito.*;
 class ForensicsViewModelTest {
     private static final String SCM_KEY = "scmKey";
     private static final String FILE_NAME = "file.name";
+    private static final int NOW = 1_700_000_000;
 
     @Test
     void shouldHandleEmptyModel() {
@@ -71,6 +75,29 @@ class ForensicsViewModelTest {
         );
     }
 
+    @Test
+    void shouldResolvePathIdLinks() {
+        var repositoryStatistics = new RepositoryStatistics();
+        repositoryStatistics.add(new FileStatisticsBuilder().build(FILE_NAME));
+        repositoryStatistics.add(new FileStatisticsBuilder().build("other.name"));
+
+        var model = new ForensicsViewModel(mock(Run.class), repositoryStatistics, SCM_KEY);
+
+        runWithNullDecorator(model,
+                m -> {
+                    assertThat(m.getDynamic(PathId.toLink(FILE_NAME), mock(StaplerRequest2.class),
+                            mock(StaplerResponse2.class)))
+                            .isInstanceOfSatisfying(FileDetailsView.class,
+                                    view -> assertThat(view.getFullPath()).isEqualTo(FILE_NAME));
+                    assertThat(m.getDynamic("fileName." + FILE_NAME.hashCode(), mock(StaplerRequest2.class),
+                            mock(StaplerResponse2.class)))
+                            .isInstanceOfSatisfying(FileDetailsView.class,
+                                    view -> assertThat(view.getFullPath()).isEqualTo(FILE_NAME));
+                    assertThat(m.getDynamic(PathId.LINK_PREFIX + "not-hex", mock(StaplerRequest2.class),
+                            mock(StaplerResponse2.class))).isSameAs(m);
+                });
+    }
+
     @Test
     void shouldThrowNoSuchElementExceptionInGetDynamic() throws IOException {
         var model = new ForensicsViewModel(mock(Run.class), new RepositoryStatistics(), SCM_KEY);
@@ -105,6 +132,88 @@ class ForensicsViewModelTest {
                 });
     }
 
+    @Test
+    void shouldSearchPaths() {
+        var repositoryStatistics = new RepositoryStatistics();
+        repositoryStatistics.add(new FileStatisticsBuilder().build(FILE_NAME));
+        repositoryStatistics.add(new FileStatisticsBuilder().build("other.name"));
+
+        var model = new ForensicsViewModel(mock(Run.class), repositoryStatistics, SCM_KEY);
+
+        assertThat(model.searchPaths("FILE")).containsExactly(
+                Map.of("path", FILE_NAME, "link", PathId.toLink(FILE_NAME)));
+        assertThat(model.searchPaths(" ")).isEmpty();
+    }
+
+    @Test
+    void shouldProvideDirectories() {
+        var repositoryStatistics = new RepositoryStatistics();
+        repositoryStatistics.add(new FileStatisticsBuilder().build("src/main/" + FILE_NAME));
+        repositoryStatistics.add(new FileStatisticsBuilder().build("src/test/" + FILE_NAME));
+
+        var model = new ForensicsViewModel(mock(Run.class), repositoryStatistics, SCM_KEY);
+
+        var root = model.getDirectory("").orElseThrow();
+        assertThat(root).containsEntry("path", "").containsEntry("files", 2);
+        assertThat(model.getDirectory("src").orElseThrow().get("children")).asList().hasSize(2);
+        assertThat(model.getDirectory("src/unknown")).isEmpty();
+    }
+
+    @Test
+    void shouldCreateQueryFromRequestParameters() {
+        assertThat(ForensicsViewModel.createQuery(Map.<String, String>of()::get, NOW))
+                .isEqualTo(StatisticsQuery.all().withLimit(100));
+
+        var parameters = Map.of(
+                "prefix", "services/billing",
+                "glob", "**/*.java",
+                "days", "90",
+                "author", "alice",
+                "minAuthors", "5",
+                "sort", "churn",
+                "limit", "10",
+                "fields", "file, authors,churn");
+        assertThat(ForensicsViewModel.createQuery(parameters::get, NOW)).isEqualTo(StatisticsQuery.all()
+                .withPathPrefix("services/billing")
+                .withGlob("**/*.java")
+                .withTimeWindow(NOW - 90 * 24 * 60 * 60, Integer.MAX_VALUE)
+                .withAuthor("alice")
+                .withMinimum(Field.AUTHORS, 5)
+                .withOrder(Field.CHURN, true)
+                .withLimit(10)
+                .withFields(EnumSet.of(Field.FILE, Field.AUTHORS, Field.CHURN)));
+
+        assertThat(ForensicsViewModel.createQuery(Map.of("sort", "linesOfCode", "order", "asc")::get, NOW))
+                .isEqualTo(StatisticsQuery.all().withOrder(Field.LINES_OF_CODE, false).withLimit(100));
+    }
+
+    @Test
+    void shouldRejectInvalidQueryParameters() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ForensicsViewModel.createQuery(Map.of("minChurn", "many")::get, NOW))
+                .withMessageContaining("minChurn");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ForensicsViewModel.createQuery(Map.of("sort", "size")::get, NOW))
+                .withMessageContaining("size");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ForensicsViewModel.createQuery(Map.of("days", "30000")::get, NOW))
+                .withMessageContaining("days");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ForensicsViewModel.createQuery(Map.of("days", "-1")::get, NOW))
+                .withMessageContaining("days");
+    }
+
+    @Test
+    void shouldClampQueryLimit() {
+        var maximum = StatisticsQuery.all().withLimit(ForensicsViewModel.MAXIMUM_QUERY_LIMIT);
+
+        assertThat(ForensicsViewModel.createQuery(Map.of("limit", "0")::get, NOW)).isEqualTo(maximum);
+        assertThat(ForensicsViewModel.createQuery(Map.of("limit", "-5")::get, NOW)).isEqualTo(maximum);
+        assertThat(ForensicsViewModel.createQuery(Map.of("limit", "1000000")::get, NOW)).isEqualTo(maximum);
+        assertThat(ForensicsViewModel.createQuery(Map.of("limit", "20")::get, NOW))
+                .isEqualTo(StatisticsQuery.all().withLimit(20));
+    }
+
     private void runWithNullDecorator(final ForensicsViewModel model, final Consumer<ForensicsViewModel> modelConsumer) {
         try (MockedStatic<CommitDecoratorFactory> commitDecoratorFactory = mockStatic(CommitDecoratorFactory.class)) {
             commitDecoratorFactory
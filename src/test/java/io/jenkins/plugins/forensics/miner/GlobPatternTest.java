@@ -0,0 +1,60 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link GlobPattern}.
+ *
+ * @author Ullrich Hafner
+ */
+class GlobPatternTest {
+    @Test
+    void shouldMatchSegments() {
+        var java = new GlobPattern("**/*.java");
+
+        assertThat(java.matches("Main.java")).isTrue();
+        assertThat(java.matches("src/main/java/Main.java")).isTrue();
+        assertThat(java.matches("/src/Main.java")).isTrue();
+        assertThat(java.matches("src/Main.java.orig")).isFalse();
+        assertThat(java.matches("src/java/README.md")).isFalse();
+
+        var sources = new GlobPattern("src/**");
+        assertThat(sources.matches("src/main/Main.java")).isTrue();
+        assertThat(sources.matches("test/src/Main.java")).isFalse();
+
+        var single = new GlobPattern("services/*/?.txt");
+        assertThat(single.matches("services/billing/a.txt")).isTrue();
+        assertThat(single.matches("services/billing/ab.txt")).isFalse();
+        assertThat(single.matches("services/billing/api/a.txt")).isFalse();
+
+        var middle = new GlobPattern("src/**/test/**/*Test.java");
+        assertThat(middle.matches("src/test/InvoiceTest.java")).isTrue();
+        assertThat(middle.matches("src/a/b/test/c/InvoiceTest.java")).isTrue();
+        assertThat(middle.matches("src/a/b/main/c/InvoiceTest.java")).isFalse();
+    }
+
+    @Test
+    void shouldCollapseRepeatedWildcards() {
+        assertThat(new GlobPattern("**/**/**/pom.xml")).hasToString("**/pom.xml");
+        assertThat(new GlobPattern("**/**/**/pom.xml").matches("a/b/pom.xml")).isTrue();
+        assertThat(new GlobPattern("a**b").matches("axxb")).isTrue();
+        assertThat(new GlobPattern("a**b").matches("ax/xb")).isFalse();
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldNotBacktrackOnPathologicalPatterns() {
+        var pattern = new GlobPattern("**a**a**a**a**a**a**a**a**a**a**a**a**b");
+        var path = "a".repeat(10_000);
+
+        assertThat(pattern.matches(path)).isFalse();
+
+        var segments = new GlobPattern("**/a/**/a/**/a/**/a/**/a/**/a/**/b");
+        var deep = String.join("/", "a".repeat(2_000).split(""));
+
+        assertThat(segments.matches(deep)).isFalse();
+    }
+}
@@ -0,0 +1,109 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.TreeStringBuilder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link IndexedRepositoryStatistics}.
+ *
+ * @author Ullrich Hafner
+ */
+class IndexedRepositoryStatisticsTest {
+    private static final int NUMBER_OF_FILES = 100;
+
+    @Test
+    void shouldDecodeSingleFiles(@TempDir final Path folder) {
+        var statistics = createStatistics();
+        var file = folder.resolve("statistics.bin");
+        new RepositoryStatisticsXmlStream().write(file, statistics);
+
+        var indexed = IndexedRepositoryStatistics.open(file);
+
+        assertThat(indexed).isPresent();
+        var index = indexed.get();
+        assertThat(index.size()).isEqualTo(NUMBER_OF_FILES);
+        assertThat(index.getLatestCommitId()).isEqualTo("latest");
+        assertThat(index.getTotalLinesOfCode()).isEqualTo(statistics.getTotalLinesOfCode());
+        assertThat(index.getTotalChurn()).isEqualTo(statistics.getTotalChurn());
+        assertThat(index.getLatestStatistics()).isEqualTo(statistics.getLatestStatistics());
+
+        for (FileStatistics expected : statistics.getFileStatistics()) {
+            assertThat(index.contains(expected.getFileName())).isTrue();
+            assertThat(index.find(expected.getFileName())).contains(expected);
+        }
+        assertThat(index.contains("/unknown.txt")).isFalse();
+        assertThat(index.find("/unknown.txt")).isEmpty();
+        assertThat(index.find("/")).isEmpty();
+        assertThat(index.find("/z")).isEmpty();
+
+        var hash = String.valueOf("/file-42.txt".hashCode());
+        assertThat(index.findFirst(name -> String.valueOf(name.hashCode()).equals(hash)))
+                .contains(statistics.get("/file-42.txt"));
+    }
+
+    @Test
+    void shouldFindFilesByPathId(@TempDir final Path folder) {
+        var statistics = createStatistics();
+        var file = folder.resolve("statistics.bin");
+        new RepositoryStatisticsXmlStream().write(file, statistics);
+
+        var index = IndexedRepositoryStatistics.open(file).orElseThrow();
+        for (FileStatistics expected : statistics.getFileStatistics()) {
+            long pathId = PathId.of(expected.getFileName());
+            assertThat(index.findByPathId(pathId)).contains(expected);
+            assertThat(statistics.findByPathId(pathId)).containsSame(expected);
+        }
+        assertThat(index.findByPathId(PathId.of("/unknown.txt"))).isEmpty();
+        assertThat(statistics.findByPathId(PathId.of("/unknown.txt"))).isEmpty();
+    }
+
+    @Test
+    void shouldNotInternStringsOfDecodedFiles(@TempDir final Path folder) {
+        var file = folder.resolve("statistics.bin");
+        new RepositoryStatisticsXmlStream().write(file, createStatistics());
+
+        var decoded = IndexedRepositoryStatistics.open(file).orElseThrow().find("/file-3.txt").orElseThrow();
+
+        assertThat(decoded.getCommits()).hasSize(2).allSatisfy(commit -> {
+            assertThat(commit.getId()).isNotSameAs(commit.getId().intern());
+            assertThat(commit.getAuthor()).isNotSameAs(commit.getAuthor().intern());
+        });
+        var decodedAgain = IndexedRepositoryStatistics.open(file).orElseThrow().find("/file-3.txt").orElseThrow();
+        assertThat(new CommitDiffItem(decodedAgain.getCommits().get(0)).getId())
+                .as("Copies share the strings of the original")
+                .isSameAs(decodedAgain.getCommits().get(0).getId());
+    }
+
+    @Test
+    void shouldNotOpenFilesWithoutIndex(@TempDir final Path folder) {
+        var xml = folder.resolve("statistics.xml");
+        new RepositoryStatisticsXmlStream().write(xml, createStatistics());
+
+        assertThat(IndexedRepositoryStatistics.open(xml)).isEmpty();
+        assertThat(IndexedRepositoryStatistics.open(folder.resolve("missing.bin"))).isEmpty();
+    }
+
+    private RepositoryStatistics createStatistics() {
+        var builder = new TreeStringBuilder();
+        List<CommitDiffItem> commits = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_FILES; i++) {
+            var path = builder.intern("/file-" + i + ".txt");
+            commits.add(new CommitDiffItem("c" + i, "author-" + i % 7, 1000 + i).addLines(i + 1).setNewPath(path));
+            if (i % 3 == 0) {
+                commits.add(new CommitDiffItem("d" + i, "author-" + i % 5, 2000 - i)
+                        .addLines(2).deleteLines(i % 4).setNewPath(path));
+            }
+        }
+        var statistics = new RepositoryStatistics("latest");
+        statistics.addAll(commits);
+        return statistics;
+    }
+}
@@ -0,0 +1,41 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link LargestTriangleThreeBuckets}.
+ *
+ * @author Ullrich Hafner
+ */
+class LargestTriangleThreeBucketsTest {
+    @Test
+    void shouldSelectAllPointsIfBelowThreshold() {
+        assertThat(LargestTriangleThreeBuckets.select(new double[0], new double[0], 10)).isEmpty();
+        assertThat(LargestTriangleThreeBuckets.select(new double[] {1, 2, 3}, new double[] {1, 2, 3}, 10))
+                .containsExactly(0, 1, 2);
+        assertThat(LargestTriangleThreeBuckets.select(new double[] {1, 2, 3}, new double[] {1, 2, 3}, 2))
+                .containsExactly(0, 2);
+    }
+
+    @Test
+    void shouldPreservePeaks() {
+        int size = 1000;
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i;
+            y[i] = 1;
+        }
+        y[333] = 500;
+        y[777] = -500;
+
+        var selected = LargestTriangleThreeBuckets.select(x, y, 50);
+
+        assertThat(selected).hasSize(50).startsWith(0).endsWith(size - 1).contains(333, 777);
+        for (int i = 1; i < selected.length; i++) {
+            assertThat(selected[i]).isGreaterThan(selected[i - 1]);
+        }
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Test;
 import edu.hm.hafner.util.FilteredLog;
 
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import hudson.model.Run;
 
@@ -126,6 +129,58 @@ class MinerServiceTest {
                         "-> 1 affected files processed");
     }
 
+    @Test
+    void shouldSummarizeManyMissingFiles() {
+        var service = new MinerService();
+
+        Run<?, ?> build = configureBuildWithSingleMiningResult();
+
+        Set<String> files = new LinkedHashSet<>();
+        for (int i = 0; i < 100; i++) {
+            files.add("missing-" + i);
+        }
+        files.add(EXISTING_FILE);
+
+        var logger = createLogger();
+        var statistics = service.queryStatisticsFor(NO_SCM_FILTER, build, files, logger);
+
+        assertThat(statistics).hasFiles(EXISTING_FILE);
+        assertThat(logger.getErrorMessages())
+                .hasSize(MinerService.MAX_REPORTED_MISSING_FILES + 1)
+                .contains("No statistics found for file 'missing-0'", "No statistics found for 90 more files");
+    }
+
+    @Test
+    void shouldSelectFilesOfMultipleRepositories() {
+        var first = createAction("first");
+        appendResult(first);
+        var second = createAction("second");
+        appendResult(second);
+        var other = createAction("other");
+        appendResult(other);
+
+        Run<?, ?> build = mock(Run.class);
+        when(build.getActions(ForensicsBuildAction.class)).thenAnswer(i -> Arrays.asList(first, second, other));
+
+        var service = new MinerService();
+        var logger = createLogger();
+        var selections = service.queryStatisticsFor(List.of("first", "second"), build,
+                newLinkedHashSet(EXISTING_FILE, "not-existing"), logger);
+
+        assertThat(selections).containsOnlyKeys("first", "second");
+        var selection = selections.get("first");
+        assertThat(selection.getScmKey()).isEqualTo("first");
+        assertThat(selection.getFiles()).containsExactly(EXISTING_FILE);
+        assertThat(selection.getMissingFiles()).containsExactly("not-existing");
+        assertThat(selection.find(EXISTING_FILE)).containsSame(first.getResult().get(EXISTING_FILE));
+        assertThat(selection.getTotalLinesOfCode()).isZero();
+        assertThat(selection.toRepositoryStatistics()).hasFiles(EXISTING_FILE);
+        assertThat(logger.getInfoMessages()).contains("-> 1 files without statistics");
+
+        assertThat(service.queryStatisticsFor(List.of(), build, newLinkedHashSet(EXISTING_FILE), logger))
+                .containsOnlyKeys("first", "second", "other");
+    }
+
     private Run<?, ?> configureBuildWithSingleMiningResult() {
         var action = createAction("scm");
 
@@ -0,0 +1,166 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.TreeString;
+import edu.hm.hafner.util.TreeStringBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import hudson.FilePath;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link MiningCheckpoint}.
+ *
+ * @author Ullrich Hafner
+ */
+class MiningCheckpointTest {
+    private static final String SCM = "git https://github.com/jenkinsci/forensics-api-plugin.git";
+    private static final TreeStringBuilder BUILDER = new TreeStringBuilder();
+    private static final TreeString FIRST = BUILDER.intern("first.txt");
+    private static final TreeString SECOND = BUILDER.intern("second.txt");
+
+    @Test
+    void shouldRestoreSavedCheckpoint(@TempDir final File jobRootDir) throws IOException, InterruptedException {
+        var checkpoint = MiningCheckpoint.create(jobRootDir, SCM, 1, "base");
+        var logger = new FilteredLog("Errors");
+        assertThat(checkpoint.isEnabled()).isTrue();
+        assertThat(checkpoint.restore(logger)).isEmpty();
+
+        var partial = new RepositoryStatistics("base");
+        partial.addAll(List.of(new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(FIRST)));
+        checkpoint.save(partial, "1");
+
+        var restored = MiningCheckpoint.create(jobRootDir, SCM, 1, "base").restore(logger);
+        assertThat(restored).isPresent();
+        assertThat(restored.get().getLatestCommitId()).isEqualTo("1");
+        assertThat(restored.get().getMapping()).isEqualTo(partial.getMapping());
+
+        assertThat(MiningCheckpoint.create(jobRootDir, "other SCM", 1, "base").restore(logger)).isEmpty();
+        assertThat(logger.getErrorMessages()).isEmpty();
+
+        checkpoint.delete(logger);
+        assertThat(checkpoint.restore(logger)).isEmpty();
+        assertThat(jobRootDir.list()).isEmpty();
+    }
+
+    @Test
+    void shouldDeleteOutdatedCheckpoints(@TempDir final File jobRootDir) throws IOException, InterruptedException {
+        var logger = new FilteredLog("Errors");
+        var outdated = MiningCheckpoint.create(jobRootDir, SCM, 1, "base");
+        var partial = new RepositoryStatistics("base");
+        partial.addAll(List.of(new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(FIRST)));
+        outdated.save(partial, "1");
+
+        assertThat(MiningCheckpoint.create(jobRootDir, "other SCM", 2, "other").restore(logger)).isEmpty();
+        assertThat(jobRootDir.list()).as("Checkpoint of other SCM must be kept").hasSize(1);
+
+        assertThat(MiningCheckpoint.create(jobRootDir, SCM, 2, "other").restore(logger)).isEmpty();
+        assertThat(jobRootDir.list()).isEmpty();
+        assertThat(logger.getInfoMessages()).anySatisfy(
+                message -> assertThat(message).startsWith("-> deleting outdated mining checkpoint"));
+        assertThat(logger.getErrorMessages()).isEmpty();
+    }
+
+    @Test
+    void shouldDeleteCheckpointsOfBuild(@TempDir final File jobRootDir) throws IOException, InterruptedException {
+        var partial = new RepositoryStatistics("base");
+        partial.addAll(List.of(new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(FIRST)));
+        MiningCheckpoint.create(jobRootDir, SCM, 1, "base").save(partial, "1");
+        MiningCheckpoint.create(jobRootDir, "other SCM", 1, "base").save(partial, "1");
+        MiningCheckpoint.create(jobRootDir, SCM, 11, "base").save(partial, "1");
+        assertThat(jobRootDir.list()).hasSize(3);
+
+        MiningCheckpoint.deleteCheckpoints(jobRootDir, 1);
+
+        assertThat(jobRootDir.list()).hasSize(1).allSatisfy(name -> assertThat(name).endsWith("-11.bin"));
+    }
+
+    @Test
+    void shouldKeepCheckpointsOfConcurrentBuilds(@TempDir final File jobRootDir)
+            throws IOException, InterruptedException {
+        var logger = new FilteredLog("Errors");
+        var first = MiningCheckpoint.create(jobRootDir, SCM, 1, "base");
+        var second = MiningCheckpoint.create(jobRootDir, SCM, 2, "base");
+
+        var firstPartial = new RepositoryStatistics("base");
+        firstPartial.addAll(List.of(new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(FIRST)));
+        first.save(firstPartial, "1");
+        var secondPartial = new RepositoryStatistics("base");
+        secondPartial.addAll(List.of(new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(FIRST),
+                new CommitDiffItem("2", "two", 20).addLines(5).setNewPath(SECOND)));
+        second.save(secondPartial, "2");
+
+        assertThat(second.restore(logger)).hasValueSatisfying(
+                restored -> assertThat(restored.getLatestCommitId()).isEqualTo("2"));
+        second.delete(logger);
+        assertThat(first.restore(logger)).as("Checkpoint of concurrent build must be kept").hasValueSatisfying(
+                restored -> assertThat(restored.getLatestCommitId()).isEqualTo("1"));
+        assertThat(jobRootDir.list()).as("No temporary files are left").hasSize(1);
+
+        var resuming = MiningCheckpoint.create(jobRootDir, SCM, 3, "base");
+        assertThat(resuming.restore(logger)).as("Resume from checkpoint of interrupted build").hasValueSatisfying(
+                restored -> assertThat(restored.getMapping()).isEqualTo(firstPartial.getMapping()));
+        resuming.delete(logger);
+        assertThat(jobRootDir.list()).isEmpty();
+        assertThat(logger.getErrorMessages()).isEmpty();
+    }
+
+    @Test
+    void shouldSaveCheckpointsInPipeline(@TempDir final File jobRootDir) throws InterruptedException {
+        var checkpoint = new MiningCheckpoint(new FilePath(jobRootDir).child("checkpoint.bin"), SCM, "", 0);
+        var logger = new FilteredLog("Errors");
+
+        try (var pipeline = new CommitIngestionPipeline(new RepositoryStatistics(), logger, 1, checkpoint)) {
+            pipeline.accept(List.of(new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(FIRST)));
+            pipeline.accept(List.of(new CommitDiffItem("2", "two", 20).addLines(5).setNewPath(SECOND)));
+            pipeline.finish();
+        }
+
+        var restored = checkpoint.restore(logger);
+        assertThat(restored).isPresent();
+        assertThat(restored.get().getLatestCommitId()).isEqualTo("2");
+        assertThat(restored.get().getFiles()).containsExactlyInAnyOrder("first.txt", "second.txt");
+        assertThat(logger.getInfoMessages())
+                .contains("-> saved checkpoint at commit 1", "-> saved checkpoint at commit 2");
+    }
+
+    @Test
+    void shouldSaveCheckpointsOnlyAtCommitBoundaries(@TempDir final File jobRootDir) throws InterruptedException {
+        var checkpoint = new MiningCheckpoint(new FilePath(jobRootDir).child("checkpoint.bin"), SCM, "", 0);
+        var logger = new FilteredLog("Errors");
+
+        try (var pipeline = new CommitIngestionPipeline(new RepositoryStatistics(), logger, 1, checkpoint)) {
+            pipeline.accept(List.of(new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(FIRST),
+                    new CommitDiffItem("2", "two", 20).addLines(5).setNewPath(FIRST)));
+            pipeline.accept(List.of(new CommitDiffItem("2", "two", 20).addLines(5).setNewPath(SECOND)));
+            pipeline.finish();
+        }
+
+        assertThat(logger.getInfoMessages()).filteredOn(message -> message.contains("checkpoint"))
+                .as("Commit 2 is split across two batches").containsExactly(
+                        "-> saved checkpoint at commit 1", "-> saved checkpoint at commit 2");
+        assertThat(checkpoint.restore(logger)).hasValueSatisfying(
+                restored -> assertThat(restored.getFiles()).containsExactlyInAnyOrder("first.txt", "second.txt"));
+    }
+
+    @Test
+    void shouldIgnoreDisabledCheckpoint() throws IOException, InterruptedException {
+        var checkpoint = MiningCheckpoint.disabled();
+        var logger = new FilteredLog("Errors");
+
+        checkpoint.save(new RepositoryStatistics(), "1");
+        checkpoint.saveIfDue(new RepositoryStatistics(), "1", logger);
+        checkpoint.delete(logger);
+
+        assertThat(checkpoint.isEnabled()).isFalse();
+        assertThat(checkpoint.restore(logger)).isEmpty();
+        assertThat(logger.getInfoMessages()).isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.TreeStringBuilder;
+
+import java.util.List;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link PathFilter}.
+ *
+ * @author Ullrich Hafner
+ */
+class PathFilterTest {
+    private static final TreeStringBuilder BUILDER = new TreeStringBuilder();
+
+    @Test
+    void shouldAcceptAllPathsWithoutPatterns() {
+        var filter = PathFilter.of("", " , \n");
+
+        assertThat(filter).isSameAs(PathFilter.all());
+        assertThat(filter.isAcceptingAll()).isTrue();
+        assertThat(filter.isIncluded("src/main/java/Main.java")).isTrue();
+        assertThat(filter.isIncluded(CommitDiffItem.NO_FILE_NAME)).isFalse();
+    }
+
+    @Test
+    void shouldMatchGlobPatterns() {
+        var filter = PathFilter.of("src/**, pom.xml", "**/*.png\nsrc/generated/**, src/?.txt");
+
+        assertThat(filter.isAcceptingAll()).isFalse();
+        assertThat(filter.isIncluded("src/main/java/Main.java")).isTrue();
+        assertThat(filter.isIncluded("/src/main/java/Main.java")).isTrue();
+        assertThat(filter.isIncluded("pom.xml")).isTrue();
+        assertThat(filter.isIncluded("module/pom.xml")).isFalse();
+        assertThat(filter.isIncluded("pomXxml")).isFalse();
+        assertThat(filter.isIncluded("vendor/lib.js")).isFalse();
+        assertThat(filter.isIncluded("src/main/resources/logo.png")).isFalse();
+        assertThat(filter.isIncluded("src/logo.png")).isFalse();
+        assertThat(filter.isIncluded("src/generated/Parser.java")).isFalse();
+        assertThat(filter.isIncluded("src/a.txt")).isFalse();
+        assertThat(filter.isIncluded("src/ab.txt")).isTrue();
+    }
+
+    @Test
+    void shouldFilterCommitsInPipeline() throws InterruptedException {
+        var filter = PathFilter.of("", "vendor/**");
+        var noFile = BUILDER.intern(CommitDiffItem.NO_FILE_NAME);
+        var source = BUILDER.intern("src/Main.java");
+        var vendored = BUILDER.intern("vendor/lib.js");
+        var moved = BUILDER.intern("vendor/Main.java");
+
+        var statistics = new RepositoryStatistics();
+        try (var pipeline = new CommitIngestionPipeline(statistics, new FilteredLog("Errors"))
+                .withPathFilter(filter)) {
+            pipeline.accept(List.of(
+                    new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(source),
+                    new CommitDiffItem("1", "one", 10).addLines(100).setNewPath(vendored)));
+            pipeline.accept(List.of(
+                    new CommitDiffItem("2", "two", 20).deleteLines(100).setOldPath(vendored).setNewPath(noFile)));
+            pipeline.finish();
+        }
+        assertThat(statistics.getFiles()).containsExactly("src/Main.java");
+        assertThat(statistics).hasTotalLinesOfCode(10);
+
+        statistics.addAll(List.of(new CommitDiffItem("3", "three", 30).setOldPath(source).setNewPath(moved)));
+        assertThat(statistics.getFiles()).containsExactly("vendor/Main.java");
+        assertThat(statistics.retainFiles(filter)).isOne();
+        assertThat(statistics.isEmpty()).isTrue();
+        assertThat(statistics).hasTotalLinesOfCode(0);
+    }
+}
@@ -0,0 +1,71 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link PathSearchIndex}.
+ *
+ * @author Ullrich Hafner
+ */
+class PathSearchIndexTest {
+    private static final String INVOICE = "services/billing/src/Invoice.java";
+    private static final String INVOICE_TEST = "services/billing/test/InvoiceTest.java";
+    private static final String BILLING_README = "services/billing/README.md";
+    private static final String PARCEL = "services/shipping/src/Parcel.java";
+    private static final String POM = "pom.xml";
+
+    private final PathSearchIndex index = new PathSearchIndex(
+            List.of(PARCEL, INVOICE_TEST, POM, BILLING_README, INVOICE));
+
+    @Test
+    void shouldFindSubstringsIgnoringCase() {
+        assertThat(index.findSubstring("invoice")).containsExactly(INVOICE, INVOICE_TEST);
+        assertThat(index.findSubstring(" BILLING/")).containsExactly(BILLING_README, INVOICE, INVOICE_TEST);
+        assertThat(index.findSubstring(".java")).containsExactly(INVOICE, INVOICE_TEST, PARCEL);
+        assertThat(index.findSubstring("po")).containsExactly(POM);
+        assertThat(index.findSubstring("x")).containsExactly(POM);
+        assertThat(index.findSubstring("billing/test/Invoice.java")).containsExactly(INVOICE_TEST);
+        assertThat(index.findSubstring("unknown")).isEmpty();
+        assertThat(index.findSubstring("")).isEmpty();
+    }
+
+    @Test
+    void shouldMarkPositionsOfSubstrings() {
+        assertThat(index.size()).isEqualTo(5);
+
+        var marked = index.markSubstring("invoice");
+        assertThat(marked.cardinality()).isEqualTo(2);
+        assertThat(marked.stream().mapToObj(index::getPath)).containsExactly(INVOICE, INVOICE_TEST);
+        assertThat(index.markSubstring("unknown")).isEmpty();
+    }
+
+    @Test
+    void shouldVerifyCandidatesOfTrigrams() {
+        var trigrams = new PathSearchIndex(List.of("abcd-bcde"));
+
+        assertThat(trigrams.findSubstring("abcde")).as("All trigrams match, but not the substring").isEmpty();
+        assertThat(trigrams.findSubstring("bcde")).containsExactly("abcd-bcde");
+    }
+
+    @Test
+    void shouldRankMatchesInFileNameFirst() {
+        assertThat(index.search("billing", 10))
+                .startsWith(BILLING_README, INVOICE, INVOICE_TEST);
+        assertThat(index.search("invoice", 1)).containsExactly(INVOICE);
+        assertThat(index.search("src", 10)).startsWith(INVOICE, PARCEL);
+        assertThat(index.search("readme", 10)).startsWith(BILLING_README);
+    }
+
+    @Test
+    void shouldFindFuzzyMatches() {
+        assertThat(index.search("invocie", 10)).as("Typo in the search term").startsWith(INVOICE, INVOICE_TEST);
+        assertThat(index.search("parcel.jav", 10)).startsWith(PARCEL);
+        assertThat(index.search("qqqqqq", 10)).isEmpty();
+        assertThat(index.search("", 10)).isEmpty();
+        assertThat(index.search("invoice", 0)).isEmpty();
+    }
+}
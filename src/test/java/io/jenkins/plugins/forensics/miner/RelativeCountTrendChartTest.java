@@ -21,9 +21,9 @@ import static org.mockito.Mockito.*;
 class RelativeCountTrendChartTest {
     @Test
     void shouldCreate() {
-        Iterable<BuildResult<CommitStatisticsBuildAction>> buildResult = new ArrayList<>();
+        Iterable<BuildResult<TrendEntry>> buildResult = new ArrayList<>();
         var chartModelConfiguration = createChartModelConfiguration();
-        SeriesBuilder<CommitStatisticsBuildAction> seriesBuilder = createSeriesBuilder();
+        SeriesBuilder<TrendEntry> seriesBuilder = createSeriesBuilder();
 
         var relativeCountTrendChart = new RelativeCountTrendChart();
         var linesChartModel = relativeCountTrendChart.create(buildResult, chartModelConfiguration, seriesBuilder);
@@ -33,9 +33,9 @@ class RelativeCountTrendChartTest {
 
     @Test
     void shouldCreateWithData() {
-        Iterable<BuildResult<CommitStatisticsBuildAction>> buildResult = createBuildResultsWithData();
+        Iterable<BuildResult<TrendEntry>> buildResult = createBuildResultsWithData();
         var chartModelConfiguration = createChartModelConfiguration();
-        SeriesBuilder<CommitStatisticsBuildAction> seriesBuilder = createSeriesBuilder();
+        SeriesBuilder<TrendEntry> seriesBuilder = createSeriesBuilder();
 
         var relativeCountTrendChart = new RelativeCountTrendChart();
         var linesChartModel = relativeCountTrendChart.create(buildResult, chartModelConfiguration, seriesBuilder);
@@ -44,8 +44,8 @@ class RelativeCountTrendChartTest {
         assertThat(linesChartModel.getSeries()).allSatisfy(series -> assertThat(series.getData()).hasSize(4));
     }
 
-    private Iterable<BuildResult<CommitStatisticsBuildAction>> createBuildResultsWithData() {
-        List<BuildResult<CommitStatisticsBuildAction>> buildResults = new ArrayList<>();
+    private Iterable<BuildResult<TrendEntry>> createBuildResultsWithData() {
+        List<BuildResult<TrendEntry>> buildResults = new ArrayList<>();
         buildResults.add(createResult(1, 2, 3));
         buildResults.add(createResult(4, 5, 6));
         buildResults.add(createResult(7, 8, 9));
@@ -57,19 +57,18 @@ class RelativeCountTrendChartTest {
         return new ChartModelConfiguration();
     }
 
-    private SeriesBuilder<CommitStatisticsBuildAction> createSeriesBuilder() {
-        return new RelativeCountCommitStatisticsSeriesBuilder();
+    private SeriesBuilder<TrendEntry> createSeriesBuilder() {
+        return TrendEntrySeriesBuilder.relativeCount();
     }
 
-    private BuildResult<CommitStatisticsBuildAction> createResult(final int buildNumber, final int added, final int deleted) {
-        CommitStatisticsBuildAction action = mock(CommitStatisticsBuildAction.class);
+    private BuildResult<TrendEntry> createResult(final int buildNumber, final int added, final int deleted) {
         CommitStatistics commitStatistics = mock(CommitStatistics.class);
         when(commitStatistics.getAddedLines()).thenReturn(added);
         when(commitStatistics.getDeletedLines()).thenReturn(deleted);
 
-        when(action.getCommitStatistics()).thenReturn(commitStatistics);
+        var entry = new TrendEntry(buildNumber, 0, "scm", 0, 0, 0, commitStatistics);
 
         var build = new Build(buildNumber);
-        return new BuildResult<>(build, action);
+        return new BuildResult<>(build, entry);
     }
 }
@@ -0,0 +1,88 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import hudson.model.Run;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link RepositoryMinerStep}.
+ *
+ * @author Ullrich Hafner
+ */
+class RepositoryMinerStepTest {
+    private static final String FIRST_SCM = "git https://github.com/jenkinsci/forensics-api-plugin.git";
+    private static final String SECOND_SCM = "git https://github.com/jenkinsci/git-forensics-plugin.git";
+
+    @Test
+    void shouldFindPreviousActionOfSameRepository() {
+        var first = createAction(FIRST_SCM);
+        var second = createAction(SECOND_SCM);
+        var run = createRun(createBuild(first, second));
+
+        assertThat(RepositoryMinerStep.findPreviousAction(FIRST_SCM, run)).containsSame(first);
+        assertThat(RepositoryMinerStep.findPreviousAction(SECOND_SCM, run)).containsSame(second);
+        assertThat(RepositoryMinerStep.findPreviousAction("", run))
+                .as("The key must match exactly, not as substring").isEmpty();
+        assertThat(RepositoryMinerStep.findPreviousAction("git", run)).isEmpty();
+    }
+
+    @Test
+    void shouldSkipBuildsWithoutResults() {
+        var first = createAction(FIRST_SCM);
+        Run<?, ?> withResults = createBuild(first);
+        Run<?, ?> withoutResults = createBuild();
+        doReturn(withResults).when(withoutResults).getPreviousBuild();
+        var run = createRun(withoutResults);
+
+        assertThat(RepositoryMinerStep.findPreviousAction(FIRST_SCM, run)).containsSame(first);
+        assertThat(RepositoryMinerStep.findPreviousAction(SECOND_SCM, run)).isEmpty();
+        assertThat(RepositoryMinerStep.findPreviousAction(FIRST_SCM, mock(Run.class))).isEmpty();
+    }
+
+    @Test
+    void shouldBackfillHistoryOfSameRepository() {
+        var first = createAction(FIRST_SCM);
+        when(first.isPartial()).thenReturn(true);
+        when(first.getHistoryStartCommitId()).thenReturn("first-start");
+        var second = createAction(SECOND_SCM);
+        when(second.isPartial()).thenReturn(true);
+        when(second.getHistoryStartCommitId()).thenReturn("second-start");
+        var complete = createAction("svn https://svn.example.com/repository");
+        var run = createRun(createBuild(first, second, complete));
+
+        assertThat(RepositoryMinerStep.findBackfillScope(FIRST_SCM, run, 100)).hasValueSatisfying(scope -> {
+            assertThat(scope.isBackfill()).isTrue();
+            assertThat(scope.getStartCommitId()).isEqualTo("first-start");
+            assertThat(scope.getMaximumCommits()).isEqualTo(100);
+        });
+        assertThat(RepositoryMinerStep.findBackfillScope(SECOND_SCM, run, 100)).hasValueSatisfying(
+                scope -> assertThat(scope.getStartCommitId()).isEqualTo("second-start"));
+        assertThat(RepositoryMinerStep.findBackfillScope("svn https://svn.example.com/repository", run, 100))
+                .as("History is complete").isEmpty();
+        assertThat(RepositoryMinerStep.findBackfillScope("git https://github.com/jenkinsci/other.git", run, 100))
+                .as("Repository has not been mined before").isEmpty();
+    }
+
+    private Run<?, ?> createRun(final Run<?, ?> previous) {
+        Run<?, ?> run = mock(Run.class);
+        doReturn(previous).when(run).getPreviousBuild();
+        return run;
+    }
+
+    private Run<?, ?> createBuild(final ForensicsBuildAction... actions) {
+        Run<?, ?> build = mock(Run.class);
+        when(build.getActions(ForensicsBuildAction.class)).thenReturn(List.of(actions));
+        return build;
+    }
+
+    private ForensicsBuildAction createAction(final String scmKey) {
+        var action = mock(ForensicsBuildAction.class);
+        when(action.getScmKey()).thenReturn(scmKey);
+        return action;
+    }
+}
@@ -0,0 +1,249 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.TreeStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link RepositoryStatisticsCache}.
+ *
+ * @author Ullrich Hafner
+ */
+class RepositoryStatisticsCacheTest {
+    private static final String JOB = "job";
+    private static final String SCM = "scm";
+
+    @Test
+    void shouldLoadStatisticsOnlyOnce() {
+        var cache = new RepositoryStatisticsCache(100);
+
+        var action = createAction(JOB, 1);
+        var loaded = createStatistics(3);
+        var loads = new AtomicInteger();
+
+        assertThat(cache.get(action, () -> count(loads, loaded))).isSameAs(loaded);
+        assertThat(cache.get(action, () -> count(loads, loaded))).isSameAs(loaded);
+        assertThat(cache.get(createAction(JOB, 1), () -> count(loads, loaded))).isSameAs(loaded);
+        assertThat(loads).hasValue(1);
+
+        var statistics = cache.getStatistics();
+        assertThat(statistics.getSize()).isOne();
+        assertThat(statistics.getWeight()).isEqualTo(RepositoryStatisticsCache.weigh(loaded));
+        assertThat(statistics.getHitCount()).isEqualTo(2);
+        assertThat(statistics.getMissCount()).isEqualTo(1);
+        assertThat(statistics.getLoadCount()).isEqualTo(1);
+        assertThat(statistics.getHitRate()).isCloseTo(2 / 3.0, within(0.01));
+    }
+
+    @Test
+    void shouldLoadStatisticsOnlyOnceForConcurrentRequests() throws InterruptedException, ExecutionException {
+        var cache = new RepositoryStatisticsCache(100);
+
+        var action = createAction(JOB, 1);
+        var loaded = createStatistics(3);
+        var loads = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var first = executor.submit(() -> cache.get(action, () -> {
+                started.countDown();
+                await(release);
+                return count(loads, loaded);
+            }));
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            var second = executor.submit(() -> cache.get(action, () -> count(loads, loaded)));
+
+            release.countDown();
+
+            assertThat(first.get()).isSameAs(loaded);
+            assertThat(second.get()).isSameAs(loaded);
+            assertThat(loads).hasValue(1);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldUseMinedStatisticsOfPreviousBuild() {
+        var cache = new RepositoryStatisticsCache(100);
+
+        var previous = createAction(JOB, 1);
+        var mined = createStatistics(3);
+        cache.put(previous, mined);
+
+        assertThat(cache.get(createAction(JOB, 1), this::fail)).isSameAs(mined);
+        assertThat(cache.getStatistics().getLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedStatistics() {
+        var first = createAction(JOB, 1);
+        var second = createAction(JOB, 2);
+        var third = createAction("other", 1);
+
+        var statistics = createStatistics(3);
+        long weight = RepositoryStatisticsCache.weigh(statistics);
+        var cache = new RepositoryStatisticsCache(2 * weight);
+
+        cache.put(first, statistics);
+        cache.put(second, statistics);
+        assertThat(cache.get(first, this::fail)).isSameAs(statistics);
+
+        cache.put(third, statistics);
+
+        var usage = cache.getStatistics();
+        assertThat(usage.getSize()).isEqualTo(2);
+        assertThat(usage.getWeight()).isEqualTo(2 * weight);
+        assertThat(usage.getEvictionCount()).isOne();
+
+        assertThat(cache.get(first, this::fail)).isSameAs(statistics);
+        assertThat(cache.get(third, this::fail)).isSameAs(statistics);
+
+        assertThat(cache.get(second, this::fail)).as("Evicted statistics are softly reachable")
+                .isSameAs(statistics);
+        assertThat(cache.getStatistics().getSize()).isEqualTo(2);
+
+        cache.clearReclaimable();
+        var reloaded = createStatistics(3);
+        assertThat(cache.get(second, () -> reloaded)).isSameAs(reloaded);
+    }
+
+    @Test
+    void shouldHoldStatisticsThatExceedTheBudgetSoftly() {
+        var cache = new RepositoryStatisticsCache(5);
+
+        var action = createAction(JOB, 1);
+        var loads = new AtomicInteger();
+        var large = createStatistics(10);
+
+        assertThat(cache.get(action, () -> count(loads, large))).isSameAs(large);
+        assertThat(cache.get(action, () -> count(loads, large))).isSameAs(large);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStatistics().getSize()).isZero();
+        assertThat(cache.getStatistics().getWeight()).isZero();
+
+        cache.clearReclaimable();
+        assertThat(cache.get(action, () -> count(loads, large))).isSameAs(large);
+        assertThat(loads).hasValue(2);
+
+        cache.invalidate(JOB);
+        assertThat(cache.get(action, () -> count(loads, large))).isSameAs(large);
+        assertThat(loads).as("Invalidated statistics are loaded again").hasValue(3);
+    }
+
+    @Test
+    void shouldCountIndicesInWeight() {
+        var statistics = createStatistics(3);
+        long filesWeight = RepositoryStatisticsCache.weigh(statistics);
+        var cache = new RepositoryStatisticsCache(1000);
+        var action = createAction(JOB, 1);
+        cache.put(action, statistics);
+        assertThat(cache.getStatistics().getWeight()).isEqualTo(filesWeight);
+
+        statistics.getSortedFiles(FileStatisticsOrder.CHURN);
+        statistics.searchPaths("file", 10);
+        statistics.getDirectoryTree();
+        assertThat(statistics.getIndexWeight()).isPositive();
+
+        assertThat(cache.get(action, this::fail)).isSameAs(statistics);
+        assertThat(cache.getStatistics().getWeight())
+                .isEqualTo(filesWeight + statistics.getIndexWeight())
+                .isEqualTo(RepositoryStatisticsCache.weigh(statistics));
+    }
+
+    @Test
+    void shouldNotCacheFailedLoads() {
+        var cache = new RepositoryStatisticsCache(100);
+        var action = createAction(JOB, 1);
+
+        assertThatIllegalStateException().isThrownBy(() -> cache.get(action, this::fail));
+        assertThat(cache.getStatistics().getLoadFailureCount()).isOne();
+
+        var loaded = createStatistics(1);
+        assertThat(cache.get(action, () -> loaded)).isSameAs(loaded);
+    }
+
+    @Test
+    void shouldInvalidateDeletedBuildsAndJobs() {
+        var cache = new RepositoryStatisticsCache(100);
+
+        var first = createAction(JOB, 1);
+        var second = createAction(JOB, 2);
+        cache.put(first, createStatistics(1));
+        cache.put(second, createStatistics(1));
+        cache.put(createAction("other", 1), createStatistics(1));
+        assertThat(cache.getStatistics().getSize()).isEqualTo(3);
+
+        cache.invalidate(first.getOwner());
+        assertThat(cache.getStatistics().getSize()).isEqualTo(2);
+
+        cache.invalidate(JOB);
+        assertThat(cache.getStatistics().getSize()).isOne();
+
+        cache.clear();
+        assertThat(cache.getStatistics().getSize()).isZero();
+        assertThat(cache.getStatistics().getWeight()).isZero();
+    }
+
+    private RepositoryStatistics count(final AtomicInteger loads, final RepositoryStatistics statistics) {
+        loads.incrementAndGet();
+        return statistics;
+    }
+
+    private void await(final CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private RepositoryStatistics fail() {
+        throw new IllegalStateException("Statistics should not be loaded");
+    }
+
+    private RepositoryStatistics createStatistics(final int numberOfFiles) {
+        List<CommitDiffItem> commits = new ArrayList<>();
+        for (int i = 0; i < numberOfFiles; i++) {
+            commits.add(new CommitDiffItem(String.valueOf(i), "author", i).addLines(1)
+                    .setNewPath(new TreeStringBuilder().intern("file-" + i)));
+        }
+        var statistics = new RepositoryStatistics();
+        statistics.addAll(commits);
+        return statistics;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ForensicsBuildAction createAction(final String jobName, final int buildNumber) {
+        Job job = mock(Job.class);
+        when(job.getFullName()).thenReturn(jobName);
+
+        Run run = mock(Run.class);
+        when(run.getNumber()).thenReturn(buildNumber);
+        when(run.getParent()).thenReturn(job);
+
+        ForensicsBuildAction action = mock(ForensicsBuildAction.class);
+        when(action.getOwner()).thenReturn(run);
+        when(action.getScmKey()).thenReturn(SCM);
+        return action;
+    }
+}
@@ -0,0 +1,148 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.TreeString;
+import edu.hm.hafner.util.TreeStringBuilder;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link RepositoryStatisticsDelta}.
+ *
+ * @author Ullrich Hafner
+ */
+class RepositoryStatisticsDeltaTest {
+    private static final TreeStringBuilder BUILDER = new TreeStringBuilder();
+    private static final TreeString FIRST = BUILDER.intern("first.txt");
+    private static final TreeString SECOND = BUILDER.intern("second.txt");
+    private static final TreeString THIRD = BUILDER.intern("third.txt");
+    private static final TreeString MOVED = BUILDER.intern("moved.txt");
+    private static final TreeString NO_FILE = BUILDER.intern(CommitDiffItem.NO_FILE_NAME);
+
+    private static final List<CommitDiffItem> INITIAL_COMMITS = List.of(
+            new CommitDiffItem("1", "one", 10).addLines(10).setNewPath(FIRST),
+            new CommitDiffItem("1", "one", 10).addLines(5).setNewPath(SECOND),
+            new CommitDiffItem("1", "one", 10).addLines(7).setNewPath(THIRD));
+    private static final List<CommitDiffItem> NEXT_COMMITS = List.of(
+            new CommitDiffItem("2", "two", 20).addLines(3).deleteLines(2).setNewPath(FIRST),
+            new CommitDiffItem("2", "two", 20).setOldPath(SECOND).setNewPath(MOVED).addLines(1),
+            new CommitDiffItem("3", "three", 30).deleteLines(7).setOldPath(THIRD).setNewPath(NO_FILE),
+            new CommitDiffItem("3", "three", 30).addLines(2).setNewPath(THIRD));
+
+    @Test
+    void shouldRestoreStatisticsOfNewerBuild() {
+        var previous = createStatistics("1", INITIAL_COMMITS);
+        var current = new RepositoryStatistics("3", previous);
+        current.addAll(NEXT_COMMITS);
+
+        var delta = RepositoryStatisticsDelta.create(previous, current);
+
+        assertThat(delta).isPresent();
+        assertThat(delta.get().getNumberOfChangedFiles()).isEqualTo(3);
+        assertThat(delta.get().getNumberOfRemovedFiles()).isEqualTo(1);
+
+        var restored = delta.get().apply(previous);
+        assertThat(restored).isEqualTo(current)
+                .hasOnlyFiles("first.txt", "moved.txt", "third.txt")
+                .hasTotalLinesOfCode(current.getTotalLinesOfCode())
+                .hasTotalChurn(current.getTotalChurn())
+                .hasLatestStatistics(current.getLatestStatistics());
+        assertThat(restored.getLatestCommitId()).isEqualTo("3");
+        assertThat(restored.get("moved.txt")).hasNumberOfCommits(2);
+        assertThat(restored.get("third.txt")).hasNumberOfCommits(1).hasCreationTime(30);
+
+        assertThat(previous).hasOnlyFiles("first.txt", "second.txt", "third.txt");
+        assertThat(previous.get("first.txt")).hasNumberOfCommits(1);
+    }
+
+    @Test
+    void shouldMarkStatisticsAsIncompleteIfBaseFilesAreMissing() {
+        var previous = createStatistics("1", INITIAL_COMMITS);
+        var current = new RepositoryStatistics("3", previous);
+        current.addAll(NEXT_COMMITS);
+
+        var delta = RepositoryStatisticsDelta.create(previous, current);
+        assertThat(delta).isPresent();
+        assertThat(delta.get().apply(previous).isIncomplete()).isFalse();
+
+        var restored = delta.get().apply(new RepositoryStatistics());
+
+        assertThat(restored.isIncomplete()).isTrue();
+        assertThat(restored).hasOnlyFiles("first.txt", "moved.txt", "third.txt");
+        assertThat(restored.get("first.txt")).hasNumberOfCommits(1);
+        assertThat(restored.get("moved.txt")).hasNumberOfCommits(1);
+        assertThat(restored.get("third.txt")).hasNumberOfCommits(1).hasCreationTime(30);
+        assertThat(restored.withLatestStatistics(new CommitStatistics()).isIncomplete()).isTrue();
+    }
+
+    @Test
+    void shouldStoreOnlyChangedFiles() {
+        var previous = createStatistics("1", INITIAL_COMMITS);
+        var current = new RepositoryStatistics("2", previous);
+        current.addAll(List.of(new CommitDiffItem("2", "two", 20).addLines(1).setNewPath(FIRST)));
+
+        var delta = RepositoryStatisticsDelta.create(previous, current);
+
+        assertThat(delta).isPresent();
+        assertThat(delta.get().getNumberOfChangedFiles()).isOne();
+        assertThat(delta.get().getNumberOfRemovedFiles()).isZero();
+        assertThat(delta.get().apply(previous)).isEqualTo(current);
+    }
+
+    @Test
+    void shouldNotCreateDeltaForStatisticsWithoutCommits() {
+        var legacy = new RepositoryStatistics();
+        legacy.add(new FileStatisticsBuilder().build("legacy.txt"));
+
+        assertThat(RepositoryStatisticsDelta.create(new RepositoryStatistics(), legacy)).isEmpty();
+    }
+
+    @Test
+    void shouldWriteAndReadDelta(@TempDir final Path folder) {
+        var previous = createStatistics("1", INITIAL_COMMITS);
+        var current = new RepositoryStatistics("3", previous);
+        current.addAll(NEXT_COMMITS);
+
+        var stream = new RepositoryStatisticsDeltaXmlStream();
+        var path = folder.resolve("delta.xml");
+        stream.write(path, RepositoryStatisticsDelta.create(previous, current).orElseThrow());
+
+        assertThat(stream.read(path).apply(previous)).isEqualTo(current);
+    }
+
+    @Test
+    void shouldRestoreCompactedStatistics(@TempDir final Path folder) {
+        var previous = createStatistics("1", INITIAL_COMMITS);
+        var current = new RepositoryStatistics("3", previous);
+        current.addAll(NEXT_COMMITS);
+        assertThat(current.applyRetention(new CommitRetentionPolicy(1, 0))).isEqualTo(2);
+        assertThat(current.get("first.txt").getRollup()).isNotNull();
+
+        var stream = new RepositoryStatisticsDeltaXmlStream();
+        var path = folder.resolve("delta.xml");
+        stream.write(path, RepositoryStatisticsDelta.create(previous, current).orElseThrow());
+
+        var restored = stream.read(path).apply(previous);
+        assertThat(restored).isEqualTo(current);
+        assertThat(restored.get("first.txt")).hasNumberOfCommits(2).hasCreationTime(10).hasCommits(NEXT_COMMITS.get(0));
+
+        var next = new RepositoryStatistics("4", current);
+        next.addAll(List.of(new CommitDiffItem("4", "four", 40).addLines(1).setNewPath(FIRST)));
+        var nextDelta = RepositoryStatisticsDelta.create(current, next).orElseThrow();
+        assertThat(nextDelta.getNumberOfChangedFiles()).isOne();
+        assertThat(nextDelta.apply(restored)).isEqualTo(next);
+    }
+
+    private RepositoryStatistics createStatistics(final String latestCommitId, final List<CommitDiffItem> commits) {
+        var statistics = new RepositoryStatistics(latestCommitId);
+        statistics.addAll(commits);
+        return statistics;
+    }
+}
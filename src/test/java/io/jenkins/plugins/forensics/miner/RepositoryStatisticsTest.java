@@ -2,13 +2,20 @@ package io.jenkins.plugins.forensics.miner;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import edu.hm.hafner.util.TreeString;
 import edu.hm.hafner.util.TreeStringBuilder;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
 
@@ -90,4 +97,195 @@ class RepositoryStatisticsTest {
                 .addLines(3)
                 .setNewPath(FILE_TREE_STRING);
     }
+
+    @ParameterizedTest(name = "Random history with seed {0}")
+    @ValueSource(longs = {1, 2, 3, 42, 4711, 20_201_019})
+    void shouldAggregateRandomHistoryInParallelLikeSequential(final long seed) {
+        var random = new Random(seed);
+        var initialHistory = createRandomHistory(random, 200);
+        var additionalHistory = createRandomHistory(random, 2000);
+
+        var sequential = new RepositoryStatistics("head");
+        sequential.addAll(initialHistory);
+        sequential.addAll(additionalHistory);
+
+        var parallel = new RepositoryStatistics("head");
+        var pool = new ForkJoinPool(4);
+        try {
+            parallel.addAllInParallel(initialHistory, pool);
+            parallel.addAllInParallel(additionalHistory, pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        assertThat(parallel).isEqualTo(sequential)
+                .hasTotalLinesOfCode(sequential.getTotalLinesOfCode())
+                .hasTotalChurn(sequential.getTotalChurn())
+                .hasLatestStatistics(sequential.getLatestStatistics());
+        for (FileStatistics file : sequential.getFileStatistics()) {
+            var parallelFile = parallel.get(file.getFileName());
+            assertThat(parallelFile).isEqualTo(file).hasToString(file.toString());
+            assertThat(parallelFile.getCommits()).containsExactlyElementsOf(file.getCommits());
+        }
+    }
+
+    @Test
+    void shouldComputeFingerprint() {
+        var history = createRandomHistory(new Random(4711), 500);
+
+        var statistics = new RepositoryStatistics("head");
+        statistics.addAll(history);
+        var copy = new RepositoryStatistics(statistics);
+
+        assertThat(copy.getFingerprint()).isEqualTo(statistics.getFingerprint());
+        assertThat(new RepositoryStatistics("other", statistics).getFingerprint())
+                .isNotEqualTo(statistics.getFingerprint());
+
+        copy.addAll(List.of(createCommit()));
+        assertThat(copy.getFingerprint()).isNotEqualTo(statistics.getFingerprint());
+
+        assertThat(new RepositoryStatistics().getFingerprint()).isEqualTo(new RepositoryStatistics().getFingerprint());
+    }
+
+    @Test
+    void shouldReplaceLatestStatistics() {
+        var statistics = new RepositoryStatistics("head");
+        statistics.addAll(createRandomHistory(new Random(42), 100));
+
+        var empty = new CommitStatistics();
+        var unchanged = statistics.withLatestStatistics(empty);
+
+        assertThat(unchanged).isEqualTo(statistics)
+                .hasLatestStatistics(empty)
+                .hasTotalLinesOfCode(statistics.getTotalLinesOfCode())
+                .hasTotalChurn(statistics.getTotalChurn());
+        assertThat(unchanged.getFingerprint()).isEqualTo(statistics.getFingerprint());
+    }
+
+    @Test
+    void shouldShareUnchangedFilesWithCopy() {
+        var builder = new TreeStringBuilder();
+        var first = builder.intern("/first.txt");
+        var second = builder.intern("/second.txt");
+        var original = new RepositoryStatistics("1");
+        original.addAll(List.of(
+                new CommitDiffItem("1", "one", ONE_DAY).addLines(10).setNewPath(first),
+                new CommitDiffItem("1", "one", ONE_DAY).addLines(5).setNewPath(second)));
+        var expected = new FileStatistics(original.get("/first.txt"));
+
+        var copy = new RepositoryStatistics("2", original);
+        copy.addAll(List.of(new CommitDiffItem("2", "two", ONE_DAY * 2).addLines(1).setNewPath(first)));
+
+        assertThat(copy.get("/second.txt")).isSameAs(original.get("/second.txt"));
+        assertThat(copy.get("/first.txt")).isNotSameAs(original.get("/first.txt")).hasNumberOfCommits(2);
+        assertThat(original.get("/first.txt")).isEqualTo(expected);
+
+        copy.addAll(List.of(new CommitDiffItem("3", "three", ONE_DAY * 3).addLines(1).setNewPath(second)));
+        assertThat(copy.get("/second.txt")).isNotSameAs(original.get("/second.txt")).hasNumberOfCommits(2);
+        assertThat(original.get("/second.txt")).hasNumberOfCommits(1);
+    }
+
+    @Test
+    void shouldProvideStableSnapshots() {
+        var statistics = new RepositoryStatistics("head");
+        statistics.addAll(createRandomHistory(new Random(1), 100));
+
+        var snapshot = statistics.getMapping();
+        var copyOfSnapshot = new HashMap<String, FileStatistics>();
+        snapshot.forEach((name, file) -> copyOfSnapshot.put(name, new FileStatistics(file)));
+
+        statistics.addAll(createRandomHistory(new Random(2), 100));
+
+        assertThat(statistics.getMapping()).isNotSameAs(snapshot);
+        assertThat(snapshot).isEqualTo(copyOfSnapshot);
+        assertThat(statistics.getMapping()).isSameAs(statistics.getMapping());
+    }
+
+    @Test
+    void shouldFindFilesInSortOrder() {
+        var statistics = new RepositoryStatistics("head");
+        statistics.addAll(createRandomHistory(new Random(1), 200));
+
+        for (FileStatisticsOrder order : FileStatisticsOrder.values()) {
+            for (String term : List.of("file1", "/SRC/", "e2.java", "unknown")) {
+                var expected = statistics.getSortedFiles(order).stream()
+                        .filter(file -> StringUtils.containsIgnoreCase(file.getFileName(), term))
+                        .toList();
+                assertThat(statistics.findFiles(term, order)).as("%s in %s", term, order)
+                        .containsExactlyElementsOf(expected);
+            }
+        }
+        assertThat(statistics.findFiles("", FileStatisticsOrder.CHURN)).isEmpty();
+    }
+
+    @Test
+    void shouldPrependOlderHistory() {
+        var builder = new TreeStringBuilder();
+        var first = builder.intern("/first.txt");
+        var moved = builder.intern("/moved.txt");
+        var second = builder.intern("/second.txt");
+        var deleted = builder.intern("/deleted.txt");
+        var noFile = builder.intern(CommitDiffItem.NO_FILE_NAME);
+
+        var olderCommits = List.of(
+                new CommitDiffItem("1", "one", ONE_DAY).addLines(10).setNewPath(first),
+                new CommitDiffItem("1", "one", ONE_DAY).addLines(5).setNewPath(second),
+                new CommitDiffItem("2", "two", ONE_DAY * 2).addLines(3).setNewPath(deleted));
+        var newerCommits = List.of(
+                new CommitDiffItem("3", "three", ONE_DAY * 3).addLines(2).deleteLines(1)
+                        .setOldPath(first).setNewPath(moved),
+                new CommitDiffItem("4", "four", ONE_DAY * 4).addLines(1).setNewPath(second),
+                new CommitDiffItem("4", "four", ONE_DAY * 4).deleteLines(3).setOldPath(deleted).setNewPath(noFile));
+
+        var complete = new RepositoryStatistics("4");
+        complete.addAll(olderCommits);
+        complete.addAll(newerCommits);
+
+        var olderHistory = new RepositoryStatistics("2");
+        olderHistory.addAll(olderCommits);
+        var recentHistory = new RepositoryStatistics("4");
+        recentHistory.addAll(newerCommits);
+        recentHistory.setHistoryStartCommitId("3");
+        assertThat(recentHistory.isPartial()).isTrue();
+        assertThat(recentHistory.get("/moved.txt")).hasCreationTime(ONE_DAY * 3);
+
+        var merged = recentHistory.prependHistory(olderHistory);
+
+        assertThat(merged.isPartial()).isFalse();
+        assertThat(merged.getLatestCommitId()).isEqualTo("4");
+        assertThat(merged.getMapping()).isEqualTo(complete.getMapping());
+        assertThat(merged.get("/moved.txt")).hasCreationTime(ONE_DAY).hasNumberOfCommits(2);
+        assertThat(merged).hasTotalLinesOfCode(complete.getTotalLinesOfCode())
+                .hasTotalChurn(complete.getTotalChurn());
+        assertThat(recentHistory.get("/moved.txt")).hasCreationTime(ONE_DAY * 3);
+
+        olderHistory.setHistoryStartCommitId("1");
+        assertThat(recentHistory.prependHistory(olderHistory).getHistoryStartCommitId()).isEqualTo("1");
+    }
+
+    private List<CommitDiffItem> createRandomHistory(final Random random, final int size) {
+        var builder = new TreeStringBuilder();
+        var noFile = builder.intern(CommitDiffItem.NO_FILE_NAME);
+
+        List<CommitDiffItem> history = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            var commit = new CommitDiffItem("commit-" + i / 3, "author-" + random.nextInt(7), i)
+                    .addLines(random.nextInt(50))
+                    .deleteLines(random.nextInt(20));
+            var path = builder.intern("/src/File" + random.nextInt(40) + ".java");
+            int operation = random.nextInt(10);
+            if (operation < 6) {
+                commit.setNewPath(path);
+            }
+            else if (operation < 8) {
+                commit.setOldPath(path).setNewPath(builder.intern("/src/File" + random.nextInt(40) + ".java"));
+            }
+            else {
+                commit.setOldPath(path).setNewPath(noFile);
+            }
+            history.add(commit);
+        }
+        return history;
+    }
 }
@@ -1,11 +1,17 @@
 package io.jenkins.plugins.forensics.miner;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import edu.hm.hafner.util.SerializableTest;
 import edu.hm.hafner.util.TreeString;
 import edu.hm.hafner.util.TreeStringBuilder;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
 
 import static io.jenkins.plugins.forensics.assertions.Assertions.*;
@@ -85,6 +91,121 @@ class RepositoryStatisticsXmlStreamTest extends SerializableTest<RepositoryStati
                 .hasLastModificationTime(ONE_DAY * 4);
     }
 
+    @Test
+    void shouldWriteAndReadBinaryFormat(@TempDir final Path folder) throws IOException {
+        var statistics = new RepositoryStatistics("3");
+        var builder = new TreeStringBuilder();
+        statistics.addAll(List.of(
+                new CommitDiffItem("1", "name", ONE_DAY * 2).addLines(4).setNewPath(FILE_TREE_STRING),
+                new CommitDiffItem("1", "name", ONE_DAY * 2).addLines(10).setNewPath(builder.intern(ISSUE_BUILDER)),
+                new CommitDiffItem("2", "another", ONE_DAY).addLines(4).deleteLines(7)
+                        .setNewPath(FILE_TREE_STRING),
+                new CommitDiffItem("3", "another", ONE_DAY * 4).addLines(1)
+                        .setOldPath(builder.intern(ISSUE_BUILDER)).setNewPath(builder.intern("/moved.java"))));
+
+        var stream = new RepositoryStatisticsXmlStream();
+        var binary = folder.resolve("statistics.bin");
+        stream.write(binary, statistics);
+        var xml = folder.resolve("statistics.xml");
+        stream.write(xml, statistics);
+
+        assertThat(RepositoryStatisticsBinaryFormat.isBinary(binary)).isTrue();
+        assertThat(RepositoryStatisticsBinaryFormat.isBinary(xml)).isFalse();
+        assertThat(Files.size(binary)).isLessThan(Files.size(xml));
+
+        for (Path file : List.of(binary, xml)) {
+            var restored = stream.read(file);
+
+            assertThat(restored).isEqualTo(statistics)
+                    .hasOnlyFiles(FILE, "/moved.java")
+                    .hasTotalLinesOfCode(statistics.getTotalLinesOfCode())
+                    .hasTotalChurn(statistics.getTotalChurn())
+                    .hasLatestStatistics(statistics.getLatestStatistics());
+            assertThat(restored.get(FILE))
+                    .hasCreationTime(ONE_DAY * 2)
+                    .hasLastModificationTime(ONE_DAY)
+                    .hasLinesOfCode(1);
+        }
+    }
+
+    @Test
+    void shouldReplaceBinaryFileAtomically(@TempDir final Path folder) throws IOException {
+        var binary = folder.resolve("statistics.bin");
+        var first = new RepositoryStatistics("1");
+        first.addAll(List.of(new CommitDiffItem("1", "name", ONE_DAY).addLines(4).setNewPath(FILE_TREE_STRING)));
+        RepositoryStatisticsBinaryFormat.write(binary, first);
+
+        var second = new RepositoryStatistics("2", first);
+        second.addAll(List.of(new CommitDiffItem("2", "name", ONE_DAY * 2).addLines(3).setNewPath(FILE_TREE_STRING)));
+        RepositoryStatisticsBinaryFormat.write(binary, second);
+
+        try (var files = Files.list(folder)) {
+            assertThat(files).as("No temporary files are left").containsExactly(binary);
+        }
+        assertThat(RepositoryStatisticsBinaryFormat.read(Files.newInputStream(binary))).isEqualTo(second);
+    }
+
+    @Test
+    void shouldShareStringsOfBinaryFormatWithoutInterning(@TempDir final Path folder) throws IOException {
+        var binary = folder.resolve("statistics.bin");
+        var other = new TreeStringBuilder().intern("/other.txt");
+        var statistics = new RepositoryStatistics("1");
+        statistics.addAll(List.of(
+                new CommitDiffItem("1", "name", ONE_DAY).addLines(4).setNewPath(FILE_TREE_STRING),
+                new CommitDiffItem("1", "name", ONE_DAY).addLines(2).setNewPath(other)));
+        RepositoryStatisticsBinaryFormat.write(binary, statistics);
+
+        var restored = RepositoryStatisticsBinaryFormat.read(Files.newInputStream(binary));
+
+        var first = restored.get(FILE).getCommits().get(0);
+        var second = restored.get("/other.txt").getCommits().get(0);
+        assertThat(second.getId()).isSameAs(first.getId());
+        assertThat(second.getAuthor()).isSameAs(first.getAuthor());
+        assertThat(first.getId()).isNotSameAs("1".intern());
+        assertThat(first.getAuthor()).isNotSameAs("name".intern());
+    }
+
+    @Test
+    void shouldWriteAndReadCompactedStatistics(@TempDir final Path folder) {
+        var statistics = new RepositoryStatistics("3");
+        statistics.addAll(List.of(
+                new CommitDiffItem("1", "name", ONE_DAY).addLines(4).setNewPath(FILE_TREE_STRING),
+                new CommitDiffItem("2", "another", ONE_DAY * 2).addLines(4).deleteLines(7)
+                        .setNewPath(FILE_TREE_STRING),
+                new CommitDiffItem("3", "third", ONE_DAY * 3).addLines(1).setNewPath(FILE_TREE_STRING)));
+        var expected = new RepositoryStatistics(statistics);
+        assertThat(statistics.applyRetention(new CommitRetentionPolicy(1, 0))).isEqualTo(2);
+
+        var stream = new RepositoryStatisticsXmlStream();
+        for (String fileName : List.of("statistics.bin", "statistics.xml")) {
+            var file = folder.resolve(fileName);
+            stream.write(file, statistics);
+
+            var restored = stream.read(file);
+            assertThat(restored).isEqualTo(statistics)
+                    .hasTotalLinesOfCode(expected.getTotalLinesOfCode())
+                    .hasTotalChurn(expected.getTotalChurn());
+            assertThat(restored.get(FILE)).hasNumberOfCommits(3)
+                    .hasNumberOfAuthors(3)
+                    .hasCreationTime(ONE_DAY)
+                    .hasLastModificationTime(ONE_DAY * 3)
+                    .hasLinesOfCode(expected.get(FILE).getLinesOfCode());
+            assertThat(restored.get(FILE).getCommits()).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldConvertLegacyXmlToBinaryFormat(@TempDir final Path folder) {
+        var legacy = read("forensics-0.7.0.xml");
+
+        var stream = new RepositoryStatisticsXmlStream();
+        var binary = folder.resolve("statistics.bin");
+        stream.write(binary, legacy);
+
+        assertThatForensicsAreCorrect(stream.read(binary));
+        assertThat(stream.read(binary)).isEqualTo(legacy);
+    }
+
     @Override
     protected RepositoryStatistics createSerializable() {
         return read("forensics-0.7.0.xml");
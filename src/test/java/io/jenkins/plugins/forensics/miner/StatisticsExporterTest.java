@@ -0,0 +1,121 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.TreeString;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
+import io.jenkins.plugins.forensics.miner.StatisticsExporter.Format;
+import io.jenkins.plugins.forensics.miner.StatisticsExporter.Records;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link StatisticsExporter}.
+ *
+ * @author Ullrich Hafner
+ */
+class StatisticsExporterTest {
+    private static final int TIME = 1_000;
+    private static final String PLAIN = "plain.txt";
+    private static final String QUOTED = "with,comma \"quoted\".txt";
+
+    @Test
+    void shouldExportFilesAsCsv() throws IOException {
+        assertThat(export(Format.CSV, Records.FILES)).isEqualTo(
+                "file,authors,commits,creationTime,lastModificationTime,linesOfCode,churn\r\n"
+                        + "plain.txt,2,2,1000,1001,5,15\r\n"
+                        + "\"with,comma \"\"quoted\"\".txt\",1,1,1000,1000,3,3\r\n");
+    }
+
+    @Test
+    void shouldExportCommitsAsCsv() throws IOException {
+        assertThat(export(Format.CSV, Records.COMMITS)).isEqualTo(
+                "file,commit,author,time,addedLines,deletedLines\r\n"
+                        + "plain.txt,1,one,1000,10,0\r\n"
+                        + "plain.txt,2,two,1001,0,5\r\n"
+                        + "\"with,comma \"\"quoted\"\".txt\",3,one,1000,3,0\r\n");
+    }
+
+    @Test
+    void shouldExportFilesAsNdjson() throws IOException {
+        assertThat(export(Format.NDJSON, Records.FILES).split("\n")).containsExactly(
+                "{\"file\":\"plain.txt\",\"authors\":2,\"commits\":2,\"creationTime\":1000,"
+                        + "\"lastModificationTime\":1001,\"linesOfCode\":5,\"churn\":15}",
+                "{\"file\":\"with,comma \\\"quoted\\\".txt\",\"authors\":1,\"commits\":1,\"creationTime\":1000,"
+                        + "\"lastModificationTime\":1000,\"linesOfCode\":3,\"churn\":3}");
+    }
+
+    @Test
+    void shouldExportCommitsAsNdjson() throws IOException {
+        assertThat(export(Format.NDJSON, Records.COMMITS).split("\n")).containsExactly(
+                "{\"file\":\"plain.txt\",\"commit\":\"1\",\"author\":\"one\",\"time\":1000,"
+                        + "\"addedLines\":10,\"deletedLines\":0}",
+                "{\"file\":\"plain.txt\",\"commit\":\"2\",\"author\":\"two\",\"time\":1001,"
+                        + "\"addedLines\":0,\"deletedLines\":5}",
+                "{\"file\":\"with,comma \\\"quoted\\\".txt\",\"commit\":\"3\",\"author\":\"one\",\"time\":1000,"
+                        + "\"addedLines\":3,\"deletedLines\":0}");
+    }
+
+    @Test
+    void shouldWriteOnlyHeaderForEmptyStatistics() throws IOException {
+        var writer = new StringWriter();
+        new StatisticsExporter(Format.CSV, Records.FILES).export(List.<FileStatistics>of()::forEach, writer);
+        assertThat(writer.toString()).startsWith("file,").endsWith("churn\r\n");
+
+        var json = new StringWriter();
+        new StatisticsExporter(Format.NDJSON, Records.COMMITS).export(List.<FileStatistics>of()::forEach, json);
+        assertThat(json.toString()).isEmpty();
+    }
+
+    @Test
+    void shouldUseDefaultsForUnknownParameters() {
+        assertThat(Format.fromParameter(null)).isEqualTo(Format.CSV);
+        assertThat(Format.fromParameter("NdJson")).isEqualTo(Format.NDJSON);
+        assertThat(Records.fromParameter("unknown")).isEqualTo(Records.FILES);
+        assertThat(Records.fromParameter("commits")).isEqualTo(Records.COMMITS);
+    }
+
+    @Test
+    void shouldFlushOnlyAfterAllRecords() throws IOException {
+        var writer = new StringWriter() {
+            private int flushes;
+
+            @Override
+            public void flush() {
+                flushes++;
+                super.flush();
+            }
+        };
+
+        export(Format.NDJSON, Records.COMMITS, writer);
+
+        assertThat(writer.flushes).isOne();
+        assertThat(writer.toString()).endsWith("}\n").doesNotContain("\n ");
+    }
+
+    private String export(final Format format, final Records records) throws IOException {
+        var writer = new StringWriter();
+        export(format, records, writer);
+        return writer.toString();
+    }
+
+    private void export(final Format format, final Records records, final StringWriter writer) throws IOException {
+        var plain = new FileStatisticsBuilder().build(PLAIN);
+        plain.inspectCommit(createCommit("1", "one", TIME, PLAIN).addLines(10));
+        plain.inspectCommit(createCommit("2", "two", TIME + 1, PLAIN).deleteLines(5));
+
+        var quoted = new FileStatisticsBuilder().build(QUOTED);
+        quoted.inspectCommit(createCommit("3", "one", TIME, QUOTED).addLines(3));
+
+        new StatisticsExporter(format, records).export(List.of(plain, quoted)::forEach, writer);
+    }
+
+    private CommitDiffItem createCommit(final String id, final String author, final int time, final String file) {
+        return new CommitDiffItem(id, author, time).setNewPath(TreeString.valueOf(file));
+    }
+}
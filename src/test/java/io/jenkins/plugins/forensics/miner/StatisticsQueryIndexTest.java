@@ -0,0 +1,171 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.TreeString;
+
+import java.util.List;
+import java.util.Set;
+
+import io.jenkins.plugins.forensics.miner.StatisticsQuery.Field;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link StatisticsQueryIndex}.
+ *
+ * @author Ullrich Hafner
+ */
+class StatisticsQueryIndexTest {
+    private static final String BILLING = "services/billing/Invoice.java";
+    private static final String BILLING_TEST = "services/billing/test/InvoiceTest.java";
+    private static final String BILLING_OLD = "services/billing-old/Invoice.java";
+    private static final String SHIPPING = "services/shipping/Parcel.java";
+    private static final String README = "README.md";
+
+    @Test
+    void shouldSelectAllFilesOrderedByName() {
+        var statistics = createStatistics();
+
+        assertThat(statistics.query(StatisticsQuery.all())).extracting(FileQueryResult::getFileName)
+                .containsExactly(README, BILLING_OLD, BILLING, BILLING_TEST, SHIPPING);
+    }
+
+    @Test
+    void shouldSelectFilesBelowFolder() {
+        var statistics = createStatistics();
+
+        assertThat(statistics.query(StatisticsQuery.all().withPathPrefix("services/billing")))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING, BILLING_TEST);
+        assertThat(statistics.query(StatisticsQuery.all().withPathPrefix("/services/billing/")))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING, BILLING_TEST);
+        assertThat(statistics.query(StatisticsQuery.all().withPathPrefix(BILLING)))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING);
+        assertThat(statistics.query(StatisticsQuery.all().withPathPrefix("services/bill"))).isEmpty();
+    }
+
+    @Test
+    void shouldSelectFilesMatchingGlob() {
+        var statistics = createStatistics();
+
+        assertThat(statistics.query(StatisticsQuery.all().withGlob("**/*Test.java")))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING_TEST);
+        assertThat(statistics.query(StatisticsQuery.all().withPathPrefix("services").withGlob("services/*/*.java")))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING_OLD, BILLING, SHIPPING);
+    }
+
+    @Test
+    void shouldSelectFilesOfAuthor() {
+        var statistics = createStatistics();
+
+        assertThat(statistics.query(StatisticsQuery.all().withAuthor("carol")))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING, SHIPPING);
+        assertThat(statistics.query(StatisticsQuery.all().withAuthor("carol").withPathPrefix("services/billing")))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING);
+        assertThat(statistics.query(StatisticsQuery.all().withAuthor("nobody"))).isEmpty();
+    }
+
+    @Test
+    void shouldComputeMetricsOfTimeWindow() {
+        var statistics = createStatistics();
+
+        var all = statistics.query(StatisticsQuery.all().withPathPrefix(BILLING));
+        assertThat(all).hasSize(1);
+        assertThat(all.get(0).getNumberOfAuthors()).isEqualTo(3);
+        assertThat(all.get(0).getNumberOfCommits()).isEqualTo(4);
+        assertThat(all.get(0).getChurn()).isEqualTo(40);
+
+        var recent = statistics.query(StatisticsQuery.all().withPathPrefix(BILLING).withTimeWindow(200, 400));
+        assertThat(recent).hasSize(1);
+        assertThat(recent.get(0).getNumberOfAuthors()).isEqualTo(2);
+        assertThat(recent.get(0).getNumberOfCommits()).isEqualTo(3);
+        assertThat(recent.get(0).getChurn()).isEqualTo(30);
+        assertThat(recent.get(0).getLinesOfCode()).as("Lines of code describe the file").isEqualTo(40);
+
+        assertThat(statistics.query(StatisticsQuery.all().withTimeWindow(1000, 2000))).isEmpty();
+        assertThat(statistics.query(StatisticsQuery.all().withAuthor("alice").withTimeWindow(200, 400)))
+                .as("alice changed billing just before the window")
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING_OLD, SHIPPING);
+    }
+
+    @Test
+    void shouldFilterByMinimumsAndSelectTopK() {
+        var statistics = createStatistics();
+
+        assertThat(statistics.query(StatisticsQuery.all().withMinimum(Field.AUTHORS, 2)))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING, SHIPPING);
+        assertThat(statistics.query(StatisticsQuery.all().withOrder(Field.CHURN, true).withLimit(2)))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(BILLING, SHIPPING);
+        assertThat(statistics.query(StatisticsQuery.all().withOrder(Field.CHURN, false).withLimit(2)))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly(README, BILLING_OLD);
+        assertThatIllegalArgumentException().isThrownBy(() -> StatisticsQuery.all().withMinimum(Field.FILE, 1));
+    }
+
+    @Test
+    void shouldSelectFilesWithNegativeLinesOfCode() {
+        var statistics = createStatistics();
+        statistics.addAll(List.of(new CommitDiffItem("6", "dave", 600).deleteLines(7)
+                .setNewPath(TreeString.valueOf(BILLING_OLD))));
+
+        assertThat(statistics.get(BILLING_OLD).getLinesOfCode()).isEqualTo(-5);
+        assertThat(statistics.query(StatisticsQuery.all())).extracting(FileQueryResult::getFileName)
+                .contains(BILLING_OLD);
+        assertThat(statistics.query(StatisticsQuery.all().withMinimum(Field.LINES_OF_CODE, 0)))
+                .extracting(FileQueryResult::getFileName)
+                .doesNotContain(BILLING_OLD);
+    }
+
+    @Test
+    void shouldProjectFields() {
+        var result = createStatistics().query(StatisticsQuery.all().withPathPrefix(README)).get(0);
+
+        assertThat(result.project(Set.of(Field.CHURN, Field.FILE))).containsExactly(
+                entry("file", README), entry("churn", 1));
+        assertThat(result.project(Set.of(Field.values()))).containsOnlyKeys(
+                "file", "authors", "commits", "creationTime", "lastModificationTime", "linesOfCode", "churn");
+    }
+
+    @Test
+    void shouldUseIndexOfCurrentSnapshot() {
+        var statistics = createStatistics();
+        assertThat(statistics.query(StatisticsQuery.all())).hasSize(5);
+
+        statistics.addAll(List.of(createCommit("6", "dave", 600, "services/billing/Tax.java", 5)));
+
+        assertThat(statistics.query(StatisticsQuery.all().withAuthor("dave")))
+                .extracting(FileQueryResult::getFileName)
+                .containsExactly("services/billing/Tax.java");
+    }
+
+    private RepositoryStatistics createStatistics() {
+        var statistics = new RepositoryStatistics();
+        statistics.addAll(List.of(
+                createCommit("1", "alice", 100, BILLING, 10),
+                createCommit("1", "alice", 100, README, 1),
+                createCommit("2", "bob", 200, BILLING, 10),
+                createCommit("3", "carol", 300, BILLING, 5),
+                createCommit("3", "carol", 300, BILLING, 5),
+                createCommit("3", "carol", 300, SHIPPING, 8),
+                createCommit("4", "bob", 400, BILLING, 10),
+                createCommit("4", "bob", 400, BILLING_TEST, 3),
+                createCommit("5", "alice", 400, SHIPPING, 4),
+                createCommit("5", "alice", 400, BILLING_OLD, 2)));
+        return statistics;
+    }
+
+    private CommitDiffItem createCommit(final String id, final String author, final int time, final String file,
+            final int addedLines) {
+        return new CommitDiffItem(id, author, time).addLines(addedLines).setNewPath(TreeString.valueOf(file));
+    }
+}
@@ -0,0 +1,78 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link StatisticsSummary}.
+ *
+ * @author Ullrich Hafner
+ */
+class StatisticsSummaryTest {
+    @Test
+    void shouldCreateEmptySummary() {
+        var summary = StatisticsSummary.of(new RepositoryStatistics());
+
+        assertThat(summary.getAuthorsDistribution()).isEmpty();
+        assertThat(summary.getCommitsDistribution()).isEmpty();
+        assertThat(summary.getLinesOfCodePercentile(50)).isZero();
+        assertThat(summary.getChurnPercentile(100)).isZero();
+    }
+
+    @Test
+    void shouldComputeDistributionsAndPercentiles() {
+        var statistics = createStatistics(100);
+
+        var summary = StatisticsSummary.of(statistics);
+
+        assertThat(summary.getAuthorsDistribution()).isEqualTo(SizePieChart.createDistribution(
+                statistics.getFileStatistics(), FileStatistics::getNumberOfAuthors,
+                StatisticsSummary.AUTHORS_BREAKPOINTS));
+        assertThat(summary.getAuthorsDistribution()).containsEntry(5, 4).containsEntry(10, 5).containsEntry(50, 25);
+        assertThat(summary.getCommitsDistribution()).containsEntry(5, 4).containsEntry(100, 50).containsEntry(250, 1);
+
+        assertThat(new SizePieChart().create(summary.getCommitsDistribution()).getData())
+                .isEqualTo(new SizePieChart().create(statistics, FileStatistics::getNumberOfCommits,
+                        StatisticsSummary.COMMITS_BREAKPOINTS).getData());
+
+        assertThat(summary.getLinesOfCodePercentile(50)).isEqualTo(500);
+        assertThat(summary.getLinesOfCodePercentile(90)).isEqualTo(900);
+        assertThat(summary.getLinesOfCodePercentile(99)).isEqualTo(990);
+        assertThat(summary.getLinesOfCodePercentile(100)).isEqualTo(1000);
+        assertThat(summary.getChurnPercentile(50)).isEqualTo(50);
+        assertThat(summary.getChurnPercentile(100)).isEqualTo(100);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> summary.getChurnPercentile(42))
+                .withMessageContaining("42");
+    }
+
+    @Test
+    void shouldUseNearestRankForSmallStatistics() {
+        var summary = StatisticsSummary.of(createStatistics(3));
+
+        assertThat(summary.getLinesOfCodePercentile(50)).isEqualTo(20);
+        assertThat(summary.getLinesOfCodePercentile(75)).isEqualTo(30);
+        assertThat(summary.getLinesOfCodePercentile(100)).isEqualTo(30);
+    }
+
+    private RepositoryStatistics createStatistics(final int numberOfFiles) {
+        List<FileStatistics> files = new ArrayList<>();
+        for (int i = 1; i <= numberOfFiles; i++) {
+            var file = mock(FileStatistics.class);
+            when(file.getFileName()).thenReturn("file-" + i);
+            when(file.getNumberOfAuthors()).thenReturn(i);
+            when(file.getNumberOfCommits()).thenReturn(i);
+            when(file.getLinesOfCode()).thenReturn(i * 10);
+            when(file.getAbsoluteChurn()).thenReturn(i);
+            files.add(file);
+        }
+        var statistics = mock(RepositoryStatistics.class);
+        when(statistics.getFileStatistics()).thenReturn(files);
+        return statistics;
+    }
+}
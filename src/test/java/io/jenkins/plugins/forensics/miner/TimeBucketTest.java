@@ -0,0 +1,55 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TimeBucket}.
+ *
+ * @author Ullrich Hafner
+ */
+class TimeBucketTest {
+    private static final int DAY = 24 * 60 * 60;
+
+    @Test
+    void shouldSelectBucketByLengthOfHistory() {
+        assertThat(TimeBucket.of(0, 30L * DAY)).isEqualTo(TimeBucket.DAY);
+        assertThat(TimeBucket.of(0, 2 * 365L * DAY)).isEqualTo(TimeBucket.WEEK);
+        assertThat(TimeBucket.of(0, 10 * 365L * DAY)).isEqualTo(TimeBucket.MONTH);
+    }
+
+    @Test
+    void shouldCreateLabels() {
+        int time = toSeconds(LocalDate.of(2024, 3, 6)) + 3600;
+
+        assertThat(TimeBucket.DAY.getLabel(time)).isEqualTo("2024-03-06");
+        assertThat(TimeBucket.WEEK.getLabel(time)).isEqualTo("2024-W10");
+        assertThat(TimeBucket.MONTH.getLabel(time)).isEqualTo("2024-03");
+    }
+
+    @Test
+    void shouldParseIntervals() {
+        assertThat(TimeBucket.parseInterval("2024-03-06")).hasValueSatisfying(range -> assertThat(range)
+                .containsExactly(toSeconds(LocalDate.of(2024, 3, 6)), toSeconds(LocalDate.of(2024, 3, 7))));
+        assertThat(TimeBucket.parseInterval("2024-W10")).hasValueSatisfying(range -> assertThat(range)
+                .containsExactly(toSeconds(LocalDate.of(2024, 3, 4)), toSeconds(LocalDate.of(2024, 3, 11))));
+        assertThat(TimeBucket.parseInterval("2024-12")).hasValueSatisfying(range -> assertThat(range)
+                .containsExactly(toSeconds(LocalDate.of(2024, 12, 1)), toSeconds(LocalDate.of(2025, 1, 1))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "abc", "2024-13", "2024-02-30", "2024-W60", "2024-3", "../2024-03"})
+    void shouldRejectInvalidIntervals(final String label) {
+        assertThat(TimeBucket.parseInterval(label)).isEmpty();
+    }
+
+    private int toSeconds(final LocalDate date) {
+        return (int) date.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+}
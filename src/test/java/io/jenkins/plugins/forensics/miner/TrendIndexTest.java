@@ -0,0 +1,158 @@
+package io.jenkins.plugins.forensics.miner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link TrendIndex}.
+ *
+ * @author Ullrich Hafner
+ */
+class TrendIndexTest {
+    private static final String SCM_KEY = "scm";
+    private static final String OTHER_KEY = "other";
+
+    @Test
+    void shouldRebuildIndexFromBuilds(@TempDir final Path folder) {
+        var job = createJob(folder);
+        var first = createRun(job, 1);
+        var second = createRun(job, 2);
+        when(second.getPreviousBuild()).thenAnswer(i -> first);
+        when(job.getLastBuild()).thenAnswer(i -> second);
+        when(job.getLastCompletedBuild()).thenAnswer(i -> second);
+
+        var index = new TrendIndex();
+
+        assertThat(index.getForensicsTrend(job, SCM_KEY)).extracting(TrendEntry::getBuildNumber)
+                .containsExactly(2, 1);
+        assertThat(index.getForensicsTrend(job, OTHER_KEY)).isEmpty();
+        assertThat(index.getCommitStatisticsTrend(job, SCM_KEY)).isEmpty();
+        assertThat(folder.resolve(TrendIndex.FILE_NAME)).exists();
+
+        var entry = index.getForensicsTrend(job, SCM_KEY).get(0);
+        assertThat(entry.getNumberOfFiles()).isEqualTo(20);
+        assertThat(entry.getTotalLinesOfCode()).isEqualTo(200);
+        assertThat(entry.getTotalChurn()).isEqualTo(2000);
+        assertThat(entry.getCommitStatistics().getAddedLines()).isEqualTo(2);
+        assertThat(entry.getBuildTime()).isEqualTo(2000);
+        assertThat(entry.getLabel()).isEqualTo("#2");
+    }
+
+    @Test
+    void shouldAppendAndRemoveEntries(@TempDir final Path folder) {
+        var job = createJob(folder);
+        var first = createRun(job, 1);
+        when(job.getLastBuild()).thenAnswer(i -> first);
+        when(job.getLastCompletedBuild()).thenAnswer(i -> first);
+
+        var index = new TrendIndex();
+        assertThat(index.getForensicsTrend(job, SCM_KEY)).hasSize(1);
+        assertThat(index.hasForensicsTrend(job, SCM_KEY)).isFalse();
+
+        var second = createRun(job, 2);
+        index.add(second, second.getActions(ForensicsBuildAction.class).get(0));
+        var commitStatistics = new CommitStatisticsBuildAction(second, SCM_KEY, new CommitStatistics(1, 2, 3, 4, 5));
+        index.add(second, commitStatistics);
+
+        assertThat(index.getForensicsTrend(job, SCM_KEY)).extracting(TrendEntry::getBuildNumber)
+                .as("Running builds are not part of the trend")
+                .containsExactly(1);
+
+        assertThat(index.hasForensicsTrend(job, SCM_KEY)).as("Running builds are not part of the trend").isFalse();
+
+        when(job.getLastCompletedBuild()).thenAnswer(i -> second);
+        assertThat(index.getForensicsTrend(job, SCM_KEY)).extracting(TrendEntry::getBuildNumber)
+                .containsExactly(2, 1);
+        assertThat(index.hasForensicsTrend(job, SCM_KEY)).isTrue();
+        assertThat(index.getCommitStatisticsTrend(job, SCM_KEY)).extracting(TrendEntry::getBuildNumber)
+                .containsExactly(2);
+        assertThat(index.hasCommitStatisticsTrend(job, SCM_KEY)).isFalse();
+        assertThat(index.hasForensicsTrend(job, OTHER_KEY)).isFalse();
+
+        when(job.getLastBuild()).thenReturn(null); // a rebuild of the index would not find any builds
+        var restored = new TrendIndex();
+        assertThat(restored.getForensicsTrend(job, SCM_KEY)).isEqualTo(index.getForensicsTrend(job, SCM_KEY));
+        assertThat(restored.getCommitStatisticsTrend(job, SCM_KEY).get(0).getCommitStatistics())
+                .isEqualTo(new CommitStatistics(1, 2, 3, 4, 5));
+
+        restored.remove(first);
+        assertThat(restored.getForensicsTrend(job, SCM_KEY)).extracting(TrendEntry::getBuildNumber)
+                .containsExactly(2);
+        assertThat(new TrendIndex().getForensicsTrend(job, SCM_KEY)).extracting(TrendEntry::getBuildNumber)
+                .containsExactly(2);
+    }
+
+    @Test
+    void shouldSkipIncompleteRecords(@TempDir final Path folder) throws IOException {
+        var job = createJob(folder);
+        var first = createRun(job, 1);
+        when(job.getLastBuild()).thenAnswer(i -> first);
+        when(job.getLastCompletedBuild()).thenAnswer(i -> first);
+
+        assertThat(new TrendIndex().getForensicsTrend(job, SCM_KEY)).hasSize(1);
+
+        var file = folder.resolve(TrendIndex.FILE_NAME);
+        Files.write(file, new byte[] {1, 0, 0}, StandardOpenOption.APPEND);
+
+        when(job.getLastBuild()).thenReturn(null);
+        var index = new TrendIndex();
+        assertThat(index.getForensicsTrend(job, SCM_KEY)).hasSize(1);
+
+        var second = createRun(job, 2);
+        when(job.getLastCompletedBuild()).thenAnswer(i -> second);
+        index.add(second, second.getActions(ForensicsBuildAction.class).get(0));
+
+        assertThat(new TrendIndex().getForensicsTrend(job, SCM_KEY)).extracting(TrendEntry::getBuildNumber)
+                .containsExactly(2, 1);
+    }
+
+    @Test
+    void shouldRebuildCorruptIndex(@TempDir final Path folder) throws IOException {
+        var job = createJob(folder);
+        var first = createRun(job, 1);
+        when(job.getLastBuild()).thenAnswer(i -> first);
+        when(job.getLastCompletedBuild()).thenAnswer(i -> first);
+
+        Files.write(folder.resolve(TrendIndex.FILE_NAME), new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        assertThat(new TrendIndex().getForensicsTrend(job, SCM_KEY)).extracting(TrendEntry::getBuildNumber)
+                .containsExactly(1);
+    }
+
+    private Job<?, ?> createJob(final Path folder) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn("job");
+        when(job.getRootDir()).thenReturn(folder.toFile());
+        return job;
+    }
+
+    private Run<?, ?> createRun(final Job<?, ?> job, final int number) {
+        Run<?, ?> run = mock(Run.class);
+        when(run.getNumber()).thenReturn(number);
+        when(run.getTimeInMillis()).thenReturn(number * 1_000_000L);
+        when(run.getParent()).thenAnswer(i -> job);
+
+        var action = mock(ForensicsBuildAction.class);
+        when(action.getScmKey()).thenReturn(SCM_KEY);
+        when(action.getNumberOfFiles()).thenReturn(number * 10);
+        when(action.getTotalLinesOfCode()).thenReturn(number * 100);
+        when(action.getTotalChurn()).thenReturn(number * 1000);
+        when(action.getCommitStatistics()).thenReturn(new CommitStatistics(number, 0, 1, 1, 1));
+        List<ForensicsBuildAction> actions = Collections.singletonList(action);
+        when(run.getActions(ForensicsBuildAction.class)).thenReturn(actions);
+        return run;
+    }
+}